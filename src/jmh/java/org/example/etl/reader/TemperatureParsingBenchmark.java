@@ -0,0 +1,131 @@
+package org.example.etl.reader;
+
+import org.example.etl.config.BatchConfiguration;
+import org.example.etl.model.TemperatureColumns;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.writer.TemperatureParameterSourceProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.infrastructure.item.file.LineMapper;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the per-line hot paths of the import: mapping a CSV line to a {@link TemperatureData} record with the
+ * tokenizer of the flat reader and with the byte parser of the mapped reader, parsing it into a columnar block, the
+ * datetime and temperature parsing on their own, and building the SQL parameters of the insert writer.
+ * <p>
+ * Every invocation processes the next line of a pre-generated set, so the station name cache sees a realistic mix
+ * of recurring names.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemperatureParsingBenchmark {
+
+    private static final int LINES = 4096;
+    private static final int STATIONS = 200;
+
+    private String[] lines;
+    private String[] datetimes;
+    private String[] temps;
+    private ByteBuffer buffer;
+    private int[] lineStarts;
+    private TemperatureData[] records;
+
+    private LineMapper<TemperatureData> lineMapper;
+    private TemperatureRecordParser parser;
+    private TemperatureParameterSourceProvider parameterSourceProvider;
+    private TemperatureColumns columns;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        lines = new String[LINES];
+        datetimes = new String[LINES];
+        temps = new String[LINES];
+        records = new TemperatureData[LINES];
+        lineStarts = new int[LINES + 1];
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            datetimes[i] = start.plusMinutes(i).format(TemperatureFieldSetMapper.DATETIME_FORMAT);
+            temps[i] = String.format(Locale.ROOT, "%.1f", random.nextGaussian() * 10 + 15);
+            lines[i] = "Location-" + random.nextInt(STATIONS) + "," + datetimes[i] + "," + temps[i] + ",45.2,1013";
+            lineStarts[i] = content.length();
+            content.append(lines[i]);
+            content.append('\n');
+        }
+        lineStarts[LINES] = content.length();
+        buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.US_ASCII));
+
+        lineMapper = BatchConfiguration.temperatureLineMapper();
+        parser = new TemperatureRecordParser();
+        parameterSourceProvider = new TemperatureParameterSourceProvider();
+        columns = new TemperatureColumns(LINES);
+        for (int i = 0; i < LINES; i++) {
+            records[i] = parser.parse(buffer, lineStarts[i], lineStarts[i + 1] - 1);
+        }
+    }
+
+    @Benchmark
+    public TemperatureData mapLineWithTokenizer() throws Exception {
+        int i = nextIndex();
+        return lineMapper.mapLine(lines[i], i);
+    }
+
+    @Benchmark
+    public TemperatureData parseLineFromBytes() {
+        int i = nextIndex();
+        return parser.parse(buffer, lineStarts[i], lineStarts[i + 1] - 1);
+    }
+
+    @Benchmark
+    public int parseLineIntoColumns() {
+        int i = nextIndex();
+        if (i == 0) {
+            columns.clear();
+        }
+        parser.parseInto(buffer, lineStarts[i], lineStarts[i + 1] - 1, columns);
+        return columns.size();
+    }
+
+    @Benchmark
+    public LocalDateTime parseDatetime() {
+        return LocalDateTime.parse(datetimes[nextIndex()], TemperatureFieldSetMapper.DATETIME_FORMAT);
+    }
+
+    @Benchmark
+    public double parseTemp() {
+        return Double.parseDouble(temps[nextIndex()]);
+    }
+
+    @Benchmark
+    public SqlParameterSource buildParameterSource() {
+        return parameterSourceProvider.createSqlParameterSource(records[nextIndex()]);
+    }
+
+    private int nextIndex() {
+        int i = next;
+        next = (i + 1) & (LINES - 1);
+        return i;
+    }
+}
@@ -0,0 +1,206 @@
+package org.example.etl.writer;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.etl.listener.DuplicateReport;
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
+import org.example.etl.model.TemperatureData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ItemWriter;
+import org.springframework.batch.infrastructure.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.infrastructure.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.mysql.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks writing one chunk with each write mode at different chunk sizes and duplicate ratios.
+ * <p>
+ * The writers use MySQL-specific SQL, so the benchmark runs against a MySQL Testcontainer that is started once per
+ * fork and reloaded with {@value #EXISTING_ROWS} rows before every iteration. Each invocation writes a chunk in
+ * which {@code duplicateRatio} of the rows already exist, in its own transaction:
+ * <ul>
+ *     <li>{@code insert}: the plain batch insert; a duplicate rolls the chunk back and writes it again one item per
+ *     transaction, as the fault-tolerant step does when it scans a failed chunk</li>
+ *     <li>{@code ignore} and {@code update}: {@link UpsertTemperatureWriter}</li>
+ *     <li>{@code bulk}: {@link BulkLoadTemperatureWriter} followed by the merge and cleanup statements of
+ *     {@link BulkMergeTasklet}. The import merges once per job, so this includes a merge per chunk that a real
+ *     import only pays once.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteStrategyBenchmark {
+
+    private static final int EXISTING_ROWS = 50_000;
+    private static final int STATIONS = 100;
+    private static final int PRELOAD_BATCH = 1000;
+    private static final long JOB_INSTANCE_ID = 1;
+    private static final LocalDateTime EXISTING_START = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final LocalDateTime NEW_START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"insert", "ignore", "update", "bulk"})
+    public String writeMode;
+
+    @Param({"100", "1000", "5000"})
+    public int chunkSize;
+
+    @Param({"0.0", "0.01", "0.2"})
+    public double duplicateRatio;
+
+    private MySQLContainer mysql;
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ItemWriter<TemperatureData> writer;
+    private JdbcBatchItemWriter<TemperatureData> insertWriter;
+    private final Random random = new Random(42);
+    private long newRows;
+    private Chunk<TemperatureData> chunk;
+
+    @Setup(Level.Trial)
+    public void startDatabase() {
+        mysql = new MySQLContainer(DockerImageName.parse("mysql:8.0"))
+                .withDatabaseName("etl_benchmark")
+                .withUrlParam("allowLoadLocalInfile", "true")
+                .withUrlParam("useAffectedRows", "true")
+                .withCommand("--local-infile=1");
+        mysql.start();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(mysql.getJdbcUrl());
+        dataSource.setUsername(mysql.getUsername());
+        dataSource.setPassword(mysql.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        insertWriter = new JdbcBatchItemWriterBuilder<TemperatureData>()
+                .sql("INSERT INTO temperature_data (name, datetime, temp) VALUES (:name, :datetime, :temp)")
+                .dataSource(dataSource)
+                .itemSqlParameterSourceProvider(new TemperatureParameterSourceProvider())
+                .build();
+        DuplicateSkipListener duplicateListener =
+                new DuplicateSkipListener(new SimpleMeterRegistry(), new DuplicateReport(5, 10, ""));
+        ImportCounters importCounters = new ImportCounters();
+        writer = switch (writeMode) {
+            case "insert" -> this::insertWithScan;
+            case "ignore" -> inTransaction(
+                    new UpsertTemperatureWriter(jdbcTemplate, false, duplicateListener, importCounters));
+            case "update" -> inTransaction(
+                    new UpsertTemperatureWriter(jdbcTemplate, true, duplicateListener, importCounters));
+            case "bulk" -> inTransaction(
+                    bulkLoadAndMerge(new BulkLoadTemperatureWriter(jdbcTemplate, JOB_INSTANCE_ID)));
+            default -> throw new IllegalArgumentException("Unknown write mode: " + writeMode);
+        };
+    }
+
+    @Setup(Level.Iteration)
+    public void loadExistingRows() {
+        jdbcTemplate.execute("TRUNCATE TABLE temperature_data");
+        jdbcTemplate.execute("TRUNCATE TABLE temperature_data_staging");
+        for (int from = 0; from < EXISTING_ROWS; from += PRELOAD_BATCH) {
+            StringBuilder sql = new StringBuilder("INSERT INTO temperature_data (name, datetime, temp) VALUES ");
+            List<Object> args = new ArrayList<>();
+            for (int i = from; i < Math.min(from + PRELOAD_BATCH, EXISTING_ROWS); i++) {
+                TemperatureData row = existingRow(i);
+                sql.append(i == from ? "(?, ?, ?)" : ", (?, ?, ?)");
+                args.add(row.name());
+                args.add(row.datetime());
+                args.add(row.temp());
+            }
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        newRows = 0;
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareChunk() {
+        List<TemperatureData> items = new ArrayList<>(chunkSize);
+        for (int i = 0; i < chunkSize; i++) {
+            items.add(random.nextDouble() < duplicateRatio
+                    ? existingRow(random.nextInt(EXISTING_ROWS))
+                    : new TemperatureData("Location-" + (newRows % STATIONS), NEW_START.plusMinutes(newRows++), 21.5));
+        }
+        chunk = new Chunk<>(items);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopDatabase() {
+        dataSource.close();
+        mysql.stop();
+    }
+
+    @Benchmark
+    public void writeChunk() throws Exception {
+        writer.write(chunk);
+    }
+
+    private void insertWithScan(Chunk<? extends TemperatureData> items) throws Exception {
+        ItemWriter<TemperatureData> transactionalInsert = inTransaction(insertWriter);
+        try {
+            transactionalInsert.write(items);
+        } catch (DataIntegrityViolationException e) {
+            for (TemperatureData item : items) {
+                try {
+                    transactionalInsert.write(new Chunk<>(List.of(item)));
+                } catch (DataIntegrityViolationException duplicate) {
+                    // skipped, as the step's skip policy would
+                }
+            }
+        }
+    }
+
+    private ItemWriter<TemperatureData> inTransaction(ItemWriter<TemperatureData> delegate) {
+        return items -> transactionTemplate.executeWithoutResult(status -> {
+            try {
+                delegate.write(items);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private ItemWriter<TemperatureData> bulkLoadAndMerge(BulkLoadTemperatureWriter bulkWriter) {
+        return items -> {
+            bulkWriter.write(items);
+            jdbcTemplate.update(BulkMergeTasklet.MERGE_SQL, JOB_INSTANCE_ID);
+            jdbcTemplate.update(BulkMergeTasklet.CLEANUP_SQL, JOB_INSTANCE_ID);
+        };
+    }
+
+    private static TemperatureData existingRow(int i) {
+        return new TemperatureData("Location-" + (i % STATIONS), EXISTING_START.plusMinutes(i), 15.0);
+    }
+}
@@ -1,13 +1,19 @@
 package org.example.etl;
 
+import org.example.etl.cli.ImportCommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class EtlApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(EtlApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(EtlApplication.class, args);
+        if (context.getBeanNamesForType(ImportCommandLineRunner.class).length > 0) {
+            // command-line launch mode: exit with the status of the job
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
@@ -0,0 +1,127 @@
+package org.example.etl.cli;
+
+import org.example.etl.storage.SchemaInitializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.job.parameters.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line launch mode: runs one job with the job parameters given as arguments, then lets the application
+ * exit with a status code.
+ * <p>
+ * Enabled with {@code etl.cli.enabled=true}, which the {@code cli} profile sets. Arguments of the form
+ * {@code --name=value} or {@code name=value} become string job parameters, except options whose name contains a
+ * dot, such as {@code --etl.writer.mode=update}, which remain configuration properties. The job is
+ * {@code spring.batch.job.name}, by default {@code temperatureImportJob}. Before the job, the
+ * {@link SchemaInitializer} checks for the tables with one query, so that a run does not execute the schema
+ * scripts.
+ * <p>
+ * Exit codes: {@value #EXIT_COMPLETED} if the job completed, {@value #EXIT_FAILED} if it failed or could not be
+ * started, {@value #EXIT_USAGE} for an unknown job or a malformed argument, and {@value #EXIT_ALREADY_COMPLETE}
+ * if a job instance with the same parameters has completed before.
+ */
+@Component
+@ConditionalOnProperty(name = "etl.cli.enabled", havingValue = "true")
+public class ImportCommandLineRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportCommandLineRunner.class);
+
+    public static final int EXIT_COMPLETED = 0;
+    public static final int EXIT_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_ALREADY_COMPLETE = 3;
+
+    private final JobLauncher jobLauncher;
+    private final Map<String, Job> jobs;
+    private final SchemaInitializer schemaInitializer;
+    private final String jobName;
+    private int exitCode = EXIT_FAILED;
+
+    /**
+     * @param jobs    the jobs of the application by bean name
+     * @param jobName the name of the job to run
+     */
+    public ImportCommandLineRunner(JobLauncher jobLauncher,
+                                   Map<String, Job> jobs,
+                                   SchemaInitializer schemaInitializer,
+                                   @Value("${spring.batch.job.name:temperatureImportJob}") String jobName) {
+        this.jobLauncher = jobLauncher;
+        this.jobs = jobs;
+        this.schemaInitializer = schemaInitializer;
+        this.jobName = jobName;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Job job = jobs.get(jobName);
+        if (job == null) {
+            logger.error("Unknown job {}; available jobs are {}", jobName, jobs.keySet());
+            exitCode = EXIT_USAGE;
+            return;
+        }
+        JobParameters params;
+        try {
+            params = jobParameters(args);
+        } catch (IllegalArgumentException e) {
+            logger.error(e.getMessage());
+            exitCode = EXIT_USAGE;
+            return;
+        }
+
+        schemaInitializer.initialize();
+        try {
+            JobExecution execution = jobLauncher.run(job, params);
+            exitCode = execution.getStatus() == BatchStatus.COMPLETED ? EXIT_COMPLETED : EXIT_FAILED;
+        } catch (JobInstanceAlreadyCompleteException e) {
+            logger.warn("{} has already completed with {}; add a distinct parameter to run it again", jobName,
+                    params);
+            exitCode = EXIT_ALREADY_COMPLETE;
+        } catch (Exception e) {
+            logger.error("Failed to run {} with {}", jobName, params, e);
+            exitCode = EXIT_FAILED;
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * Converts the arguments to job parameters.
+     *
+     * @throws IllegalArgumentException if an argument is neither an option nor of the form {@code name=value}
+     */
+    static JobParameters jobParameters(ApplicationArguments args) {
+        JobParametersBuilder builder = new JobParametersBuilder();
+        for (String name : args.getOptionNames()) {
+            List<String> values = args.getOptionValues(name);
+            if (!name.contains(".") && values != null && !values.isEmpty()) {
+                builder.addString(name, values.getLast());
+            }
+        }
+        for (String arg : args.getNonOptionArgs()) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Job parameters must have the form name=value: " + arg);
+            }
+            builder.addString(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return builder.toJobParameters();
+    }
+}
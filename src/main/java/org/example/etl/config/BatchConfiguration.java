@@ -1,28 +1,77 @@
 package org.example.etl.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.etl.distributed.SegmentLeaseListener;
+import org.example.etl.flow.BulkLoadDecider;
+import org.example.etl.flow.ImportModeDecider;
+import org.example.etl.incremental.FileOffsetStore;
+import org.example.etl.incremental.IncrementalItemReader;
 import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
 import org.example.etl.listener.ImportJobListener;
+import org.example.etl.metrics.ImportMetricsListener;
 import org.example.etl.model.TemperatureData;
+import org.example.etl.policy.AdaptiveChunkCompletionPolicy;
+import org.example.etl.processor.DuplicateFilterProcessor;
+import org.example.etl.reader.ByteRangeItemReader;
+import org.example.etl.reader.CompressedInputStreams;
+import org.example.etl.reader.MappedTemperatureItemReader;
+import org.example.etl.reader.OffsetItemReader;
+import org.example.etl.reader.PipelinedItemReader;
+import org.example.etl.reader.StreamingTemperatureItemReader;
+import org.example.etl.reader.TemperatureFieldSetMapper;
+import org.example.etl.rollup.RollupItemWriter;
+import org.example.etl.rollup.RollupStore;
+import org.example.etl.sharding.ShardRouter;
+import org.example.etl.sort.ExternalSortTasklet;
+import org.example.etl.sort.SortedFileCleanupListener;
+import org.example.etl.station.StationCache;
+import org.example.etl.storage.PartitionMaintenanceListener;
+import org.example.etl.storage.StagingCleanupListener;
+import org.example.etl.storage.TemperaturePartitionManager;
+import org.example.etl.writer.BulkLoadTemperatureWriter;
+import org.example.etl.writer.BulkMergeTasklet;
+import org.example.etl.writer.NormalizedTemperatureWriter;
+import org.example.etl.writer.PartitionGroupingItemWriter;
+import org.example.etl.writer.ShardedTemperatureWriter;
+import org.example.etl.writer.TemperatureParameterSourceProvider;
+import org.example.etl.writer.UpsertTemperatureWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.builder.FlowBuilder;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.flow.Flow;
+import org.springframework.batch.core.listener.ChunkListener;
+import org.springframework.batch.core.listener.ItemReadListener;
+import org.springframework.batch.core.listener.ItemWriteListener;
+import org.springframework.batch.core.listener.StepExecutionListener;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.Step;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.infrastructure.item.ItemProcessor;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+import org.springframework.batch.infrastructure.item.ItemWriter;
 import org.springframework.batch.infrastructure.item.database.JdbcBatchItemWriter;
 import org.springframework.batch.infrastructure.item.database.builder.JdbcBatchItemWriterBuilder;
-import org.springframework.batch.infrastructure.item.file.FlatFileItemReader;
+import org.springframework.batch.infrastructure.item.file.LineMapper;
 import org.springframework.batch.infrastructure.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.infrastructure.item.file.mapping.DefaultLineMapper;
+import org.springframework.batch.infrastructure.item.file.transform.DelimitedLineTokenizer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Spring Batch configuration for temperature data import job.
@@ -30,13 +79,67 @@ import java.time.format.DateTimeFormatter;
 @Configuration
 public class BatchConfiguration {
 
-    private static final int CHUNK_SIZE = 100;
-    private static final int SKIP_LIMIT = 10000;
+    private static final Logger logger = LoggerFactory.getLogger(BatchConfiguration.class);
+
+    static final int CHUNK_SIZE = 100;
+    static final int SKIP_LIMIT = 10000;
+    static final String MAPPED_READER = "mapped";
+    static final String WRITE_MODE_INSERT = "insert";
+    static final String WRITE_MODE_IGNORE = "ignore";
+    static final String WRITE_MODE_UPDATE = "update";
+    static final String WRITE_MODE_NORMALIZED = "normalized";
 
     @Bean
     @StepScope
-    public FlatFileItemReader<TemperatureData> temperatureReader(
-            @Value("#{jobParameters['inputFile'] ?: '${etl.input.file}'}") Resource inputFile) {
+    public ItemStreamReader<TemperatureData> temperatureReader(
+            @Value("#{stepExecutionContext['inputFile'] ?: jobExecutionContext['" + ExternalSortTasklet.SORTED_FILE_KEY
+                    + "'] ?: jobParameters['inputFile'] ?: '${etl.input.file}'}")
+            Resource inputFile,
+            @Value("${etl.reader.type:mapped}") String readerType,
+            @Value("#{jobParameters['pipelined'] ?: '${etl.pipeline.enabled:false}'}") boolean pipelined,
+            @Value("${etl.pipeline.queue-size:10000}") int queueSize,
+            @Value("${etl.pipeline.virtual-threads:true}") boolean virtualThreads,
+            @Value("${etl.reader.decompression-threads:0}") int decompressionThreads,
+            @Value("#{jobParameters['incremental'] ?: '${etl.incremental.enabled:false}'}") boolean incremental,
+            FileOffsetStore offsetStore) throws IOException {
+        boolean compressed = CompressedInputStreams.isCompressed(inputFile.getFilename());
+        boolean incrementalFile = incremental && !compressed && inputFile.isFile();
+        if (incremental && !incrementalFile) {
+            logger.warn("Incremental import needs an uncompressed file; importing all of {}", inputFile.getDescription());
+        }
+
+        OffsetItemReader<TemperatureData> reader = null;
+        if (compressed) {
+            reader = new StreamingTemperatureItemReader("temperatureReader", inputFile,
+                    decompressionThreads(decompressionThreads));
+        } else if (incrementalFile) {
+            Path file = inputFile.getFile().toPath();
+            long start = offsetStore.resumeOffset(file);
+            // a line without newline may be half-written; it is read by the run after its completion
+            long end = Math.max(start, FileOffsetStore.completeLinesEnd(file));
+            reader = new MappedTemperatureItemReader("temperatureReader", inputFile, start, end, start == 0);
+        } else if (MAPPED_READER.equals(readerType) && inputFile.isFile()) {
+            reader = new MappedTemperatureItemReader("temperatureReader", inputFile);
+        } else if (inputFile.isFile()) {
+            // byte offsets let a restart seek to the last commit instead of re-reading the file up to it
+            reader = new ByteRangeItemReader<>("temperatureReader", inputFile, temperatureLineMapper());
+        }
+        if (reader != null) {
+            if (pipelined) {
+                ThreadFactory threadFactory = virtualThreads
+                        ? Thread.ofVirtual().name("import-pipeline-", 0).factory()
+                        : Thread.ofPlatform().name("import-pipeline-", 0).daemon().factory();
+                reader = new PipelinedItemReader<>(reader, queueSize, threadFactory);
+            }
+            if (incrementalFile) {
+                reader = new IncrementalItemReader<>(reader, offsetStore, inputFile.getFile().toPath());
+            }
+            return reader;
+        }
+        if (pipelined) {
+            logger.warn("Pipelined import needs an input file on the file system; reading {} without pipeline",
+                    inputFile.getDescription());
+        }
         return new FlatFileItemReaderBuilder<TemperatureData>()
                 .name("temperatureReader")
                 .resource(inputFile)
@@ -44,54 +147,195 @@ public class BatchConfiguration {
                 .delimited()
                 .includedFields(0, 1, 2) // Only use first 3 columns: name, datetime, temp
                 .names("name", "datetime", "temp")
-                .fieldSetMapper(fieldSet -> new TemperatureData(
-                        fieldSet.readString("name"),
-                        LocalDateTime.parse(fieldSet.readString("datetime"), 
-                                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-                        fieldSet.readDouble("temp")
-                ))
+                .fieldSetMapper(new TemperatureFieldSetMapper())
                 .build();
     }
 
+    /**
+     * Returns a line mapper for the first three columns of a temperature CSV line.
+     */
+    public static LineMapper<TemperatureData> temperatureLineMapper() {
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+        tokenizer.setIncludedFields(0, 1, 2); // Only use first 3 columns: name, datetime, temp
+        tokenizer.setNames("name", "datetime", "temp");
+
+        DefaultLineMapper<TemperatureData> lineMapper = new DefaultLineMapper<>();
+        lineMapper.setLineTokenizer(tokenizer);
+        lineMapper.setFieldSetMapper(new TemperatureFieldSetMapper());
+        return lineMapper;
+    }
+
+    /**
+     * Returns the number of threads decompressing BGZF blocks, where 0 means one per available processor.
+     */
+    static int decompressionThreads(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
     @Bean
     public JdbcBatchItemWriter<TemperatureData> temperatureWriter(DataSource dataSource) {
         return new JdbcBatchItemWriterBuilder<TemperatureData>()
                 .sql("INSERT INTO temperature_data (name, datetime, temp) VALUES (:name, :datetime, :temp)")
                 .dataSource(dataSource)
-                .itemSqlParameterSourceProvider(item -> {
-                    var params = new org.springframework.jdbc.core.namedparam.MapSqlParameterSource();
-                    params.addValue("name", item.name());
-                    params.addValue("datetime", item.datetime());
-                    params.addValue("temp", item.temp());
-                    return params;
-                })
+                .itemSqlParameterSourceProvider(new TemperatureParameterSourceProvider())
                 .build();
     }
 
+    @Bean
+    @StepScope
+    public ItemWriter<TemperatureData> importWriter(
+            @Value("#{jobParameters['writeMode'] ?: '${etl.writer.mode:insert}'}") String writeMode,
+            // segments of a distributed import stage their rows under the job instance of the coordinator
+            @Value("#{jobParameters['" + SegmentLeaseListener.JOB_INSTANCE_KEY + "'] "
+                    + "?: stepExecution.jobExecution.jobInstance.id}") long jobInstanceId,
+            @Value("${etl.rollup.enabled:false}") boolean rollupEnabled,
+            JdbcBatchItemWriter<TemperatureData> temperatureWriter,
+            JdbcTemplate jdbcTemplate,
+            DuplicateSkipListener skipListener,
+            ImportCounters importCounters,
+            RollupStore rollupStore,
+            StationCache stationCache,
+            TemperaturePartitionManager partitionManager,
+            ShardRouter shardRouter) {
+        RollupStore rollups = rollupEnabled ? rollupStore : null;
+        if (shardRouter.isEnabled()) {
+            return switch (writeMode) {
+                case WRITE_MODE_INSERT, WRITE_MODE_IGNORE -> new ShardedTemperatureWriter(shardRouter, false,
+                        skipListener, importCounters, rollupEnabled);
+                case WRITE_MODE_UPDATE -> new ShardedTemperatureWriter(shardRouter, true,
+                        skipListener, importCounters, rollupEnabled);
+                default -> throw new IllegalArgumentException("Write mode " + writeMode + " cannot write to shards");
+            };
+        }
+        ItemWriter<TemperatureData> writer = switch (writeMode) {
+            case WRITE_MODE_INSERT ->
+                    rollups == null ? temperatureWriter : new RollupItemWriter(temperatureWriter, rollups);
+            case WRITE_MODE_IGNORE ->
+                    new UpsertTemperatureWriter(jdbcTemplate, false, skipListener, importCounters, rollups);
+            case WRITE_MODE_UPDATE ->
+                    new UpsertTemperatureWriter(jdbcTemplate, true, skipListener, importCounters, rollups);
+            case WRITE_MODE_NORMALIZED ->
+                    new NormalizedTemperatureWriter(jdbcTemplate, stationCache, skipListener, importCounters, rollups);
+            case BulkLoadDecider.WRITE_MODE_BULK -> new BulkLoadTemperatureWriter(jdbcTemplate, jobInstanceId);
+            default -> throw new IllegalArgumentException("Unknown write mode: " + writeMode);
+        };
+        // bulk mode writes to the staging table, normalized mode to temperature_reading
+        boolean partitionedTable = partitionManager.isEnabled()
+                && !WRITE_MODE_NORMALIZED.equals(writeMode) && !BulkLoadDecider.WRITE_MODE_BULK.equals(writeMode);
+        return partitionedTable ? new PartitionGroupingItemWriter(writer, partitionManager.getGranularity()) : writer;
+    }
+
+    @Bean
+    @StepScope
+    public ItemProcessor<TemperatureData, TemperatureData> importProcessor(
+            @Value("#{jobParameters['dedup'] ?: '${etl.dedup.enabled:false}'}") boolean dedup,
+            @Value("#{jobParameters['writeMode'] ?: '${etl.writer.mode:insert}'}") String writeMode,
+            JdbcTemplate jdbcTemplate,
+            DuplicateSkipListener skipListener) {
+        if (!dedup) {
+            return item -> item;
+        }
+        return new DuplicateFilterProcessor(jdbcTemplate, skipListener, WRITE_MODE_NORMALIZED.equals(writeMode));
+    }
+
+    @Bean
+    @StepScope
+    public AdaptiveChunkCompletionPolicy importCompletionPolicy(
+            @Value("${etl.chunk.min-size:10}") int minSize,
+            @Value("${etl.chunk.max-size:5000}") int maxSize,
+            @Value("${etl.chunk.target-latency:500ms}") Duration targetLatency) {
+        return new AdaptiveChunkCompletionPolicy(CHUNK_SIZE, minSize, maxSize, targetLatency);
+    }
+
+    @Bean
+    @StepScope
+    public ImportMetricsListener importMetricsListener(MeterRegistry meterRegistry, ImportCounters importCounters) {
+        return new ImportMetricsListener(meterRegistry, importCounters);
+    }
+
     @Bean
     public Step importStep(JobRepository jobRepository,
                            PlatformTransactionManager transactionManager,
-                           FlatFileItemReader<TemperatureData> reader,
-                           JdbcBatchItemWriter<TemperatureData> writer,
+                           ItemStreamReader<TemperatureData> temperatureReader,
+                           ItemProcessor<TemperatureData, TemperatureData> importProcessor,
+                           ItemWriter<TemperatureData> importWriter,
+                           AdaptiveChunkCompletionPolicy importCompletionPolicy,
+                           ImportMetricsListener importMetricsListener,
                            DuplicateSkipListener skipListener) {
         return new StepBuilder("importStep", jobRepository)
-                .<TemperatureData, TemperatureData>chunk(CHUNK_SIZE, transactionManager)
-                .reader(reader)
-                .writer(writer)
+                .<TemperatureData, TemperatureData>chunk(importCompletionPolicy, transactionManager)
+                .reader(temperatureReader)
+                .processor(importProcessor)
+                .writer(importWriter)
                 .faultTolerant()
+                .processorNonTransactional() // keys added to the duplicate filter must not be re-processed
                 .skip(DataIntegrityViolationException.class)
                 .skipLimit(SKIP_LIMIT)
                 .listener(skipListener)
+                .listener((ChunkListener) importCompletionPolicy)
+                .listener((ItemWriteListener<Object>) importCompletionPolicy)
+                .listener((ChunkListener) importMetricsListener)
+                .listener((ItemReadListener<Object>) importMetricsListener)
+                .listener((ItemWriteListener<Object>) importMetricsListener)
+                .listener((StepExecutionListener) importMetricsListener)
+                .build();
+    }
+
+    @Bean
+    public Step bulkMergeStep(JobRepository jobRepository,
+                              PlatformTransactionManager transactionManager,
+                              JdbcTemplate jdbcTemplate,
+                              DuplicateSkipListener skipListener,
+                              ImportCounters importCounters,
+                              RollupStore rollupStore,
+                              @Value("${etl.rollup.enabled:false}") boolean rollupEnabled) {
+        BulkMergeTasklet tasklet = new BulkMergeTasklet(jdbcTemplate, skipListener, importCounters,
+                rollupEnabled ? rollupStore : null);
+        return new StepBuilder("bulkMergeStep", jobRepository)
+                .tasklet(tasklet, transactionManager)
                 .build();
     }
 
     @Bean
     public Job temperatureImportJob(JobRepository jobRepository,
                                     Step importStep,
-                                    ImportJobListener jobListener) {
+                                    Step partitionedImportStep,
+                                    Step multiFileImportStep,
+                                    Step columnarImportStep,
+                                    Step segmentCoordinatorStep,
+                                    Step sortStep,
+                                    Step bulkMergeStep,
+                                    ImportModeDecider importModeDecider,
+                                    BulkLoadDecider bulkLoadDecider,
+                                    ImportJobListener jobListener,
+                                    PartitionMaintenanceListener partitionMaintenanceListener,
+                                    SortedFileCleanupListener sortedFileCleanupListener,
+                                    StagingCleanupListener stagingCleanupListener) {
+        Flow importFlow = new FlowBuilder<Flow>("importFlow")
+                .start(importModeDecider)
+                    .on(ImportModeDecider.PARTITIONED).to(partitionedImportStep)
+                .from(importModeDecider)
+                    .on(ImportModeDecider.FILES).to(multiFileImportStep)
+                .from(importModeDecider)
+                    .on(ImportModeDecider.COLUMNAR).to(columnarImportStep)
+                .from(importModeDecider)
+                    .on(ImportModeDecider.DISTRIBUTED).to(segmentCoordinatorStep)
+                .from(importModeDecider)
+                    .on(ImportModeDecider.SORTED).to(sortStep).next(importStep)
+                .from(importModeDecider)
+                    .on("*").to(importStep)
+                .build();
         return new JobBuilder("temperatureImportJob", jobRepository)
                 .listener(jobListener)
-                .start(importStep)
+                .listener(partitionMaintenanceListener)
+                .listener(sortedFileCleanupListener)
+                .listener(stagingCleanupListener)
+                .start(importFlow)
+                .next(bulkLoadDecider)
+                    .on(BulkLoadDecider.BULK).to(bulkMergeStep)
+                .from(bulkLoadDecider)
+                    .on("*").end()
+                .end()
                 .build();
     }
 }
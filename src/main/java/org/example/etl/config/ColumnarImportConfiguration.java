@@ -0,0 +1,91 @@
+package org.example.etl.config;
+
+import org.example.etl.flow.BulkLoadDecider;
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
+import org.example.etl.metrics.ImportMetricsListener;
+import org.example.etl.reader.CompressedInputStreams;
+import org.example.etl.reader.MappedTemperatureItemReader;
+import org.example.etl.rollup.RollupStore;
+import org.example.etl.sharding.ShardRouter;
+import org.example.etl.writer.ColumnarImportTasklet;
+import org.example.etl.writer.ColumnarTemperatureWriter;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.listener.ChunkListener;
+import org.springframework.batch.core.listener.StepExecutionListener;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Spring Batch configuration for importing a single file through columnar blocks instead of one record per row.
+ * <p>
+ * {@code columnarImportStep} reads and writes {@link org.example.etl.model.TemperatureColumns} blocks of primitive
+ * arrays, which avoids the per-row records and parameter maps of the chunk-oriented step. It supports uncompressed
+ * files on the file system and the {@code ignore} and {@code update} write modes; duplicates are always resolved in
+ * the database, so {@link org.example.etl.flow.ImportModeDecider} rejects the {@code insert} write mode and
+ * incremental runs before the step starts.
+ */
+@Configuration
+public class ColumnarImportConfiguration {
+
+    @Bean
+    @StepScope
+    public MappedTemperatureItemReader columnarTemperatureReader(
+            @Value("#{jobParameters['inputFile'] ?: '${etl.input.file}'}") Resource inputFile) {
+        if (CompressedInputStreams.isCompressed(inputFile.getFilename()) || !inputFile.isFile()) {
+            throw new IllegalArgumentException("Columnar import needs an uncompressed file on the file system: "
+                    + inputFile.getDescription());
+        }
+        return new MappedTemperatureItemReader("temperatureReader", inputFile);
+    }
+
+    @Bean
+    @StepScope
+    public ColumnarImportTasklet columnarImportTasklet(
+            @Value("#{jobParameters['writeMode'] ?: '${etl.writer.mode:insert}'}") String writeMode,
+            @Value("${etl.columnar.block-size:5000}") int blockSize,
+            @Value("${etl.rollup.enabled:false}") boolean rollupEnabled,
+            MappedTemperatureItemReader columnarTemperatureReader,
+            JdbcTemplate jdbcTemplate,
+            DuplicateSkipListener skipListener,
+            ImportCounters importCounters,
+            RollupStore rollupStore,
+            ShardRouter shardRouter) {
+        if (shardRouter.isEnabled()) {
+            throw new IllegalArgumentException("Columnar import cannot write to shards");
+        }
+        boolean updateExisting = switch (writeMode) {
+            case BatchConfiguration.WRITE_MODE_IGNORE -> false;
+            case BatchConfiguration.WRITE_MODE_UPDATE -> true;
+            case BatchConfiguration.WRITE_MODE_INSERT, BulkLoadDecider.WRITE_MODE_BULK,
+                 BatchConfiguration.WRITE_MODE_NORMALIZED ->
+                    throw new IllegalArgumentException("Columnar import does not support the " + writeMode
+                            + " write mode");
+            default -> throw new IllegalArgumentException("Unknown write mode: " + writeMode);
+        };
+        ColumnarTemperatureWriter writer = new ColumnarTemperatureWriter(jdbcTemplate, updateExisting, skipListener,
+                importCounters, rollupEnabled ? rollupStore : null);
+        return new ColumnarImportTasklet(columnarTemperatureReader, writer, blockSize);
+    }
+
+    @Bean
+    public Step columnarImportStep(JobRepository jobRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   ColumnarImportTasklet columnarImportTasklet,
+                                   MappedTemperatureItemReader columnarTemperatureReader,
+                                   ImportMetricsListener importMetricsListener) {
+        return new StepBuilder("columnarImportStep", jobRepository)
+                .tasklet(columnarImportTasklet, transactionManager)
+                .stream(columnarTemperatureReader)
+                .listener((ChunkListener) importMetricsListener)
+                .listener((StepExecutionListener) importMetricsListener)
+                .build();
+    }
+}
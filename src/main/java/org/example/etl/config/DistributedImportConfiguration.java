@@ -0,0 +1,138 @@
+package org.example.etl.config;
+
+import org.example.etl.distributed.SegmentCoordinatorTasklet;
+import org.example.etl.distributed.SegmentLeaseListener;
+import org.example.etl.distributed.SegmentQueue;
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportJobListener;
+import org.example.etl.metrics.ImportMetricsListener;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.partition.FileRangePartitioner;
+import org.example.etl.policy.AdaptiveChunkCompletionPolicy;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.listener.ChunkListener;
+import org.springframework.batch.core.listener.ItemReadListener;
+import org.springframework.batch.core.listener.ItemWriteListener;
+import org.springframework.batch.core.listener.StepExecutionListener;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.infrastructure.item.ItemProcessor;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+import org.springframework.batch.infrastructure.item.ItemWriter;
+import org.springframework.batch.infrastructure.support.transaction.ResourcelessTransactionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+/**
+ * Spring Batch configuration for importing one file with several worker processes, possibly on other hosts.
+ * <p>
+ * A run of the temperature import job with the {@code distributed} job parameter executes
+ * {@code segmentCoordinatorStep}, which splits the file into byte ranges like the partitioned import, but hands them
+ * to worker processes through the {@link SegmentQueue} table instead of to local threads. Each worker imports a
+ * segment with a run of {@code segmentImportJob}, whose step reads the segment's range from the job parameters.
+ * The input file must be reachable under the same location from every worker.
+ * <p>
+ * Segment runs inherit the job parameters of the coordinator, so they use its write mode and duplicate filter. In
+ * the {@code bulk} write mode the workers stage their rows under the coordinator's job instance and the coordinator
+ * merges them once every segment is imported; rows staged by a failed attempt of a segment are merged as duplicates
+ * of the rows of its successful attempt.
+ */
+@Configuration
+public class DistributedImportConfiguration {
+
+    @Bean
+    @StepScope
+    public SegmentCoordinatorTasklet segmentCoordinatorTasklet(
+            @Value("#{jobParameters['inputFile'] ?: '${etl.input.file}'}") String inputFile,
+            @Value("${etl.distributed.segments:16}") int segments,
+            @Value("${etl.distributed.poll-interval:PT5S}") Duration pollInterval,
+            FileRangePartitioner importPartitioner,
+            SegmentQueue segmentQueue) {
+        return new SegmentCoordinatorTasklet(segmentQueue, importPartitioner, inputFile, segments, pollInterval);
+    }
+
+    @Bean
+    public Step segmentCoordinatorStep(JobRepository jobRepository,
+                                       SegmentCoordinatorTasklet segmentCoordinatorTasklet) {
+        // the tasklet sleeps between its polls and writes only through the queue's own transactions
+        return new StepBuilder("segmentCoordinatorStep", jobRepository)
+                .tasklet(segmentCoordinatorTasklet, new ResourcelessTransactionManager())
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public ItemStreamReader<TemperatureData> segmentTemperatureReader(
+            @Value("#{jobParameters['inputFile']}") Resource inputFile,
+            @Value("#{jobParameters['" + SegmentLeaseListener.START_KEY + "']}") long start,
+            @Value("#{jobParameters['" + SegmentLeaseListener.END_KEY + "']}") long end,
+            @Value("${etl.reader.type:mapped}") String readerType,
+            @Value("${etl.reader.decompression-threads:0}") int decompressionThreads) {
+        return PartitionedImportConfiguration.rangeReader("segmentTemperatureReader", inputFile, start, end,
+                readerType, decompressionThreads);
+    }
+
+    @Bean
+    @StepScope
+    public SegmentLeaseListener segmentLeaseListener(
+            @Value("#{jobParameters['inputFile']}") String inputFile,
+            @Value("#{jobParameters['" + SegmentLeaseListener.JOB_INSTANCE_KEY + "']}") long jobInstanceId,
+            @Value("#{jobParameters['" + SegmentLeaseListener.SEGMENT_KEY + "']}") long segmentId,
+            @Value("#{jobParameters['" + SegmentLeaseListener.START_KEY + "']}") long start,
+            @Value("#{jobParameters['" + SegmentLeaseListener.END_KEY + "']}") long end,
+            @Value("#{jobParameters['attempt']}") long attempt,
+            @Value("#{jobParameters['" + SegmentLeaseListener.WORKER_KEY + "']}") String worker,
+            @Value("${etl.distributed.lease:PT1M}") Duration lease,
+            SegmentQueue segmentQueue) {
+        SegmentQueue.Segment segment = new SegmentQueue.Segment(jobInstanceId, (int) segmentId, inputFile, start, end,
+                (int) attempt);
+        return new SegmentLeaseListener(segmentQueue, segment, worker, lease);
+    }
+
+    @Bean
+    public Step segmentImportStep(JobRepository jobRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  ItemStreamReader<TemperatureData> segmentTemperatureReader,
+                                  ItemProcessor<TemperatureData, TemperatureData> importProcessor,
+                                  ItemWriter<TemperatureData> importWriter,
+                                  AdaptiveChunkCompletionPolicy importCompletionPolicy,
+                                  ImportMetricsListener importMetricsListener,
+                                  SegmentLeaseListener segmentLeaseListener,
+                                  DuplicateSkipListener skipListener) {
+        return new StepBuilder("segmentImportStep", jobRepository)
+                .<TemperatureData, TemperatureData>chunk(importCompletionPolicy, transactionManager)
+                .reader(segmentTemperatureReader)
+                .processor(importProcessor)
+                .writer(importWriter)
+                .faultTolerant()
+                .processorNonTransactional()
+                .skip(DataIntegrityViolationException.class)
+                .skipLimit(BatchConfiguration.SKIP_LIMIT)
+                .listener(skipListener)
+                .listener((ChunkListener) segmentLeaseListener)
+                .listener((ChunkListener) importCompletionPolicy)
+                .listener((ItemWriteListener<Object>) importCompletionPolicy)
+                .listener((ChunkListener) importMetricsListener)
+                .listener((ItemReadListener<Object>) importMetricsListener)
+                .listener((ItemWriteListener<Object>) importMetricsListener)
+                .listener((StepExecutionListener) importMetricsListener)
+                .build();
+    }
+
+    @Bean
+    public Job segmentImportJob(JobRepository jobRepository, Step segmentImportStep, ImportJobListener jobListener) {
+        return new JobBuilder("segmentImportJob", jobRepository)
+                .listener(jobListener)
+                .start(segmentImportStep)
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.etl.config;
+
+import org.example.etl.export.ExportFilter;
+import org.example.etl.export.TemperatureCsvLineAggregator;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.partition.KeyRangePartitioner;
+import org.example.etl.partition.WorkerStatusAggregator;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.infrastructure.item.database.JdbcCursorItemReader;
+import org.springframework.batch.infrastructure.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.batch.infrastructure.item.file.FlatFileItemWriter;
+import org.springframework.batch.infrastructure.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spring Batch configuration of {@code temperatureExportJob}, which writes {@code temperature_data} back to CSV
+ * files that the import reads.
+ * <p>
+ * {@link KeyRangePartitioner} splits the ids of the selected rows into ranges, and every range is exported by its
+ * own worker step into {@code temperature_data-<part>.csv} of the output directory, so the directory can be
+ * imported again with the {@code inputFiles} job parameter. The workers stream their range in id order from a
+ * MySQL streaming result set ({@code fetchSize = Integer.MIN_VALUE}) on a connection of their own, so neither the
+ * driver nor the writer holds more than a chunk in memory, whatever the size of the table.
+ */
+@Configuration
+public class ExportConfiguration {
+
+    static final String EXPORT_SQL =
+            "SELECT name, datetime, temp FROM temperature_data WHERE id BETWEEN ? AND ?%s ORDER BY id";
+
+    @Bean
+    @StepScope
+    public KeyRangePartitioner exportPartitioner(
+            JdbcTemplate jdbcTemplate,
+            @Value("#{jobParameters['station'] ?: '${etl.export.station:}'}") String station,
+            @Value("#{jobParameters['from'] ?: '${etl.export.from:}'}") String from,
+            @Value("#{jobParameters['to'] ?: '${etl.export.to:}'}") String to,
+            @Value("${etl.export.min-size:100000}") long minPartitionSize) {
+        return new KeyRangePartitioner(jdbcTemplate, ExportFilter.of(station, from, to), minPartitionSize);
+    }
+
+    @Bean
+    @StepScope
+    public JdbcCursorItemReader<TemperatureData> exportReader(
+            DataSource dataSource,
+            @Value("#{jobParameters['station'] ?: '${etl.export.station:}'}") String station,
+            @Value("#{jobParameters['from'] ?: '${etl.export.from:}'}") String from,
+            @Value("#{jobParameters['to'] ?: '${etl.export.to:}'}") String to,
+            @Value("#{stepExecutionContext['" + KeyRangePartitioner.FIRST_KEY + "']}") long first,
+            @Value("#{stepExecutionContext['" + KeyRangePartitioner.LAST_KEY + "']}") long last) {
+        ExportFilter exportFilter = ExportFilter.of(station, from, to);
+        List<Object> arguments = new ArrayList<>();
+        arguments.add(first);
+        arguments.add(last);
+        arguments.addAll(exportFilter.arguments());
+        return new JdbcCursorItemReaderBuilder<TemperatureData>()
+                .name("exportReader")
+                .dataSource(dataSource)
+                .sql(EXPORT_SQL.formatted(exportFilter.conditions()))
+                .preparedStatementSetter(new ArgumentPreparedStatementSetter(arguments.toArray()))
+                .rowMapper((rs, rowNum) -> new TemperatureData(rs.getString(1),
+                        rs.getObject(2, LocalDateTime.class), rs.getDouble(3)))
+                // makes MySQL Connector/J stream the rows instead of buffering the whole result set
+                .fetchSize(Integer.MIN_VALUE)
+                .verifyCursorPosition(false)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public FlatFileItemWriter<TemperatureData> exportWriter(
+            @Value("#{jobParameters['outputDir'] ?: '${etl.export.dir:export}'}") String outputDir,
+            @Value("#{stepExecutionContext['" + KeyRangePartitioner.PART_KEY + "']}") int part) {
+        Path file = Path.of(outputDir).resolve("temperature_data-%03d.csv".formatted(part));
+        return new FlatFileItemWriterBuilder<TemperatureData>()
+                .name("exportWriter")
+                .resource(new FileSystemResource(file))
+                .headerCallback(writer -> writer.write(TemperatureCsvLineAggregator.HEADER))
+                .lineAggregator(new TemperatureCsvLineAggregator())
+                .build();
+    }
+
+    @Bean
+    public Step exportWorkerStep(JobRepository jobRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 JdbcCursorItemReader<TemperatureData> exportReader,
+                                 FlatFileItemWriter<TemperatureData> exportWriter,
+                                 @Value("${etl.export.chunk-size:10000}") int chunkSize) {
+        return new StepBuilder("exportWorkerStep", jobRepository)
+                .<TemperatureData, TemperatureData>chunk(chunkSize, transactionManager)
+                .reader(exportReader)
+                .writer(exportWriter)
+                .build();
+    }
+
+    @Bean
+    public Step exportStep(JobRepository jobRepository,
+                           KeyRangePartitioner exportPartitioner,
+                           Step exportWorkerStep,
+                           @Value("${etl.export.grid-size:4}") int gridSize,
+                           @Value("${etl.export.threads:4}") int threads) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("export-partition-");
+        taskExecutor.setConcurrencyLimit(threads);
+        return new StepBuilder("exportStep", jobRepository)
+                .partitioner("exportWorkerStep", exportPartitioner)
+                .step(exportWorkerStep)
+                .gridSize(gridSize)
+                .taskExecutor(taskExecutor)
+                .aggregator(new WorkerStatusAggregator())
+                .build();
+    }
+
+    @Bean
+    public Job temperatureExportJob(JobRepository jobRepository, Step exportStep) {
+        return new JobBuilder("temperatureExportJob", jobRepository)
+                .start(exportStep)
+                .build();
+    }
+}
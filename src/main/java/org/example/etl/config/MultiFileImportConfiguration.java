@@ -0,0 +1,48 @@
+package org.example.etl.config;
+
+import org.example.etl.partition.InputFilesPartitioner;
+import org.example.etl.partition.WorkerStatusAggregator;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Spring Batch configuration for importing all files of a directory or glob pattern in one job run.
+ * <p>
+ * {@link InputFilesPartitioner} creates one partition per file, and every file is imported by its own execution of
+ * {@code importStep}, which reads the file named in its step execution context. Each file therefore keeps its own
+ * restart state and counts; at most {@code etl.files.concurrency} files are imported at the same time.
+ */
+@Configuration
+public class MultiFileImportConfiguration {
+
+    @Bean
+    @StepScope
+    public InputFilesPartitioner inputFilesPartitioner(
+            @Value("#{jobParameters['inputFiles']}") String inputFiles,
+            ResourceLoader resourceLoader) {
+        return new InputFilesPartitioner(ResourcePatternUtils.getResourcePatternResolver(resourceLoader), inputFiles);
+    }
+
+    @Bean
+    public Step multiFileImportStep(JobRepository jobRepository,
+                                    InputFilesPartitioner inputFilesPartitioner,
+                                    Step importStep,
+                                    @Value("${etl.files.concurrency:4}") int concurrency) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("import-file-");
+        taskExecutor.setConcurrencyLimit(concurrency);
+        return new StepBuilder("multiFileImportStep", jobRepository)
+                .partitioner("importStep", inputFilesPartitioner)
+                .step(importStep)
+                .taskExecutor(taskExecutor)
+                .aggregator(new WorkerStatusAggregator())
+                .build();
+    }
+}
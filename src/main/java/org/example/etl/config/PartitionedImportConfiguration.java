@@ -0,0 +1,124 @@
+package org.example.etl.config;
+
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.metrics.ImportMetricsListener;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.partition.FileRangePartitioner;
+import org.example.etl.partition.WorkerStatusAggregator;
+import org.example.etl.policy.AdaptiveChunkCompletionPolicy;
+import org.example.etl.reader.ByteRangeItemReader;
+import org.example.etl.reader.CompressedInputStreams;
+import org.example.etl.reader.MappedTemperatureItemReader;
+import org.example.etl.reader.StreamingTemperatureItemReader;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.listener.ChunkListener;
+import org.springframework.batch.core.listener.ItemReadListener;
+import org.springframework.batch.core.listener.ItemWriteListener;
+import org.springframework.batch.core.listener.StepExecutionListener;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.infrastructure.item.ItemProcessor;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+import org.springframework.batch.infrastructure.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Spring Batch configuration for importing a single large CSV file with several worker threads.
+ * <p>
+ * The file is split into newline-aligned byte ranges by {@link FileRangePartitioner}; every range is imported by
+ * its own execution of {@code importWorkerStep}, which keeps its restart offset in its own execution context.
+ */
+@Configuration
+public class PartitionedImportConfiguration {
+
+    @Bean
+    @StepScope
+    public FileRangePartitioner importPartitioner(
+            @Value("#{jobParameters['inputFile'] ?: '${etl.input.file}'}") Resource inputFile,
+            @Value("${etl.partition.min-size:1048576}") long minPartitionSize) {
+        if (CompressedInputStreams.isCompressed(inputFile.getFilename())) {
+            // compressed files cannot be split into byte ranges: import them as a single partition
+            return new FileRangePartitioner(inputFile, Long.MAX_VALUE);
+        }
+        return new FileRangePartitioner(inputFile, minPartitionSize);
+    }
+
+    @Bean
+    @StepScope
+    public ItemStreamReader<TemperatureData> rangeTemperatureReader(
+            @Value("#{jobParameters['inputFile'] ?: '${etl.input.file}'}") Resource inputFile,
+            @Value("#{stepExecutionContext['" + FileRangePartitioner.START_KEY + "']}") long start,
+            @Value("#{stepExecutionContext['" + FileRangePartitioner.END_KEY + "']}") long end,
+            @Value("${etl.reader.type:mapped}") String readerType,
+            @Value("${etl.reader.decompression-threads:0}") int decompressionThreads) {
+        return rangeReader("rangeTemperatureReader", inputFile, start, end, readerType, decompressionThreads);
+    }
+
+    /**
+     * Returns a reader of the {@code [start, end)} byte range of a file; a compressed file is read as a whole.
+     */
+    static ItemStreamReader<TemperatureData> rangeReader(String name, Resource inputFile, long start, long end,
+                                                         String readerType, int decompressionThreads) {
+        if (CompressedInputStreams.isCompressed(inputFile.getFilename())) {
+            return new StreamingTemperatureItemReader(name, inputFile,
+                    BatchConfiguration.decompressionThreads(decompressionThreads));
+        }
+        if (BatchConfiguration.MAPPED_READER.equals(readerType)) {
+            return new MappedTemperatureItemReader(name, inputFile, start, end);
+        }
+        return new ByteRangeItemReader<>(name, inputFile, start, end, BatchConfiguration.temperatureLineMapper());
+    }
+
+    @Bean
+    public Step importWorkerStep(JobRepository jobRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ItemStreamReader<TemperatureData> rangeTemperatureReader,
+                                 ItemProcessor<TemperatureData, TemperatureData> importProcessor,
+                                 ItemWriter<TemperatureData> importWriter,
+                                 AdaptiveChunkCompletionPolicy importCompletionPolicy,
+                                 ImportMetricsListener importMetricsListener,
+                                 DuplicateSkipListener skipListener) {
+        // the step-scoped policy gives every worker its own chunk size
+        return new StepBuilder("importWorkerStep", jobRepository)
+                .<TemperatureData, TemperatureData>chunk(importCompletionPolicy, transactionManager)
+                .reader(rangeTemperatureReader)
+                .processor(importProcessor)
+                .writer(importWriter)
+                .faultTolerant()
+                .processorNonTransactional()
+                .skip(DataIntegrityViolationException.class)
+                .skipLimit(BatchConfiguration.SKIP_LIMIT)
+                .listener(skipListener)
+                .listener((ChunkListener) importCompletionPolicy)
+                .listener((ItemWriteListener<Object>) importCompletionPolicy)
+                .listener((ChunkListener) importMetricsListener)
+                .listener((ItemReadListener<Object>) importMetricsListener)
+                .listener((ItemWriteListener<Object>) importMetricsListener)
+                .listener((StepExecutionListener) importMetricsListener)
+                .build();
+    }
+
+    @Bean
+    public Step partitionedImportStep(JobRepository jobRepository,
+                                      FileRangePartitioner importPartitioner,
+                                      Step importWorkerStep,
+                                      @Value("${etl.partition.grid-size:4}") int gridSize,
+                                      @Value("${etl.partition.threads:4}") int threads) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("import-partition-");
+        taskExecutor.setConcurrencyLimit(threads);
+        return new StepBuilder("partitionedImportStep", jobRepository)
+                .partitioner("importWorkerStep", importPartitioner)
+                .step(importWorkerStep)
+                .gridSize(gridSize)
+                .taskExecutor(taskExecutor)
+                .aggregator(new WorkerStatusAggregator())
+                .build();
+    }
+}
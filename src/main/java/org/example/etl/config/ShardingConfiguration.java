@@ -0,0 +1,54 @@
+package org.example.etl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.etl.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of the shard databases written to instead of the primary database.
+ * <p>
+ * With {@code etl.sharding.urls} set to a comma-separated list of JDBC URLs, the {@code insert}, {@code ignore} and
+ * {@code update} write modes spread rows over these databases by station (see {@link ShardRouter}); {@code insert}
+ * then behaves like {@code ignore}. The job repository, the staging table and the offsets of incremental imports
+ * stay in the primary database. Each shard gets a connection pool of its own, whose connections always use
+ * {@code useAffectedRows=true} like the primary database, so that the {@code update} mode counts unchanged rows as
+ * duplicates. Unless {@code etl.sharding.initialize-schema} is {@code false} the application schema is created on
+ * every shard at startup.
+ */
+@Configuration
+public class ShardingConfiguration {
+
+    @Bean
+    public ShardRouter shardRouter(@Value("${etl.sharding.urls:}") List<String> urls,
+                                   @Value("${etl.sharding.username:${spring.datasource.username:}}") String username,
+                                   @Value("${etl.sharding.password:${spring.datasource.password:}}") String password,
+                                   @Value("${etl.sharding.pool-size:4}") int poolSize,
+                                   @Value("${etl.sharding.initialize-schema:true}") boolean initializeSchema,
+                                   @Value("classpath:schema.sql") Resource schema) {
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + dataSources.size());
+            dataSource.setJdbcUrl(url.trim());
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.addDataSourceProperty("useAffectedRows", "true");
+            dataSources.add(dataSource);
+        }
+        ShardRouter shardRouter = ShardRouter.of(dataSources);
+        if (initializeSchema) {
+            shardRouter.initializeSchema(schema);
+        }
+        return shardRouter;
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.etl.config;
+
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.reader.ByteRangeItemReader;
+import org.example.etl.reader.CompressedInputStreams;
+import org.example.etl.reader.MappedTemperatureItemReader;
+import org.example.etl.reader.StreamingTemperatureItemReader;
+import org.example.etl.sort.ExternalSortTasklet;
+import org.example.etl.sort.ExternalTemperatureSorter;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+import org.springframework.batch.infrastructure.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.infrastructure.support.transaction.ResourcelessTransactionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Spring Batch configuration of the sort stage of a sorted import.
+ * <p>
+ * {@code sortStep} reads the input file named by the job parameters, sorts it by {@code (name, datetime)}
+ * within a memory budget and drops duplicate keys; {@code importStep} then reads the sorted file, so that the rows
+ * are inserted in the order of the unique index. With the {@code update} write mode the last of the rows with the
+ * same key is kept, otherwise the first. Incremental imports cannot be sorted, since their offset refers to the
+ * original file.
+ * <p>
+ * The sorted file is deleted at the end of every job execution, so {@code sortStep} runs again when a failed or
+ * stopped import is restarted.
+ */
+@Configuration
+public class SortedImportConfiguration {
+
+    /**
+     * Reader of the unsorted input. Unlike the reader of the import step it never falls back to the sorted file in
+     * the job execution context, which a restarted execution inherits from the failed one.
+     */
+    @Bean
+    @StepScope
+    public ItemStreamReader<TemperatureData> sortTemperatureReader(
+            @Value("#{jobParameters['inputFile'] ?: '${etl.input.file}'}") Resource inputFile,
+            @Value("${etl.reader.type:mapped}") String readerType,
+            @Value("${etl.reader.decompression-threads:0}") int decompressionThreads) {
+        if (CompressedInputStreams.isCompressed(inputFile.getFilename())) {
+            return new StreamingTemperatureItemReader("sortTemperatureReader", inputFile,
+                    BatchConfiguration.decompressionThreads(decompressionThreads));
+        }
+        if (BatchConfiguration.MAPPED_READER.equals(readerType) && inputFile.isFile()) {
+            return new MappedTemperatureItemReader("sortTemperatureReader", inputFile);
+        }
+        if (inputFile.isFile()) {
+            return new ByteRangeItemReader<>("sortTemperatureReader", inputFile,
+                    BatchConfiguration.temperatureLineMapper());
+        }
+        return new FlatFileItemReaderBuilder<TemperatureData>()
+                .name("sortTemperatureReader")
+                .resource(inputFile)
+                .linesToSkip(1) // Skip header row
+                .lineMapper(BatchConfiguration.temperatureLineMapper())
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public ExternalSortTasklet sortTasklet(
+            @Value("#{jobParameters['writeMode'] ?: '${etl.writer.mode:insert}'}") String writeMode,
+            @Value("#{jobParameters['incremental'] ?: '${etl.incremental.enabled:false}'}") boolean incremental,
+            @Value("${etl.sort.memory:64MB}") DataSize memory,
+            @Value("${etl.sort.dir:}") String sortDir,
+            ItemStreamReader<TemperatureData> sortTemperatureReader,
+            DuplicateSkipListener skipListener) {
+        if (incremental) {
+            throw new IllegalArgumentException("Incremental import cannot be combined with a sorted import");
+        }
+        Path dir = Path.of(sortDir.isBlank() ? System.getProperty("java.io.tmpdir") : sortDir);
+        ExternalTemperatureSorter sorter = new ExternalTemperatureSorter(dir, memory.toBytes(),
+                BatchConfiguration.WRITE_MODE_UPDATE.equals(writeMode));
+        return new ExternalSortTasklet(sortTemperatureReader, sorter, dir, skipListener);
+    }
+
+    @Bean
+    public Step sortStep(JobRepository jobRepository, ExternalSortTasklet sortTasklet) {
+        // the sort writes only files, so its single execution holds no database transaction
+        return new StepBuilder("sortStep", jobRepository)
+                .tasklet(sortTasklet, new ResourcelessTransactionManager())
+                .allowStartIfComplete(true)
+                .build();
+    }
+}
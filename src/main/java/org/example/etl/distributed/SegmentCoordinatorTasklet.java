@@ -0,0 +1,90 @@
+package org.example.etl.distributed;
+
+import org.example.etl.partition.FileRangePartitioner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepContribution;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.repeat.RepeatStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coordinates a distributed import: splits the input file into segments, enqueues them in the {@link SegmentQueue}
+ * and waits until worker processes have imported all of them.
+ * <p>
+ * The first execution enqueues the segments; every following execution checks the progress once and sleeps for the
+ * poll interval. The step must run with a resourceless transaction manager, so the repeated executions hold no
+ * database transaction or connection while the workers run. When no segment is left, the counts reported
+ * by the workers become the read, write and skip counts of the step. The step fails if a segment failed on all its
+ * attempts; restarting the job instance retries only the failed segments.
+ */
+public class SegmentCoordinatorTasklet implements Tasklet {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentCoordinatorTasklet.class);
+
+    private final SegmentQueue segmentQueue;
+    private final FileRangePartitioner partitioner;
+    private final String inputFile;
+    private final int segments;
+    private final Duration pollInterval;
+    private boolean enqueued;
+
+    /**
+     * @param segmentQueue the queue the workers claim segments from
+     * @param partitioner  partitioner splitting the input file into byte ranges
+     * @param inputFile    location of the input file, as the workers resolve it
+     * @param segments     the number of segments to split the file into
+     * @param pollInterval time between two progress checks
+     */
+    public SegmentCoordinatorTasklet(SegmentQueue segmentQueue, FileRangePartitioner partitioner, String inputFile,
+                                     int segments, Duration pollInterval) {
+        this.segmentQueue = segmentQueue;
+        this.partitioner = partitioner;
+        this.inputFile = inputFile;
+        this.segments = segments;
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        StepExecution stepExecution = chunkContext.getStepContext().getStepExecution();
+        long jobInstanceId = stepExecution.getJobExecution().getJobInstance().getId();
+        if (!enqueued) {
+            enqueued = true;
+            List<long[]> ranges = new ArrayList<>();
+            for (ExecutionContext range : partitioner.partition(segments).values()) {
+                ranges.add(new long[]{range.getLong(FileRangePartitioner.START_KEY),
+                        range.getLong(FileRangePartitioner.END_KEY)});
+            }
+            if (segmentQueue.enqueue(jobInstanceId, inputFile, ranges)) {
+                logger.info("Enqueued {} segments of {} for job instance {}", ranges.size(), inputFile, jobInstanceId);
+            } else {
+                logger.info("Resuming the segments of job instance {}", jobInstanceId);
+            }
+            return RepeatStatus.CONTINUABLE;
+        }
+
+        SegmentQueue.Progress progress = segmentQueue.progress(jobInstanceId);
+        if (!progress.isDone()) {
+            logger.debug("Job instance {}: {} segments pending, {} claimed, {} completed", jobInstanceId,
+                    progress.pending(), progress.claimed(), progress.completed());
+            Thread.sleep(pollInterval.toMillis());
+            return RepeatStatus.CONTINUABLE;
+        }
+        // the tasklet step adds the (empty) contribution to these counts
+        stepExecution.setReadCount(progress.read());
+        stepExecution.setWriteCount(progress.written());
+        stepExecution.setWriteSkipCount(progress.skipped());
+        if (progress.failed() > 0) {
+            throw new IllegalStateException(progress.failed() + " segments of job instance " + jobInstanceId
+                    + " failed on every attempt; restart the job to retry them");
+        }
+        return RepeatStatus.FINISHED;
+    }
+}
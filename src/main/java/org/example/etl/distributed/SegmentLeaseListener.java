@@ -0,0 +1,64 @@
+package org.example.etl.distributed;
+
+import org.springframework.batch.core.listener.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Renews the lease of the segment a worker imports before every chunk, at most every third of the lease, and stops
+ * the import if the lease was lost, e.g. because the worker stalled and another worker claimed the segment.
+ * <p>
+ * The segment is identified by the job parameters {@code segmentJobInstance}, {@code segmentId} and
+ * {@code worker}, which {@link SegmentWorker} passes to every run of {@code segmentImportJob}.
+ */
+public class SegmentLeaseListener implements ChunkListener {
+
+    public static final String JOB_INSTANCE_KEY = "segmentJobInstance";
+    public static final String SEGMENT_KEY = "segmentId";
+    public static final String START_KEY = "segmentStart";
+    public static final String END_KEY = "segmentEnd";
+    public static final String WORKER_KEY = "worker";
+
+    private final SegmentQueue segmentQueue;
+    private final SegmentQueue.Segment segment;
+    private final String worker;
+    private final Duration lease;
+    private final LongSupplier clock;
+    private long renewedAt;
+
+    /**
+     * @param segmentQueue the queue holding the segment
+     * @param segment      the segment being imported
+     * @param worker       the id of the worker holding the segment
+     * @param lease        the lease granted by a renewal
+     */
+    public SegmentLeaseListener(SegmentQueue segmentQueue, SegmentQueue.Segment segment, String worker,
+                                Duration lease) {
+        this(segmentQueue, segment, worker, lease, System::nanoTime);
+    }
+
+    SegmentLeaseListener(SegmentQueue segmentQueue, SegmentQueue.Segment segment, String worker, Duration lease,
+                         LongSupplier clock) {
+        this.segmentQueue = segmentQueue;
+        this.segment = segment;
+        this.worker = worker;
+        this.lease = lease;
+        this.clock = clock;
+        this.renewedAt = clock.getAsLong();
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        long now = clock.getAsLong();
+        if (now - renewedAt < lease.toNanos() / 3) {
+            return;
+        }
+        if (!segmentQueue.renew(segment, worker, lease)) {
+            throw new IllegalStateException("Worker " + worker + " lost the lease of segment "
+                    + segment.segmentId() + " of job instance " + segment.jobInstanceId());
+        }
+        renewedAt = now;
+    }
+}
@@ -0,0 +1,232 @@
+package org.example.etl.distributed;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Work queue of the byte ranges ("segments") of a distributed import, kept in the {@code import_segment} table
+ * next to the Spring Batch metadata tables.
+ * <p>
+ * A coordinator enqueues the segments of a job instance; worker processes on any host claim them one at a time.
+ * A claim locks the oldest claimable segment with {@code SELECT ... FOR UPDATE SKIP LOCKED}, so concurrent workers
+ * never wait for each other or claim the same segment, and gives the worker a lease. The worker renews the lease
+ * while it imports the segment and finally reports its counts. A segment whose lease expired, because its worker
+ * died or lost the database, can be claimed again until it has been attempted {@code maxAttempts} times; then the
+ * coordinator marks it as failed.
+ * <p>
+ * All times are taken from the database clock, so the clocks of the worker hosts do not matter. Every method runs
+ * in a transaction of its own.
+ */
+@Component
+public class SegmentQueue {
+
+    public static final String PENDING = "PENDING";
+    public static final String CLAIMED = "CLAIMED";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    static final String INSERT_SQL = "INSERT IGNORE INTO import_segment "
+            + "(job_instance_id, segment_id, input_file, start_offset, end_offset, status) VALUES (?, ?, ?, ?, ?, ?)";
+    static final String COUNT_SQL = "SELECT COUNT(*) FROM import_segment WHERE job_instance_id = ?";
+    static final String RETRY_FAILED_SQL = "UPDATE import_segment SET status = 'PENDING', attempts = 0, "
+            + "worker = NULL, lease_expires_at = NULL WHERE job_instance_id = ? AND status = 'FAILED'";
+    static final String SELECT_CLAIMABLE_SQL = """
+            SELECT job_instance_id, segment_id, input_file, start_offset, end_offset, attempts
+            FROM import_segment
+            WHERE (status = 'PENDING' OR (status = 'CLAIMED' AND lease_expires_at < NOW(3))) AND attempts < ?
+            ORDER BY job_instance_id, segment_id
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED""";
+    static final String CLAIM_SQL = "UPDATE import_segment SET status = 'CLAIMED', worker = ?, "
+            + "lease_expires_at = TIMESTAMPADD(MICROSECOND, ?, NOW(3)), attempts = attempts + 1 "
+            + "WHERE job_instance_id = ? AND segment_id = ?";
+    static final String RENEW_SQL = "UPDATE import_segment SET lease_expires_at = TIMESTAMPADD(MICROSECOND, ?, NOW(3)) "
+            + "WHERE job_instance_id = ? AND segment_id = ? AND worker = ? AND status = 'CLAIMED'";
+    static final String HOLDS_SQL = "SELECT COUNT(*) FROM import_segment "
+            + "WHERE job_instance_id = ? AND segment_id = ? AND worker = ? AND status = 'CLAIMED'";
+    static final String COMPLETE_SQL = "UPDATE import_segment SET status = 'COMPLETED', lease_expires_at = NULL, "
+            + "read_count = ?, write_count = ?, skip_count = ?, last_error = NULL "
+            + "WHERE job_instance_id = ? AND segment_id = ? AND worker = ? AND status = 'CLAIMED'";
+    static final String RELEASE_SQL = "UPDATE import_segment SET status = IF(attempts < ?, 'PENDING', 'FAILED'), "
+            + "worker = NULL, lease_expires_at = NULL, last_error = ? "
+            + "WHERE job_instance_id = ? AND segment_id = ? AND worker = ? AND status = 'CLAIMED'";
+    static final String EXPIRE_SQL = "UPDATE import_segment SET status = 'FAILED', "
+            + "last_error = CONCAT('lease of ', worker, ' expired') WHERE job_instance_id = ? AND status = 'CLAIMED' "
+            + "AND lease_expires_at < NOW(3) AND attempts >= ?";
+    static final String PROGRESS_SQL = "SELECT status, COUNT(*) AS segments, SUM(read_count) AS read_count, "
+            + "SUM(write_count) AS write_count, SUM(skip_count) AS skip_count "
+            + "FROM import_segment WHERE job_instance_id = ? GROUP BY status";
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final int maxAttempts;
+
+    /**
+     * @param jdbcTemplate       template on the database holding the Spring Batch metadata
+     * @param transactionManager transaction manager of that database
+     * @param maxAttempts        number of times a segment is claimed before it is marked as failed
+     */
+    public SegmentQueue(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        @Value("${etl.distributed.max-attempts:3}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Enqueues the segments of a job instance unless they were enqueued before, e.g. by a failed execution of the
+     * same instance. Failed segments of an earlier execution are made claimable again.
+     *
+     * @param jobInstanceId the job instance importing the file
+     * @param inputFile     the file, as a resource location every worker can resolve
+     * @param ranges        the {@code [start, end)} byte ranges of the segments
+     * @return {@code true} if the segments were enqueued, {@code false} if they existed already
+     */
+    public boolean enqueue(long jobInstanceId, String inputFile, List<long[]> ranges) {
+        return Boolean.TRUE.equals(newTransaction.execute(status -> {
+            Integer existing = jdbcTemplate.queryForObject(COUNT_SQL, Integer.class, jobInstanceId);
+            if (existing != null && existing > 0) {
+                jdbcTemplate.update(RETRY_FAILED_SQL, jobInstanceId);
+                return false;
+            }
+            for (int i = 0; i < ranges.size(); i++) {
+                jdbcTemplate.update(INSERT_SQL, jobInstanceId, i, inputFile, ranges.get(i)[0], ranges.get(i)[1],
+                        PENDING);
+            }
+            return true;
+        }));
+    }
+
+    /**
+     * Claims the oldest pending segment, or a segment whose lease expired.
+     *
+     * @param worker the id of the claiming worker
+     * @param lease  how long the segment stays claimed without a renewal
+     * @return the claimed segment, or {@code null} if there is none
+     */
+    public Segment claim(String worker, Duration lease) {
+        return newTransaction.execute(status -> {
+            List<Segment> segments = jdbcTemplate.query(SELECT_CLAIMABLE_SQL,
+                    (rs, rowNum) -> new Segment(rs.getLong("job_instance_id"), rs.getInt("segment_id"),
+                            rs.getString("input_file"), rs.getLong("start_offset"), rs.getLong("end_offset"),
+                            rs.getInt("attempts") + 1),
+                    maxAttempts);
+            if (segments.isEmpty()) {
+                return null;
+            }
+            Segment segment = segments.getFirst();
+            jdbcTemplate.update(CLAIM_SQL, worker, micros(lease), segment.jobInstanceId(), segment.segmentId());
+            return segment;
+        });
+    }
+
+    /**
+     * Extends the lease of a claimed segment.
+     *
+     * @return {@code false} if the worker no longer holds the segment
+     */
+    public boolean renew(Segment segment, String worker, Duration lease) {
+        if (update(RENEW_SQL, micros(lease), segment.jobInstanceId(), segment.segmentId(), worker) == 1) {
+            return true;
+        }
+        // with useAffectedRows, a renewal in the same millisecond as the previous one changes no row
+        Integer held = jdbcTemplate.queryForObject(HOLDS_SQL, Integer.class, segment.jobInstanceId(),
+                segment.segmentId(), worker);
+        return held != null && held > 0;
+    }
+
+    /**
+     * Marks a claimed segment as imported and records its counts.
+     *
+     * @return {@code false} if the worker no longer held the segment, whose rows were then imported twice; the
+     * second import found them as duplicates
+     */
+    public boolean complete(Segment segment, String worker, long read, long written, long skipped) {
+        return update(COMPLETE_SQL, read, written, skipped, segment.jobInstanceId(), segment.segmentId(),
+                worker) == 1;
+    }
+
+    /**
+     * Gives up a claimed segment after a failed import. It can be claimed again unless it reached the maximum
+     * number of attempts, in which case it is marked as failed.
+     *
+     * @param error description of the failure
+     */
+    public void release(Segment segment, String worker, String error) {
+        String message = error == null || error.length() <= MAX_ERROR_LENGTH ? error
+                : error.substring(0, MAX_ERROR_LENGTH);
+        update(RELEASE_SQL, maxAttempts, message, segment.jobInstanceId(), segment.segmentId(), worker);
+    }
+
+    /**
+     * Marks segments as failed whose lease expired on their last attempt, and returns the progress of a job
+     * instance.
+     */
+    public Progress progress(long jobInstanceId) {
+        update(EXPIRE_SQL, jobInstanceId, maxAttempts);
+        long[] counts = new long[4];
+        long[] totals = new long[3];
+        jdbcTemplate.query(PROGRESS_SQL, (RowCallbackHandler) rs -> {
+            int index = switch (rs.getString("status")) {
+                case PENDING -> 0;
+                case CLAIMED -> 1;
+                case COMPLETED -> 2;
+                default -> 3;
+            };
+            counts[index] += rs.getLong("segments");
+            if (index == 2) {
+                totals[0] = rs.getLong("read_count");
+                totals[1] = rs.getLong("write_count");
+                totals[2] = rs.getLong("skip_count");
+            }
+        }, jobInstanceId);
+        return new Progress(counts[0], counts[1], counts[2], counts[3], totals[0], totals[1], totals[2]);
+    }
+
+    private int update(String sql, Object... args) {
+        Integer updated = newTransaction.execute(status -> jdbcTemplate.update(sql, args));
+        return updated == null ? 0 : updated;
+    }
+
+    private static long micros(Duration duration) {
+        return duration.toNanos() / 1000;
+    }
+
+    /**
+     * A claimed segment.
+     *
+     * @param jobInstanceId the job instance importing the file
+     * @param segmentId     the number of the segment within the job instance
+     * @param inputFile     the file, as a resource location
+     * @param start         the offset of the first byte of the segment, always the start of a line
+     * @param end           the offset after the last byte of the segment
+     * @param attempt       the number of this attempt, starting at 1
+     */
+    public record Segment(long jobInstanceId, int segmentId, String inputFile, long start, long end, int attempt) {
+    }
+
+    /**
+     * Segments of a job instance by status, and the counts reported for the completed ones.
+     */
+    public record Progress(long pending, long claimed, long completed, long failed,
+                           long read, long written, long skipped) {
+
+        /**
+         * Returns whether no segment is left to import.
+         */
+        public boolean isDone() {
+            return pending == 0 && claimed == 0;
+        }
+    }
+}
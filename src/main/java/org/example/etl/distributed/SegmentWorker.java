@@ -0,0 +1,154 @@
+package org.example.etl.distributed;
+
+import org.example.etl.listener.ImportCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.JobInstance;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.job.parameters.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+
+/**
+ * Worker process of a distributed import: claims segments from the {@link SegmentQueue} and imports each of them
+ * with a run of {@code segmentImportJob}, until no segment is left.
+ * <p>
+ * Enabled with {@code etl.distributed.worker-enabled=true}; every worker process polls the queue every
+ * poll interval. The import renews the lease of its segment before every chunk and stops if the lease was lost.
+ * Every attempt of a segment is a job instance of its own, started from the beginning of the segment; rows that an
+ * earlier attempt committed are skipped as duplicates. A segment run gets the job parameters of the coordinator's
+ * last execution, such as {@code writeMode} and {@code dedup}, so it imports like a local run of the same job would.
+ * In the {@code bulk} write mode it stages its rows under the coordinator's job instance, whose merge step merges
+ * them.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+@ConditionalOnProperty(name = "etl.distributed.worker-enabled", havingValue = "true")
+public class SegmentWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentWorker.class);
+
+    private final JobLauncher jobLauncher;
+    private final JobRepository jobRepository;
+    private final Job segmentImportJob;
+    private final SegmentQueue segmentQueue;
+    private final ImportCounters importCounters;
+    private final String workerId;
+    private final Duration lease;
+
+    /**
+     * @param workerId id of this worker in the queue; empty for {@code <pid>@<host name>}
+     * @param lease    how long a claimed segment stays claimed without a renewal
+     */
+    public SegmentWorker(JobLauncher jobLauncher,
+                         JobRepository jobRepository,
+                         @Qualifier("segmentImportJob") Job segmentImportJob,
+                         SegmentQueue segmentQueue,
+                         ImportCounters importCounters,
+                         @Value("${etl.distributed.worker-id:}") String workerId,
+                         @Value("${etl.distributed.lease:PT1M}") Duration lease) {
+        this.jobLauncher = jobLauncher;
+        this.jobRepository = jobRepository;
+        this.segmentImportJob = segmentImportJob;
+        this.segmentQueue = segmentQueue;
+        this.importCounters = importCounters;
+        this.workerId = workerId == null || workerId.isBlank() ? defaultWorkerId() : workerId;
+        this.lease = lease;
+    }
+
+    @Scheduled(fixedDelayString = "${etl.distributed.poll-interval:PT5S}")
+    public void poll() throws Exception {
+        while (importNext()) {
+            // import segments until the queue is empty
+        }
+    }
+
+    /**
+     * Claims and imports one segment.
+     *
+     * @return {@code false} if no segment was claimable
+     */
+    public boolean importNext() throws Exception {
+        SegmentQueue.Segment segment = segmentQueue.claim(workerId, lease);
+        if (segment == null) {
+            return false;
+        }
+        logger.info("Importing segment {} of job instance {} ({} bytes from {}), attempt {}", segment.segmentId(),
+                segment.jobInstanceId(), segment.end() - segment.start(), segment.start(), segment.attempt());
+        JobParameters params = new JobParametersBuilder()
+                .addJobParameters(coordinatorParameters(segment.jobInstanceId()))
+                .addString("inputFile", segment.inputFile())
+                .addLong(SegmentLeaseListener.JOB_INSTANCE_KEY, segment.jobInstanceId())
+                .addLong(SegmentLeaseListener.SEGMENT_KEY, (long) segment.segmentId())
+                .addLong(SegmentLeaseListener.START_KEY, segment.start())
+                .addLong(SegmentLeaseListener.END_KEY, segment.end())
+                .addLong("attempt", (long) segment.attempt())
+                .addString(SegmentLeaseListener.WORKER_KEY, workerId)
+                .toJobParameters();
+        JobExecution execution;
+        try {
+            execution = jobLauncher.run(segmentImportJob, params);
+        } catch (Exception e) {
+            segmentQueue.release(segment, workerId, e.toString());
+            throw e;
+        }
+
+        if (execution.getStatus() != BatchStatus.COMPLETED) {
+            String error = execution.getAllFailureExceptions().isEmpty()
+                    ? execution.getExitStatus().getExitDescription()
+                    : execution.getAllFailureExceptions().getFirst().toString();
+            logger.warn("Segment {} of job instance {} failed: {}", segment.segmentId(), segment.jobInstanceId(),
+                    error);
+            segmentQueue.release(segment, workerId, error);
+            return true;
+        }
+        long read = 0;
+        long written = 0;
+        long skipped = 0;
+        for (StepExecution stepExecution : execution.getStepExecutions()) {
+            long writtenDuplicates = importCounters.getWrittenDuplicates(stepExecution);
+            read += stepExecution.getReadCount();
+            written += stepExecution.getWriteCount() - writtenDuplicates;
+            skipped += stepExecution.getSkipCount() + stepExecution.getFilterCount() + writtenDuplicates;
+        }
+        if (!segmentQueue.complete(segment, workerId, read, written, skipped)) {
+            logger.warn("Segment {} of job instance {} was imported after its lease had expired",
+                    segment.segmentId(), segment.jobInstanceId());
+        }
+        return true;
+    }
+
+    private JobParameters coordinatorParameters(long jobInstanceId) {
+        JobInstance jobInstance = jobRepository.getJobInstance(jobInstanceId);
+        JobExecution coordinator = jobInstance == null ? null : jobRepository.getLastJobExecution(jobInstance);
+        return coordinator == null ? new JobParameters() : coordinator.getJobParameters();
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    private static String defaultWorkerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return ProcessHandle.current().pid() + "@" + host;
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.etl.export;
+
+import org.example.etl.reader.TemperatureFieldSetMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Selects the rows of {@code temperature_data} an export writes: optionally one station and a
+ * {@code [from, to)} time range.
+ *
+ * @param station the station name, or {@code null} for all stations
+ * @param from    the first datetime exported, or {@code null} for no lower bound
+ * @param to      the datetime after the last one exported, or {@code null} for no upper bound
+ */
+public record ExportFilter(String station, LocalDateTime from, LocalDateTime to) {
+
+    /**
+     * Creates a filter from job parameters; blank values mean no restriction and datetimes use the
+     * {@code yyyy-MM-dd HH:mm:ss} format of the CSV files.
+     */
+    public static ExportFilter of(String station, String from, String to) {
+        return new ExportFilter(blankToNull(station), datetime(from), datetime(to));
+    }
+
+    /**
+     * Returns the SQL conditions of the filter, each starting with {@code AND}, to append to a {@code WHERE}
+     * clause.
+     */
+    public String conditions() {
+        StringBuilder sql = new StringBuilder();
+        if (station != null) {
+            sql.append(" AND name = ?");
+        }
+        if (from != null) {
+            sql.append(" AND datetime >= ?");
+        }
+        if (to != null) {
+            sql.append(" AND datetime < ?");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Returns the parameters of {@link #conditions()} in order.
+     */
+    public List<Object> arguments() {
+        List<Object> arguments = new ArrayList<>(3);
+        if (station != null) {
+            arguments.add(station);
+        }
+        if (from != null) {
+            arguments.add(from);
+        }
+        if (to != null) {
+            arguments.add(to);
+        }
+        return arguments;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static LocalDateTime datetime(String value) {
+        String datetime = blankToNull(value);
+        return datetime == null ? null
+                : LocalDateTime.parse(datetime.trim(), TemperatureFieldSetMapper.DATETIME_FORMAT);
+    }
+}
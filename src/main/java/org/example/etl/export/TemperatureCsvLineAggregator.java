@@ -0,0 +1,51 @@
+package org.example.etl.export;
+
+import org.example.etl.model.TemperatureData;
+import org.example.etl.reader.TemperatureFieldSetMapper;
+import org.springframework.batch.infrastructure.item.file.transform.LineAggregator;
+
+import java.math.BigDecimal;
+
+/**
+ * Formats a record as a CSV line in the input format, {@code name,datetime,temp}, so that the import reads it back
+ * unchanged. Names containing a comma, a quote or a line break are quoted, and temperatures are written as plain
+ * decimals.
+ */
+public class TemperatureCsvLineAggregator implements LineAggregator<TemperatureData> {
+
+    public static final String HEADER = "name,datetime,temp";
+
+    @Override
+    public String aggregate(TemperatureData item) {
+        StringBuilder line = new StringBuilder(64);
+        append(item, line);
+        return line.toString();
+    }
+
+    /**
+     * Appends the CSV line of a record, without a line terminator.
+     *
+     * @param item the record
+     * @param line the builder to append to
+     */
+    public static void append(TemperatureData item, StringBuilder line) {
+        String name = item.name();
+        if (name.indexOf(',') >= 0 || name.indexOf('"') >= 0 || name.indexOf('\n') >= 0) {
+            line.append('"').append(name.replace("\"", "\"\"")).append('"');
+        } else {
+            line.append(name);
+        }
+        line.append(',').append(item.datetime().format(TemperatureFieldSetMapper.DATETIME_FORMAT))
+                .append(',');
+        appendTemp(item.temp(), line);
+    }
+
+    private static void appendTemp(double temp, StringBuilder line) {
+        String value = Double.toString(temp);
+        // Double.toString switches to scientific notation below 10^-3 and from 10^7 on
+        if (value.indexOf('E') >= 0) {
+            value = new BigDecimal(value).stripTrailingZeros().toPlainString();
+        }
+        line.append(value);
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.etl.flow;
+
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides whether the rows staged by a bulk-load run still have to be merged into {@code temperature_data}.
+ * <p>
+ * The {@code writeMode} job parameter selects the write path for a single run; without it the
+ * {@code etl.writer.mode} property applies.
+ */
+@Component
+public class BulkLoadDecider implements JobExecutionDecider {
+
+    public static final String BULK = "BULK";
+    public static final String DIRECT = "DIRECT";
+    public static final String WRITE_MODE_BULK = "bulk";
+
+    private final String defaultWriteMode;
+
+    public BulkLoadDecider(@Value("${etl.writer.mode:insert}") String defaultWriteMode) {
+        this.defaultWriteMode = defaultWriteMode;
+    }
+
+    @Override
+    public FlowExecutionStatus decide(JobExecution jobExecution, StepExecution stepExecution) {
+        String writeMode = jobExecution.getJobParameters().getString("writeMode");
+        boolean bulk = WRITE_MODE_BULK.equals(writeMode != null ? writeMode : defaultWriteMode);
+        return new FlowExecutionStatus(bulk ? BULK : DIRECT);
+    }
+}
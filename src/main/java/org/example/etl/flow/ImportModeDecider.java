@@ -0,0 +1,125 @@
+package org.example.etl.flow;
+
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides which import step a run of the temperature import job executes.
+ * <p>
+ * A run with an {@code inputFiles} job parameter imports every matching file. Otherwise the {@code partitioned}
+ * job parameter selects the partitioned import for a single run; without it the
+ * {@code etl.partition.enabled} property applies. A run that is not partitioned uses the columnar import if the
+ * {@code columnar} job parameter, or else the {@code etl.columnar.enabled} property, is {@code true}. The
+ * {@code distributed} job parameter, or else the {@code etl.distributed.enabled} property, hands the file to worker
+ * processes instead and takes precedence over the other modes of a single file. A run that is neither partitioned
+ * nor distributed sorts the file before importing it if the {@code sorted} job parameter, or else the
+ * {@code etl.sort.enabled} property, is {@code true}; sorting takes precedence over the columnar import.
+ * <p>
+ * The columnar import resolves duplicates in the database and always reads the whole file, so a columnar run with
+ * the {@code insert} write mode or an incremental columnar run fails instead of silently importing differently.
+ * Incremental runs of several files, partitioned and distributed runs fail as well, because only the import of a
+ * single file reads from and stores the committed byte offset.
+ * So does a run with the duplicate filter in the {@code update} write mode: the filter would drop the rows that are
+ * meant to overwrite stored temperatures, and keep the first instead of the last of the rows repeated in the file.
+ */
+@Component
+public class ImportModeDecider implements JobExecutionDecider {
+
+    public static final String PARTITIONED = "PARTITIONED";
+    public static final String SINGLE = "SINGLE";
+    public static final String FILES = "FILES";
+    public static final String COLUMNAR = "COLUMNAR";
+    public static final String DISTRIBUTED = "DISTRIBUTED";
+    public static final String SORTED = "SORTED";
+
+    private static final String WRITE_MODE_INSERT = "insert";
+    private static final String WRITE_MODE_UPDATE = "update";
+
+    private final boolean partitionedByDefault;
+    private final boolean columnarByDefault;
+    private final boolean distributedByDefault;
+    private final boolean sortedByDefault;
+    private final String defaultWriteMode;
+    private final boolean incrementalByDefault;
+    private final boolean dedupByDefault;
+
+    public ImportModeDecider(@Value("${etl.partition.enabled:false}") boolean partitionedByDefault,
+                             @Value("${etl.columnar.enabled:false}") boolean columnarByDefault,
+                             @Value("${etl.distributed.enabled:false}") boolean distributedByDefault,
+                             @Value("${etl.sort.enabled:false}") boolean sortedByDefault,
+                             @Value("${etl.writer.mode:insert}") String defaultWriteMode,
+                             @Value("${etl.incremental.enabled:false}") boolean incrementalByDefault,
+                             @Value("${etl.dedup.enabled:false}") boolean dedupByDefault) {
+        this.partitionedByDefault = partitionedByDefault;
+        this.columnarByDefault = columnarByDefault;
+        this.distributedByDefault = distributedByDefault;
+        this.sortedByDefault = sortedByDefault;
+        this.defaultWriteMode = defaultWriteMode;
+        this.incrementalByDefault = incrementalByDefault;
+        this.dedupByDefault = dedupByDefault;
+    }
+
+    @Override
+    public FlowExecutionStatus decide(JobExecution jobExecution, StepExecution stepExecution) {
+        checkDuplicateFilter(jobExecution.getJobParameters());
+        if (jobExecution.getJobParameters().getString("inputFiles") != null) {
+            checkNotIncremental(jobExecution.getJobParameters(), "an import of several files");
+            return new FlowExecutionStatus(FILES);
+        }
+        String distributed = jobExecution.getJobParameters().getString("distributed");
+        if (distributed != null ? Boolean.parseBoolean(distributed) : distributedByDefault) {
+            checkNotIncremental(jobExecution.getJobParameters(), "a distributed import");
+            return new FlowExecutionStatus(DISTRIBUTED);
+        }
+        String partitioned = jobExecution.getJobParameters().getString("partitioned");
+        boolean usePartitions = partitioned != null ? Boolean.parseBoolean(partitioned) : partitionedByDefault;
+        if (usePartitions) {
+            checkNotIncremental(jobExecution.getJobParameters(), "a partitioned import");
+            return new FlowExecutionStatus(PARTITIONED);
+        }
+        String sorted = jobExecution.getJobParameters().getString("sorted");
+        if (sorted != null ? Boolean.parseBoolean(sorted) : sortedByDefault) {
+            return new FlowExecutionStatus(SORTED);
+        }
+        String columnar = jobExecution.getJobParameters().getString("columnar");
+        boolean useColumns = columnar != null ? Boolean.parseBoolean(columnar) : columnarByDefault;
+        if (useColumns) {
+            checkColumnar(jobExecution.getJobParameters());
+        }
+        return new FlowExecutionStatus(useColumns ? COLUMNAR : SINGLE);
+    }
+
+    private void checkDuplicateFilter(JobParameters jobParameters) {
+        String dedup = jobParameters.getString("dedup");
+        if (WRITE_MODE_UPDATE.equals(writeMode(jobParameters))
+                && (dedup != null ? Boolean.parseBoolean(dedup) : dedupByDefault)) {
+            throw new IllegalArgumentException("The duplicate filter cannot be combined with the update write mode, "
+                    + "it would drop the rows that overwrite stored temperatures: run with dedup=false");
+        }
+    }
+
+    private void checkColumnar(JobParameters jobParameters) {
+        if (WRITE_MODE_INSERT.equals(writeMode(jobParameters))) {
+            throw new IllegalArgumentException("Columnar import does not support the insert write mode, "
+                    + "it resolves duplicates in the database: use the ignore or update write mode");
+        }
+        checkNotIncremental(jobParameters, "a columnar import");
+    }
+
+    private void checkNotIncremental(JobParameters jobParameters, String mode) {
+        String incremental = jobParameters.getString("incremental");
+        if (incremental != null ? Boolean.parseBoolean(incremental) : incrementalByDefault) {
+            throw new IllegalArgumentException("Incremental import cannot be combined with " + mode);
+        }
+    }
+
+    private String writeMode(JobParameters jobParameters) {
+        String writeMode = jobParameters.getString("writeMode");
+        return writeMode != null ? writeMode : defaultWriteMode;
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.etl.incremental;
+
+import org.example.etl.reader.FileFingerprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Stores, per input file, the byte offset up to which an incremental import has committed, together with a
+ * checksum of the bytes just before it.
+ * <p>
+ * The checksum detects files that were truncated, rotated or rewritten since the last run; such files are imported
+ * again from their start instead of from an offset that no longer points behind the imported rows.
+ * <p>
+ * A writer may be in the middle of appending a line when an import runs, so incremental imports read only up to
+ * {@link #completeLinesEnd(Path)}; an unterminated last line is left for the next run.
+ */
+@Component
+public class FileOffsetStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileOffsetStore.class);
+
+    /** Number of bytes before the offset covered by the checksum. */
+    static final int TAIL_LENGTH = FileFingerprint.SAMPLE_SIZE;
+
+    private static final int SCAN_BLOCK_SIZE = 8192;
+
+    static final String SELECT_SQL = "SELECT byte_offset, tail_checksum FROM import_file_offset WHERE file_path = ?";
+    static final String UPSERT_SQL = "INSERT INTO import_file_offset (file_path, byte_offset, tail_checksum) "
+            + "VALUES (?, ?, ?) AS new "
+            + "ON DUPLICATE KEY UPDATE byte_offset = new.byte_offset, tail_checksum = new.tail_checksum";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FileOffsetStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns the offset an incremental import of a file starts at: the stored offset if the bytes before it are
+     * unchanged, otherwise 0.
+     *
+     * @param file the input file
+     * @return the offset of the first line not imported yet, or 0 to import the whole file
+     */
+    public long resumeOffset(Path file) {
+        List<long[]> stored = jdbcTemplate.query(SELECT_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong("byte_offset"), rs.getLong("tail_checksum")}, key(file));
+        if (stored.isEmpty()) {
+            return 0;
+        }
+        long offset = stored.get(0)[0];
+        long checksum = stored.get(0)[1];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (offset > channel.size()) {
+                logger.warn("{} is shorter than its imported offset {}; importing it from the start", file, offset);
+                return 0;
+            }
+            if (tailChecksum(channel, offset) != checksum) {
+                logger.warn("{} changed before its imported offset {}; importing it from the start", file, offset);
+                return 0;
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to verify imported offset of " + file, e);
+        }
+        logger.debug("Resuming incremental import of {} at offset {}", file, offset);
+        return offset;
+    }
+
+    /**
+     * Stores the committed offset of a file. Runs in the caller's transaction, so the offset is committed
+     * together with the rows read up to it.
+     *
+     * @param file   the input file
+     * @param offset the offset of the first line not imported yet
+     */
+    public void save(Path file, long offset) {
+        long checksum;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            checksum = tailChecksum(channel, offset);
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to checksum " + file, e);
+        }
+        jdbcTemplate.update(UPSERT_SQL, key(file), offset, checksum);
+    }
+
+    /**
+     * Returns the offset after the last newline of a file, or 0 if it has none. The bytes after it belong to a line
+     * that may still be written.
+     *
+     * @param file the input file
+     * @return the end of the last complete line
+     */
+    public static long completeLinesEnd(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SCAN_BLOCK_SIZE);
+            long end = channel.size();
+            while (end > 0) {
+                long blockStart = Math.max(0, end - SCAN_BLOCK_SIZE);
+                buffer.clear().limit((int) (end - blockStart));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, blockStart + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        return blockStart + i + 1;
+                    }
+                }
+                end = blockStart;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the CRC32 of the up to {@link #TAIL_LENGTH} bytes before {@code offset}.
+     */
+    static long tailChecksum(FileChannel channel, long offset) throws IOException {
+        return FileFingerprint.checksum(channel, Math.max(0, offset - TAIL_LENGTH), offset);
+    }
+
+    private static String key(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.etl.incremental;
+
+import org.example.etl.reader.OffsetItemReader;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+
+import java.nio.file.Path;
+
+/**
+ * Records the committed offset of an incremental import in the {@link FileOffsetStore}.
+ * <p>
+ * Spring Batch calls {@link #update(ExecutionContext)} inside every chunk transaction, so the stored offset is
+ * committed or rolled back together with the rows of the chunk. The next run starts where the last committed chunk
+ * ended, whether the previous run completed or failed.
+ *
+ * @param <T> the type of item read
+ */
+public class IncrementalItemReader<T> implements OffsetItemReader<T> {
+
+    private final OffsetItemReader<T> delegate;
+    private final FileOffsetStore offsetStore;
+    private final Path file;
+
+    /**
+     * @param delegate    the reader, positioned at the offset returned by {@link FileOffsetStore#resumeOffset(Path)}
+     * @param offsetStore the store receiving the committed offsets
+     * @param file        the input file
+     */
+    public IncrementalItemReader(OffsetItemReader<T> delegate, FileOffsetStore offsetStore, Path file) {
+        this.delegate = delegate;
+        this.offsetStore = offsetStore;
+        this.file = file;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        delegate.open(executionContext);
+    }
+
+    @Override
+    public T read() throws Exception {
+        return delegate.read();
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        delegate.update(executionContext);
+        offsetStore.save(file, delegate.getOffset());
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        delegate.close();
+    }
+
+    @Override
+    public long getOffset() {
+        return delegate.getOffset();
+    }
+
+    @Override
+    public void saveOffset(ExecutionContext executionContext, long offset) {
+        delegate.saveOffset(executionContext, offset);
+    }
+}
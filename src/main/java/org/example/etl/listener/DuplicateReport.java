@@ -0,0 +1,200 @@
+package org.example.etl.listener;
+
+import org.example.etl.model.TemperatureData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the duplicates of a job execution instead of logging every one of them.
+ * <p>
+ * Per station, the report keeps the number of duplicates and the range of their timestamps; it also keeps the
+ * first few duplicates as examples. Duplicates found by a set-based merge are only counted. If a rejects directory
+ * is configured, every duplicate is additionally handed to a {@link RejectsFileWriter}, which appends them to
+ * {@code duplicates-<job execution id>.csv} in batches on a background thread.
+ * <p>
+ * All methods recording duplicates are thread-safe, so partition workers can share one report.
+ */
+@Component
+public class DuplicateReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateReport.class);
+
+    private final int sampleSize;
+    private final int topStations;
+    private final Path rejectsDir;
+
+    private final Map<String, StationDuplicates> stations = new ConcurrentHashMap<>();
+    private final Queue<TemperatureData> samples = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sampled = new AtomicInteger();
+    private final LongAdder unattributed = new LongAdder();
+    private volatile RejectsFileWriter rejectsWriter;
+    private volatile Path rejectsFile;
+
+    /**
+     * @param sampleSize  number of duplicates kept as examples
+     * @param topStations number of stations listed in the summary
+     * @param rejectsDir  directory of the rejects files; empty to write none
+     */
+    public DuplicateReport(@Value("${etl.duplicates.sample-size:5}") int sampleSize,
+                           @Value("${etl.duplicates.top-stations:10}") int topStations,
+                           @Value("${etl.duplicates.rejects-dir:}") String rejectsDir) {
+        this.sampleSize = sampleSize;
+        this.topStations = topStations;
+        this.rejectsDir = rejectsDir == null || rejectsDir.isBlank() ? null : Path.of(rejectsDir);
+    }
+
+    /**
+     * Clears the report and opens the rejects file of a new job execution.
+     *
+     * @param jobExecutionId id of the job execution, used in the name of the rejects file
+     */
+    public void start(long jobExecutionId) {
+        finish();
+        reset();
+        rejectsFile = null;
+        if (rejectsDir != null) {
+            Path file = rejectsDir.resolve("duplicates-" + jobExecutionId + ".csv");
+            try {
+                Files.createDirectories(rejectsDir);
+                rejectsWriter = new RejectsFileWriter(file);
+                rejectsFile = file;
+            } catch (IOException e) {
+                logger.error("Cannot write rejected duplicates to {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes the remaining duplicates to the rejects file and closes it. Recorded counts are kept.
+     */
+    public void finish() {
+        RejectsFileWriter writer = rejectsWriter;
+        rejectsWriter = null;
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    /**
+     * Clears all counts and examples.
+     */
+    public void reset() {
+        stations.clear();
+        samples.clear();
+        sampled.set(0);
+        unattributed.reset();
+    }
+
+    /**
+     * Records a duplicate row.
+     *
+     * @param item the duplicate
+     */
+    public void add(TemperatureData item) {
+        stations.computeIfAbsent(item.name(), name -> new StationDuplicates()).add(item.datetime());
+        if (sampled.get() < sampleSize && sampled.getAndIncrement() < sampleSize) {
+            samples.add(item);
+        }
+        RejectsFileWriter writer = rejectsWriter;
+        if (writer != null) {
+            writer.add(item);
+        }
+    }
+
+    /**
+     * Records duplicates that are only known by their number.
+     *
+     * @param count the number of duplicates
+     */
+    public void addUnattributed(long count) {
+        unattributed.add(count);
+    }
+
+    /**
+     * Returns the stations with the most duplicates, at most the configured number, most duplicates first.
+     */
+    public List<StationSummary> topStations() {
+        return stations.entrySet().stream()
+                .map(entry -> entry.getValue().summary(entry.getKey()))
+                .sorted(Comparator.comparingLong(StationSummary::duplicates).reversed()
+                        .thenComparing(StationSummary::station))
+                .limit(topStations)
+                .toList();
+    }
+
+    /**
+     * Returns the number of stations with at least one recorded duplicate row.
+     */
+    public int stationCount() {
+        return stations.size();
+    }
+
+    /**
+     * Returns the first recorded duplicates, at most the configured sample size.
+     */
+    public List<TemperatureData> samples() {
+        return new ArrayList<>(samples);
+    }
+
+    /**
+     * Returns the number of duplicates recorded without their rows.
+     */
+    public long unattributed() {
+        return unattributed.sum();
+    }
+
+    /**
+     * Returns the rejects file of the current or last job execution, or {@code null} if none is written.
+     */
+    public Path rejectsFile() {
+        return rejectsFile;
+    }
+
+    /**
+     * Duplicates of one station.
+     *
+     * @param station    the station name
+     * @param duplicates the number of duplicate rows
+     * @param first      the earliest timestamp of a duplicate
+     * @param last       the latest timestamp of a duplicate
+     */
+    public record StationSummary(String station, long duplicates, LocalDateTime first, LocalDateTime last) {
+    }
+
+    private static final class StationDuplicates {
+
+        private long count;
+        private LocalDateTime first;
+        private LocalDateTime last;
+
+        synchronized void add(LocalDateTime datetime) {
+            count++;
+            if (first == null || datetime.isBefore(first)) {
+                first = datetime;
+            }
+            if (last == null || datetime.isAfter(last)) {
+                last = datetime;
+            }
+        }
+
+        synchronized StationSummary summary(String station) {
+            return new StationSummary(station, count, first, last);
+        }
+    }
+}
@@ -1,38 +1,84 @@
 package org.example.etl.listener;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.example.etl.model.TemperatureData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.listener.SkipListener;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 /**
  * Listener that tracks and reports skipped duplicate entries during batch processing.
+ * <p>
+ * Skips are counted by the {@code etl.import.skipped} counter, tagged with the reason {@code duplicate},
+ * {@code read} or {@code process}. Duplicates are not logged one by one but aggregated in a {@link DuplicateReport},
+ * whose summary is logged by {@link ImportJobListener}.
  */
 @Component
 public class DuplicateSkipListener implements SkipListener<TemperatureData, TemperatureData> {
 
     private static final Logger logger = LoggerFactory.getLogger(DuplicateSkipListener.class);
 
-    private final AtomicInteger skipCount = new AtomicInteger(0);
+    static final String SKIPPED_METER = "etl.import.skipped";
+
+    private final Counter duplicates;
+    private final Counter readSkips;
+    private final Counter processSkips;
+    private final DuplicateReport report;
+    private volatile double duplicatesAtReset;
+
+    public DuplicateSkipListener(MeterRegistry meterRegistry, DuplicateReport report) {
+        this.report = report;
+        this.duplicates = skipCounter(meterRegistry, "duplicate");
+        this.readSkips = skipCounter(meterRegistry, "read");
+        this.processSkips = skipCounter(meterRegistry, "process");
+    }
 
     @Override
     public void onSkipInRead(Throwable t) {
+        readSkips.increment();
         logger.warn("Skipped item during read: {}", t.getMessage());
     }
 
     @Override
     public void onSkipInProcess(TemperatureData item, Throwable t) {
+        processSkips.increment();
         logger.warn("Skipped item during process: {} - {}", item, t.getMessage());
     }
 
     @Override
     public void onSkipInWrite(TemperatureData item, Throwable t) {
-        skipCount.incrementAndGet();
-        logger.info("Duplicate entry skipped: name='{}', datetime='{}', temp={}",
-                item.name(), item.datetime(), item.temp());
+        onDuplicate(item);
+    }
+
+    /**
+     * Records a duplicate that was detected without a failed write, e.g. by an {@code INSERT IGNORE} statement.
+     *
+     * @param item the duplicate item
+     */
+    public void onDuplicate(TemperatureData item) {
+        duplicates.increment();
+        report.add(item);
+    }
+
+    /**
+     * Records duplicates that were detected in bulk, without the individual items, e.g. by a set-based merge.
+     *
+     * @param count the number of duplicates
+     */
+    public void onDuplicates(long count) {
+        duplicates.increment(count);
+        report.addUnattributed(count);
+    }
+
+    /**
+     * Returns the report aggregating the duplicates.
+     *
+     * @return the duplicate report
+     */
+    public DuplicateReport getReport() {
+        return report;
     }
 
     /**
@@ -40,14 +86,23 @@ public class DuplicateSkipListener implements SkipListener<TemperatureData, Temp
      *
      * @return the number of skipped entries
      */
-    public int getSkipCount() {
-        return skipCount.get();
+    public long getSkipCount() {
+        return (long) (duplicates.count() - duplicatesAtReset);
     }
 
     /**
-     * Resets the skip counter. Typically called before a new job execution.
+     * Resets the skip count returned by {@link #getSkipCount()}. Typically called before a new job execution; the
+     * published counter keeps counting.
      */
     public void reset() {
-        skipCount.set(0);
+        duplicatesAtReset = duplicates.count();
+        report.reset();
+    }
+
+    private static Counter skipCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(SKIPPED_METER)
+                .description("Items skipped by the import")
+                .tag("reason", reason)
+                .register(meterRegistry);
     }
 }
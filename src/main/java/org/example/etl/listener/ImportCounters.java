@@ -0,0 +1,137 @@
+package org.example.etl.listener;
+
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps per step execution counts that Spring Batch does not track itself.
+ * <p>
+ * Writers that resolve duplicates in the database (e.g. with {@code INSERT IGNORE}) report every item as written.
+ * They record the duplicates among them here, against the step execution running on the current thread, so that
+ * {@link ImportJobListener} can tell inserted rows from duplicates. Counts are kept per step execution, so they
+ * work for partition workers running concurrently.
+ * <p>
+ * Duplicates found after the import step, such as those of the set-based merge of the {@code bulk} write mode,
+ * belong to the rows written by the whole job; they are recorded per job execution and subtracted from the job
+ * totals, so that no step reports a negative number of written rows.
+ * <p>
+ * A sharded writer additionally records the inserted rows and duplicates of every shard database.
+ */
+@Component
+public class ImportCounters {
+
+    private final Map<Long, AtomicLong> writtenDuplicates = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> jobDuplicates = new ConcurrentHashMap<>();
+    private final Map<String, ShardCounter> shards = new ConcurrentHashMap<>();
+
+    /**
+     * Records duplicates that were counted as written by the step execution of the current thread.
+     *
+     * @param count the number of duplicates
+     */
+    public void addWrittenDuplicates(long count) {
+        Long stepExecutionId = currentStepExecutionId();
+        if (count > 0 && stepExecutionId != null) {
+            writtenDuplicates.computeIfAbsent(stepExecutionId, id -> new AtomicLong()).addAndGet(count);
+        }
+    }
+
+    /**
+     * Returns the number of duplicates included in the write count of a step execution.
+     *
+     * @param stepExecution the step execution
+     * @return the number of duplicates reported as written
+     */
+    public long getWrittenDuplicates(StepExecution stepExecution) {
+        Long stepExecutionId = stepExecution.getId();
+        if (stepExecutionId == null) {
+            return 0;
+        }
+        AtomicLong count = writtenDuplicates.get(stepExecutionId);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Records duplicates among the rows that the steps of a job execution counted as written.
+     *
+     * @param jobExecutionId the id of the job execution
+     * @param count          the number of duplicates
+     */
+    public void addJobDuplicates(long jobExecutionId, long count) {
+        if (count > 0) {
+            jobDuplicates.computeIfAbsent(jobExecutionId, id -> new AtomicLong()).addAndGet(count);
+        }
+    }
+
+    /**
+     * Returns the number of duplicates recorded for a job execution as a whole.
+     *
+     * @param jobExecution the job execution
+     * @return the number of duplicates counted as written by its steps
+     */
+    public long getJobDuplicates(JobExecution jobExecution) {
+        AtomicLong count = jobExecution.getId() == null ? null : jobDuplicates.get(jobExecution.getId());
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Records the rows a sharded writer sent to one shard.
+     *
+     * @param shard      name of the shard
+     * @param inserted   the number of inserted rows
+     * @param duplicates the number of duplicates
+     */
+    public void addShardCounts(String shard, long inserted, long duplicates) {
+        ShardCounter counter = shards.computeIfAbsent(shard, name -> new ShardCounter());
+        counter.inserted.add(inserted);
+        counter.duplicates.add(duplicates);
+    }
+
+    /**
+     * Returns the counts of every shard written to since the last reset, by shard name.
+     */
+    public Map<String, ShardCounts> getShardCounts() {
+        Map<String, ShardCounts> counts = new TreeMap<>();
+        shards.forEach((shard, counter) ->
+                counts.put(shard, new ShardCounts(counter.inserted.sum(), counter.duplicates.sum())));
+        return counts;
+    }
+
+    /**
+     * Clears all counts. Typically called before a new job execution.
+     */
+    public void reset() {
+        writtenDuplicates.clear();
+        jobDuplicates.clear();
+        shards.clear();
+    }
+
+    /**
+     * Rows written to one shard.
+     *
+     * @param inserted   the number of inserted rows
+     * @param duplicates the number of duplicates
+     */
+    public record ShardCounts(long inserted, long duplicates) {
+    }
+
+    private static final class ShardCounter {
+
+        final LongAdder inserted = new LongAdder();
+        final LongAdder duplicates = new LongAdder();
+    }
+
+    private static Long currentStepExecutionId() {
+        StepContext context = StepSynchronizationManager.getContext();
+        return context == null ? null : context.getStepExecution().getId();
+    }
+}
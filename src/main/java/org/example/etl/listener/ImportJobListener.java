@@ -1,15 +1,24 @@
 package org.example.etl.listener;
 
+import org.example.etl.model.TemperatureData;
+import org.example.etl.partition.InputFilesPartitioner;
+import org.example.etl.repository.ImportRunSummaryStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.job.JobExecution;
 import org.springframework.batch.core.listener.JobExecutionListener;
 import org.springframework.batch.core.step.StepExecution;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
 /**
- * Listener that prints job execution summary after completion.
+ * Listener that prints job execution summary after completion and stores it in the {@link ImportRunSummaryStore}.
  */
 @Component
 public class ImportJobListener implements JobExecutionListener {
@@ -17,14 +26,21 @@ public class ImportJobListener implements JobExecutionListener {
     private static final Logger logger = LoggerFactory.getLogger(ImportJobListener.class);
 
     private final DuplicateSkipListener duplicateSkipListener;
+    private final ImportCounters importCounters;
+    private final ImportRunSummaryStore summaryStore;
 
-    public ImportJobListener(DuplicateSkipListener duplicateSkipListener) {
+    public ImportJobListener(DuplicateSkipListener duplicateSkipListener, ImportCounters importCounters,
+                             ImportRunSummaryStore summaryStore) {
         this.duplicateSkipListener = duplicateSkipListener;
+        this.importCounters = importCounters;
+        this.summaryStore = summaryStore;
     }
 
     @Override
     public void beforeJob(JobExecution jobExecution) {
         duplicateSkipListener.reset();
+        duplicateSkipListener.getReport().start(jobExecution.getId());
+        importCounters.reset();
         logger.info("Starting temperature import job: {}", jobExecution.getJobInstance().getJobName());
     }
 
@@ -34,13 +50,33 @@ public class ImportJobListener implements JobExecutionListener {
         long totalWritten = 0;
         long totalSkipped = 0;
 
+        List<FileSummary> files = new ArrayList<>();
+
         for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
-            totalRead += stepExecution.getReadCount();
-            totalWritten += stepExecution.getWriteCount();
-            totalSkipped += stepExecution.getSkipCount();
+            // duplicates resolved by the database are part of the write count
+            long writtenDuplicates = importCounters.getWrittenDuplicates(stepExecution);
+            long read = stepExecution.getReadCount();
+            long written = stepExecution.getWriteCount() - writtenDuplicates;
+            // duplicates dropped by the duplicate filter are counted as filtered items
+            long skipped = stepExecution.getSkipCount() + stepExecution.getFilterCount() + writtenDuplicates;
+            totalRead += read;
+            totalWritten += written;
+            totalSkipped += skipped;
+
+            String inputFile = inputFile(stepExecution);
+            if (inputFile != null) {
+                files.add(new FileSummary(inputFile, read, written, skipped, stepExecution.getStatus()));
+            }
         }
 
-        int duplicatesSkipped = duplicateSkipListener.getSkipCount();
+        // duplicates of a set-based merge belong to the rows the import steps counted as written
+        long jobDuplicates = importCounters.getJobDuplicates(jobExecution);
+        totalWritten -= jobDuplicates;
+        totalSkipped += jobDuplicates;
+
+        long duplicatesSkipped = duplicateSkipListener.getSkipCount();
+        DuplicateReport duplicateReport = duplicateSkipListener.getReport();
+        duplicateReport.finish();
 
         BatchStatus status = jobExecution.getStatus();
 
@@ -53,6 +89,24 @@ public class ImportJobListener implements JobExecutionListener {
         logger.info("Duplicates skipped:        {}", duplicatesSkipped);
         logger.info("Total skipped:             {}", totalSkipped);
 
+        logDuplicates(duplicateReport);
+
+        if (!files.isEmpty()) {
+            logger.info("Files:                     {}", files.size());
+            files.sort(Comparator.comparing(FileSummary::file));
+            for (FileSummary file : files) {
+                logger.info("  {}: {} read, {} inserted, {} skipped, {}",
+                        file.file(), file.read(), file.inserted(), file.skipped(), file.status());
+            }
+        }
+
+        Map<String, ImportCounters.ShardCounts> shards = importCounters.getShardCounts();
+        if (!shards.isEmpty()) {
+            logger.info("Shards:                    {}", shards.size());
+            shards.forEach((shard, counts) -> logger.info("  {}: {} inserted, {} duplicates",
+                    shard, counts.inserted(), counts.duplicates()));
+        }
+
         if (jobExecution.getAllFailureExceptions().isEmpty()) {
             logger.info("Errors encountered:        0");
         } else {
@@ -62,5 +116,42 @@ public class ImportJobListener implements JobExecutionListener {
             }
         }
         logger.info("===========================================");
+
+        summaryStore.record(jobExecution, totalRead, totalWritten, totalSkipped, duplicatesSkipped);
+    }
+
+    private static void logDuplicates(DuplicateReport report) {
+        List<DuplicateReport.StationSummary> stations = report.topStations();
+        if (!stations.isEmpty()) {
+            logger.info("Duplicates by station:     {} of {} stations", stations.size(), report.stationCount());
+            for (DuplicateReport.StationSummary station : stations) {
+                logger.info("  {}: {} between {} and {}",
+                        station.station(), station.duplicates(), station.first(), station.last());
+            }
+            logger.info("Example duplicates:");
+            for (TemperatureData sample : report.samples()) {
+                logger.info("  name='{}', datetime='{}', temp={}", sample.name(), sample.datetime(), sample.temp());
+            }
+        }
+        if (report.unattributed() > 0) {
+            logger.info("Duplicates merged in bulk: {}", report.unattributed());
+        }
+        if (report.rejectsFile() != null) {
+            logger.info("Rejected duplicates:       {}", report.rejectsFile());
+        }
+    }
+
+    /**
+     * Returns the input file of a step execution that imported one file of a multi-file run, or {@code null}.
+     */
+    private static String inputFile(StepExecution stepExecution) {
+        ExecutionContext context = stepExecution.getExecutionContext();
+        if (context == null || !context.containsKey(InputFilesPartitioner.INPUT_FILE_KEY)) {
+            return null;
+        }
+        return context.getString(InputFilesPartitioner.INPUT_FILE_KEY);
+    }
+
+    private record FileSummary(String file, long read, long inserted, long skipped, BatchStatus status) {
     }
 }
@@ -0,0 +1,151 @@
+package org.example.etl.listener;
+
+import org.example.etl.export.TemperatureCsvLineAggregator;
+import org.example.etl.model.TemperatureData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends rejected rows to a CSV file in the input format, in batches on a background thread.
+ * <p>
+ * Rows are handed over through a bounded queue, so a slow disk slows down the import instead of filling the heap.
+ * If writing fails, or the background thread has died while the queue is full, the error is logged once and further
+ * rows are discarded.
+ */
+class RejectsFileWriter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RejectsFileWriter.class);
+
+    private static final int QUEUE_CAPACITY = 16 * 1024;
+    private static final int BATCH_SIZE = 1024;
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final TemperatureData END = new TemperatureData("", LocalDateTime.MIN, 0.0);
+
+    private final Path file;
+    private final BufferedWriter writer;
+    private final BlockingQueue<TemperatureData> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread thread;
+    private volatile boolean failed;
+
+    /**
+     * Creates the file, writes its header and starts the background thread.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be created
+     */
+    RejectsFileWriter(Path file) throws IOException {
+        this.file = file;
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        writer.write(TemperatureCsvLineAggregator.HEADER + "\n");
+        this.thread = Thread.ofPlatform().name("duplicate-rejects").daemon().start(this::run);
+    }
+
+    /**
+     * Queues a row, waiting while the queue is full and the background thread is alive.
+     *
+     * @param item the rejected row
+     */
+    void add(TemperatureData item) {
+        if (failed) {
+            return;
+        }
+        try {
+            if (!offer(item)) {
+                fail("the writer thread has stopped");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the queued rows and closes the file.
+     */
+    @Override
+    public void close() {
+        try {
+            if (offer(END)) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // a dead thread never takes from the queue again, so waiting for space must not outlive it
+    private boolean offer(TemperatureData item) throws InterruptedException {
+        while (!queue.offer(item, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (!thread.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void run() {
+        List<TemperatureData> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder line = new StringBuilder(64);
+        try (writer) {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (TemperatureData item : batch) {
+                    if (item == END) {
+                        flush();
+                        return;
+                    }
+                    if (!failed) {
+                        write(item, line);
+                    }
+                }
+                batch.clear();
+                flush(); // make every batch visible to someone tailing the file
+            }
+        } catch (IOException e) {
+            fail(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(TemperatureData item, StringBuilder line) {
+        line.setLength(0);
+        TemperatureCsvLineAggregator.append(item, line);
+        line.append('\n');
+        try {
+            writer.append(line);
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    private void flush() {
+        if (failed) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    private void fail(String reason) {
+        if (!failed) {
+            failed = true;
+            logger.error("Failed to write rejected rows to {}; further rows are discarded: {}", file, reason);
+        }
+    }
+}
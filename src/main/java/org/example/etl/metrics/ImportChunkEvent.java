@@ -0,0 +1,40 @@
+package org.example.etl.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event covering one committed chunk of an import step, from its first read until its commit.
+ */
+@Name("org.example.etl.ImportChunk")
+@Label("Import Chunk")
+@Category({"ETL", "Import"})
+@Description("A chunk of temperature records read, written and committed by an import step")
+@StackTrace(false)
+class ImportChunkEvent extends jdk.jfr.Event {
+
+    @Label("Step")
+    String step;
+
+    @Label("Items Read")
+    long items;
+
+    @Label("Duplicates")
+    long duplicates;
+
+    @Label("Read Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long readTime;
+
+    @Label("Write Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long writeTime;
+
+    @Label("Commit Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long commitTime;
+}
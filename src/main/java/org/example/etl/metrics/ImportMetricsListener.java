@@ -0,0 +1,201 @@
+package org.example.etl.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.example.etl.listener.ImportCounters;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.listener.ChunkListener;
+import org.springframework.batch.core.listener.ItemReadListener;
+import org.springframework.batch.core.listener.ItemWriteListener;
+import org.springframework.batch.core.listener.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.batch.infrastructure.item.Chunk;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Publishes chunk-level telemetry of an import step through Micrometer and as {@link ImportChunkEvent JFR events}.
+ * <p>
+ * For every committed chunk it records the time spent reading (including parsing), writing and committing, and
+ * updates the rows per second and the share of duplicates of that chunk:
+ * <ul>
+ *     <li>{@code etl.import.chunk.read}, {@code etl.import.chunk.write}, {@code etl.import.chunk.commit}: timers</li>
+ *     <li>{@code etl.import.rows}: counter of the rows read</li>
+ *     <li>{@code etl.import.rows.per.second}, {@code etl.import.duplicate.ratio}: gauges of the last chunk</li>
+ * </ul>
+ * Meters are tagged with the step name; the gauges additionally with the partition of a partitioned or multi-file
+ * step, and are removed when the step execution ends. Duplicates are the write skips, the items filtered by the
+ * duplicate filter and the duplicates resolved by the database, so duplicates of the bulk-load mode only show up in
+ * its merge step.
+ * <p>
+ * The listener must be registered as {@link StepExecutionListener}, {@link ChunkListener}, {@link ItemReadListener}
+ * and {@link ItemWriteListener} of the step. Use one instance per step execution, e.g. by declaring it
+ * {@code @StepScope}.
+ */
+public class ImportMetricsListener
+        implements StepExecutionListener, ChunkListener, ItemReadListener<Object>, ItemWriteListener<Object> {
+
+    private final MeterRegistry meterRegistry;
+    private final ImportCounters importCounters;
+    private final LongSupplier clock;
+
+    private Timer readTimer;
+    private Timer writeTimer;
+    private Timer commitTimer;
+    private Counter rowCounter;
+    private Gauge rowsPerSecondGauge;
+    private Gauge duplicateRatioGauge;
+    private volatile double rowsPerSecond;
+    private volatile double duplicateRatio;
+
+    private ImportChunkEvent event;
+    private long chunkStart;
+    private long readStart;
+    private long readNanos;
+    private long writeStart;
+    private long writeEnd;
+    private long writeNanos;
+    private long readCountBefore;
+    private long duplicatesBefore;
+
+    /**
+     * @param meterRegistry  registry the meters are registered with
+     * @param importCounters counters of the duplicates resolved by the database
+     */
+    public ImportMetricsListener(MeterRegistry meterRegistry, ImportCounters importCounters) {
+        this(meterRegistry, importCounters, System::nanoTime);
+    }
+
+    ImportMetricsListener(MeterRegistry meterRegistry, ImportCounters importCounters, LongSupplier clock) {
+        this.meterRegistry = meterRegistry;
+        this.importCounters = importCounters;
+        this.clock = clock;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        String stepExecutionName = stepExecution.getStepName();
+        int separator = stepExecutionName.indexOf(':');
+        String step = separator < 0 ? stepExecutionName : stepExecutionName.substring(0, separator);
+        String partition = separator < 0 ? "none" : stepExecutionName.substring(separator + 1);
+        Tags tags = Tags.of("step", step);
+
+        readTimer = Timer.builder("etl.import.chunk.read")
+                .description("Time spent reading and parsing the items of a chunk")
+                .tags(tags)
+                .register(meterRegistry);
+        writeTimer = Timer.builder("etl.import.chunk.write")
+                .description("Time spent writing a chunk")
+                .tags(tags)
+                .register(meterRegistry);
+        commitTimer = Timer.builder("etl.import.chunk.commit")
+                .description("Time from the end of the last write of a chunk until its commit")
+                .tags(tags)
+                .register(meterRegistry);
+        rowCounter = Counter.builder("etl.import.rows")
+                .description("Rows read by committed chunks")
+                .tags(tags)
+                .register(meterRegistry);
+        rowsPerSecondGauge = Gauge.builder("etl.import.rows.per.second", this, listener -> listener.rowsPerSecond)
+                .description("Rows per second of the last committed chunk")
+                .tags(tags.and("partition", partition))
+                .register(meterRegistry);
+        duplicateRatioGauge = Gauge.builder("etl.import.duplicate.ratio", this, listener -> listener.duplicateRatio)
+                .description("Share of duplicates among the rows of the last committed chunk")
+                .tags(tags.and("partition", partition))
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        meterRegistry.remove(rowsPerSecondGauge);
+        meterRegistry.remove(duplicateRatioGauge);
+        return null;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        event = new ImportChunkEvent();
+        event.begin();
+        chunkStart = clock.getAsLong();
+        readNanos = 0;
+        writeNanos = 0;
+        writeEnd = -1;
+        readCountBefore = stepExecution.getReadCount();
+        duplicatesBefore = duplicates(stepExecution);
+    }
+
+    @Override
+    public void beforeRead() {
+        readStart = clock.getAsLong();
+    }
+
+    @Override
+    public void afterRead(Object item) {
+        readNanos += clock.getAsLong() - readStart;
+    }
+
+    @Override
+    public void onReadError(Exception ex) {
+        readNanos += clock.getAsLong() - readStart;
+    }
+
+    @Override
+    public void beforeWrite(Chunk<?> items) {
+        writeStart = clock.getAsLong();
+    }
+
+    @Override
+    public void afterWrite(Chunk<?> items) {
+        writeEnd = clock.getAsLong();
+        writeNanos += writeEnd - writeStart;
+    }
+
+    @Override
+    public void onWriteError(Exception exception, Chunk<?> items) {
+        writeNanos += clock.getAsLong() - writeStart;
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        long end = clock.getAsLong();
+        long commitNanos = writeEnd < 0 ? 0 : end - writeEnd;
+        long items = stepExecution.getReadCount() - readCountBefore;
+        long duplicates = duplicates(stepExecution) - duplicatesBefore;
+
+        readTimer.record(readNanos, TimeUnit.NANOSECONDS);
+        writeTimer.record(writeNanos, TimeUnit.NANOSECONDS);
+        commitTimer.record(commitNanos, TimeUnit.NANOSECONDS);
+        rowCounter.increment(items);
+        rowsPerSecond = items * 1e9 / Math.max(end - chunkStart, 1);
+        duplicateRatio = items == 0 ? 0 : (double) duplicates / items;
+
+        if (event.shouldCommit()) {
+            event.step = stepExecution.getStepName();
+            event.items = items;
+            event.duplicates = duplicates;
+            event.readTime = readNanos;
+            event.writeTime = writeNanos;
+            event.commitTime = commitNanos;
+            event.commit();
+        }
+        event = null;
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        event = null;
+    }
+
+    private long duplicates(StepExecution stepExecution) {
+        return stepExecution.getWriteSkipCount() + stepExecution.getFilterCount()
+                + importCounters.getWrittenDuplicates(stepExecution);
+    }
+}
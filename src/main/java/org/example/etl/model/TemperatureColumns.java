@@ -0,0 +1,204 @@
+package org.example.etl.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * A block of temperature readings stored column by column: station ids, timestamps as epoch seconds and
+ * temperatures in parallel primitive arrays, with the station names dictionary-encoded.
+ * <p>
+ * A block is filled by a reader, written, cleared and filled again, so importing through it allocates no objects
+ * per row. Timestamps are local date-times encoded as seconds since {@code 1970-01-01T00:00} without any time zone
+ * conversion, see {@link #epochSecond(LocalDateTime)}. Not thread-safe.
+ */
+public class TemperatureColumns {
+
+    private static final int MAX_STATIONS = 1 << 16;
+
+    private final int[] stations;
+    private final long[] epochSeconds;
+    private final double[] temps;
+    private final StationDictionary dictionary = new StationDictionary();
+    private int size;
+
+    /**
+     * @param capacity the maximum number of rows of the block
+     */
+    public TemperatureColumns(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.stations = new int[capacity];
+        this.epochSeconds = new long[capacity];
+        this.temps = new double[capacity];
+    }
+
+    /**
+     * Appends a row.
+     *
+     * @param name        the station name
+     * @param epochSecond the local timestamp, see {@link #epochSecond(LocalDateTime)}
+     * @param temp        the temperature
+     * @throws IllegalStateException if the block is full
+     */
+    public void add(String name, long epochSecond, double temp) {
+        if (size == temps.length) {
+            throw new IllegalStateException("Block is full: " + size + " rows");
+        }
+        stations[size] = dictionary.id(name);
+        epochSeconds[size] = epochSecond;
+        temps[size] = temp;
+        size++;
+    }
+
+    /**
+     * Appends a row.
+     *
+     * @param item the reading
+     * @throws IllegalStateException if the block is full
+     */
+    public void add(TemperatureData item) {
+        add(item.name(), epochSecond(item.datetime()), item.temp());
+    }
+
+    /**
+     * Removes all rows. The station dictionary is kept unless it has grown very large.
+     */
+    public void clear() {
+        size = 0;
+        if (dictionary.size() > MAX_STATIONS) {
+            dictionary.clear();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return temps.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == temps.length;
+    }
+
+    public String name(int row) {
+        return dictionary.name(stations[checkRow(row)]);
+    }
+
+    public long epochSecond(int row) {
+        return epochSeconds[checkRow(row)];
+    }
+
+    public double temp(int row) {
+        return temps[checkRow(row)];
+    }
+
+    /**
+     * Returns a row as a record, e.g. to report it as a duplicate.
+     */
+    public TemperatureData get(int row) {
+        return new TemperatureData(name(row), datetime(epochSecond(row)), temp(row));
+    }
+
+    /**
+     * Encodes a local date-time as the seconds since {@code 1970-01-01T00:00} of the same clock.
+     */
+    public static long epochSecond(LocalDateTime datetime) {
+        return datetime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Decodes a local date-time encoded by {@link #epochSecond(LocalDateTime)}.
+     */
+    public static LocalDateTime datetime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return row;
+    }
+
+    /**
+     * Open-addressing map from station names to dense ids, without boxing.
+     */
+    private static final class StationDictionary {
+
+        private String[] names = new String[64];
+        private String[] slots = new String[128];
+        private int[] ids = new int[128];
+        private int size;
+
+        int id(String name) {
+            int mask = slots.length - 1;
+            for (int slot = mix(name.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+                String existing = slots[slot];
+                if (existing == null) {
+                    return insert(name, slot);
+                }
+                if (existing == name || existing.equals(name)) {
+                    return ids[slot];
+                }
+            }
+        }
+
+        String name(int id) {
+            return names[id];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            Arrays.fill(names, null);
+            Arrays.fill(slots, null);
+            size = 0;
+        }
+
+        private int insert(String name, int slot) {
+            int id = size++;
+            if (id == names.length) {
+                names = Arrays.copyOf(names, names.length * 2);
+            }
+            names[id] = name;
+            slots[slot] = name;
+            ids[slot] = id;
+            if (size * 2 > slots.length) {
+                rehash();
+            }
+            return id;
+        }
+
+        private void rehash() {
+            String[] oldSlots = slots;
+            int[] oldIds = ids;
+            slots = new String[oldSlots.length * 2];
+            ids = new int[oldSlots.length * 2];
+            int mask = slots.length - 1;
+            for (int i = 0; i < oldSlots.length; i++) {
+                if (oldSlots[i] != null) {
+                    int slot = mix(oldSlots[i].hashCode()) & mask;
+                    while (slots[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slots[slot] = oldSlots[i];
+                    ids[slot] = oldIds[i];
+                }
+            }
+        }
+
+        private static int mix(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
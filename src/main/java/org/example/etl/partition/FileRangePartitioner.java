@@ -0,0 +1,104 @@
+package org.example.etl.partition;
+
+import org.springframework.batch.core.partition.Partitioner;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Partitioner that splits a single CSV file into newline-aligned byte ranges.
+ * <p>
+ * The header line is excluded from the first range. Each partition's {@link ExecutionContext} holds the
+ * {@code [start, end)} offsets of its range, where {@code start} is always the first byte of a line.
+ */
+public class FileRangePartitioner implements Partitioner {
+
+    public static final String START_KEY = "range.start";
+    public static final String END_KEY = "range.end";
+
+    private static final int SCAN_BUFFER_SIZE = 8 * 1024;
+
+    private final Resource resource;
+    private final long minPartitionSize;
+
+    /**
+     * @param resource         the file to split
+     * @param minPartitionSize smallest range worth a partition of its own, in bytes
+     */
+    public FileRangePartitioner(Resource resource, long minPartitionSize) {
+        this.resource = resource;
+        this.minPartitionSize = minPartitionSize;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataStart = scanPastNewline(channel, 0); // skip header line
+            long dataLength = size - dataStart;
+            long maxPartitions = Math.max(1, dataLength / Math.max(1, minPartitionSize));
+            int partitions = (int) Math.min(Math.max(1, gridSize), maxPartitions);
+            long step = dataLength / partitions;
+
+            Map<String, ExecutionContext> result = new LinkedHashMap<>();
+            long start = dataStart;
+            for (int i = 0; i < partitions && start < size; i++) {
+                long end = i == partitions - 1 ? size : nextLineStart(channel, Math.max(start, dataStart + step * (i + 1)));
+                if (end <= start) {
+                    continue;
+                }
+                ExecutionContext context = new ExecutionContext();
+                context.putLong(START_KEY, start);
+                context.putLong(END_KEY, end);
+                result.put("partition" + result.size(), context);
+                start = end;
+            }
+            if (result.isEmpty()) {
+                ExecutionContext context = new ExecutionContext();
+                context.putLong(START_KEY, dataStart);
+                context.putLong(END_KEY, size);
+                result.put("partition0", context);
+            }
+            return result;
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to split " + resource.getDescription() + " into partitions", e);
+        }
+    }
+
+    /**
+     * Returns the offset of the first line starting at or after {@code position}, or the file size if there is none.
+     */
+    static long nextLineStart(FileChannel channel, long position) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        // position - 1 being a newline means position already starts a line
+        return scanPastNewline(channel, position - 1);
+    }
+
+    private static long scanPastNewline(FileChannel channel, long from) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = from;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                if (buffer.get() == '\n') {
+                    return position + buffer.position();
+                }
+            }
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.etl.partition;
+
+import org.example.etl.reader.CompressedInputStreams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.partition.Partitioner;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Partitioner that creates one partition per input file matching a directory or a glob pattern.
+ * <p>
+ * Each partition's {@link ExecutionContext} holds the URL of its file under {@link #INPUT_FILE_KEY}; partitions are
+ * named {@code file0}, {@code file1}, ... in the order of the sorted file URLs. A location without a resource
+ * prefix is a file system path, and a directory stands for the CSV files in it, compressed or not.
+ */
+public class InputFilesPartitioner implements Partitioner {
+
+    private static final Logger logger = LoggerFactory.getLogger(InputFilesPartitioner.class);
+
+    public static final String INPUT_FILE_KEY = "inputFile";
+
+    private static final String DIRECTORY_PATTERN = "*";
+
+    private final ResourcePatternResolver resourceResolver;
+    private final String location;
+
+    /**
+     * @param resourceResolver resolves the location to files
+     * @param location         a directory, a file or a glob pattern such as {@code /data/incoming/*.csv}
+     */
+    public InputFilesPartitioner(ResourcePatternResolver resourceResolver, String location) {
+        this.resourceResolver = resourceResolver;
+        this.location = location;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        String pattern = location.contains(":") && !new File(location).isAbsolute() ? location : "file:" + location;
+        boolean directory = !pattern.contains("*") && !pattern.contains("?")
+                && isDirectory(resourceResolver.getResource(pattern));
+        if (directory) {
+            pattern = pattern.endsWith("/") ? pattern + DIRECTORY_PATTERN : pattern + "/" + DIRECTORY_PATTERN;
+        }
+        Resource[] resources;
+        try {
+            resources = resourceResolver.getResources(pattern);
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to list input files " + location, e);
+        }
+
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        Arrays.stream(resources)
+                .filter(Resource::isReadable)
+                .filter(resource -> !directory || isCsv(resource.getFilename()))
+                .map(InputFilesPartitioner::url)
+                .sorted(Comparator.naturalOrder())
+                .forEach(url -> {
+                    ExecutionContext context = new ExecutionContext();
+                    context.putString(INPUT_FILE_KEY, url);
+                    partitions.put("file" + partitions.size(), context);
+                });
+        if (partitions.isEmpty()) {
+            logger.warn("No input files match {}", location);
+        }
+        return partitions;
+    }
+
+    private static boolean isCsv(String filename) {
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") || CompressedInputStreams.isCompressed(name)
+                && name.substring(0, name.lastIndexOf('.')).endsWith(".csv");
+    }
+
+    private static boolean isDirectory(Resource resource) {
+        try {
+            return resource.exists() && resource.getFile().isDirectory();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String url(Resource resource) {
+        try {
+            return resource.getURL().toExternalForm();
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to resolve input file " + resource.getDescription(), e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.etl.partition;
+
+import org.example.etl.export.ExportFilter;
+import org.springframework.batch.core.partition.Partitioner;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Partitioner that splits the {@code id} range of the {@code temperature_data} rows matching an
+ * {@link ExportFilter} into contiguous ranges of equal width.
+ * <p>
+ * Each partition's {@link ExecutionContext} holds the inclusive {@code [first, last]} ids of its range and the
+ * number of the partition, which names its output file. Without matching rows there is a single, empty range.
+ */
+public class KeyRangePartitioner implements Partitioner {
+
+    public static final String FIRST_KEY = "keys.first";
+    public static final String LAST_KEY = "keys.last";
+    public static final String PART_KEY = "keys.part";
+
+    static final String ID_RANGE_SQL = "SELECT MIN(id), MAX(id) FROM temperature_data WHERE 1 = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExportFilter filter;
+    private final long minPartitionSize;
+
+    /**
+     * @param jdbcTemplate     template on the database holding {@code temperature_data}
+     * @param filter           the rows to split
+     * @param minPartitionSize smallest id range worth a partition of its own
+     */
+    public KeyRangePartitioner(JdbcTemplate jdbcTemplate, ExportFilter filter, long minPartitionSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.filter = filter;
+        this.minPartitionSize = minPartitionSize;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        long[] ids = jdbcTemplate.queryForObject(ID_RANGE_SQL + filter.conditions(),
+                (rs, rowNum) -> rs.getObject(1) == null ? null : new long[]{rs.getLong(1), rs.getLong(2)},
+                filter.arguments().toArray());
+        Map<String, ExecutionContext> result = new LinkedHashMap<>();
+        if (ids == null) {
+            result.put("partition0", range(0, 1, 0));
+            return result;
+        }
+        long first = ids[0];
+        long count = ids[1] - first + 1;
+        long maxPartitions = Math.max(1, count / Math.max(1, minPartitionSize));
+        int partitions = (int) Math.min(Math.max(1, gridSize), maxPartitions);
+        long step = count / partitions;
+        for (int i = 0; i < partitions; i++) {
+            long last = i == partitions - 1 ? ids[1] : first + step - 1;
+            result.put("partition" + i, range(i, first, last));
+            first = last + 1;
+        }
+        return result;
+    }
+
+    private static ExecutionContext range(int part, long first, long last) {
+        ExecutionContext context = new ExecutionContext();
+        context.putInt(PART_KEY, part);
+        context.putLong(FIRST_KEY, first);
+        context.putLong(LAST_KEY, last);
+        return context;
+    }
+}
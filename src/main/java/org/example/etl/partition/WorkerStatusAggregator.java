@@ -0,0 +1,25 @@
+package org.example.etl.partition;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.partition.StepExecutionAggregator;
+import org.springframework.batch.core.step.StepExecution;
+
+import java.util.Collection;
+
+/**
+ * Aggregates only the status of partition workers into the manager step execution.
+ * <p>
+ * Read, write and skip counts deliberately stay on the worker step executions: {@code ImportJobListener} sums
+ * the counts of every step execution of the job, so copying them onto the manager would count each row twice.
+ */
+public class WorkerStatusAggregator implements StepExecutionAggregator {
+
+    @Override
+    public void aggregate(StepExecution result, Collection<StepExecution> executions) {
+        for (StepExecution execution : executions) {
+            result.setStatus(BatchStatus.max(result.getStatus(), execution.getStatus()));
+            result.setExitStatus(result.getExitStatus().and(execution.getExitStatus()));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.etl.policy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.listener.ChunkListener;
+import org.springframework.batch.core.listener.ItemWriteListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.repeat.policy.SimpleCompletionPolicy;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Completion policy that adapts the chunk size to the measured write and commit latency.
+ * <p>
+ * The policy must also be registered as {@link ChunkListener} and {@link ItemWriteListener} of the step. It measures
+ * the time from the first write of a chunk until the chunk has been committed and derives the chunk size that would
+ * have met the latency target. The next chunk size moves towards it by at most a factor of two per chunk and stays
+ * within the configured bounds. Chunks that were rolled back are not taken into account.
+ * <p>
+ * Every change is logged, and the current chunk size is stored under {@link #CHUNK_SIZE_KEY} in the step
+ * execution context. Use one instance per step execution, e.g. by declaring it {@code @StepScope}.
+ */
+@SuppressWarnings("rawtypes")
+public class AdaptiveChunkCompletionPolicy extends SimpleCompletionPolicy
+        implements ChunkListener, ItemWriteListener<Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveChunkCompletionPolicy.class);
+
+    public static final String CHUNK_SIZE_KEY = "adaptiveChunk.size";
+
+    /** Latencies within this fraction of the target leave the chunk size unchanged. */
+    private static final double TOLERANCE = 0.1;
+    private static final double MAX_FACTOR = 2.0;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long targetNanos;
+    private final LongSupplier clock;
+
+    private long writeStart = -1;
+    private int written;
+
+    /**
+     * @param initialSize   chunk size of the first chunk, clamped to the bounds
+     * @param minSize       smallest chunk size
+     * @param maxSize       largest chunk size
+     * @param targetLatency write and commit latency to aim for
+     */
+    public AdaptiveChunkCompletionPolicy(int initialSize, int minSize, int maxSize, Duration targetLatency) {
+        this(initialSize, minSize, maxSize, targetLatency, System::nanoTime);
+    }
+
+    AdaptiveChunkCompletionPolicy(int initialSize, int minSize, int maxSize, Duration targetLatency,
+                                  LongSupplier clock) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("Invalid chunk size bounds: [" + minSize + ", " + maxSize + "]");
+        }
+        if (targetLatency.isNegative() || targetLatency.isZero()) {
+            throw new IllegalArgumentException("Target latency must be positive: " + targetLatency);
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetNanos = targetLatency.toNanos();
+        this.clock = clock;
+        setChunkSize(clamp(initialSize, minSize, maxSize));
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        writeStart = -1;
+        written = 0;
+    }
+
+    @Override
+    public void beforeWrite(Chunk<?> items) {
+        if (writeStart < 0) {
+            writeStart = clock.getAsLong();
+        }
+        written += items.size();
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        if (writeStart >= 0 && written > 0) {
+            adjust(written, clock.getAsLong() - writeStart);
+            context.getStepContext().getStepExecution().getExecutionContext().putInt(CHUNK_SIZE_KEY, getChunkSize());
+        }
+        writeStart = -1;
+        written = 0;
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        writeStart = -1;
+        written = 0;
+    }
+
+    private void adjust(int items, long latencyNanos) {
+        if (Math.abs(latencyNanos - targetNanos) <= targetNanos * TOLERANCE) {
+            return;
+        }
+        int current = getChunkSize();
+        double desired = (double) items * targetNanos / Math.max(latencyNanos, 1);
+        double bounded = Math.max(current / MAX_FACTOR, Math.min(current * MAX_FACTOR, desired));
+        int next = clamp((int) Math.round(bounded), minSize, maxSize);
+        if (next != current) {
+            logger.info("Chunk size {} -> {} (chunk of {} items written and committed in {} ms, target {} ms)",
+                    current, next, items, latencyNanos / 1_000_000, targetNanos / 1_000_000);
+            setChunkSize(next);
+        }
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
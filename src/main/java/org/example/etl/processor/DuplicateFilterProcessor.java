@@ -0,0 +1,81 @@
+package org.example.etl.processor;
+
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.model.TemperatureData;
+import org.springframework.batch.infrastructure.item.ItemProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Processor that drops duplicates of {@code (name, datetime)} before they reach the writer.
+ * <p>
+ * Keys are kept in a {@link TemperatureKeyIndex}. The first time a station is seen for a day, the keys already
+ * stored in {@code temperature_data} for that station and day are loaded into the index, so the index is warmed
+ * for exactly the time range the file covers and each warm-up query is a range scan of the
+ * {@code uk_name_datetime} index. Rows repeated within the file and rows loaded by earlier runs are both
+ * filtered, saving the round trip and the unique index probe. Filtered items are reported to the
+ * {@link DuplicateSkipListener} and counted as filtered by the step.
+ * <p>
+ * Every step execution uses its own instance. Partition workers therefore only filter duplicates within their own
+ * range and against the database; duplicates between ranges are still resolved by the writer.
+ */
+public class DuplicateFilterProcessor implements ItemProcessor<TemperatureData, TemperatureData> {
+
+    static final String WARM_UP_SQL =
+            "SELECT datetime FROM temperature_data WHERE name = ? AND datetime >= ? AND datetime < ?";
+    static final String NORMALIZED_WARM_UP_SQL = "SELECT r.datetime FROM temperature_reading r "
+            + "JOIN station s ON s.id = r.station_id WHERE s.name = ? AND r.datetime >= ? AND r.datetime < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DuplicateSkipListener duplicateListener;
+    private final TemperatureKeyIndex index;
+    private final String warmUpSql;
+    private final Map<String, LongHashSet> warmedDaysByStation = new HashMap<>();
+
+    /**
+     * @param jdbcTemplate      template used to load existing keys
+     * @param duplicateListener listener notified about every filtered duplicate
+     */
+    public DuplicateFilterProcessor(JdbcTemplate jdbcTemplate, DuplicateSkipListener duplicateListener) {
+        this(jdbcTemplate, duplicateListener, false);
+    }
+
+    /**
+     * @param jdbcTemplate      template used to load existing keys
+     * @param duplicateListener listener notified about every filtered duplicate
+     * @param normalized        {@code true} to load existing keys from {@code temperature_reading} instead of
+     *                          {@code temperature_data}
+     */
+    public DuplicateFilterProcessor(JdbcTemplate jdbcTemplate, DuplicateSkipListener duplicateListener,
+                                    boolean normalized) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.duplicateListener = duplicateListener;
+        this.index = new TemperatureKeyIndex();
+        this.warmUpSql = normalized ? NORMALIZED_WARM_UP_SQL : WARM_UP_SQL;
+    }
+
+    @Override
+    public TemperatureData process(TemperatureData item) {
+        warmUp(item.name(), item.datetime().toLocalDate());
+        if (!index.add(item.name(), item.datetime())) {
+            duplicateListener.onDuplicate(item);
+            return null;
+        }
+        return item;
+    }
+
+    private void warmUp(String name, LocalDate day) {
+        LongHashSet warmedDays = warmedDaysByStation.computeIfAbsent(name, key -> new LongHashSet());
+        if (!warmedDays.add(day.toEpochDay())) {
+            return;
+        }
+        LocalDateTime from = day.atStartOfDay();
+        RowCallbackHandler addKey = rs -> index.add(name, rs.getObject(1, LocalDateTime.class));
+        jdbcTemplate.query(warmUpSql, addKey, name, from, from.plusDays(1));
+    }
+}
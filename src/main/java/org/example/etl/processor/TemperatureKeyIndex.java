@@ -0,0 +1,51 @@
+package org.example.etl.processor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact in-memory index of {@code (name, datetime)} keys.
+ * <p>
+ * Keys are held in one primitive {@link LongHashSet} of epoch seconds per station, so the index never reports a
+ * false duplicate and needs no boxing. Not thread-safe.
+ */
+public class TemperatureKeyIndex {
+
+    private final Map<String, LongHashSet> secondsByStation = new HashMap<>();
+    private long size;
+
+    /**
+     * Adds a key to the index.
+     *
+     * @param name     the station name
+     * @param datetime the timestamp of the reading
+     * @return {@code true} if the key was not present before
+     */
+    public boolean add(String name, LocalDateTime datetime) {
+        LongHashSet secondsSet = secondsByStation.computeIfAbsent(name, key -> new LongHashSet());
+        if (!secondsSet.add(datetime.toEpochSecond(ZoneOffset.UTC))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * @param name     the station name
+     * @param datetime the timestamp of the reading
+     * @return {@code true} if the index contains the key
+     */
+    public boolean contains(String name, LocalDateTime datetime) {
+        LongHashSet secondsSet = secondsByStation.get(name);
+        return secondsSet != null && secondsSet.contains(datetime.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    /**
+     * @return the number of keys in the index
+     */
+    public long size() {
+        return size;
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.etl.reader;
+
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+import org.springframework.batch.infrastructure.item.file.FlatFileParseException;
+import org.springframework.batch.infrastructure.item.file.LineMapper;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads the lines of a file whose first byte lies in the range {@code [start, end)} and maps them to items.
+ * <p>
+ * The range is expected to be newline-aligned, i.e. {@code start} is the first byte of a line. The offset of the
+ * next unread line is stored in the {@link ExecutionContext}, so a restarted execution seeks straight back to
+ * where the last committed chunk ended instead of re-reading the range from its start. A {@link FileFingerprint}
+ * stored alongside makes the restart fail if the file has changed in the meantime.
+ *
+ * @param <T> the type of item produced from each line
+ */
+public class ByteRangeItemReader<T> implements OffsetItemReader<T> {
+
+    private static final String OFFSET_KEY = "offset";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String name;
+    private final Resource resource;
+    private final long start;
+    private final long end;
+    private final LineMapper<T> lineMapper;
+    private final boolean skipHeader;
+
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private byte[] lineBytes = new byte[256];
+    private long offset;
+    private int lineNumber;
+
+    /**
+     * Creates a reader for the given byte range of a file.
+     *
+     * @param name       the name used to prefix keys in the execution context
+     * @param resource   the file to read, must be resolvable to a {@link java.io.File}
+     * @param start      offset of the first byte of the first line to read
+     * @param end        exclusive offset after which no new line is started
+     * @param lineMapper maps a single line to an item
+     */
+    public ByteRangeItemReader(String name, Resource resource, long start, long end, LineMapper<T> lineMapper) {
+        this(name, resource, start, end, lineMapper, false);
+    }
+
+    /**
+     * Creates a reader for a whole file, skipping its header line.
+     *
+     * @param name       the name used to prefix keys in the execution context
+     * @param resource   the file to read, must be resolvable to a {@link java.io.File}
+     * @param lineMapper maps a single line to an item
+     */
+    public ByteRangeItemReader(String name, Resource resource, LineMapper<T> lineMapper) {
+        this(name, resource, 0, Long.MAX_VALUE, lineMapper, true);
+    }
+
+    private ByteRangeItemReader(String name, Resource resource, long start, long end, LineMapper<T> lineMapper,
+                                boolean skipHeader) {
+        this.name = name;
+        this.resource = resource;
+        this.start = start;
+        this.end = end;
+        this.lineMapper = lineMapper;
+        this.skipHeader = skipHeader;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        String offsetKey = offsetKey();
+        boolean restart = executionContext.containsKey(offsetKey);
+        offset = restart ? executionContext.getLong(offsetKey) : start;
+        lineNumber = 0;
+        try {
+            channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ);
+            if (restart) {
+                FileFingerprint.verify(executionContext, name, channel, offset, resource.getDescription());
+            }
+            channel.position(offset);
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to open " + resource.getDescription() + " at offset " + offset, e);
+        }
+        buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.flip();
+        if (!restart && skipHeader) {
+            try {
+                readLine();
+            } catch (IOException e) {
+                throw new ItemStreamException("Failed to skip header of " + resource.getDescription(), e);
+            }
+        }
+    }
+
+    @Override
+    public T read() throws Exception {
+        String line = readLine();
+        while (line != null && line.isEmpty()) {
+            line = readLine();
+        }
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+        try {
+            return lineMapper.mapLine(line, lineNumber);
+        } catch (Exception e) {
+            throw new FlatFileParseException("Parsing error at line: " + lineNumber + " in resource=["
+                    + resource.getDescription() + "], input=[" + line + "]", e, line, lineNumber);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        saveOffset(executionContext, offset);
+    }
+
+    @Override
+    public void saveOffset(ExecutionContext executionContext, long offset) {
+        executionContext.putLong(offsetKey(), offset);
+        if (channel != null) {
+            FileFingerprint.save(executionContext, name, channel, offset);
+        }
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to close " + resource.getDescription(), e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    private String readLine() throws IOException {
+        if (offset >= end) {
+            return null;
+        }
+        int length = 0;
+        boolean eof = false;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                buffer.flip();
+                if (read <= 0) {
+                    eof = true;
+                    break;
+                }
+            }
+            byte b = buffer.get();
+            offset++;
+            if (b == '\n') {
+                break;
+            }
+            if (length == lineBytes.length) {
+                lineBytes = Arrays.copyOf(lineBytes, length * 2);
+            }
+            lineBytes[length++] = b;
+        }
+        if (eof && length == 0) {
+            return null;
+        }
+        if (length > 0 && lineBytes[length - 1] == '\r') {
+            length--;
+        }
+        return new String(lineBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private String offsetKey() {
+        return name + "." + OFFSET_KEY;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.etl.reader;
+
+import com.github.luben.zstd.ZstdInputStream;
+import org.springframework.core.io.Resource;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Opens input files as streams of uncompressed bytes.
+ * <p>
+ * The format is detected from the first bytes of the file: gzip (including multi-member files), block-gzipped
+ * (BGZF) files, whose blocks are decompressed in parallel, zstd and uncompressed text.
+ */
+public final class CompressedInputStreams {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HEADER_SIZE = 18;
+
+    private CompressedInputStreams() {
+    }
+
+    /**
+     * Returns whether a file name has the extension of a supported compressed format.
+     *
+     * @param filename the file name, may be {@code null}
+     * @return {@code true} for {@code .gz}, {@code .bgz}, {@code .zst} and {@code .zstd} files
+     */
+    public static boolean isCompressed(String filename) {
+        if (filename == null) {
+            return false;
+        }
+        String name = filename.toLowerCase(Locale.ROOT);
+        return name.endsWith(".gz") || name.endsWith(".bgz") || name.endsWith(".zst") || name.endsWith(".zstd");
+    }
+
+    /**
+     * Opens a resource and decompresses it if it is compressed.
+     *
+     * @param resource the resource to open
+     * @param threads  number of threads decompressing BGZF blocks; 1 decompresses on the calling thread
+     * @return a stream of the uncompressed content
+     * @throws IOException if the resource cannot be opened
+     */
+    public static InputStream open(Resource resource, int threads) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(resource.getInputStream(), BUFFER_SIZE);
+        in.mark(HEADER_SIZE);
+        byte[] header = in.readNBytes(HEADER_SIZE);
+        in.reset();
+
+        if (isBgzf(header) && threads > 1) {
+            return new ParallelBgzfInputStream(in, threads);
+        }
+        if (isGzip(header)) {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+        if (isZstd(header)) {
+            return new ZstdInputStream(in);
+        }
+        return in;
+    }
+
+    private static boolean isGzip(byte[] header) {
+        return header.length >= 2 && (header[0] & 0xff) == 0x1f && (header[1] & 0xff) == 0x8b;
+    }
+
+    /**
+     * A BGZF block is a gzip member whose first extra subfield {@code BC} holds the size of the block.
+     */
+    private static boolean isBgzf(byte[] header) {
+        return header.length == HEADER_SIZE && isGzip(header) && header[2] == 8 && (header[3] & 0x04) != 0
+                && header[12] == 'B' && header[13] == 'C' && header[14] == 2 && header[15] == 0;
+    }
+
+    private static boolean isZstd(byte[] header) {
+        return header.length >= 4 && (header[0] & 0xff) == 0x28 && (header[1] & 0xff) == 0xb5
+                && (header[2] & 0xff) == 0x2f && (header[3] & 0xff) == 0xfd;
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.etl.reader;
+
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Guards byte-offset restarts against input files that changed after the offset was saved.
+ * <p>
+ * Next to the offset, readers store checksums of the first bytes of the file and of the bytes just before the
+ * offset. Before seeking to a saved offset, both are compared with the current file, so a restart never resumes at
+ * an offset that points into different content. Both checksums cover at most {@link #SAMPLE_SIZE} bytes, so saving
+ * and verifying take constant time regardless of the offset.
+ * <p>
+ * The length of the head covered by the checksum is stored with it and verified as such, so a file smaller than
+ * {@link #SAMPLE_SIZE} that grew by appends after the save still matches.
+ */
+public final class FileFingerprint {
+
+    /** Number of bytes covered by each checksum. */
+    public static final int SAMPLE_SIZE = 4096;
+
+    private static final String HEAD_KEY = ".head.crc";
+    private static final String HEAD_LENGTH_KEY = ".head.length";
+    private static final String TAIL_KEY = ".tail.crc";
+
+    private FileFingerprint() {
+    }
+
+    /**
+     * Stores the fingerprint of a file for a restart at {@code offset}.
+     *
+     * @param executionContext the execution context receiving the fingerprint
+     * @param prefix           the key prefix, typically the reader name
+     * @param channel          the open file
+     * @param offset           the restart offset saved alongside
+     */
+    public static void save(ExecutionContext executionContext, String prefix, FileChannel channel, long offset) {
+        try {
+            long headLength = Math.min(SAMPLE_SIZE, channel.size());
+            executionContext.putLong(prefix + HEAD_LENGTH_KEY, headLength);
+            executionContext.putLong(prefix + HEAD_KEY, checksum(channel, 0, headLength));
+            executionContext.putLong(prefix + TAIL_KEY, checksum(channel, Math.max(0, offset - SAMPLE_SIZE), offset));
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to checksum input file", e);
+        }
+    }
+
+    /**
+     * Verifies that a file still matches the fingerprint stored for a restart at {@code offset}. Execution
+     * contexts saved without a fingerprint are accepted.
+     *
+     * @param executionContext the execution context holding the fingerprint
+     * @param prefix           the key prefix used by {@link #save}
+     * @param channel          the open file
+     * @param offset           the restart offset
+     * @param description      the file description used in the error message
+     * @throws ItemStreamException if the file is shorter than the offset or its content changed
+     */
+    public static void verify(ExecutionContext executionContext, String prefix, FileChannel channel, long offset,
+                              String description) {
+        if (!executionContext.containsKey(prefix + TAIL_KEY)) {
+            return;
+        }
+        try {
+            long size = channel.size();
+            if (size < offset) {
+                throw new ItemStreamException("Cannot restart " + description + " at offset " + offset
+                        + ": the file has been truncated to " + size + " bytes");
+            }
+            long headLength = executionContext.getLong(prefix + HEAD_LENGTH_KEY);
+            if (size < headLength
+                    || executionContext.getLong(prefix + HEAD_KEY) != checksum(channel, 0, headLength)
+                    || executionContext.getLong(prefix + TAIL_KEY)
+                    != checksum(channel, Math.max(0, offset - SAMPLE_SIZE), offset)) {
+                throw new ItemStreamException("Cannot restart " + description + " at offset " + offset
+                        + ": the file has changed since the failed execution");
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to checksum " + description, e);
+        }
+    }
+
+    /**
+     * Returns the CRC32 of the bytes {@code [from, to)} of a file; missing bytes beyond its end are ignored.
+     */
+    public static long checksum(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (to - from));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, from + buffer.position()) < 0) {
+                break;
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.flip());
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,261 @@
+package org.example.etl.reader;
+
+import org.example.etl.model.TemperatureColumns;
+import org.example.etl.model.TemperatureData;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+import org.springframework.batch.infrastructure.item.file.FlatFileParseException;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads temperature records from a memory-mapped CSV file and parses them with a {@link TemperatureRecordParser}.
+ * <p>
+ * The file is mapped in windows, so files larger than 2 GB are supported. Like {@link ByteRangeItemReader}, the
+ * reader can be restricted to the lines starting in a byte range and keeps the offset of the next unread line in
+ * the {@link ExecutionContext} for restarts, guarded by a {@link FileFingerprint}.
+ * <p>
+ * Besides record by record, the reader can fill {@link TemperatureColumns} blocks with
+ * {@link #read(TemperatureColumns)}, which allocates nothing per line.
+ */
+public class MappedTemperatureItemReader implements OffsetItemReader<TemperatureData> {
+
+    private static final String OFFSET_KEY = "offset";
+    private static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final String name;
+    private final Resource resource;
+    private final long start;
+    private final long end;
+    private final boolean skipHeader;
+    private final long windowSize;
+    private final TemperatureRecordParser parser = new TemperatureRecordParser();
+
+    private FileChannel channel;
+    private long fileSize;
+    private long limit;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long offset;
+    private int lineNumber;
+    private int lineFrom;
+    private int lineTo;
+
+    /**
+     * Creates a reader for a whole file, skipping its header line.
+     *
+     * @param name     the name used to prefix keys in the execution context
+     * @param resource the file to read, must be resolvable to a {@link java.io.File}
+     */
+    public MappedTemperatureItemReader(String name, Resource resource) {
+        this(name, resource, 0, Long.MAX_VALUE, true, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a reader for the lines starting in {@code [start, end)}; {@code start} must be the first byte of a line.
+     *
+     * @param name     the name used to prefix keys in the execution context
+     * @param resource the file to read, must be resolvable to a {@link java.io.File}
+     * @param start    offset of the first byte of the first line to read
+     * @param end      exclusive offset after which no new line is started
+     */
+    public MappedTemperatureItemReader(String name, Resource resource, long start, long end) {
+        this(name, resource, start, end, false);
+    }
+
+    /**
+     * Creates a reader for the lines starting in {@code [start, end)}; {@code start} must be the first byte of a line.
+     *
+     * @param name       the name used to prefix keys in the execution context
+     * @param resource   the file to read, must be resolvable to a {@link java.io.File}
+     * @param start      offset of the first byte of the first line to read
+     * @param end        exclusive offset after which no new line is started
+     * @param skipHeader whether the line at {@code start} is a header line
+     */
+    public MappedTemperatureItemReader(String name, Resource resource, long start, long end, boolean skipHeader) {
+        this(name, resource, start, end, skipHeader, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedTemperatureItemReader(String name, Resource resource, long start, long end, boolean skipHeader,
+                                long windowSize) {
+        this.name = name;
+        this.resource = resource;
+        this.start = start;
+        this.end = end;
+        this.skipHeader = skipHeader;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        try {
+            channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ);
+            fileSize = channel.size();
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to open " + resource.getDescription(), e);
+        }
+        limit = Math.min(end, fileSize);
+        window = null;
+        lineNumber = 0;
+        String offsetKey = offsetKey();
+        if (executionContext.containsKey(offsetKey)) {
+            offset = executionContext.getLong(offsetKey);
+            FileFingerprint.verify(executionContext, name, channel, offset, resource.getDescription());
+        } else {
+            offset = start;
+            if (skipHeader && offset < limit) {
+                try {
+                    offset = nextLineStart(offset);
+                } catch (IOException e) {
+                    throw new ItemStreamException("Failed to skip header of " + resource.getDescription(), e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public TemperatureData read() throws Exception {
+        if (!nextLine()) {
+            return null;
+        }
+        try {
+            return parser.parse(window, lineFrom, lineTo);
+        } catch (RuntimeException e) {
+            throw parseException(e);
+        }
+    }
+
+    /**
+     * Appends the next lines to a block until it is full or the input is exhausted.
+     *
+     * @param columns the block to fill
+     * @return the number of rows appended, 0 at the end of the input
+     * @throws FlatFileParseException if a line cannot be parsed
+     */
+    public int read(TemperatureColumns columns) throws IOException {
+        int rows = 0;
+        while (!columns.isFull() && nextLine()) {
+            try {
+                parser.parseInto(window, lineFrom, lineTo, columns);
+            } catch (RuntimeException e) {
+                throw parseException(e);
+            }
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Advances to the next non-empty line and stores its bounds in the window; returns {@code false} at the end.
+     */
+    private boolean nextLine() throws IOException {
+        while (offset < limit) {
+            long lineStart = offset;
+            long lineEnd = nextLineStart(lineStart);
+            offset = lineEnd;
+
+            int from = (int) (lineStart - windowStart);
+            int to = (int) (lineEnd - windowStart);
+            if (to > from && window.get(to - 1) == '\n') {
+                to--;
+            }
+            if (to > from && window.get(to - 1) == '\r') {
+                to--;
+            }
+            if (to == from) {
+                continue;
+            }
+            lineNumber++;
+            lineFrom = from;
+            lineTo = to;
+            return true;
+        }
+        return false;
+    }
+
+    private FlatFileParseException parseException(RuntimeException e) {
+        byte[] bytes = new byte[lineTo - lineFrom];
+        window.get(lineFrom, bytes);
+        String line = new String(bytes, StandardCharsets.UTF_8);
+        return new FlatFileParseException("Parsing error at line: " + lineNumber + " in resource=["
+                + resource.getDescription() + "], input=[" + line + "]", e, line, lineNumber);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        saveOffset(executionContext, offset);
+    }
+
+    @Override
+    public void saveOffset(ExecutionContext executionContext, long offset) {
+        executionContext.putLong(offsetKey(), offset);
+        if (channel != null) {
+            FileFingerprint.save(executionContext, name, channel, offset);
+        }
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        window = null;
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to close " + resource.getDescription(), e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the offset after the newline terminating the line that starts at {@code lineStart}, or the file size
+     * for a last line without newline. On return the current window contains the whole line.
+     */
+    private long nextLineStart(long lineStart) throws IOException {
+        map(lineStart);
+        while (true) {
+            int windowEnd = window.limit();
+            for (int i = (int) (lineStart - windowStart); i < windowEnd; i++) {
+                if (window.get(i) == '\n') {
+                    return windowStart + i + 1;
+                }
+            }
+            if (windowStart + windowEnd >= fileSize) {
+                return fileSize;
+            }
+            if (lineStart == windowStart) {
+                throw new ItemStreamException("Line at offset " + lineStart + " of " + resource.getDescription()
+                        + " is longer than the mapping window of " + windowSize + " bytes");
+            }
+            // the line crosses the end of the window: remap so that it starts at the line
+            remap(lineStart);
+        }
+    }
+
+    private void map(long position) throws IOException {
+        if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+            remap(position);
+        }
+    }
+
+    private void remap(long position) throws IOException {
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, fileSize - position));
+    }
+
+    private String offsetKey() {
+        return name + "." + OFFSET_KEY;
+    }
+}
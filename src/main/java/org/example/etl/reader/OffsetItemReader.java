@@ -0,0 +1,31 @@
+package org.example.etl.reader;
+
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+
+/**
+ * An {@link ItemStreamReader} whose restart state is the byte offset of the next unread line.
+ * <p>
+ * Exposing the offset lets wrappers that read ahead, such as {@link PipelinedItemReader}, save the position of
+ * the last item handed to the step instead of the position the reader itself has reached.
+ *
+ * @param <T> the type of item read
+ */
+public interface OffsetItemReader<T> extends ItemStreamReader<T> {
+
+    /**
+     * Returns the file offset of the next unread line.
+     *
+     * @return the current byte offset
+     */
+    long getOffset();
+
+    /**
+     * Stores an offset as the restart position in the execution context, under the same key as
+     * {@link #update(ExecutionContext)}.
+     *
+     * @param executionContext the execution context to update
+     * @param offset           offset of the first line to read on restart
+     */
+    void saveOffset(ExecutionContext executionContext, long offset);
+}
@@ -0,0 +1,182 @@
+package org.example.etl.reader;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Decompresses a block-gzipped (BGZF) stream with several threads.
+ * <p>
+ * Every BGZF block is a complete gzip member of at most 64 KB that records its own size in the {@code BC} extra
+ * subfield, so blocks can be cut from the compressed stream without inflating them. Up to four blocks per thread
+ * are inflated ahead; the uncompressed blocks are returned in their original order.
+ */
+class ParallelBgzfInputStream extends InputStream {
+
+    private static final byte[] EMPTY = new byte[0];
+    private static final int FIXED_HEADER_SIZE = 12;
+    private static final int TRAILER_SIZE = 8;
+
+    private final InputStream in;
+    private final ExecutorService executor;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    private final int maxPending;
+
+    private byte[] current = EMPTY;
+    private int position;
+    private boolean inputDone;
+
+    ParallelBgzfInputStream(InputStream in, int threads) {
+        this.in = in;
+        this.executor = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("bgzf-inflate-", 0).daemon().factory());
+        this.maxPending = threads * 4;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (position == current.length) {
+            if (!nextBlock()) {
+                return -1;
+            }
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        pending.clear();
+        in.close();
+    }
+
+    private boolean nextBlock() throws IOException {
+        while (!inputDone && pending.size() < maxPending) {
+            byte[] block = readBlock();
+            if (block == null) {
+                inputDone = true;
+            } else {
+                pending.add(executor.submit(() -> inflate(block)));
+            }
+        }
+        Future<byte[]> next = pending.poll();
+        if (next == null) {
+            return false;
+        }
+        try {
+            current = next.get();
+            position = 0;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while decompressing a BGZF block");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Reads the next complete block from the compressed stream, or returns {@code null} at the end of the stream.
+     */
+    private byte[] readBlock() throws IOException {
+        byte[] header = in.readNBytes(FIXED_HEADER_SIZE);
+        if (header.length == 0) {
+            return null;
+        }
+        if (header.length < FIXED_HEADER_SIZE || (header[0] & 0xff) != 0x1f || (header[1] & 0xff) != 0x8b
+                || (header[3] & 0x04) == 0) {
+            throw new ZipException("Not a BGZF block");
+        }
+        int extraLength = u16(header, 10);
+        byte[] extra = in.readNBytes(extraLength);
+        if (extra.length < extraLength) {
+            throw new EOFException("Truncated BGZF block header");
+        }
+        int blockSize = blockSize(extra);
+
+        byte[] block = Arrays.copyOf(header, blockSize);
+        System.arraycopy(extra, 0, block, FIXED_HEADER_SIZE, extraLength);
+        int offset = FIXED_HEADER_SIZE + extraLength;
+        if (in.readNBytes(block, offset, blockSize - offset) < blockSize - offset) {
+            throw new EOFException("Truncated BGZF block");
+        }
+        return block;
+    }
+
+    private static int blockSize(byte[] extra) throws ZipException {
+        for (int i = 0; i + 4 <= extra.length; ) {
+            int length = u16(extra, i + 2);
+            if (extra[i] == 'B' && extra[i + 1] == 'C' && length == 2) {
+                return u16(extra, i + 4) + 1;
+            }
+            i += 4 + length;
+        }
+        throw new ZipException("Gzip member without BGZF block size");
+    }
+
+    private static byte[] inflate(byte[] block) throws IOException {
+        int dataStart = FIXED_HEADER_SIZE + u16(block, 10);
+        int dataEnd = block.length - TRAILER_SIZE;
+        int size = (int) u32(block, dataEnd + 4);
+        byte[] out = new byte[size];
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(block, dataStart, dataEnd - dataStart);
+            int n = 0;
+            while (n < size && !inflater.finished()) {
+                int inflated = inflater.inflate(out, n, size - n);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                n += inflated;
+            }
+            if (n != size) {
+                throw new ZipException("BGZF block inflated to " + n + " bytes, expected " + size);
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException("Invalid BGZF block: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(out);
+        if (crc.getValue() != u32(block, dataEnd)) {
+            throw new ZipException("BGZF block CRC mismatch");
+        }
+        return out;
+    }
+
+    private static int u16(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) | (bytes[offset + 1] & 0xff) << 8;
+    }
+
+    private static long u32(byte[] bytes, int offset) {
+        return (u16(bytes, offset) | (long) u16(bytes, offset + 2) << 16) & 0xffffffffL;
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.etl.reader;
+
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+import org.springframework.batch.infrastructure.item.ParseException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Reads and parses items on a separate thread ahead of the step, so that parsing overlaps with writing and
+ * committing chunks.
+ * <p>
+ * A producer thread reads from the delegate into a bounded queue, which blocks it when the writer falls behind.
+ * Exceptions thrown by the delegate are handed to the step in order, so skip handling sees them at the same item as
+ * without the pipeline; after a {@link ParseException} the producer continues with the next line, after any other
+ * exception or error it stops, and the step gets the failure followed by the end of the items. Every queued item
+ * carries the delegate offset behind it, and {@link #update(ExecutionContext)} saves the offset behind the last item
+ * handed to the step, so a restart resumes after the last committed item rather than after the last item read ahead.
+ *
+ * @param <T> the type of item read
+ */
+public class PipelinedItemReader<T> implements OffsetItemReader<T> {
+
+    private final OffsetItemReader<T> delegate;
+    private final int capacity;
+    private final ThreadFactory threadFactory;
+
+    private BlockingQueue<Entry<T>> queue;
+    private Thread producer;
+    private volatile boolean stopped;
+    private long consumedOffset;
+    private boolean exhausted;
+
+    /**
+     * @param delegate      the reader run on the producer thread
+     * @param capacity      maximum number of items read ahead
+     * @param threadFactory creates the producer thread, e.g. {@code Thread.ofVirtual().factory()}
+     */
+    public PipelinedItemReader(OffsetItemReader<T> delegate, int capacity, ThreadFactory threadFactory) {
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.threadFactory = threadFactory;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        delegate.open(executionContext);
+        consumedOffset = delegate.getOffset();
+        queue = new ArrayBlockingQueue<>(capacity);
+        stopped = false;
+        exhausted = false;
+        producer = threadFactory.newThread(this::produce);
+        producer.start();
+    }
+
+    @Override
+    public T read() throws Exception {
+        if (exhausted) {
+            return null;
+        }
+        Entry<T> entry = queue.take();
+        consumedOffset = entry.offset();
+        if (entry.error() instanceof Exception e) {
+            throw e;
+        }
+        if (entry.error() instanceof Error e) {
+            throw e;
+        }
+        if (entry.error() != null) {
+            throw new ItemStreamException("Failed to read ahead", entry.error());
+        }
+        if (entry.item() == null) {
+            exhausted = true;
+        }
+        return entry.item();
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        delegate.saveOffset(executionContext, consumedOffset);
+    }
+
+    /**
+     * Returns the offset behind the last item handed to the step, which lags behind the delegate's offset.
+     */
+    @Override
+    public long getOffset() {
+        return consumedOffset;
+    }
+
+    @Override
+    public void saveOffset(ExecutionContext executionContext, long offset) {
+        delegate.saveOffset(executionContext, offset);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        stopped = true;
+        if (producer != null) {
+            producer.interrupt();
+            try {
+                producer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                producer = null;
+            }
+        }
+        if (queue != null) {
+            queue.clear();
+        }
+        delegate.close();
+    }
+
+    private void produce() {
+        Throwable failure = null;
+        boolean endQueued = false;
+        try {
+            while (!stopped && !endQueued) {
+                T item;
+                try {
+                    item = delegate.read();
+                } catch (ParseException e) {
+                    queue.put(new Entry<>(null, e, delegate.getOffset()));
+                    continue;
+                }
+                queue.put(new Entry<>(item, null, delegate.getOffset()));
+                endQueued = item == null;
+            }
+        } catch (InterruptedException e) {
+            // closed while waiting for space in the queue; the end is not queued either
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            if (!endQueued) {
+                queueEnd(failure);
+            }
+        }
+    }
+
+    private void queueEnd(Throwable failure) {
+        try {
+            if (failure != null) {
+                queue.put(new Entry<>(null, failure, delegate.getOffset()));
+            }
+            queue.put(new Entry<>(null, null, delegate.getOffset()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Entry<T>(T item, Throwable error, long offset) {
+    }
+}
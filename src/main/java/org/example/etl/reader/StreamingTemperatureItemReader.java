@@ -0,0 +1,180 @@
+package org.example.etl.reader;
+
+import org.example.etl.model.TemperatureData;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+import org.springframework.batch.infrastructure.item.file.FlatFileParseException;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads temperature records from a gzip, BGZF or zstd compressed CSV file without decompressing it to disk.
+ * <p>
+ * The file is opened with {@link CompressedInputStreams} and records are parsed from the uncompressed bytes with a
+ * {@link TemperatureRecordParser}. The restart position stored in the {@link ExecutionContext} is the offset of the
+ * next unread line in the uncompressed content; as compressed streams cannot seek, a restarted execution
+ * decompresses and discards the content up to that offset.
+ */
+public class StreamingTemperatureItemReader implements OffsetItemReader<TemperatureData> {
+
+    private static final String OFFSET_KEY = "offset";
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final String name;
+    private final Resource resource;
+    private final int decompressionThreads;
+    private final TemperatureRecordParser parser = new TemperatureRecordParser();
+
+    private InputStream input;
+    private byte[] buffer;
+    private ByteBuffer view;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+    private int lineFrom;
+    private int lineTo;
+    private long offset;
+    private int lineNumber;
+
+    /**
+     * @param name                 the name used to prefix keys in the execution context
+     * @param resource             the compressed file, skipping its header line
+     * @param decompressionThreads number of threads decompressing BGZF blocks
+     */
+    public StreamingTemperatureItemReader(String name, Resource resource, int decompressionThreads) {
+        this.name = name;
+        this.resource = resource;
+        this.decompressionThreads = decompressionThreads;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        buffer = new byte[BUFFER_SIZE];
+        view = ByteBuffer.wrap(buffer);
+        position = 0;
+        limit = 0;
+        endOfInput = false;
+        offset = 0;
+        lineNumber = 0;
+        try {
+            input = CompressedInputStreams.open(resource, decompressionThreads);
+            String offsetKey = offsetKey();
+            if (executionContext.containsKey(offsetKey)) {
+                long restartOffset = executionContext.getLong(offsetKey);
+                while (offset < restartOffset && nextLine()) {
+                    // discard lines read by the previous execution
+                }
+            } else {
+                nextLine(); // skip header line
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to open " + resource.getDescription(), e);
+        }
+    }
+
+    @Override
+    public TemperatureData read() throws Exception {
+        while (nextLine()) {
+            int to = lineTo;
+            if (to > lineFrom && buffer[to - 1] == '\r') {
+                to--;
+            }
+            if (to == lineFrom) {
+                continue;
+            }
+            lineNumber++;
+            try {
+                return parser.parse(view, lineFrom, to);
+            } catch (RuntimeException e) {
+                String line = new String(buffer, lineFrom, to - lineFrom, StandardCharsets.UTF_8);
+                throw new FlatFileParseException("Parsing error at line: " + lineNumber + " in resource=["
+                        + resource.getDescription() + "], input=[" + line + "]", e, line, lineNumber);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        saveOffset(executionContext, offset);
+    }
+
+    @Override
+    public void saveOffset(ExecutionContext executionContext, long offset) {
+        executionContext.putLong(offsetKey(), offset);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        buffer = null;
+        view = null;
+        if (input == null) {
+            return;
+        }
+        try {
+            input.close();
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to close " + resource.getDescription(), e);
+        } finally {
+            input = null;
+        }
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Advances to the next line, whose content without the newline is then {@code buffer[lineFrom, lineTo)}.
+     *
+     * @return {@code false} at the end of the input
+     */
+    private boolean nextLine() throws IOException {
+        int scan = position;
+        while (true) {
+            for (; scan < limit; scan++) {
+                if (buffer[scan] == '\n') {
+                    return advance(scan, scan + 1);
+                }
+            }
+            if (endOfInput) {
+                return position < limit && advance(limit, limit);
+            }
+            int pending = limit - position;
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, pending);
+            } else if (pending == buffer.length) {
+                // the line does not fit into the buffer
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                view = ByteBuffer.wrap(buffer);
+            }
+            scan -= position;
+            position = 0;
+            limit = pending;
+            int n = input.read(buffer, limit, buffer.length - limit);
+            if (n < 0) {
+                endOfInput = true;
+            } else {
+                limit += n;
+            }
+        }
+    }
+
+    private boolean advance(int lineEnd, int next) {
+        lineFrom = position;
+        lineTo = lineEnd;
+        offset += next - position;
+        position = next;
+        return true;
+    }
+
+    private String offsetKey() {
+        return name + "." + OFFSET_KEY;
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.etl.reader;
+
+import org.example.etl.model.TemperatureData;
+import org.springframework.batch.infrastructure.item.file.mapping.FieldSetMapper;
+import org.springframework.batch.infrastructure.item.file.transform.FieldSet;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Maps the tokenized name, datetime and temp columns of a CSV line to a {@link TemperatureData} record.
+ */
+public class TemperatureFieldSetMapper implements FieldSetMapper<TemperatureData> {
+
+    /**
+     * Format of the datetime column in the input files.
+     */
+    public static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Override
+    public TemperatureData mapFieldSet(FieldSet fieldSet) {
+        return new TemperatureData(
+                fieldSet.readString("name"),
+                LocalDateTime.parse(fieldSet.readString("datetime"), DATETIME_FORMAT),
+                fieldSet.readDouble("temp")
+        );
+    }
+}
@@ -0,0 +1,287 @@
+package org.example.etl.reader;
+
+import org.example.etl.model.TemperatureColumns;
+import org.example.etl.model.TemperatureData;
+import org.springframework.batch.infrastructure.item.file.transform.DelimitedLineTokenizer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Parses the name, datetime and temp columns of a CSV line straight from its bytes.
+ * <p>
+ * Only the first three columns are scanned. The fixed-width {@code yyyy-MM-dd HH:mm:ss} timestamp and plain
+ * decimal temperatures are decoded without intermediate strings, and recurring station names are served from a
+ * small cache so that a line normally allocates nothing but the resulting record. Lines the fast path does not
+ * understand (quoted fields, other number formats) fall back to the same tokenizer and mapper as the
+ * {@code FlatFileItemReader}, so both readers accept the same input.
+ * <p>
+ * {@link #parseInto} appends the fields to a {@link TemperatureColumns} block instead, computing the epoch second
+ * arithmetically, so a line of the fast path allocates nothing at all.
+ * <p>
+ * Instances are not thread-safe; every reader uses its own parser.
+ */
+public class TemperatureRecordParser {
+
+    private static final int DATETIME_LENGTH = 19;
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+    private static final int NAME_CACHE_SIZE = 1024;
+
+    private final byte[][] cachedNameBytes = new byte[NAME_CACHE_SIZE][];
+    private final String[] cachedNames = new String[NAME_CACHE_SIZE];
+    private final DelimitedLineTokenizer fallbackTokenizer = new DelimitedLineTokenizer();
+    private final TemperatureFieldSetMapper fallbackMapper = new TemperatureFieldSetMapper();
+    private byte[] scratch = new byte[256];
+    private int nameEnd;
+    private int datetimeEnd;
+    private int tempEnd;
+
+    public TemperatureRecordParser() {
+        fallbackTokenizer.setIncludedFields(0, 1, 2);
+        fallbackTokenizer.setNames("name", "datetime", "temp");
+    }
+
+    /**
+     * Parses the line stored in {@code buffer} between the absolute indexes {@code from} (inclusive) and
+     * {@code to} (exclusive, without the line terminator).
+     *
+     * @param buffer the buffer holding the line
+     * @param from   index of the first byte of the line
+     * @param to     index after the last byte of the line
+     * @return the parsed record
+     * @throws IllegalArgumentException if the line does not contain valid name, datetime and temp columns
+     */
+    public TemperatureData parse(ByteBuffer buffer, int from, int to) {
+        if (!split(buffer, from, to)) {
+            return parseWithTokenizer(buffer, from, to);
+        }
+        return new TemperatureData(
+                name(buffer, from, nameEnd),
+                datetime(buffer, nameEnd + 1, datetimeEnd),
+                temp(buffer, datetimeEnd + 1, tempEnd)
+        );
+    }
+
+    /**
+     * Parses the line stored in {@code buffer} between the absolute indexes {@code from} (inclusive) and
+     * {@code to} (exclusive, without the line terminator) and appends it to a block.
+     *
+     * @param buffer  the buffer holding the line
+     * @param from    index of the first byte of the line
+     * @param to      index after the last byte of the line
+     * @param columns the block to append the record to, must not be full
+     * @throws IllegalArgumentException if the line does not contain valid name, datetime and temp columns
+     */
+    public void parseInto(ByteBuffer buffer, int from, int to, TemperatureColumns columns) {
+        if (!split(buffer, from, to)) {
+            columns.add(parseWithTokenizer(buffer, from, to));
+            return;
+        }
+        columns.add(
+                name(buffer, from, nameEnd),
+                epochSecond(buffer, nameEnd + 1, datetimeEnd),
+                temp(buffer, datetimeEnd + 1, tempEnd)
+        );
+    }
+
+    /**
+     * Finds the ends of the first three columns; returns {@code false} if the line needs the tokenizer.
+     */
+    private boolean split(ByteBuffer buffer, int from, int to) {
+        nameEnd = indexOf(buffer, from, to);
+        datetimeEnd = nameEnd < 0 ? -1 : indexOf(buffer, nameEnd + 1, to);
+        if (datetimeEnd < 0 || buffer.get(from) == '"') {
+            return false;
+        }
+        tempEnd = indexOf(buffer, datetimeEnd + 1, to);
+        if (tempEnd < 0) {
+            tempEnd = to;
+        }
+        return buffer.get(nameEnd + 1) != '"' && (datetimeEnd + 1 >= to || buffer.get(datetimeEnd + 1) != '"');
+    }
+
+    private String name(ByteBuffer buffer, int from, int to) {
+        from = trimStart(buffer, from, to);
+        to = trimEnd(buffer, from, to);
+        int length = to - from;
+        byte[] bytes = copy(buffer, from, length);
+
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ bytes[i]) * 0x01000193;
+        }
+        int slot = hash & (NAME_CACHE_SIZE - 1);
+        byte[] cached = cachedNameBytes[slot];
+        if (cached != null && Arrays.equals(cached, 0, cached.length, bytes, 0, length)) {
+            return cachedNames[slot];
+        }
+        String name = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        cachedNameBytes[slot] = Arrays.copyOf(bytes, length);
+        cachedNames[slot] = name;
+        return name;
+    }
+
+    private LocalDateTime datetime(ByteBuffer buffer, int from, int to) {
+        from = trimStart(buffer, from, to);
+        to = trimEnd(buffer, from, to);
+        if (!isFixedWidthDatetime(buffer, from, to)) {
+            return LocalDateTime.parse(string(buffer, from, to), TemperatureFieldSetMapper.DATETIME_FORMAT);
+        }
+        int year = digits(buffer, from, 4);
+        int month = digits(buffer, from + 5, 2);
+        int day = digits(buffer, from + 8, 2);
+        int hour = digits(buffer, from + 11, 2);
+        int minute = digits(buffer, from + 14, 2);
+        int second = digits(buffer, from + 17, 2);
+        if ((year | month | day | hour | minute | second) < 0) {
+            return LocalDateTime.parse(string(buffer, from, to), TemperatureFieldSetMapper.DATETIME_FORMAT);
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second);
+    }
+
+    private long epochSecond(ByteBuffer buffer, int from, int to) {
+        from = trimStart(buffer, from, to);
+        to = trimEnd(buffer, from, to);
+        if (isFixedWidthDatetime(buffer, from, to)) {
+            int year = digits(buffer, from, 4);
+            int month = digits(buffer, from + 5, 2);
+            int day = digits(buffer, from + 8, 2);
+            int hour = digits(buffer, from + 11, 2);
+            int minute = digits(buffer, from + 14, 2);
+            int second = digits(buffer, from + 17, 2);
+            if ((year | month | day | hour | minute | second) >= 0 && month >= 1 && month <= 12
+                    && day >= 1 && day <= lengthOfMonth(year, month) && hour < 24 && minute < 60 && second < 60) {
+                return epochDay(year, month, day) * 86400 + hour * 3600 + minute * 60 + second;
+            }
+        }
+        // let the JDK produce the same error or result as the record path
+        return TemperatureColumns.epochSecond(datetime(buffer, from, to));
+    }
+
+    private static boolean isFixedWidthDatetime(ByteBuffer buffer, int from, int to) {
+        return to - from == DATETIME_LENGTH
+                && buffer.get(from + 4) == '-' && buffer.get(from + 7) == '-' && buffer.get(from + 10) == ' '
+                && buffer.get(from + 13) == ':' && buffer.get(from + 16) == ':';
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Days since 1970-01-01 of a valid proleptic Gregorian date of a year from 0 to 9999.
+     */
+    private static long epochDay(int year, int month, int day) {
+        // shift the year to start in March, so the leap day is the last day of the year
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    private double temp(ByteBuffer buffer, int from, int to) {
+        from = trimStart(buffer, from, to);
+        to = trimEnd(buffer, from, to);
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digitCount++;
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (i != to || digitCount == 0 || digitCount > MAX_FAST_DIGITS) {
+            // exponents, NaN, very long mantissas: let the JDK deal with them
+            return Double.parseDouble(string(buffer, from, to));
+        }
+        // both operands are exact doubles, so the division is correctly rounded
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private TemperatureData parseWithTokenizer(ByteBuffer buffer, int from, int to) {
+        try {
+            return fallbackMapper.mapFieldSet(fallbackTokenizer.tokenize(string(buffer, from, to)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid temperature record: " + e.getMessage(), e);
+        }
+    }
+
+    private static int digits(ByteBuffer buffer, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == ',') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int trimStart(ByteBuffer buffer, int from, int to) {
+        while (from < to && isWhitespace(buffer.get(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(ByteBuffer buffer, int from, int to) {
+        while (to > from && isWhitespace(buffer.get(to - 1))) {
+            to--;
+        }
+        return to;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private byte[] copy(ByteBuffer buffer, int from, int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(from, scratch, 0, length);
+        return scratch;
+    }
+
+    private String string(ByteBuffer buffer, int from, int to) {
+        return new String(copy(buffer, from, to - from), 0, to - from, StandardCharsets.UTF_8);
+    }
+}
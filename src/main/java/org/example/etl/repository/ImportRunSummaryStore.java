@@ -0,0 +1,73 @@
+package org.example.etl.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Stores the final summary of every import run in {@code import_run_summary}, one row per job execution.
+ * <p>
+ * The row holds the totals that {@code ImportJobListener} logs, so the outcome of a run stays queryable even for
+ * runs that keep no step metadata between step boundaries. A failure to store the summary is logged and does not
+ * fail the run.
+ */
+@Component
+public class ImportRunSummaryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportRunSummaryStore.class);
+
+    static final String INSERT_SQL = """
+            INSERT INTO import_run_summary (job_execution_id, job_name, input_file, status, restartable, start_time,
+                end_time, read_count, write_count, skip_count, duplicate_count, error_count, first_error)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean restartableByDefault;
+
+    public ImportRunSummaryStore(JdbcTemplate jdbcTemplate,
+                                 @Value("${etl.repository.restartable:true}") boolean restartableByDefault) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.restartableByDefault = restartableByDefault;
+    }
+
+    /**
+     * Stores the summary of a finished run.
+     *
+     * @param jobExecution the finished job execution
+     * @param read         the number of records read
+     * @param written      the number of records inserted
+     * @param skipped      the number of records skipped for any reason
+     * @param duplicates   the number of duplicates skipped
+     */
+    public void record(JobExecution jobExecution, long read, long written, long skipped, long duplicates) {
+        JobParameters parameters = jobExecution.getJobParameters();
+        String inputFile = parameters.getString("inputFile");
+        List<Throwable> failures = jobExecution.getAllFailureExceptions();
+        String firstError = failures.isEmpty() ? null : String.valueOf(failures.getFirst().getMessage());
+        if (firstError != null && firstError.length() > MAX_ERROR_LENGTH) {
+            firstError = firstError.substring(0, MAX_ERROR_LENGTH);
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL,
+                    jobExecution.getId(),
+                    jobExecution.getJobInstance().getJobName(),
+                    inputFile != null ? inputFile : parameters.getString("inputFiles"),
+                    jobExecution.getStatus().name(),
+                    StepBoundaryFlushInterceptor.isRestartable(parameters, restartableByDefault),
+                    jobExecution.getStartTime(),
+                    jobExecution.getEndTime(),
+                    read, written, skipped, duplicates, failures.size(), firstError);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to store the summary of job execution {}", jobExecution.getId(), e);
+        }
+    }
+}
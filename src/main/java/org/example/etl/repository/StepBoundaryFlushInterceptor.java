@@ -0,0 +1,56 @@
+package org.example.etl.repository;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.step.StepExecution;
+
+/**
+ * Interceptor of the {@code JobRepository} that skips the step metadata updates of non-restartable runs while
+ * their steps are running.
+ * <p>
+ * Spring Batch updates {@code BATCH_STEP_EXECUTION} and the step execution context in the transaction of every
+ * chunk, and once when a step starts. For a run whose {@value #RESTARTABLE_KEY} job parameter, or else the default,
+ * is {@code false}, these calls are dropped as long as the step is {@link BatchStatus#STARTED STARTED}. The insert
+ * of a step execution and the updates at its end, with the final counts, status and execution context, still reach
+ * the database. A dropped update leaves the version of the step execution unchanged both in memory and in the
+ * database, so the optimistic locking of the final update succeeds.
+ */
+public class StepBoundaryFlushInterceptor implements MethodInterceptor {
+
+    public static final String RESTARTABLE_KEY = "restartable";
+
+    private final boolean restartableByDefault;
+
+    /**
+     * @param restartableByDefault whether runs without a {@value #RESTARTABLE_KEY} job parameter are restartable
+     */
+    public StepBoundaryFlushInterceptor(boolean restartableByDefault) {
+        this.restartableByDefault = restartableByDefault;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object[] arguments = invocation.getArguments();
+        if (arguments.length == 1 && arguments[0] instanceof StepExecution stepExecution
+                && isStepUpdate(invocation.getMethod().getName())
+                && stepExecution.getStatus() == BatchStatus.STARTED
+                && !isRestartable(stepExecution.getJobExecution().getJobParameters(), restartableByDefault)) {
+            return null;
+        }
+        return invocation.proceed();
+    }
+
+    /**
+     * Returns whether a run with the given job parameters keeps the step metadata of every chunk.
+     */
+    public static boolean isRestartable(JobParameters jobParameters, boolean restartableByDefault) {
+        String restartable = jobParameters.getString(RESTARTABLE_KEY);
+        return restartable != null ? Boolean.parseBoolean(restartable) : restartableByDefault;
+    }
+
+    private static boolean isStepUpdate(String method) {
+        return "update".equals(method) || "updateExecutionContext".equals(method);
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.etl.repository;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps the {@link JobRepository} with a {@link StepBoundaryFlushInterceptor}, so that runs that do not need to be
+ * restartable write their step metadata only at step boundaries.
+ * <p>
+ * Runs are restartable unless their {@code restartable} job parameter, or else the
+ * {@code etl.repository.restartable} property, is {@code false}. A non-restartable run cannot be stopped with
+ * {@code JobOperator.stop} while a step is running, because the stop request is only read during the skipped
+ * updates; if it fails, a restart resumes a step from the state recorded at its end, or from its beginning if the
+ * process died.
+ */
+@Component
+public class StepBoundaryJobRepositoryPostProcessor implements BeanPostProcessor {
+
+    private final boolean restartableByDefault;
+
+    public StepBoundaryJobRepositoryPostProcessor(
+            @Value("${etl.repository.restartable:true}") boolean restartableByDefault) {
+        this.restartableByDefault = restartableByDefault;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof JobRepository)) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTarget(bean);
+        proxyFactory.addInterface(JobRepository.class);
+        proxyFactory.addAdvice(new StepBoundaryFlushInterceptor(restartableByDefault));
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.etl.rollup;
+
+import org.example.etl.model.TemperatureData;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ItemWriter;
+
+/**
+ * Adds the rows of every chunk its delegate wrote to the rollups.
+ * <p>
+ * Meant for a delegate that either inserts every row of a chunk or fails, like the plain {@code INSERT} writer:
+ * a chunk with a duplicate fails and is rescanned item by item, so only the rows that were actually inserted reach
+ * the rollups, in the same transaction as the rows themselves.
+ */
+public class RollupItemWriter implements ItemWriter<TemperatureData> {
+
+    private final ItemWriter<TemperatureData> delegate;
+    private final RollupStore rollupStore;
+
+    public RollupItemWriter(ItemWriter<TemperatureData> delegate, RollupStore rollupStore) {
+        this.delegate = delegate;
+        this.rollupStore = rollupStore;
+    }
+
+    @Override
+    public void write(Chunk<? extends TemperatureData> chunk) throws Exception {
+        delegate.write(chunk);
+        rollupStore.add(chunk.getItems());
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.etl.rollup;
+
+import org.example.etl.model.TemperatureData;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Maintains the per-station hourly and daily min/max/sum/count rollups of {@code temperature_data} in
+ * {@code temperature_rollup_hourly} and {@code temperature_rollup_daily}.
+ * <p>
+ * Writers hand over the rows they actually inserted, aggregated per chunk, and the aggregates are upserted into the
+ * rollup tables. All statements run in the caller's transaction, so a rollup is committed or rolled back together
+ * with the rows it covers and re-imported duplicates are never counted twice. Rows whose temperature was
+ * overwritten cannot be applied as a difference, because min and max are not reversible; their hours and days are
+ * recomputed from {@code temperature_data} instead.
+ */
+@Component
+public class RollupStore {
+
+    static final String MERGE_HOURLY_SQL =
+            "INSERT INTO temperature_rollup_hourly (name, hour_start, min_temp, max_temp, sum_temp, reading_count) "
+                    + "VALUES (?, ?, ?, ?, ?, ?) AS new ON DUPLICATE KEY UPDATE "
+                    + "min_temp = LEAST(temperature_rollup_hourly.min_temp, new.min_temp), "
+                    + "max_temp = GREATEST(temperature_rollup_hourly.max_temp, new.max_temp), "
+                    + "sum_temp = temperature_rollup_hourly.sum_temp + new.sum_temp, "
+                    + "reading_count = temperature_rollup_hourly.reading_count + new.reading_count";
+    static final String MERGE_DAILY_SQL =
+            "INSERT INTO temperature_rollup_daily (name, day, min_temp, max_temp, sum_temp, reading_count) "
+                    + "VALUES (?, ?, ?, ?, ?, ?) AS new ON DUPLICATE KEY UPDATE "
+                    + "min_temp = LEAST(temperature_rollup_daily.min_temp, new.min_temp), "
+                    + "max_temp = GREATEST(temperature_rollup_daily.max_temp, new.max_temp), "
+                    + "sum_temp = temperature_rollup_daily.sum_temp + new.sum_temp, "
+                    + "reading_count = temperature_rollup_daily.reading_count + new.reading_count";
+
+    static final String RECOMPUTE_HOURLY_FROM_STAGING_SQL =
+            "INSERT INTO temperature_rollup_hourly (name, hour_start, min_temp, max_temp, sum_temp, reading_count) "
+                    + "SELECT * FROM (SELECT t.name, b.hour_start, MIN(t.temp) AS min_temp, MAX(t.temp) AS max_temp, "
+                    + "SUM(t.temp) AS sum_temp, COUNT(*) AS reading_count "
+                    + "FROM (SELECT DISTINCT name, TIMESTAMP(DATE_FORMAT(datetime, '%Y-%m-%d %H:00:00')) AS hour_start "
+                    + "FROM temperature_data_staging WHERE job_instance_id = ?) b "
+                    + "JOIN temperature_data t ON t.name = b.name "
+                    + "AND t.datetime >= b.hour_start AND t.datetime < b.hour_start + INTERVAL 1 HOUR "
+                    + "GROUP BY t.name, b.hour_start) r "
+                    + "ON DUPLICATE KEY UPDATE min_temp = r.min_temp, max_temp = r.max_temp, "
+                    + "sum_temp = r.sum_temp, reading_count = r.reading_count";
+    static final String RECOMPUTE_DAILY_FROM_STAGING_SQL =
+            "INSERT INTO temperature_rollup_daily (name, day, min_temp, max_temp, sum_temp, reading_count) "
+                    + "SELECT * FROM (SELECT t.name, b.day, MIN(t.temp) AS min_temp, MAX(t.temp) AS max_temp, "
+                    + "SUM(t.temp) AS sum_temp, COUNT(*) AS reading_count "
+                    + "FROM (SELECT DISTINCT name, DATE(datetime) AS day "
+                    + "FROM temperature_data_staging WHERE job_instance_id = ?) b "
+                    + "JOIN temperature_data t ON t.name = b.name "
+                    + "AND t.datetime >= b.day AND t.datetime < b.day + INTERVAL 1 DAY "
+                    + "GROUP BY t.name, b.day) r "
+                    + "ON DUPLICATE KEY UPDATE min_temp = r.min_temp, max_temp = r.max_temp, "
+                    + "sum_temp = r.sum_temp, reading_count = r.reading_count";
+
+    static final String RECOMPUTE_HOURLY_SQL =
+            "INSERT INTO temperature_rollup_hourly (name, hour_start, min_temp, max_temp, sum_temp, reading_count) "
+                    + "SELECT * FROM (SELECT name, ? AS hour_start, MIN(temp) AS min_temp, MAX(temp) AS max_temp, "
+                    + "SUM(temp) AS sum_temp, COUNT(*) AS reading_count FROM temperature_data "
+                    + "WHERE name = ? AND datetime >= ? AND datetime < ? + INTERVAL 1 HOUR GROUP BY name) r "
+                    + "ON DUPLICATE KEY UPDATE min_temp = r.min_temp, max_temp = r.max_temp, "
+                    + "sum_temp = r.sum_temp, reading_count = r.reading_count";
+    static final String RECOMPUTE_DAILY_SQL =
+            "INSERT INTO temperature_rollup_daily (name, day, min_temp, max_temp, sum_temp, reading_count) "
+                    + "SELECT * FROM (SELECT name, ? AS day, MIN(temp) AS min_temp, MAX(temp) AS max_temp, "
+                    + "SUM(temp) AS sum_temp, COUNT(*) AS reading_count FROM temperature_data "
+                    + "WHERE name = ? AND datetime >= ? AND datetime < ? + INTERVAL 1 DAY GROUP BY name) r "
+                    + "ON DUPLICATE KEY UPDATE min_temp = r.min_temp, max_temp = r.max_temp, "
+                    + "sum_temp = r.sum_temp, reading_count = r.reading_count";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RollupStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds inserted rows to the rollups. Runs in the caller's transaction.
+     *
+     * @param inserted rows that were inserted into {@code temperature_data}; duplicates must be excluded
+     */
+    public void add(Iterable<? extends TemperatureData> inserted) {
+        TemperatureRollup rollup = new TemperatureRollup();
+        inserted.forEach(rollup::add);
+        merge(rollup);
+    }
+
+    /**
+     * Merges aggregates into the rollup tables. Runs in the caller's transaction.
+     *
+     * @param rollup aggregates of rows inserted into {@code temperature_data}
+     */
+    public void merge(TemperatureRollup rollup) {
+        if (rollup.isEmpty()) {
+            return;
+        }
+        List<Object[]> hourly = rollup.hourly().stream()
+                .map(entry -> row(entry.getKey().name(), Timestamp.valueOf(entry.getKey().bucket()), entry.getValue()))
+                .toList();
+        List<Object[]> daily = rollup.daily().stream()
+                .map(entry -> row(entry.getKey().name(), Date.valueOf(entry.getKey().bucket()), entry.getValue()))
+                .toList();
+        jdbcTemplate.batchUpdate(MERGE_HOURLY_SQL, hourly);
+        jdbcTemplate.batchUpdate(MERGE_DAILY_SQL, daily);
+    }
+
+    /**
+     * Recomputes, from {@code temperature_data}, the hours and days of rows whose temperature was overwritten. Runs
+     * in the caller's transaction, after the rows were updated and after {@link #merge} of the same chunk.
+     *
+     * @param updated aggregates of the overwritten rows; only their stations and buckets are used
+     */
+    public void recompute(TemperatureRollup updated) {
+        if (updated.isEmpty()) {
+            return;
+        }
+        List<Object[]> hourly = updated.hourly().stream()
+                .map(entry -> bucket(entry.getKey().name(), Timestamp.valueOf(entry.getKey().bucket())))
+                .toList();
+        List<Object[]> daily = updated.daily().stream()
+                .map(entry -> bucket(entry.getKey().name(), Date.valueOf(entry.getKey().bucket())))
+                .toList();
+        jdbcTemplate.batchUpdate(RECOMPUTE_HOURLY_SQL, hourly);
+        jdbcTemplate.batchUpdate(RECOMPUTE_DAILY_SQL, daily);
+    }
+
+    /**
+     * Recomputes, from {@code temperature_data}, every hour and day that contains a row staged by a job instance.
+     * Used after a set-based merge, which does not tell which staged rows were inserted. Runs in the caller's
+     * transaction and must be called before the staged rows are removed.
+     *
+     * @param jobInstanceId id of the job instance that staged the rows
+     */
+    public void recomputeFromStaging(long jobInstanceId) {
+        jdbcTemplate.update(RECOMPUTE_HOURLY_FROM_STAGING_SQL, jobInstanceId);
+        jdbcTemplate.update(RECOMPUTE_DAILY_FROM_STAGING_SQL, jobInstanceId);
+    }
+
+    private static Object[] bucket(String name, Object bucket) {
+        return new Object[]{bucket, name, bucket, bucket};
+    }
+
+    private static Object[] row(String name, Object bucket, TemperatureRollup.Aggregate aggregate) {
+        return new Object[]{name, bucket, aggregate.min(), aggregate.max(), aggregate.sum(), aggregate.count()};
+    }
+}
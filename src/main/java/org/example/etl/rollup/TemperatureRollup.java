@@ -0,0 +1,119 @@
+package org.example.etl.rollup;
+
+import org.example.etl.model.TemperatureColumns;
+import org.example.etl.model.TemperatureData;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * In-memory per-station hourly and daily min/max/sum/count aggregates of a set of inserted rows.
+ * <p>
+ * A rollup is built for one chunk and merged into the rollup tables by {@link RollupStore}. Not thread-safe.
+ */
+public class TemperatureRollup {
+
+    private static final long SECONDS_PER_HOUR = 3600;
+    private static final long SECONDS_PER_DAY = 86400;
+
+    // buckets are kept as the epoch second of the hour and the epoch day, see TemperatureColumns
+    private final Map<Key<Long>, Aggregate> hourly = new HashMap<>();
+    private final Map<Key<Long>, Aggregate> daily = new HashMap<>();
+
+    /**
+     * Adds an inserted row to its hour and day.
+     *
+     * @param item the inserted row
+     */
+    public void add(TemperatureData item) {
+        add(item.name(), TemperatureColumns.epochSecond(item.datetime()), item.temp());
+    }
+
+    /**
+     * Adds an inserted row to its hour and day.
+     *
+     * @param name        the station name
+     * @param epochSecond the local timestamp, encoded as by {@link TemperatureColumns#epochSecond}
+     * @param temp        the temperature
+     */
+    public void add(String name, long epochSecond, double temp) {
+        long hour = Math.floorDiv(epochSecond, SECONDS_PER_HOUR) * SECONDS_PER_HOUR;
+        hourly.computeIfAbsent(new Key<>(name, hour), key -> new Aggregate()).add(temp);
+        daily.computeIfAbsent(new Key<>(name, Math.floorDiv(epochSecond, SECONDS_PER_DAY)), key -> new Aggregate())
+                .add(temp);
+    }
+
+    public boolean isEmpty() {
+        return hourly.isEmpty();
+    }
+
+    /**
+     * Returns the hourly aggregates, ordered by station and hour.
+     */
+    public List<Map.Entry<Key<LocalDateTime>, Aggregate>> hourly() {
+        return sorted(hourly, TemperatureColumns::datetime);
+    }
+
+    /**
+     * Returns the daily aggregates, ordered by station and day.
+     */
+    public List<Map.Entry<Key<LocalDate>, Aggregate>> daily() {
+        return sorted(daily, LocalDate::ofEpochDay);
+    }
+
+    // a fixed order makes concurrent writers lock the rollup rows in the same order
+    private static <T> List<Map.Entry<Key<T>, Aggregate>> sorted(Map<Key<Long>, Aggregate> aggregates,
+                                                                 LongFunction<T> bucket) {
+        return aggregates.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.<Key<Long>, String>comparing(Key::name)
+                        .thenComparing(Key::bucket)))
+                .map(entry -> Map.entry(new Key<>(entry.getKey().name(), bucket.apply(entry.getKey().bucket())),
+                        entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * A station and the start of an hour or a day.
+     */
+    public record Key<T>(String name, T bucket) {
+    }
+
+    /**
+     * Min, max, sum and count of the temperatures of a bucket.
+     */
+    public static final class Aggregate {
+
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double sum;
+        private long count;
+
+        void add(double temp) {
+            min = Math.min(min, temp);
+            max = Math.max(max, temp);
+            sum += temp;
+            count++;
+        }
+
+        public double min() {
+            return min;
+        }
+
+        public double max() {
+            return max;
+        }
+
+        public double sum() {
+            return sum;
+        }
+
+        public long count() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.etl.sharding;
+
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Routes stations to the shard databases that hold their rows.
+ * <p>
+ * A station is assigned to a shard by a hash of its name, so all rows and rollups of a station live on one shard,
+ * and the unique key on {@code (name, datetime)} of each shard is enough to detect duplicates. The assignment
+ * depends on the number of shards; adding a shard moves most stations.
+ * <p>
+ * Each shard has its own transaction manager. Writes to several shards run in parallel on the router's virtual
+ * threads, see {@link #executor()}. Closing the router stops the threads and closes the shard data sources.
+ */
+public class ShardRouter implements AutoCloseable {
+
+    private final List<Shard> shards;
+    private final ExecutorService executor;
+
+    /**
+     * @param shards the shards, in a fixed order; empty for no sharding
+     */
+    public ShardRouter(List<Shard> shards) {
+        this.shards = List.copyOf(shards);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("shard-writer-", 0).factory());
+    }
+
+    /**
+     * Creates a router over shard databases named {@code shard-0}, {@code shard-1} and so on.
+     *
+     * @param dataSources the shard databases, in a fixed order; empty for no sharding
+     */
+    public static ShardRouter of(List<? extends DataSource> dataSources) {
+        List<Shard> shards = new ArrayList<>(dataSources.size());
+        for (DataSource dataSource : dataSources) {
+            shards.add(new Shard("shard-" + shards.size(), dataSource, new JdbcTemplate(dataSource),
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource))));
+        }
+        return new ShardRouter(shards);
+    }
+
+    /**
+     * Returns whether shard databases are configured.
+     */
+    public boolean isEnabled() {
+        return !shards.isEmpty();
+    }
+
+    /**
+     * Returns the shards, in the order of their indexes.
+     */
+    public List<Shard> shards() {
+        return shards;
+    }
+
+    /**
+     * Returns the index of the shard holding the rows of a station.
+     *
+     * @param name the station name
+     */
+    public int shardOf(String name) {
+        int hash = name.hashCode();
+        // finalization step of MurmurHash3: spreads similar names such as Location-A and Location-B over the shards
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, shards.size());
+    }
+
+    /**
+     * Returns the executor that writes to the shards in parallel.
+     */
+    public ExecutorService executor() {
+        return executor;
+    }
+
+    /**
+     * Runs a schema script on every shard, e.g. the {@code schema.sql} of the primary database.
+     *
+     * @param schema the script
+     */
+    public void initializeSchema(Resource schema) {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(schema);
+        for (Shard shard : shards) {
+            populator.execute(shard.dataSource());
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        executor.shutdown();
+        for (Shard shard : shards) {
+            if (shard.dataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * A shard database.
+     *
+     * @param name                name of the shard in logs and the job summary
+     * @param dataSource          the shard database
+     * @param jdbcTemplate        template on the shard database
+     * @param transactionTemplate template running a transaction on the shard database
+     */
+    public record Shard(String name, DataSource dataSource, JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate) {
+    }
+}
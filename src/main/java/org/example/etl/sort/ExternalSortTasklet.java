@@ -0,0 +1,82 @@
+package org.example.etl.sort;
+
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.model.TemperatureData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepContribution;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+import org.springframework.batch.infrastructure.repeat.RepeatStatus;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Sorts the input of a run by {@code (name, datetime)} with an {@link ExternalTemperatureSorter} before it is
+ * imported, so that the inserts follow the unique index of {@code temperature_data} instead of hitting random index
+ * pages.
+ * <p>
+ * The sorted file is written to {@code sorted-<job execution id>.csv} of the output directory, and its location is
+ * stored in the job execution context under {@value #SORTED_FILE_KEY}, where the reader of the import step picks
+ * it up. Duplicates within the file are dropped by the sort and reported to the {@link DuplicateSkipListener}; they
+ * are counted as read and filtered items of this step, so that the job summary adds up to the input.
+ * <p>
+ * The sorted file lives only as long as its job execution; a restart sorts the input again, which yields the same
+ * file, so the import step resumes where the failed execution stopped. The reader must therefore read the original
+ * input and not the sorted file named in the execution context, which a restarted execution inherits.
+ */
+public class ExternalSortTasklet implements Tasklet {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExternalSortTasklet.class);
+
+    public static final String SORTED_FILE_KEY = "sortedFile";
+
+    private final ItemStreamReader<TemperatureData> reader;
+    private final ExternalTemperatureSorter sorter;
+    private final Path outputDir;
+    private final DuplicateSkipListener duplicateListener;
+
+    /**
+     * @param reader            reader of the input file, opened and closed by the tasklet
+     * @param sorter            the sorter
+     * @param outputDir         directory of the sorted file
+     * @param duplicateListener listener the dropped duplicates are reported to
+     */
+    public ExternalSortTasklet(ItemStreamReader<TemperatureData> reader, ExternalTemperatureSorter sorter,
+                               Path outputDir, DuplicateSkipListener duplicateListener) {
+        this.reader = reader;
+        this.sorter = sorter;
+        this.outputDir = outputDir;
+        this.duplicateListener = duplicateListener;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        StepExecution stepExecution = chunkContext.getStepContext().getStepExecution();
+        JobExecution jobExecution = stepExecution.getJobExecution();
+        Files.createDirectories(outputDir);
+        Path output = outputDir.resolve("sorted-" + jobExecution.getId() + ".csv");
+        // stored before the sort, so that the cleanup listener also deletes the file of a failed sort
+        jobExecution.getExecutionContext().putString(SORTED_FILE_KEY, output.toUri().toString());
+
+        ExternalTemperatureSorter.Result result;
+        // the whole file is sorted in one execution, so a restart always reads it from the beginning
+        reader.open(new ExecutionContext());
+        try {
+            result = sorter.sort(reader, output, duplicateListener::onDuplicate);
+        } finally {
+            reader.close();
+        }
+        // the tasklet step adds the (empty) contribution to these counts
+        stepExecution.setReadCount(result.duplicates());
+        stepExecution.setFilterCount(result.duplicates());
+        logger.info("Sorted {} records into {} with {} spilled runs: {} duplicates dropped",
+                result.read(), output, result.runs(), result.duplicates());
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,359 @@
+package org.example.etl.sort;
+
+import org.example.etl.export.TemperatureCsvLineAggregator;
+import org.example.etl.model.TemperatureData;
+import org.springframework.batch.infrastructure.item.ItemReader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Sorts records by {@code (name, datetime)}, the order of the unique index of {@code temperature_data}, with an
+ * external merge sort, and writes them as a CSV file in the input format.
+ * <p>
+ * Records are collected in memory until their estimated size reaches the memory budget; then they are sorted and
+ * spilled to a binary run file. The runs and the records still in memory are merged into the output, at most
+ * {@code maxFanIn} at a time, so that the number of open files stays bounded. Sorting is stable and runs are merged
+ * in input order, so records with the same key stay in input order, and all but one of them are dropped while the
+ * output is written: the first, like an insert would keep, or the last, like an update would. Run files are deleted
+ * when the sort ends.
+ */
+public class ExternalTemperatureSorter {
+
+    static final Comparator<TemperatureData> KEY_ORDER =
+            Comparator.comparing(TemperatureData::name).thenComparing(TemperatureData::datetime);
+
+    static final int DEFAULT_MAX_FAN_IN = 64;
+
+    // record, LocalDateTime, LocalDate, LocalTime and String headers, the name's array header and the list slot
+    private static final int RECORD_OVERHEAD = 112;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path tempDir;
+    private final long memoryBudget;
+    private final int maxFanIn;
+    private final boolean keepLast;
+
+    /**
+     * @param tempDir      directory of the run files
+     * @param memoryBudget estimated heap size of the records held in memory before a run is spilled, in bytes
+     * @param keepLast     whether the last of the records with the same key is kept instead of the first
+     */
+    public ExternalTemperatureSorter(Path tempDir, long memoryBudget, boolean keepLast) {
+        this(tempDir, memoryBudget, DEFAULT_MAX_FAN_IN, keepLast);
+    }
+
+    ExternalTemperatureSorter(Path tempDir, long memoryBudget, int maxFanIn, boolean keepLast) {
+        if (maxFanIn < 2) {
+            throw new IllegalArgumentException("maxFanIn must be at least 2");
+        }
+        this.tempDir = tempDir;
+        this.memoryBudget = memoryBudget;
+        this.maxFanIn = maxFanIn;
+        this.keepLast = keepLast;
+    }
+
+    /**
+     * Reads all records of a reader and writes them sorted and without duplicate keys.
+     *
+     * @param reader    an opened reader of the input
+     * @param output    the CSV file to write
+     * @param duplicate called with every dropped record
+     * @return the counts of the sort
+     */
+    public Result sort(ItemReader<TemperatureData> reader, Path output, Consumer<TemperatureData> duplicate)
+            throws Exception {
+        List<Path> files = new ArrayList<>();
+        try {
+            List<Path> runs = new ArrayList<>();
+            List<TemperatureData> buffer = new ArrayList<>();
+            long read = 0;
+            long buffered = 0;
+            TemperatureData item;
+            while ((item = reader.read()) != null) {
+                read++;
+                buffer.add(item);
+                buffered += estimatedSize(item);
+                if (buffered >= memoryBudget) {
+                    runs.add(spill(buffer, files));
+                    buffer.clear();
+                    buffered = 0;
+                }
+            }
+            int spilled = runs.size();
+            buffer.sort(KEY_ORDER);
+            // the records in memory are the last of the input and join the final merge
+            while (runs.size() + 1 > maxFanIn) {
+                runs = mergePass(runs, files);
+            }
+
+            List<Cursor> cursors = new ArrayList<>();
+            try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                for (Path run : runs) {
+                    cursors.add(new RunCursor(cursors.size(), run));
+                }
+                cursors.add(new MemoryCursor(cursors.size(), buffer));
+                UniqueKeyWriter sink = new UniqueKeyWriter(writer, duplicate);
+                merge(cursors, sink);
+                sink.finish();
+                return new Result(read, sink.written, sink.duplicates, spilled);
+            } finally {
+                for (Cursor cursor : cursors) {
+                    cursor.close();
+                }
+            }
+        } finally {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated heap size of a record.
+     */
+    static long estimatedSize(TemperatureData item) {
+        return RECORD_OVERHEAD + item.name().length();
+    }
+
+    private Path spill(List<TemperatureData> buffer, List<Path> files) throws IOException {
+        buffer.sort(KEY_ORDER);
+        Path run = createRun(files);
+        try (RunWriter writer = new RunWriter(run)) {
+            for (TemperatureData item : buffer) {
+                writer.write(item);
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Merges groups of up to {@code maxFanIn} consecutive runs into one run each, keeping the input order.
+     */
+    private List<Path> mergePass(List<Path> runs, List<Path> files) throws IOException {
+        List<Path> merged = new ArrayList<>();
+        for (int start = 0; start < runs.size(); start += maxFanIn) {
+            List<Path> group = runs.subList(start, Math.min(start + maxFanIn, runs.size()));
+            if (group.size() == 1) {
+                merged.add(group.getFirst());
+                continue;
+            }
+            Path run = createRun(files);
+            merged.add(run);
+            List<Cursor> cursors = new ArrayList<>();
+            try (RunWriter writer = new RunWriter(run)) {
+                for (Path input : group) {
+                    cursors.add(new RunCursor(cursors.size(), input));
+                }
+                merge(cursors, writer::write);
+            } finally {
+                for (Cursor cursor : cursors) {
+                    cursor.close();
+                }
+            }
+            for (Path input : group) {
+                Files.delete(input);
+            }
+        }
+        return merged;
+    }
+
+    private Path createRun(List<Path> files) throws IOException {
+        Path run = Files.createTempFile(tempDir, "sort-run-", ".bin");
+        files.add(run);
+        return run;
+    }
+
+    private static void merge(List<Cursor> cursors, Sink sink) throws IOException {
+        // ties are taken from the earlier run, which holds the earlier records of the input
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(Math.max(1, cursors.size()),
+                Comparator.comparing(Cursor::head, KEY_ORDER).thenComparingInt(Cursor::index));
+        for (Cursor cursor : cursors) {
+            if (cursor.head() != null) {
+                queue.add(cursor);
+            }
+        }
+        while (!queue.isEmpty()) {
+            Cursor cursor = queue.poll();
+            sink.accept(cursor.head());
+            cursor.advance();
+            if (cursor.head() != null) {
+                queue.add(cursor);
+            }
+        }
+    }
+
+    /**
+     * Counts of a sort.
+     *
+     * @param read       the number of records read
+     * @param written    the number of records written
+     * @param duplicates the number of records dropped for a duplicate key
+     * @param runs       the number of runs spilled to disk
+     */
+    public record Result(long read, long written, long duplicates, int runs) {
+    }
+
+    @FunctionalInterface
+    private interface Sink {
+        void accept(TemperatureData item) throws IOException;
+    }
+
+    /**
+     * Writes the merged records as CSV lines, holding back the last record until the next key is known.
+     */
+    private final class UniqueKeyWriter implements Sink {
+
+        private final BufferedWriter writer;
+        private final Consumer<TemperatureData> duplicate;
+        private final StringBuilder line = new StringBuilder(64);
+        private TemperatureData pending;
+        private long written;
+        private long duplicates;
+
+        UniqueKeyWriter(BufferedWriter writer, Consumer<TemperatureData> duplicate) throws IOException {
+            this.writer = writer;
+            this.duplicate = duplicate;
+            writer.write(TemperatureCsvLineAggregator.HEADER);
+            writer.newLine();
+        }
+
+        @Override
+        public void accept(TemperatureData item) throws IOException {
+            if (pending != null && KEY_ORDER.compare(pending, item) == 0) {
+                duplicates++;
+                if (keepLast) {
+                    duplicate.accept(pending);
+                    pending = item;
+                } else {
+                    duplicate.accept(item);
+                }
+                return;
+            }
+            flush();
+            pending = item;
+        }
+
+        void finish() throws IOException {
+            flush();
+        }
+
+        private void flush() throws IOException {
+            if (pending == null) {
+                return;
+            }
+            line.setLength(0);
+            TemperatureCsvLineAggregator.append(pending, line);
+            writer.append(line);
+            writer.newLine();
+            written++;
+            pending = null;
+        }
+    }
+
+    private static final class RunWriter implements AutoCloseable {
+
+        private final DataOutputStream out;
+
+        RunWriter(Path run) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), BUFFER_SIZE));
+        }
+
+        void write(TemperatureData item) throws IOException {
+            out.writeUTF(item.name());
+            out.writeLong(item.datetime().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(item.datetime().getNano());
+            out.writeDouble(item.temp());
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private abstract static class Cursor implements AutoCloseable {
+
+        private final int index;
+        protected TemperatureData head;
+
+        Cursor(int index) {
+            this.index = index;
+        }
+
+        int index() {
+            return index;
+        }
+
+        TemperatureData head() {
+            return head;
+        }
+
+        abstract void advance() throws IOException;
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    private static final class MemoryCursor extends Cursor {
+
+        private final List<TemperatureData> items;
+        private int position;
+
+        MemoryCursor(int index, List<TemperatureData> items) {
+            super(index);
+            this.items = items;
+            advance();
+        }
+
+        @Override
+        void advance() {
+            head = position < items.size() ? items.get(position++) : null;
+        }
+    }
+
+    private static final class RunCursor extends Cursor {
+
+        private final DataInputStream in;
+
+        RunCursor(int index, Path run) throws IOException {
+            super(index);
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), BUFFER_SIZE));
+            advance();
+        }
+
+        @Override
+        void advance() throws IOException {
+            String name;
+            try {
+                name = in.readUTF();
+            } catch (EOFException e) {
+                head = null;
+                return;
+            }
+            LocalDateTime datetime = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            head = new TemperatureData(name, datetime, in.readDouble());
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.etl.sort;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.listener.JobExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Deletes the file written by the {@link ExternalSortTasklet} when its job execution ends, whether it completed,
+ * failed or was stopped. A restart runs {@code sortStep} again, which writes the file anew.
+ */
+@Component
+public class SortedFileCleanupListener implements JobExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SortedFileCleanupListener.class);
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        String sortedFile = jobExecution.getExecutionContext().containsKey(ExternalSortTasklet.SORTED_FILE_KEY)
+                ? jobExecution.getExecutionContext().getString(ExternalSortTasklet.SORTED_FILE_KEY)
+                : null;
+        if (sortedFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Path.of(URI.create(sortedFile)));
+        } catch (IOException e) {
+            logger.warn("Failed to delete the sorted file {}", sortedFile, e);
+        }
+    }
+}
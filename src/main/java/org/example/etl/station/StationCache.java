@@ -0,0 +1,147 @@
+package org.example.etl.station;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves station names to the integer ids of the {@code station} dimension table, creating missing stations.
+ * <p>
+ * Ids are cached in process, so a known station costs a map lookup. Unknown names of a chunk are resolved together on
+ * the caller's connection and in its transaction: they are first read with {@code SELECT ... IN}, and only the names
+ * not found are inserted with one {@code INSERT IGNORE} batch, in name order so concurrent writers lock them in the
+ * same order, and read back the same way. Stations that already exist, e.g. after a restart of the application,
+ * therefore cost no insert and take no lock. A station is committed or rolled back together with the chunk that created
+ * it, and its id is only cached after that chunk has committed, so a cached id always exists in the database.
+ * Concurrent writers may create the same station; the unique key on the name makes them agree on one id.
+ * <p>
+ * The cache is thread-safe. When it exceeds its maximum size it is cleared, and stations are read again on demand.
+ */
+@Component
+public class StationCache {
+
+    static final String INSERT_SQL = "INSERT IGNORE INTO station (name) VALUES (?)";
+    static final String SELECT_SQL = "SELECT id, name FROM station WHERE name IN (%s)";
+    static final String SELECT_ONE_SQL = "SELECT id FROM station WHERE name = ?";
+    static final int SELECT_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxSize;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    /**
+     * @param jdbcTemplate template used to create and read stations
+     * @param maxSize      maximum number of cached stations
+     */
+    public StationCache(JdbcTemplate jdbcTemplate, @Value("${etl.station.cache-size:100000}") int maxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Resolves the ids of the given names, creating missing stations in the caller's transaction. Ids of created or
+     * newly read stations are cached once that transaction commits, or at once if there is none.
+     *
+     * @param names station names, may contain repetitions
+     * @return the id of every given name
+     */
+    public Map<String, Integer> resolveAll(Collection<String> names) {
+        Map<String, Integer> resolved = new HashMap<>();
+        TreeSet<String> missing = new TreeSet<>();
+        for (String name : names) {
+            Integer id = ids.get(name);
+            if (id != null) {
+                resolved.put(name, id);
+            } else {
+                missing.add(name);
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+        Map<String, Integer> created = new HashMap<>();
+        select(new ArrayList<>(missing), created);
+        List<String> toCreate = missing.stream().filter(name -> !created.containsKey(name)).toList();
+        if (!toCreate.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, toCreate, toCreate.size(), (ps, name) -> ps.setString(1, name));
+            select(toCreate, created);
+            for (String name : toCreate) {
+                if (!created.containsKey(name)) {
+                    // the column collation matched a station spelled differently, e.g. in another letter case
+                    created.put(name, jdbcTemplate.queryForObject(SELECT_ONE_SQL, Integer.class, name));
+                }
+            }
+        }
+        resolved.putAll(created);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(created);
+                }
+            });
+        } else {
+            cache(created);
+        }
+        return resolved;
+    }
+
+    /**
+     * Returns the id of a station, creating the station if needed.
+     *
+     * @param name the station name
+     * @return the station id
+     */
+    public int id(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = resolveAll(List.of(name)).get(name);
+            if (id == null) {
+                throw new IllegalStateException("Station was not created: " + name);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Returns the number of cached stations.
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Clears the cache, e.g. after the station table was truncated.
+     */
+    public void clear() {
+        ids.clear();
+    }
+
+    private void select(List<String> names, Map<String, Integer> found) {
+        for (int from = 0; from < names.size(); from += SELECT_BATCH_SIZE) {
+            List<String> batch = names.subList(from, Math.min(from + SELECT_BATCH_SIZE, names.size()));
+            String sql = SELECT_SQL.formatted(String.join(", ", Collections.nCopies(batch.size(), "?")));
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> found.put(rs.getString("name"), rs.getInt("id")),
+                    batch.toArray());
+        }
+    }
+
+    private void cache(Map<String, Integer> created) {
+        if (ids.size() + created.size() > maxSize) {
+            ids.clear();
+        }
+        ids.putAll(created);
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.etl.storage;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Period covered by one {@code RANGE} partition of {@code temperature_data}, and the naming of its partitions.
+ * <p>
+ * A partition is named after the start of its period, e.g. {@code p202401} for January 2024 or {@code p20240115}
+ * for the 15th of January 2024.
+ */
+public enum PartitionGranularity {
+
+    MONTHLY("yyyyMM", 6) {
+        @Override
+        public LocalDateTime periodStart(LocalDateTime datetime) {
+            return datetime.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDateTime next(LocalDateTime periodStart) {
+            return periodStart.plusMonths(1);
+        }
+
+        @Override
+        public LocalDateTime previous(LocalDateTime periodStart) {
+            return periodStart.minusMonths(1);
+        }
+
+        @Override
+        public long key(LocalDateTime datetime) {
+            return datetime.getYear() * 12L + datetime.getMonthValue() - 1;
+        }
+    },
+
+    DAILY("yyyyMMdd", 8) {
+        @Override
+        public LocalDateTime periodStart(LocalDateTime datetime) {
+            return datetime.truncatedTo(ChronoUnit.DAYS);
+        }
+
+        @Override
+        public LocalDateTime next(LocalDateTime periodStart) {
+            return periodStart.plusDays(1);
+        }
+
+        @Override
+        public LocalDateTime previous(LocalDateTime periodStart) {
+            return periodStart.minusDays(1);
+        }
+
+        @Override
+        public long key(LocalDateTime datetime) {
+            return datetime.toLocalDate().toEpochDay();
+        }
+    };
+
+    private final DateTimeFormatter nameFormat;
+    private final int nameDigits;
+
+    PartitionGranularity(String namePattern, int nameDigits) {
+        this.nameFormat = DateTimeFormatter.ofPattern(namePattern);
+        this.nameDigits = nameDigits;
+    }
+
+    /**
+     * Returns the granularity of a property value, {@code monthly} or {@code daily}.
+     *
+     * @throws IllegalArgumentException if the value names no granularity
+     */
+    public static PartitionGranularity of(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the start of the period containing {@code datetime}.
+     */
+    public abstract LocalDateTime periodStart(LocalDateTime datetime);
+
+    /**
+     * Returns the start of the period following the one starting at {@code periodStart}.
+     */
+    public abstract LocalDateTime next(LocalDateTime periodStart);
+
+    /**
+     * Returns the start of the period preceding the one starting at {@code periodStart}.
+     */
+    public abstract LocalDateTime previous(LocalDateTime periodStart);
+
+    /**
+     * Returns a number identifying the period of {@code datetime}; consecutive periods have consecutive keys.
+     */
+    public abstract long key(LocalDateTime datetime);
+
+    /**
+     * Returns the name of the partition of the period starting at {@code periodStart}.
+     */
+    public String partitionName(LocalDateTime periodStart) {
+        return "p" + nameFormat.format(periodStart);
+    }
+
+    /**
+     * Returns the start of the period of a partition name, or {@code null} if the name is not of this granularity.
+     */
+    public LocalDateTime periodStart(String partitionName) {
+        if (partitionName == null || partitionName.length() != nameDigits + 1 || partitionName.charAt(0) != 'p') {
+            return null;
+        }
+        String digits = partitionName.substring(1);
+        try {
+            return this == MONTHLY
+                    ? YearMonth.parse(digits, nameFormat).atDay(1).atStartOfDay()
+                    : LocalDate.parse(digits, nameFormat).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.etl.storage;
+
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.listener.JobExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Creates the upcoming partitions of {@code temperature_data} and drops the expired ones before an import job.
+ * Does nothing unless {@code etl.partitioning.enabled} is set.
+ */
+@Component
+public class PartitionMaintenanceListener implements JobExecutionListener {
+
+    private final TemperaturePartitionManager partitionManager;
+
+    public PartitionMaintenanceListener(TemperaturePartitionManager partitionManager) {
+        this.partitionManager = partitionManager;
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        partitionManager.maintain(LocalDateTime.now());
+    }
+}
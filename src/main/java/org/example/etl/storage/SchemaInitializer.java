@@ -0,0 +1,103 @@
+package org.example.etl.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Creates the Spring Batch and application tables unless they exist, checking for them with a single query.
+ * <p>
+ * Used instead of {@code spring.sql.init.mode=always} and {@code spring.batch.jdbc.initialize-schema=always} by
+ * short command-line runs, which would otherwise execute every statement of both scripts on every start. The table
+ * and view names are taken from the {@code CREATE} statements of the scripts, and a script runs only if one of them
+ * is missing. Changed definitions of existing tables are not detected.
+ */
+@Component
+public class SchemaInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaInitializer.class);
+
+    static final String BATCH_SCHEMA = "classpath:org/springframework/batch/core/schema-mysql.sql";
+    static final String TABLES_SQL =
+            "SELECT LOWER(TABLE_NAME) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE()";
+
+    private static final Pattern CREATE_PATTERN = Pattern.compile(
+            "CREATE\\s+(?:OR\\s+REPLACE\\s+)?(?:TABLE|VIEW)\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?`?(\\w+)",
+            Pattern.CASE_INSENSITIVE);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Resource batchSchema;
+    private final Resource schema;
+
+    /**
+     * @param jdbcTemplate template on the database holding the tables
+     * @param batchSchema  the Spring Batch schema script for MySQL
+     * @param schema       the application schema script
+     */
+    public SchemaInitializer(JdbcTemplate jdbcTemplate,
+                             @Value("${etl.schema.batch-location:" + BATCH_SCHEMA + "}") Resource batchSchema,
+                             @Value("${etl.schema.location:classpath:schema.sql}") Resource schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSchema = batchSchema;
+        this.schema = schema;
+    }
+
+    /**
+     * Runs the scripts whose tables are not all present.
+     *
+     * @return {@code true} if a script was run
+     */
+    public boolean initialize() {
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(TABLES_SQL, String.class));
+        // the Spring Batch script has no IF NOT EXISTS; its sequence inserts are guarded against repeated runs
+        boolean batchCreated = initialize(batchSchema, existing, true);
+        boolean created = initialize(schema, existing, false);
+        return batchCreated || created;
+    }
+
+    private boolean initialize(Resource script, Set<String> existing, boolean continueOnError) {
+        List<String> missing = new ArrayList<>(tableNames(script));
+        missing.removeAll(existing);
+        if (missing.isEmpty()) {
+            return false;
+        }
+        logger.info("Running {} to create {}", script.getDescription(), missing);
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(script);
+        populator.setContinueOnError(continueOnError);
+        populator.execute(jdbcTemplate.getDataSource());
+        return true;
+    }
+
+    /**
+     * Returns the lower-case names of the tables and views a script creates.
+     */
+    static List<String> tableNames(Resource script) {
+        String sql;
+        try {
+            sql = script.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + script.getDescription(), e);
+        }
+        List<String> names = new ArrayList<>();
+        Matcher matcher = CREATE_PATTERN.matcher(sql);
+        while (matcher.find()) {
+            names.add(matcher.group(1).toLowerCase(Locale.ROOT));
+        }
+        return names;
+    }
+}
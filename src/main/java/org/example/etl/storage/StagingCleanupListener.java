@@ -0,0 +1,71 @@
+package org.example.etl.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.listener.JobExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Deletes rows of {@code temperature_data_staging} that will never be merged, after every import job.
+ * <p>
+ * The {@code bulk} write mode merges and deletes the staged rows of a job instance in its merge step. Rows of an
+ * instance whose last execution was abandoned or completed are never merged. Rows of a failed or stopped instance
+ * are kept for a restart, which merges them together with the rest of the file, until its last execution ended more
+ * than {@code etl.bulk.staging-retention} ago. Instances that are still running are never touched.
+ */
+@Component
+public class StagingCleanupListener implements JobExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(StagingCleanupListener.class);
+
+    static final String SWEEP_SQL = """
+            DELETE FROM temperature_data_staging WHERE job_instance_id IN (
+                SELECT e.JOB_INSTANCE_ID FROM BATCH_JOB_EXECUTION e
+                WHERE e.JOB_EXECUTION_ID = (SELECT MAX(l.JOB_EXECUTION_ID) FROM BATCH_JOB_EXECUTION l
+                                            WHERE l.JOB_INSTANCE_ID = e.JOB_INSTANCE_ID)
+                AND (e.STATUS IN ('ABANDONED', 'COMPLETED')
+                     OR (e.STATUS IN ('FAILED', 'STOPPED') AND e.END_TIME < ?)))""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retention;
+
+    /**
+     * @param retention how long the staged rows of a failed or stopped run are kept for a restart
+     */
+    public StagingCleanupListener(JdbcTemplate jdbcTemplate,
+                                  @Value("${etl.bulk.staging-retention:P7D}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retention = retention;
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        sweep(LocalDateTime.now());
+    }
+
+    /**
+     * Deletes the staged rows that will not be merged.
+     *
+     * @param now the current time
+     * @return the number of deleted rows
+     */
+    public int sweep(LocalDateTime now) {
+        try {
+            int deleted = jdbcTemplate.update(SWEEP_SQL, now.minus(retention));
+            if (deleted > 0) {
+                logger.info("Deleted {} staged rows of abandoned, completed or expired failed runs", deleted);
+            }
+            return deleted;
+        } catch (DataAccessException e) {
+            logger.warn("Failed to clean up the staging table", e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package org.example.etl.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the {@code RANGE} partitions of {@code temperature_data} by {@code datetime}.
+ * <p>
+ * The table is partitioned by {@code UNIX_TIMESTAMP(datetime)} into one partition per month or day, named after
+ * the start of its period (see {@link PartitionGranularity}), plus {@code p_old} for rows before the first period
+ * and the catch-all {@code p_max}. MySQL requires every unique key of a partitioned table to contain the
+ * partitioning column, so the primary key becomes {@code (id, datetime)}; {@code uk_name_datetime} already
+ * qualifies.
+ * <p>
+ * {@link #maintain(LocalDateTime)} runs before every import:
+ * <ul>
+ *     <li>an unpartitioned table is partitioned from the period of its oldest row, which rebuilds the table once
+ *     and may take long on a large table;</li>
+ *     <li>partitions up to {@code ahead} periods after the current one are split off {@code p_max}, which is
+ *     instant while {@code p_max} is empty;</li>
+ *     <li>with a retention configured, partitions whose period ended before it are dropped, which removes their
+ *     rows without a row-by-row {@code DELETE}. The rollup tables keep their aggregates.</li>
+ * </ul>
+ * Maintenance runs in one thread at a time. Boundaries are written as
+ * {@code UNIX_TIMESTAMP('yyyy-MM-dd HH:mm:ss')}, evaluated in the time zone of the session like the timestamps the
+ * import writes.
+ */
+@Component
+public class TemperaturePartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemperaturePartitionManager.class);
+
+    static final String PARTITIONS_SQL = """
+            SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'temperature_data'
+            ORDER BY PARTITION_ORDINAL_POSITION""";
+    static final String MIN_DATETIME_SQL = "SELECT MIN(datetime) FROM temperature_data";
+    static final String PRIMARY_KEY_SQL =
+            "ALTER TABLE temperature_data DROP PRIMARY KEY, ADD PRIMARY KEY (id, datetime)";
+    static final String PARTITION_BY_SQL =
+            "ALTER TABLE temperature_data PARTITION BY RANGE (UNIX_TIMESTAMP(datetime)) (%s)";
+    static final String REORGANIZE_SQL = "ALTER TABLE temperature_data REORGANIZE PARTITION p_max INTO (%s)";
+    static final String DROP_SQL = "ALTER TABLE temperature_data DROP PARTITION %s";
+    static final String UNIX_TIMESTAMP_SQL = "SELECT UNIX_TIMESTAMP(?)";
+
+    static final String OLD_PARTITION = "p_old";
+    static final String MAX_PARTITION = "p_max";
+
+    /** MySQL allows 8192 partitions per table; older rows share {@code p_old} beyond this. */
+    static final int MAX_PERIODS = 1000;
+
+    private static final DateTimeFormatter BOUNDARY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final PartitionGranularity granularity;
+    private final int ahead;
+    private final Period retention;
+
+    /**
+     * @param jdbcTemplate template used to read and change the partitions
+     * @param enabled      whether {@code temperature_data} is partitioned
+     * @param granularity  {@code monthly} or {@code daily}
+     * @param ahead        number of periods after the current one that get a partition before a run
+     * @param retention    ISO-8601 period of the data kept, e.g. {@code P2Y}; empty to keep all data
+     */
+    public TemperaturePartitionManager(JdbcTemplate jdbcTemplate,
+                                       @Value("${etl.partitioning.enabled:false}") boolean enabled,
+                                       @Value("${etl.partitioning.granularity:monthly}") String granularity,
+                                       @Value("${etl.partitioning.ahead:3}") int ahead,
+                                       @Value("${etl.partitioning.retention:}") String retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.granularity = PartitionGranularity.of(granularity);
+        this.ahead = ahead;
+        this.retention = retention == null || retention.isBlank() ? null : Period.parse(retention);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public PartitionGranularity getGranularity() {
+        return granularity;
+    }
+
+    /**
+     * Partitions the table if needed, creates the upcoming partitions and drops the expired ones.
+     * Does nothing unless partitioning is enabled.
+     *
+     * @param now the current time
+     */
+    public synchronized void maintain(LocalDateTime now) {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime current = granularity.periodStart(now);
+        LocalDateTime last = current;
+        for (int i = 0; i < ahead; i++) {
+            last = granularity.next(last);
+        }
+
+        List<PartitionInfo> partitions = partitions();
+        if (partitions.isEmpty()) {
+            partitionTable(last);
+            partitions = partitions();
+        } else {
+            addPartitions(partitions, current, last);
+        }
+        if (retention != null) {
+            dropPartitions(partitions, granularity.periodStart(now.minus(retention)));
+        }
+    }
+
+    /**
+     * Returns the partitions of the table in boundary order, or an empty list if it is not partitioned.
+     */
+    List<PartitionInfo> partitions() {
+        List<PartitionInfo> partitions = jdbcTemplate.query(PARTITIONS_SQL,
+                (rs, rowNum) -> new PartitionInfo(rs.getString(1), rs.getString(2)));
+        return partitions.size() == 1 && partitions.getFirst().name() == null ? List.of() : partitions;
+    }
+
+    private void partitionTable(LocalDateTime last) {
+        Timestamp oldest = jdbcTemplate.queryForObject(MIN_DATETIME_SQL, Timestamp.class);
+        LocalDateTime first = granularity.periodStart(oldest == null ? last : oldest.toLocalDateTime());
+        LocalDateTime earliest = last;
+        for (int i = 0; i < MAX_PERIODS && earliest.isAfter(first); i++) {
+            earliest = granularity.previous(earliest);
+        }
+        first = first.isBefore(earliest) ? earliest : first;
+
+        List<String> definitions = new ArrayList<>();
+        definitions.add(definition(OLD_PARTITION, first));
+        definitions.addAll(definitions(first, last));
+        definitions.add(MAX_PARTITION + " VALUES LESS THAN MAXVALUE");
+
+        logger.info("Partitioning temperature_data {} from {} to {}; this rebuilds the table",
+                granularity.name().toLowerCase(), first.toLocalDate(), last.toLocalDate());
+        jdbcTemplate.execute(PRIMARY_KEY_SQL);
+        jdbcTemplate.execute(PARTITION_BY_SQL.formatted(partitionList(definitions)));
+    }
+
+    private void addPartitions(List<PartitionInfo> partitions, LocalDateTime current, LocalDateTime last) {
+        if (!MAX_PARTITION.equals(partitions.getLast().name())) {
+            throw new IllegalStateException("temperature_data is partitioned, but not by this application: "
+                    + "its last partition is " + partitions.getLast().name());
+        }
+        LocalDateTime latest = null;
+        for (PartitionInfo partition : partitions) {
+            LocalDateTime start = periodStart(partition);
+            if (start != null) {
+                latest = start;
+            }
+        }
+        LocalDateTime from = latest == null ? current : granularity.next(latest);
+        List<String> definitions = definitions(from, last);
+        if (definitions.isEmpty()) {
+            return;
+        }
+        definitions.add(MAX_PARTITION + " VALUES LESS THAN MAXVALUE");
+        logger.info("Adding {} partitions to temperature_data up to {}", definitions.size() - 1, last.toLocalDate());
+        jdbcTemplate.execute(REORGANIZE_SQL.formatted(partitionList(definitions)));
+    }
+
+    private void dropPartitions(List<PartitionInfo> partitions, LocalDateTime cutoff) {
+        Long cutoffSeconds = jdbcTemplate.queryForObject(UNIX_TIMESTAMP_SQL, Long.class, Timestamp.valueOf(cutoff));
+        List<String> expired = new ArrayList<>();
+        for (PartitionInfo partition : partitions) {
+            // a partition holds rows before its boundary, so it expires once the boundary is not after the cutoff
+            if (!partition.isMaxValue() && Long.parseLong(partition.description()) <= cutoffSeconds) {
+                expired.add(partition.name());
+            }
+        }
+        if (!expired.isEmpty()) {
+            logger.info("Dropping {} partitions of temperature_data before {}: {}", expired.size(),
+                    cutoff.toLocalDate(), expired);
+            jdbcTemplate.execute(DROP_SQL.formatted(String.join(", ", expired)));
+        }
+    }
+
+    private LocalDateTime periodStart(PartitionInfo partition) {
+        if (OLD_PARTITION.equals(partition.name()) || MAX_PARTITION.equals(partition.name())) {
+            return null;
+        }
+        LocalDateTime start = granularity.periodStart(partition.name());
+        if (start == null) {
+            throw new IllegalStateException("Partition " + partition.name() + " of temperature_data is not "
+                    + granularity.name().toLowerCase() + "; etl.partitioning.granularity cannot change");
+        }
+        return start;
+    }
+
+    private List<String> definitions(LocalDateTime from, LocalDateTime last) {
+        List<String> definitions = new ArrayList<>();
+        for (LocalDateTime start = from; !start.isAfter(last); start = granularity.next(start)) {
+            definitions.add(definition(granularity.partitionName(start), granularity.next(start)));
+        }
+        return definitions;
+    }
+
+    private static String definition(String name, LocalDateTime boundary) {
+        return name + " VALUES LESS THAN (UNIX_TIMESTAMP('" + BOUNDARY_FORMAT.format(boundary) + "'))";
+    }
+
+    private static String partitionList(List<String> definitions) {
+        return "PARTITION " + String.join(", PARTITION ", definitions);
+    }
+
+    /**
+     * A partition of {@code temperature_data}.
+     *
+     * @param name        the partition name
+     * @param description the {@code UNIX_TIMESTAMP} boundary, or {@code MAXVALUE}
+     */
+    record PartitionInfo(String name, String description) {
+
+        boolean isMaxValue() {
+            return "MAXVALUE".equals(description);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.etl.writer;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.reader.TemperatureFieldSetMapper;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCallback;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writer that streams every chunk into the {@code temperature_data_staging} table, indexed only by job instance id,
+ * with {@code LOAD DATA LOCAL INFILE}.
+ * <p>
+ * The chunk is rendered as tab-separated text and handed to Connector/J as the local-infile input stream, so no
+ * temporary file is written. Staged rows are tagged with the job instance id; {@link BulkMergeTasklet} merges them
+ * into {@code temperature_data} once the import step has finished. Because rows of committed chunks survive a
+ * failed execution under the same job instance id, a restarted execution simply continues staging.
+ * <p>
+ * Requires {@code allowLoadLocalInfile=true} on the JDBC URL and {@code local_infile=ON} on the server.
+ */
+public class BulkLoadTemperatureWriter implements ItemWriter<TemperatureData> {
+
+    private static final String LOAD_SQL = "LOAD DATA LOCAL INFILE 'temperature_data.tsv' "
+            + "INTO TABLE temperature_data_staging CHARACTER SET utf8mb4 "
+            + "FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' "
+            + "(name, datetime, temp) SET job_instance_id = ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String loadSql;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+    private final StringBuilder line = new StringBuilder(64);
+
+    /**
+     * @param jdbcTemplate  template bound to the step's transaction
+     * @param jobInstanceId id of the job instance the staged rows belong to
+     */
+    public BulkLoadTemperatureWriter(JdbcTemplate jdbcTemplate, long jobInstanceId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.loadSql = LOAD_SQL + jobInstanceId;
+    }
+
+    @Override
+    public void write(Chunk<? extends TemperatureData> chunk) {
+        byte[] rows = toTsv(chunk);
+        jdbcTemplate.execute((StatementCallback<Integer>) statement -> {
+            statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(new ByteArrayInputStream(rows));
+            return statement.executeUpdate(loadSql);
+        });
+    }
+
+    /**
+     * Renders a chunk in the text format expected by {@code LOAD DATA}, escaping tabs, newlines and backslashes.
+     */
+    byte[] toTsv(Chunk<? extends TemperatureData> chunk) {
+        buffer.reset();
+        for (TemperatureData item : chunk) {
+            line.setLength(0);
+            appendEscaped(item.name());
+            line.append('\t');
+            TemperatureFieldSetMapper.DATETIME_FORMAT.formatTo(item.datetime(), line);
+            line.append('\t').append(item.temp()).append('\n');
+            buffer.writeBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return buffer.toByteArray();
+    }
+
+    private void appendEscaped(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                default -> line.append(c);
+            }
+        }
+    }
+}
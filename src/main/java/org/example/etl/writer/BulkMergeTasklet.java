@@ -0,0 +1,76 @@
+package org.example.etl.writer;
+
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
+import org.example.etl.rollup.RollupStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepContribution;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.infrastructure.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Merges the rows staged by {@link BulkLoadTemperatureWriter} into {@code temperature_data} with one set-based
+ * {@code INSERT IGNORE ... SELECT} and removes them from the staging table.
+ * <p>
+ * Rows staged by the import step were reported as written; the difference between the staged and the inserted
+ * row count is the number of duplicates, which is recorded in {@link ImportCounters} against the job execution and
+ * reported to the {@link DuplicateSkipListener}, so the job summary shows the actually inserted rows while the
+ * merge step itself reports no written rows. Staged rows that are never merged, because their run failed and was
+ * not restarted, are removed by the {@link org.example.etl.storage.StagingCleanupListener}.
+ * <p>
+ * The merge does not tell which staged rows were inserted, so if a {@link RollupStore} is given, the rollups of every
+ * hour and day with a staged row are recomputed from {@code temperature_data}, in the same transaction as the merge.
+ */
+public class BulkMergeTasklet implements Tasklet {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkMergeTasklet.class);
+
+    static final String COUNT_SQL = "SELECT COUNT(*) FROM temperature_data_staging WHERE job_instance_id = ?";
+    static final String MERGE_SQL = "INSERT IGNORE INTO temperature_data (name, datetime, temp) "
+            + "SELECT name, datetime, temp FROM temperature_data_staging WHERE job_instance_id = ?";
+    static final String CLEANUP_SQL = "DELETE FROM temperature_data_staging WHERE job_instance_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DuplicateSkipListener duplicateListener;
+    private final ImportCounters importCounters;
+    private final RollupStore rollupStore;
+
+    public BulkMergeTasklet(JdbcTemplate jdbcTemplate, DuplicateSkipListener duplicateListener,
+                            ImportCounters importCounters) {
+        this(jdbcTemplate, duplicateListener, importCounters, null);
+    }
+
+    /**
+     * @param rollupStore store whose rollups are recomputed for the merged rows, or {@code null} to maintain none
+     */
+    public BulkMergeTasklet(JdbcTemplate jdbcTemplate, DuplicateSkipListener duplicateListener,
+                            ImportCounters importCounters, RollupStore rollupStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.duplicateListener = duplicateListener;
+        this.importCounters = importCounters;
+        this.rollupStore = rollupStore;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        JobExecution jobExecution = chunkContext.getStepContext().getStepExecution().getJobExecution();
+        long jobInstanceId = jobExecution.getJobInstance().getId();
+
+        Long staged = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, jobInstanceId);
+        int inserted = jdbcTemplate.update(MERGE_SQL, jobInstanceId);
+        if (rollupStore != null) {
+            rollupStore.recomputeFromStaging(jobInstanceId);
+        }
+        jdbcTemplate.update(CLEANUP_SQL, jobInstanceId);
+
+        long duplicates = (staged == null ? 0 : staged) - inserted;
+        importCounters.addJobDuplicates(jobExecution.getId(), duplicates);
+        duplicateListener.onDuplicates(duplicates);
+        logger.info("Merged {} staged rows: {} inserted, {} duplicates", staged, inserted, duplicates);
+        return RepeatStatus.FINISHED;
+    }
+}
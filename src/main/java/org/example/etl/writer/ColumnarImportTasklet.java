@@ -0,0 +1,50 @@
+package org.example.etl.writer;
+
+import org.example.etl.model.TemperatureColumns;
+import org.example.etl.reader.MappedTemperatureItemReader;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepContribution;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.infrastructure.repeat.RepeatStatus;
+
+/**
+ * Imports a file block by block: every execution fills one {@link TemperatureColumns} block from a
+ * {@link MappedTemperatureItemReader} and writes it with a {@link ColumnarTemperatureWriter}, in one transaction.
+ * <p>
+ * The block is reused for the whole step, so rows are never materialized as objects. Read and write counts are
+ * counted in rows, like in the chunk-oriented steps. The reader must be registered as a stream of the step, so that
+ * its offset is stored with every commit.
+ */
+public class ColumnarImportTasklet implements Tasklet {
+
+    private final MappedTemperatureItemReader reader;
+    private final ColumnarTemperatureWriter writer;
+    private final TemperatureColumns columns;
+
+    /**
+     * @param reader    the reader filling the blocks
+     * @param writer    the writer of the blocks
+     * @param blockSize the number of rows written per transaction
+     */
+    public ColumnarImportTasklet(MappedTemperatureItemReader reader, ColumnarTemperatureWriter writer, int blockSize) {
+        this.reader = reader;
+        this.writer = writer;
+        this.columns = new TemperatureColumns(blockSize);
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        columns.clear();
+        int rows = reader.read(columns);
+        for (int i = 0; i < rows; i++) {
+            contribution.incrementReadCount();
+        }
+        if (rows == 0) {
+            return RepeatStatus.FINISHED;
+        }
+        writer.write(columns);
+        contribution.incrementWriteCount(rows);
+        // a block that is not full means the input is exhausted
+        return RepeatStatus.continueIf(columns.isFull());
+    }
+}
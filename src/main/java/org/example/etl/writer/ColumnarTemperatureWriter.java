@@ -0,0 +1,106 @@
+package org.example.etl.writer;
+
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
+import org.example.etl.model.TemperatureColumns;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.rollup.RollupStore;
+import org.example.etl.rollup.TemperatureRollup;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a {@link TemperatureColumns} block as one JDBC batch, binding every parameter straight from its primitive
+ * columns.
+ * <p>
+ * The timestamp is bound as its epoch second and turned back into a local date-time by MySQL, which gives the same
+ * column value as binding a {@code LocalDateTime}. Duplicates are resolved like in {@link UpsertTemperatureWriter},
+ * with {@code INSERT IGNORE} or {@code INSERT ... ON DUPLICATE KEY UPDATE} and the per-statement update counts;
+ * only duplicates are turned into records, to report them to the {@link DuplicateSkipListener} once the block has
+ * committed. If a {@link RollupStore} is given, the inserted rows are added to the rollups, and the hours and days
+ * of updated duplicates are recomputed.
+ */
+public class ColumnarTemperatureWriter {
+
+    static final String INSERT_IGNORE_SQL = "INSERT IGNORE INTO temperature_data (name, datetime, temp) "
+            + "VALUES (?, TIMESTAMPADD(SECOND, ?, '1970-01-01 00:00:00'), ?)";
+    static final String UPSERT_SQL = "INSERT INTO temperature_data (name, datetime, temp) "
+            + "VALUES (?, TIMESTAMPADD(SECOND, ?, '1970-01-01 00:00:00'), ?) AS new "
+            + "ON DUPLICATE KEY UPDATE temp = new.temp";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean updateExisting;
+    private final DuplicateSkipListener duplicateListener;
+    private final ImportCounters importCounters;
+    private final RollupStore rollupStore;
+
+    /**
+     * @param jdbcTemplate      template used to run the batch
+     * @param updateExisting    {@code true} to overwrite the temperature of existing rows, {@code false} to keep them
+     * @param duplicateListener listener notified about every duplicate
+     * @param importCounters    counters that receive the number of duplicates per block
+     * @param rollupStore       store the inserted rows are added to, or {@code null} to maintain no rollups
+     */
+    public ColumnarTemperatureWriter(JdbcTemplate jdbcTemplate, boolean updateExisting,
+                                     DuplicateSkipListener duplicateListener, ImportCounters importCounters,
+                                     RollupStore rollupStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.updateExisting = updateExisting;
+        this.duplicateListener = duplicateListener;
+        this.importCounters = importCounters;
+        this.rollupStore = rollupStore;
+    }
+
+    /**
+     * Writes all rows of a block in the caller's transaction.
+     *
+     * @param columns the block to write
+     * @return the number of duplicates among the rows
+     */
+    public long write(TemperatureColumns columns) {
+        if (columns.isEmpty()) {
+            return 0;
+        }
+        int[] updateCounts = jdbcTemplate.batchUpdate(updateExisting ? UPSERT_SQL : INSERT_IGNORE_SQL,
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setString(1, columns.name(i));
+                        ps.setLong(2, columns.epochSecond(i));
+                        ps.setDouble(3, columns.temp(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return columns.size();
+                    }
+                });
+
+        UpdateCounts.requirePerStatementCounts(updateCounts);
+
+        TemperatureRollup rollup = rollupStore == null ? null : new TemperatureRollup();
+        TemperatureRollup updated = rollupStore == null ? null : new TemperatureRollup();
+        List<TemperatureData> duplicates = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] != 1) {
+                duplicates.add(columns.get(i));
+                if (updated != null && updateCounts[i] == 2) {
+                    updated.add(columns.name(i), columns.epochSecond(i), columns.temp(i));
+                }
+            } else if (rollup != null) {
+                rollup.add(columns.name(i), columns.epochSecond(i), columns.temp(i));
+            }
+        }
+        UpdateCounts.recordDuplicatesAfterCommit(duplicates, duplicateListener, importCounters);
+        if (rollup != null) {
+            rollupStore.merge(rollup);
+            rollupStore.recompute(updated);
+        }
+        return duplicates.size();
+    }
+}
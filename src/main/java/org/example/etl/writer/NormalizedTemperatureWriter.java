@@ -0,0 +1,94 @@
+package org.example.etl.writer;
+
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.rollup.RollupStore;
+import org.example.etl.rollup.TemperatureRollup;
+import org.example.etl.station.StationCache;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ItemWriter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writer for the normalized schema: readings go to {@code temperature_reading}, keyed by
+ * {@code (station_id, datetime)}, with the station names kept once in the {@code station} dimension table.
+ * <p>
+ * Station ids are resolved through the {@link StationCache} once per chunk, in the chunk transaction, so a station
+ * created by a chunk that rolls back is rolled back with it. Then the chunk is sent as one JDBC batch
+ * of {@code INSERT IGNORE} statements. Like {@link UpsertTemperatureWriter}, duplicates never cause a rollback; they
+ * are told apart from inserted rows by the update counts and, once the chunk has committed, reported to the
+ * {@link DuplicateSkipListener} and recorded in {@link ImportCounters}. If a {@link RollupStore} is given, the
+ * inserted rows are added to the rollups.
+ */
+public class NormalizedTemperatureWriter implements ItemWriter<TemperatureData> {
+
+    static final String INSERT_IGNORE_SQL =
+            "INSERT IGNORE INTO temperature_reading (station_id, datetime, temp) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StationCache stationCache;
+    private final DuplicateSkipListener duplicateListener;
+    private final ImportCounters importCounters;
+    private final RollupStore rollupStore;
+
+    /**
+     * @param jdbcTemplate      template used to run the batch
+     * @param stationCache      cache resolving station names to ids
+     * @param duplicateListener listener notified about every duplicate
+     * @param importCounters    counters that receive the number of duplicates per chunk
+     * @param rollupStore       store the inserted rows are added to, or {@code null} to maintain no rollups
+     */
+    public NormalizedTemperatureWriter(JdbcTemplate jdbcTemplate, StationCache stationCache,
+                                       DuplicateSkipListener duplicateListener, ImportCounters importCounters,
+                                       RollupStore rollupStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stationCache = stationCache;
+        this.duplicateListener = duplicateListener;
+        this.importCounters = importCounters;
+        this.rollupStore = rollupStore;
+    }
+
+    @Override
+    public void write(Chunk<? extends TemperatureData> chunk) {
+        List<? extends TemperatureData> items = chunk.getItems();
+        Map<String, Integer> stationIds = stationCache.resolveAll(items.stream().map(TemperatureData::name).toList());
+        int[] updateCounts = jdbcTemplate.batchUpdate(INSERT_IGNORE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                TemperatureData item = items.get(i);
+                ps.setInt(1, stationIds.get(item.name()));
+                ps.setObject(2, item.datetime());
+                ps.setDouble(3, item.temp());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return items.size();
+            }
+        });
+
+        UpdateCounts.requirePerStatementCounts(updateCounts);
+
+        TemperatureRollup rollup = rollupStore == null ? null : new TemperatureRollup();
+        List<TemperatureData> duplicates = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] != 1) {
+                duplicates.add(items.get(i));
+            } else if (rollup != null) {
+                rollup.add(items.get(i));
+            }
+        }
+        UpdateCounts.recordDuplicatesAfterCommit(duplicates, duplicateListener, importCounters);
+        if (rollup != null) {
+            rollupStore.merge(rollup);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.etl.writer;
+
+import org.example.etl.model.TemperatureData;
+import org.example.etl.storage.PartitionGranularity;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ItemWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Splits every chunk by the partition of {@code temperature_data} its rows belong to, and writes each part with
+ * one call of the delegate, oldest partition first.
+ * <p>
+ * Each JDBC batch of the delegate then inserts into one partition and one part of the unique index, instead of
+ * touching every partition the chunk spans. The order of the rows within a partition is kept. A chunk of a single
+ * partition is passed on as it is.
+ */
+public class PartitionGroupingItemWriter implements ItemWriter<TemperatureData> {
+
+    private final ItemWriter<TemperatureData> delegate;
+    private final PartitionGranularity granularity;
+
+    public PartitionGroupingItemWriter(ItemWriter<TemperatureData> delegate, PartitionGranularity granularity) {
+        this.delegate = delegate;
+        this.granularity = granularity;
+    }
+
+    @Override
+    public void write(Chunk<? extends TemperatureData> chunk) throws Exception {
+        Map<Long, List<TemperatureData>> partitions = new TreeMap<>();
+        for (TemperatureData item : chunk) {
+            partitions.computeIfAbsent(granularity.key(item.datetime()), key -> new ArrayList<>()).add(item);
+        }
+        if (partitions.size() <= 1) {
+            delegate.write(chunk);
+            return;
+        }
+        for (List<TemperatureData> items : partitions.values()) {
+            delegate.write(new Chunk<>(items));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.etl.writer;
+
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.rollup.RollupStore;
+import org.example.etl.rollup.TemperatureRollup;
+import org.example.etl.sharding.ShardRouter;
+import org.example.etl.sharding.ShardRouter.Shard;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ItemWriter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Writer that spreads every chunk over the shard databases of a {@link ShardRouter}.
+ * <p>
+ * The items of a chunk are split by the shard of their station, and the per-shard batches are written in
+ * parallel, each with {@code INSERT IGNORE} or {@code INSERT ... ON DUPLICATE KEY UPDATE} in a transaction of its
+ * shard. Like in {@link UpsertTemperatureWriter}, the update counts tell inserted rows from duplicates; duplicates
+ * are reported to the {@link DuplicateSkipListener}, and both are recorded per shard in {@link ImportCounters}. With
+ * rollups enabled, each shard maintains the rollups of its own stations in the same transaction as their rows.
+ * <p>
+ * The shard transactions commit independently of each other and of the chunk transaction. If a shard fails, the
+ * others keep their rows and the chunk fails without recording any counts. The writer remembers the update counts
+ * of the rows the committed shards wrote, and when the step retries the chunk or rewrites its items one by one,
+ * these rows are not sent again and are counted with their remembered result instead of as duplicates. Counts and
+ * duplicate reports are recorded only once every shard of a write has committed.
+ * <p>
+ * The remembered rows live in this step-scoped writer only. When a failed step is restarted, rows a shard committed
+ * before the failure reach it again and are reported as duplicates; a row is still never inserted twice.
+ */
+public class ShardedTemperatureWriter implements ItemWriter<TemperatureData> {
+
+    private final ShardRouter shardRouter;
+    private final boolean updateExisting;
+    private final DuplicateSkipListener duplicateListener;
+    private final ImportCounters importCounters;
+    private final List<RollupStore> rollupStores;
+    // update counts of rows committed by a shard during a write that failed on another shard
+    private final Map<TemperatureData, Integer> committedByFailedWrites = new ConcurrentHashMap<>();
+
+    /**
+     * @param shardRouter       router assigning stations to shards
+     * @param updateExisting    {@code true} to overwrite the temperature of existing rows, {@code false} to keep them
+     * @param duplicateListener listener notified about every duplicate
+     * @param importCounters    counters that receive the number of duplicates per chunk and the counts per shard
+     * @param rollups           whether to maintain the rollup tables of the shards
+     */
+    public ShardedTemperatureWriter(ShardRouter shardRouter, boolean updateExisting,
+                                    DuplicateSkipListener duplicateListener, ImportCounters importCounters,
+                                    boolean rollups) {
+        this.shardRouter = shardRouter;
+        this.updateExisting = updateExisting;
+        this.duplicateListener = duplicateListener;
+        this.importCounters = importCounters;
+        this.rollupStores = rollups
+                ? shardRouter.shards().stream().map(shard -> new RollupStore(shard.jdbcTemplate())).toList()
+                : null;
+    }
+
+    @Override
+    public void write(Chunk<? extends TemperatureData> chunk) throws Exception {
+        List<Shard> shards = shardRouter.shards();
+        List<List<TemperatureData>> batches = new ArrayList<>(shards.size());
+        List<List<TemperatureData>> alreadyWritten = new ArrayList<>(shards.size());
+        List<List<Integer>> alreadyWrittenCounts = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            batches.add(new ArrayList<>());
+            alreadyWritten.add(new ArrayList<>());
+            alreadyWrittenCounts.add(new ArrayList<>());
+        }
+        for (TemperatureData item : chunk) {
+            int shard = shardRouter.shardOf(item.name());
+            Integer updateCount = committedByFailedWrites.remove(item);
+            if (updateCount != null) {
+                alreadyWritten.get(shard).add(item);
+                alreadyWrittenCounts.get(shard).add(updateCount);
+            } else {
+                batches.get(shard).add(item);
+            }
+        }
+
+        List<Future<int[]>> results = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            int shard = i;
+            results.add(batches.get(i).isEmpty()
+                    ? null
+                    : shardRouter.executor().submit(() -> write(shard, batches.get(shard))));
+        }
+
+        // wait for every shard, so that the rows of the committed shards are remembered even if one failed
+        Exception failure = null;
+        List<int[]> updateCounts = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            try {
+                updateCounts.add(results.get(i) == null ? new int[0] : results.get(i).get());
+            } catch (ExecutionException e) {
+                updateCounts.add(null);
+                if (failure == null) {
+                    failure = e.getCause() instanceof Exception cause ? cause : e;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+        }
+        if (failure != null) {
+            for (int i = 0; i < shards.size(); i++) {
+                remember(alreadyWritten.get(i), alreadyWrittenCounts.get(i));
+                if (updateCounts.get(i) != null) {
+                    remember(batches.get(i), Arrays.stream(updateCounts.get(i)).boxed().toList());
+                }
+            }
+            throw failure;
+        }
+
+        long duplicates = 0;
+        for (int i = 0; i < shards.size(); i++) {
+            duplicates += count(shards.get(i), batches.get(i), updateCounts.get(i));
+            duplicates += count(shards.get(i), alreadyWritten.get(i),
+                    alreadyWrittenCounts.get(i).stream().mapToInt(Integer::intValue).toArray());
+        }
+        importCounters.addWrittenDuplicates(duplicates);
+    }
+
+    private void remember(List<TemperatureData> items, List<Integer> updateCounts) {
+        for (int i = 0; i < items.size(); i++) {
+            // a repeated row of the chunk is sent again and reported as the duplicate it is
+            committedByFailedWrites.putIfAbsent(items.get(i), updateCounts.get(i));
+        }
+    }
+
+    private int[] write(int shardIndex, List<TemperatureData> items) {
+        Shard shard = shardRouter.shards().get(shardIndex);
+        return shard.transactionTemplate().execute(status -> {
+            int[] updateCounts = shard.jdbcTemplate().batchUpdate(
+                    updateExisting ? UpsertTemperatureWriter.UPSERT_SQL : UpsertTemperatureWriter.INSERT_IGNORE_SQL,
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            TemperatureData item = items.get(i);
+                            ps.setString(1, item.name());
+                            ps.setObject(2, item.datetime());
+                            ps.setDouble(3, item.temp());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return items.size();
+                        }
+                    });
+            UpdateCounts.requirePerStatementCounts(updateCounts);
+            if (rollupStores != null) {
+                TemperatureRollup rollup = new TemperatureRollup();
+                TemperatureRollup updated = new TemperatureRollup();
+                for (int i = 0; i < updateCounts.length; i++) {
+                    if (updateCounts[i] == 1) {
+                        rollup.add(items.get(i));
+                    } else if (updateCounts[i] == 2) {
+                        updated.add(items.get(i));
+                    }
+                }
+                rollupStores.get(shardIndex).merge(rollup);
+                rollupStores.get(shardIndex).recompute(updated);
+            }
+            return updateCounts;
+        });
+    }
+
+    private long count(Shard shard, List<TemperatureData> items, int[] updateCounts) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        long duplicates = 0;
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] != 1) {
+                duplicates++;
+                duplicateListener.onDuplicate(items.get(i));
+            }
+        }
+        importCounters.addShardCounts(shard.name(), items.size() - duplicates, duplicates);
+        return duplicates;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.etl.writer;
+
+import org.example.etl.model.TemperatureData;
+import org.springframework.batch.infrastructure.item.database.ItemSqlParameterSourceProvider;
+import org.springframework.jdbc.core.namedparam.AbstractSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+/**
+ * Binds the {@code :name}, {@code :datetime} and {@code :temp} parameters of a {@link TemperatureData} record.
+ * <p>
+ * The parameters are read from the record on demand instead of being copied into a map per row.
+ */
+public class TemperatureParameterSourceProvider implements ItemSqlParameterSourceProvider<TemperatureData> {
+
+    private static final String[] PARAMETER_NAMES = {"name", "datetime", "temp"};
+
+    @Override
+    public SqlParameterSource createSqlParameterSource(TemperatureData item) {
+        return new TemperatureParameterSource(item);
+    }
+
+    private static final class TemperatureParameterSource extends AbstractSqlParameterSource {
+
+        private final TemperatureData item;
+
+        TemperatureParameterSource(TemperatureData item) {
+            this.item = item;
+        }
+
+        @Override
+        public boolean hasValue(String paramName) {
+            return switch (paramName) {
+                case "name", "datetime", "temp" -> true;
+                default -> false;
+            };
+        }
+
+        @Override
+        public Object getValue(String paramName) {
+            return switch (paramName) {
+                case "name" -> item.name();
+                case "datetime" -> item.datetime();
+                case "temp" -> item.temp();
+                default -> throw new IllegalArgumentException("No value registered for key '" + paramName + "'");
+            };
+        }
+
+        @Override
+        public String[] getParameterNames() {
+            return PARAMETER_NAMES.clone();
+        }
+    }
+}
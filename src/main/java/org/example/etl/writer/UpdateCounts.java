@@ -0,0 +1,69 @@
+package org.example.etl.writer;
+
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
+import org.example.etl.model.TemperatureData;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Helpers for the writers that tell inserted rows from duplicates by the per-statement update counts of a JDBC
+ * batch.
+ */
+final class UpdateCounts {
+
+    private UpdateCounts() {
+    }
+
+    /**
+     * Fails if the driver returned {@link Statement#SUCCESS_NO_INFO} instead of the update count of a statement, as
+     * Connector/J does with {@code rewriteBatchedStatements=true}; inserted rows and duplicates cannot be told
+     * apart then.
+     *
+     * @param updateCounts the update counts of a batch
+     * @throws IllegalStateException if a count is missing
+     */
+    static void requirePerStatementCounts(int[] updateCounts) {
+        for (int updateCount : updateCounts) {
+            if (updateCount == Statement.SUCCESS_NO_INFO) {
+                throw new IllegalStateException("The JDBC driver returned no per-statement update counts, so "
+                        + "duplicates cannot be counted; disable rewriteBatchedStatements on the JDBC URL");
+            }
+        }
+    }
+
+    /**
+     * Reports the duplicates of a chunk to the {@link DuplicateSkipListener} and {@link ImportCounters} once the
+     * chunk's transaction has committed, so that a chunk that rolls back and is written again counts them once.
+     * Without an active transaction synchronization they are recorded immediately.
+     *
+     * @param duplicates        the duplicates found in the chunk
+     * @param duplicateListener listener notified about every duplicate
+     * @param importCounters    counters that receive the number of duplicates
+     */
+    static void recordDuplicatesAfterCommit(List<TemperatureData> duplicates, DuplicateSkipListener duplicateListener,
+                                            ImportCounters importCounters) {
+        if (duplicates.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(duplicates, duplicateListener, importCounters);
+                }
+            });
+        } else {
+            record(duplicates, duplicateListener, importCounters);
+        }
+    }
+
+    private static void record(List<TemperatureData> duplicates, DuplicateSkipListener duplicateListener,
+                               ImportCounters importCounters) {
+        duplicates.forEach(duplicateListener::onDuplicate);
+        importCounters.addWrittenDuplicates(duplicates.size());
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.etl.writer;
+
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.rollup.RollupStore;
+import org.example.etl.rollup.TemperatureRollup;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ItemWriter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writer that resolves duplicates in the database instead of failing on the unique key.
+ * <p>
+ * Every chunk is sent as one JDBC batch of {@code INSERT IGNORE} or {@code INSERT ... ON DUPLICATE KEY UPDATE}
+ * statements, so a duplicate never causes a rollback and a rescan of the chunk. The per-statement update counts
+ * tell inserted rows from duplicates:
+ * <ul>
+ *     <li>{@code INSERT IGNORE}: 1 for an inserted row, 0 for a duplicate</li>
+ *     <li>{@code ON DUPLICATE KEY UPDATE}: 1 for an inserted row, 2 for an updated duplicate and 0 for a duplicate
+ *     that already held the same value. Connector/J reports found rather than affected rows unless the connection
+ *     uses {@code useAffectedRows=true}; without it, unchanged duplicates are counted as inserted.</li>
+ * </ul>
+ * A batch without per-statement counts ({@code rewriteBatchedStatements=true}) fails the chunk. Duplicates are
+ * reported to the {@link DuplicateSkipListener} and recorded in {@link ImportCounters} once the chunk has committed,
+ * so a chunk that rolls back and is retried does not count them twice. If a
+ * {@link RollupStore} is given, the inserted rows are added to the rollups, and with {@code updateExisting} the
+ * hours and days of updated duplicates are recomputed, so the rollups hold the overwritten temperatures.
+ */
+public class UpsertTemperatureWriter implements ItemWriter<TemperatureData> {
+
+    static final String INSERT_IGNORE_SQL =
+            "INSERT IGNORE INTO temperature_data (name, datetime, temp) VALUES (?, ?, ?)";
+    // the row alias needs MySQL 8.0.19 or later; it replaces the deprecated VALUES() function
+    static final String UPSERT_SQL =
+            "INSERT INTO temperature_data (name, datetime, temp) VALUES (?, ?, ?) AS new "
+                    + "ON DUPLICATE KEY UPDATE temp = new.temp";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean updateExisting;
+    private final DuplicateSkipListener duplicateListener;
+    private final ImportCounters importCounters;
+    private final RollupStore rollupStore;
+
+    /**
+     * @param jdbcTemplate      template used to run the batch
+     * @param updateExisting    {@code true} to overwrite the temperature of existing rows, {@code false} to keep them
+     * @param duplicateListener listener notified about every duplicate
+     * @param importCounters    counters that receive the number of duplicates per chunk
+     */
+    public UpsertTemperatureWriter(JdbcTemplate jdbcTemplate, boolean updateExisting,
+                                   DuplicateSkipListener duplicateListener, ImportCounters importCounters) {
+        this(jdbcTemplate, updateExisting, duplicateListener, importCounters, null);
+    }
+
+    /**
+     * @param jdbcTemplate      template used to run the batch
+     * @param updateExisting    {@code true} to overwrite the temperature of existing rows, {@code false} to keep them
+     * @param duplicateListener listener notified about every duplicate
+     * @param importCounters    counters that receive the number of duplicates per chunk
+     * @param rollupStore       store the inserted rows are added to, or {@code null} to maintain no rollups
+     */
+    public UpsertTemperatureWriter(JdbcTemplate jdbcTemplate, boolean updateExisting,
+                                   DuplicateSkipListener duplicateListener, ImportCounters importCounters,
+                                   RollupStore rollupStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.updateExisting = updateExisting;
+        this.duplicateListener = duplicateListener;
+        this.importCounters = importCounters;
+        this.rollupStore = rollupStore;
+    }
+
+    @Override
+    public void write(Chunk<? extends TemperatureData> chunk) {
+        List<? extends TemperatureData> items = chunk.getItems();
+        int[] updateCounts = jdbcTemplate.batchUpdate(updateExisting ? UPSERT_SQL : INSERT_IGNORE_SQL,
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        TemperatureData item = items.get(i);
+                        ps.setString(1, item.name());
+                        ps.setObject(2, item.datetime());
+                        ps.setDouble(3, item.temp());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return items.size();
+                    }
+                });
+
+        UpdateCounts.requirePerStatementCounts(updateCounts);
+
+        TemperatureRollup rollup = rollupStore == null ? null : new TemperatureRollup();
+        TemperatureRollup updated = rollupStore == null ? null : new TemperatureRollup();
+        List<TemperatureData> duplicates = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] != 1) {
+                duplicates.add(items.get(i));
+                if (updated != null && updateCounts[i] == 2) {
+                    updated.add(items.get(i));
+                }
+            } else if (rollup != null) {
+                rollup.add(items.get(i));
+            }
+        }
+        UpdateCounts.recordDuplicatesAfterCommit(duplicates, duplicateListener, importCounters);
+        if (rollup != null) {
+            rollupStore.merge(rollup);
+            rollupStore.recompute(updated);
+        }
+    }
+}
@@ -1,4 +1,5 @@
--- Temperature data table for storing imported readings
+-- Temperature data table for storing imported readings; with etl.partitioning.enabled, its primary key becomes
+-- (id, datetime) and it is RANGE partitioned by datetime before the first job (see TemperaturePartitionManager)
 CREATE TABLE IF NOT EXISTS temperature_data (
     id BIGINT NOT NULL AUTO_INCREMENT,
     name VARCHAR(255) NOT NULL,
@@ -7,3 +8,102 @@ CREATE TABLE IF NOT EXISTS temperature_data (
     PRIMARY KEY (id),
     CONSTRAINT uk_name_datetime UNIQUE (name, datetime)
 );
+
+-- Staging table filled by the bulk-load write mode and merged into temperature_data after the import; indexed only
+-- by the job instance id the merge and the cleanup select its rows by
+CREATE TABLE IF NOT EXISTS temperature_data_staging (
+    job_instance_id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    datetime TIMESTAMP NOT NULL,
+    temp DOUBLE PRECISION NOT NULL,
+    INDEX idx_staging_job_instance (job_instance_id)
+);
+
+-- Committed byte offset and checksum of the bytes before it, per file imported in incremental mode
+CREATE TABLE IF NOT EXISTS import_file_offset (
+    file_path VARCHAR(512) NOT NULL,
+    byte_offset BIGINT NOT NULL,
+    tail_checksum BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (file_path)
+);
+
+-- Byte ranges of a distributed import, claimed by worker processes with a lease (see SegmentQueue)
+CREATE TABLE IF NOT EXISTS import_segment (
+    job_instance_id BIGINT NOT NULL,
+    segment_id INT NOT NULL,
+    input_file VARCHAR(512) NOT NULL,
+    start_offset BIGINT NOT NULL,
+    end_offset BIGINT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    worker VARCHAR(255) NULL,
+    lease_expires_at TIMESTAMP(3) NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    read_count BIGINT NOT NULL DEFAULT 0,
+    write_count BIGINT NOT NULL DEFAULT 0,
+    skip_count BIGINT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1024) NULL,
+    PRIMARY KEY (job_instance_id, segment_id),
+    INDEX idx_import_segment_status (status, lease_expires_at)
+);
+
+-- Per-station hourly and daily aggregates of temperature_data, maintained by the import (etl.rollup.enabled)
+CREATE TABLE IF NOT EXISTS temperature_rollup_hourly (
+    name VARCHAR(255) NOT NULL,
+    hour_start DATETIME NOT NULL,
+    min_temp DOUBLE PRECISION NOT NULL,
+    max_temp DOUBLE PRECISION NOT NULL,
+    sum_temp DOUBLE PRECISION NOT NULL,
+    reading_count BIGINT NOT NULL,
+    PRIMARY KEY (name, hour_start)
+);
+
+CREATE TABLE IF NOT EXISTS temperature_rollup_daily (
+    name VARCHAR(255) NOT NULL,
+    day DATE NOT NULL,
+    min_temp DOUBLE PRECISION NOT NULL,
+    max_temp DOUBLE PRECISION NOT NULL,
+    sum_temp DOUBLE PRECISION NOT NULL,
+    reading_count BIGINT NOT NULL,
+    PRIMARY KEY (name, day)
+);
+
+-- Station dimension of the normalized write mode: every station name once, referenced by an integer id
+CREATE TABLE IF NOT EXISTS station (
+    id INT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_station_name UNIQUE (name)
+);
+
+-- Readings of the normalized write mode; the primary key is the clustered index and the only index.
+-- station_id is not declared as a foreign key, so the table can be partitioned; stations are never deleted.
+CREATE TABLE IF NOT EXISTS temperature_reading (
+    station_id INT NOT NULL,
+    datetime TIMESTAMP NOT NULL,
+    temp DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (station_id, datetime)
+);
+
+CREATE OR REPLACE VIEW temperature_reading_named AS
+    SELECT s.name, r.datetime, r.temp
+    FROM temperature_reading r
+    JOIN station s ON s.id = r.station_id;
+
+-- Final summary of every import run, as logged by ImportJobListener
+CREATE TABLE IF NOT EXISTS import_run_summary (
+    job_execution_id BIGINT NOT NULL,
+    job_name VARCHAR(100) NOT NULL,
+    input_file VARCHAR(512) NULL,
+    status VARCHAR(10) NOT NULL,
+    restartable BOOLEAN NOT NULL,
+    start_time DATETIME(3) NULL,
+    end_time DATETIME(3) NULL,
+    read_count BIGINT NOT NULL,
+    write_count BIGINT NOT NULL,
+    skip_count BIGINT NOT NULL,
+    duplicate_count BIGINT NOT NULL,
+    error_count INT NOT NULL,
+    first_error VARCHAR(1024) NULL,
+    PRIMARY KEY (job_execution_id)
+);
@@ -1,19 +1,51 @@
 package org.example.etl;
 
+import org.example.etl.cli.ImportCommandLineRunner;
+import org.example.etl.distributed.SegmentQueue;
+import org.example.etl.distributed.SegmentWorker;
 import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.sharding.ShardRouter;
+import org.example.etl.sort.ExternalSortTasklet;
+import org.example.etl.storage.SchemaInitializer;
+import org.example.etl.storage.StagingCleanupListener;
+import org.example.etl.storage.TemperaturePartitionManager;
+import org.example.etl.writer.ShardedTemperatureWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.job.Job;
 import org.springframework.batch.core.job.JobExecution;
 import org.springframework.batch.core.job.parameters.JobParameters;
 import org.springframework.batch.core.job.parameters.JobParametersBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.batch.infrastructure.item.Chunk;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.mysql.MySQLContainer;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -28,19 +60,47 @@ class TemperatureImportIntegrationTest {
     @Autowired
     private JobLauncher jobLauncher;
 
+    @Autowired
+    private JobRepository jobRepository;
+
     @Autowired
     private Job temperatureImportJob;
 
+    @Autowired
+    private Job segmentImportJob;
+
+    @Autowired
+    private Job temperatureExportJob;
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
     @Autowired
     private DuplicateSkipListener duplicateSkipListener;
 
+    @Autowired
+    private MySQLContainer mysqlContainer;
+
+    @Autowired
+    private SegmentQueue segmentQueue;
+
+    @Autowired
+    private ImportCounters importCounters;
+
+    @Autowired
+    private SchemaInitializer schemaInitializer;
+
+    @Autowired
+    private StagingCleanupListener stagingCleanupListener;
+
     @BeforeEach
     void setUp() {
         // Clean the temperature_data table before each test
         jdbcTemplate.execute("DELETE FROM temperature_data");
+        jdbcTemplate.execute("DELETE FROM temperature_rollup_hourly");
+        jdbcTemplate.execute("DELETE FROM temperature_rollup_daily");
+        jdbcTemplate.execute("DELETE FROM temperature_reading");
+        jdbcTemplate.execute("DELETE FROM import_segment");
         duplicateSkipListener.reset();
     }
 
@@ -91,6 +151,785 @@ class TemperatureImportIntegrationTest {
         assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(2);
     }
 
+    @Test
+    void testDuplicateHandlingWithInsertIgnore() throws Exception {
+        // Given: test-duplicates.csv with 2 duplicates, written with INSERT IGNORE instead of skip/rollback
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-duplicates.csv")
+                .addString("writeMode", "ignore")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+
+        // When: the job is executed
+        JobExecution execution = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: job completes successfully without rolling back any chunk
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(execution.getStepExecutions())
+                .allSatisfy(stepExecution -> assertThat(stepExecution.getRollbackCount()).isZero());
+
+        // And: only 3 unique records are inserted
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM temperature_data", Integer.class);
+        assertThat(count).isEqualTo(3);
+
+        // And: the 2 duplicates are counted from the update counts
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testImportsAllFilesOfADirectory(@TempDir Path inputDir) throws Exception {
+        // Given: a directory with test-data.csv (5 records) and a file with 2 more records for Location-D
+        Files.copy(new ClassPathResource("test-data.csv").getInputStream(), inputDir.resolve("station-1.csv"));
+        Files.writeString(inputDir.resolve("station-2.csv"), "name,datetime,temp\n"
+                + "Location-D,2024-01-15 10:00:00,12.0\n"
+                + "Location-D,2024-01-15 11:00:00,12.5\n");
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFiles", inputDir.toString())
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+
+        // When: the job is executed
+        JobExecution execution = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: every file is imported by its own step execution
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(execution.getStepExecutions())
+                .extracting(stepExecution -> stepExecution.getStepName())
+                .contains("importStep:file0", "importStep:file1");
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM temperature_data", Integer.class);
+        assertThat(count).isEqualTo(7);
+    }
+
+    @Test
+    void testIncrementalImportReadsOnlyAppendedRows(@TempDir Path inputDir) throws Exception {
+        // Given: an append-only file that was imported incrementally once
+        Path file = inputDir.resolve("gateway.csv");
+        Files.writeString(file, "name,datetime,temp\n"
+                + "Location-A,2024-01-15 10:00:00,22.5\n"
+                + "Location-B,2024-01-15 10:00:00,18.3\n");
+        JobParameters firstParams = new JobParametersBuilder()
+                .addString("inputFile", file.toUri().toString())
+                .addString("incremental", "true")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+        assertThat(jobLauncher.run(temperatureImportJob, firstParams).getStatus()).isEqualTo(BatchStatus.COMPLETED);
+
+        // When: a row is appended and the import runs again
+        Files.writeString(file, "Location-C,2024-01-15 10:00:00,15.8\n", StandardOpenOption.APPEND);
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", file.toUri().toString())
+                .addString("incremental", "true")
+                .addLong("timestamp", System.currentTimeMillis() + 1)
+                .toJobParameters();
+        JobExecution execution = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: only the appended row is read
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(execution.getStepExecutions())
+                .allSatisfy(stepExecution -> assertThat(stepExecution.getReadCount()).isEqualTo(1));
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM temperature_data", Integer.class);
+        assertThat(count).isEqualTo(3);
+        assertThat(duplicateSkipListener.getSkipCount()).isZero();
+    }
+
+    @Test
+    void testIncrementalImportWaitsForAPartialLineToBeCompleted(@TempDir Path inputDir) throws Exception {
+        // Given: the writer is in the middle of appending the third row
+        Path file = inputDir.resolve("gateway.csv");
+        Files.writeString(file, "name,datetime,temp\n"
+                + "Location-A,2024-01-15 10:00:00,22.5\n"
+                + "Location-B,2024-01-15 10:00:00,18.3\n"
+                + "Location-C,2024-01-15 10:00:00,1");
+
+        // When
+        JobExecution first = jobLauncher.run(temperatureImportJob, incrementalParams(file, 0));
+
+        // Then: the partial row is neither imported nor committed
+        assertThat(first.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM temperature_data", Integer.class)).isEqualTo(2);
+
+        // When: the row is completed and the import runs again
+        Files.writeString(file, "2.3\n", StandardOpenOption.APPEND);
+        JobExecution second = jobLauncher.run(temperatureImportJob, incrementalParams(file, 1));
+
+        // Then: the completed row is imported with its full value
+        assertThat(second.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(second.getStepExecutions())
+                .allSatisfy(stepExecution -> assertThat(stepExecution.getReadCount()).isEqualTo(1));
+        Double temp = jdbcTemplate.queryForObject(
+                "SELECT temp FROM temperature_data WHERE name = 'Location-C'", Double.class);
+        assertThat(temp).isEqualTo(12.3);
+    }
+
+    private static JobParameters incrementalParams(Path file, long run) {
+        return new JobParametersBuilder()
+                .addString("inputFile", file.toUri().toString())
+                .addString("incremental", "true")
+                .addLong("timestamp", System.currentTimeMillis() + run)
+                .toJobParameters();
+    }
+
+    @Test
+    void testPipelinedImportSkipsDuplicates() throws Exception {
+        // Given: test-duplicates.csv with 2 duplicates, parsed ahead of the writer on a separate thread
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-duplicates.csv")
+                .addString("pipelined", "true")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+
+        // When: the job is executed
+        JobExecution execution = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: job completes and skips the duplicates as without the pipeline
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM temperature_data", Integer.class);
+        assertThat(count).isEqualTo(3);
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testBulkLoadMergesStagedRows() throws Exception {
+        // Given: test-duplicates.csv with 2 duplicates, loaded into the staging table with LOAD DATA LOCAL INFILE
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-duplicates.csv")
+                .addString("writeMode", "bulk")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+
+        // When: the job is executed
+        JobExecution execution = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: job completes after merging the staged rows
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(execution.getStepExecutions())
+                .extracting(stepExecution -> stepExecution.getStepName())
+                .containsExactly("importStep", "bulkMergeStep");
+
+        // And: only 3 unique records are inserted and the staging table is emptied
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM temperature_data", Integer.class);
+        assertThat(count).isEqualTo(3);
+        Integer staged = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM temperature_data_staging", Integer.class);
+        assertThat(staged).isZero();
+
+        // And: the 2 duplicates are counted by the merge and subtracted from the job's written rows
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(2);
+        assertThat(importCounters.getJobDuplicates(execution)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForMap(
+                "SELECT write_count, skip_count FROM import_run_summary WHERE job_execution_id = ?", execution.getId()))
+                .containsEntry("write_count", 3L)
+                .containsEntry("skip_count", 2L);
+    }
+
+    @Test
+    void testStagingCleanupDeletesRowsOfAbandonedRuns() throws Exception {
+        // Given: rows staged by a run that was abandoned instead of restarted
+        JobExecution execution = jobLauncher.run(temperatureImportJob, new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-data.csv")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters());
+        long jobInstanceId = execution.getJobInstance().getId();
+        jdbcTemplate.update("INSERT INTO temperature_data_staging (job_instance_id, name, datetime, temp) "
+                + "VALUES (?, 'Location-A', '2024-01-15 10:00:00', 1.0)", jobInstanceId);
+        jdbcTemplate.update("UPDATE BATCH_JOB_EXECUTION SET STATUS = 'ABANDONED' WHERE JOB_EXECUTION_ID = ?",
+                execution.getId());
+
+        // When
+        int deleted = stagingCleanupListener.sweep(LocalDateTime.now());
+
+        // Then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM temperature_data_staging WHERE job_instance_id = ?", Integer.class,
+                jobInstanceId)).isZero();
+    }
+
+    @Test
+    void testRollupsCountOnlyInsertedRows() throws Exception {
+        // Given: test-duplicates.csv with 2 duplicates, imported twice with the plain INSERT writer
+        for (int run = 0; run < 2; run++) {
+            JobParameters params = new JobParametersBuilder()
+                    .addString("inputFile", "classpath:test-duplicates.csv")
+                    .addLong("timestamp", System.currentTimeMillis() + run)
+                    .toJobParameters();
+            assertThat(jobLauncher.run(temperatureImportJob, params).getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        }
+
+        // Then: the rollups hold the first reading per station, once, despite duplicates and the re-import
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT name, min_temp, max_temp, reading_count FROM temperature_rollup_hourly ORDER BY name"))
+                .extracting(row -> row.get("name") + ":" + row.get("min_temp") + ":" + row.get("max_temp") + ":"
+                        + row.get("reading_count"))
+                .containsExactly("Location-A:22.5:22.5:1", "Location-B:18.3:18.3:1", "Location-C:15.8:15.8:1");
+        Integer dailyReadings = jdbcTemplate.queryForObject(
+                "SELECT SUM(reading_count) FROM temperature_rollup_daily WHERE day = '2024-01-15'", Integer.class);
+        assertThat(dailyReadings).isEqualTo(3);
+    }
+
+    @Test
+    void testUpdateModeRecomputesRollupsOfOverwrittenRows() throws Exception {
+        // Given: test-duplicates.csv, whose duplicates overwrite the first readings of Location-A and Location-B
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-duplicates.csv")
+                .addString("writeMode", "update")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+
+        // When: the job is executed
+        JobExecution execution = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: the rollups hold the overwritten temperatures, counted once
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT name, min_temp, max_temp, reading_count FROM temperature_rollup_hourly ORDER BY name"))
+                .extracting(row -> row.get("name") + ":" + row.get("min_temp") + ":" + row.get("max_temp") + ":"
+                        + row.get("reading_count"))
+                .containsExactly("Location-A:22.6:22.6:1", "Location-B:18.4:18.4:1", "Location-C:15.8:15.8:1");
+        Double sum = jdbcTemplate.queryForObject(
+                "SELECT SUM(sum_temp) FROM temperature_rollup_daily", Double.class);
+        Double expected = jdbcTemplate.queryForObject("SELECT SUM(temp) FROM temperature_data", Double.class);
+        assertThat(sum).isEqualTo(expected);
+    }
+
+    @Test
+    void testUpdateModeCountsUnchangedRowsOfAReimportAsDuplicates() throws Exception {
+        // Given: test-data.csv imported in the update write mode
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-data.csv")
+                .addString("writeMode", "update")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+        assertThat(jobLauncher.run(temperatureImportJob, params).getStatus()).isEqualTo(BatchStatus.COMPLETED);
+
+        // When: the same file is imported again
+        JobParameters reimportParams = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-data.csv")
+                .addString("writeMode", "update")
+                .addLong("timestamp", System.currentTimeMillis() + 1)
+                .toJobParameters();
+        JobExecution execution = jobLauncher.run(temperatureImportJob, reimportParams);
+
+        // Then: every row is a duplicate, and the rollups still count every reading once
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM temperature_data", Integer.class))
+                .isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(reading_count) FROM temperature_rollup_hourly", Integer.class)).isEqualTo(5);
+        Double sum = jdbcTemplate.queryForObject(
+                "SELECT SUM(sum_temp) FROM temperature_rollup_daily", Double.class);
+        Double expected = jdbcTemplate.queryForObject("SELECT SUM(temp) FROM temperature_data", Double.class);
+        assertThat(sum).isEqualTo(expected);
+    }
+
+    @Test
+    void testBulkLoadRecomputesRollupsOfMergedRows() throws Exception {
+        // Given: test-duplicates.csv loaded into the staging table
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-duplicates.csv")
+                .addString("writeMode", "bulk")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+
+        // When: the job is executed
+        JobExecution execution = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: the rollups match the merged rows
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        Integer hourlyReadings = jdbcTemplate.queryForObject(
+                "SELECT SUM(reading_count) FROM temperature_rollup_hourly", Integer.class);
+        assertThat(hourlyReadings).isEqualTo(3);
+        Double sum = jdbcTemplate.queryForObject(
+                "SELECT SUM(sum_temp) FROM temperature_rollup_daily", Double.class);
+        Double expected = jdbcTemplate.queryForObject("SELECT SUM(temp) FROM temperature_data", Double.class);
+        assertThat(sum).isEqualTo(expected);
+    }
+
+    @Test
+    void testColumnarImportSkipsDuplicates() throws Exception {
+        // Given: test-duplicates.csv with 2 duplicates, imported through columnar blocks
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-duplicates.csv")
+                .addString("columnar", "true")
+                .addString("writeMode", "ignore")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+
+        // When: the job is executed
+        JobExecution execution = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: the columnar step reads and writes every row without rollbacks
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(execution.getStepExecutions()).singleElement().satisfies(stepExecution -> {
+            assertThat(stepExecution.getStepName()).isEqualTo("columnarImportStep");
+            assertThat(stepExecution.getReadCount()).isEqualTo(5);
+            assertThat(stepExecution.getRollbackCount()).isZero();
+        });
+
+        // And: only 3 unique records are inserted, with the timestamps of the file
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT name FROM temperature_data WHERE datetime = '2024-01-15 10:00:00' ORDER BY name", String.class))
+                .containsExactly("Location-A", "Location-B", "Location-C");
+        Double temp = jdbcTemplate.queryForObject(
+                "SELECT temp FROM temperature_data WHERE name = 'Location-A'", Double.class);
+        assertThat(temp).isEqualTo(22.5);
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testColumnarImportRejectsTheInsertWriteMode() throws Exception {
+        // Given: a columnar run with the default insert write mode
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-duplicates.csv")
+                .addString("columnar", "true")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+
+        // When: the job is executed
+        JobExecution execution = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: it fails before any step runs
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(execution.getStepExecutions()).isEmpty();
+        assertThat(execution.getAllFailureExceptions())
+                .anySatisfy(e -> assertThat(e).hasStackTraceContaining("insert write mode"));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM temperature_data", Integer.class)).isZero();
+    }
+
+    @Test
+    void testPartitionedImportRejectsIncrementalMode() throws Exception {
+        // Given: an incremental run that is partitioned
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-data.csv")
+                .addString("partitioned", "true")
+                .addString("incremental", "true")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+
+        // When: the job is executed
+        JobExecution execution = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: it fails before any step runs instead of re-reading the whole file
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(execution.getStepExecutions()).isEmpty();
+        assertThat(execution.getAllFailureExceptions())
+                .anySatisfy(e -> assertThat(e).hasStackTraceContaining("a partitioned import"));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM temperature_data", Integer.class)).isZero();
+    }
+
+    @Test
+    void testUpdateModeRejectsTheDuplicateFilter() throws Exception {
+        // Given: an update run with the duplicate filter
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-duplicates.csv")
+                .addString("writeMode", "update")
+                .addString("dedup", "true")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+
+        // When: the job is executed
+        JobExecution execution = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: it fails before any step runs
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(execution.getStepExecutions()).isEmpty();
+        assertThat(execution.getAllFailureExceptions())
+                .anySatisfy(e -> assertThat(e).hasStackTraceContaining("update write mode"));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM temperature_data", Integer.class)).isZero();
+    }
+
+    @Test
+    void testNormalizedImportResolvesStations() throws Exception {
+        // Given: test-duplicates.csv with 2 duplicates, imported twice into the normalized tables
+        for (int run = 0; run < 2; run++) {
+            duplicateSkipListener.reset();
+            JobParameters params = new JobParametersBuilder()
+                    .addString("inputFile", "classpath:test-duplicates.csv")
+                    .addString("writeMode", "normalized")
+                    .addLong("timestamp", System.currentTimeMillis() + run)
+                    .toJobParameters();
+            assertThat(jobLauncher.run(temperatureImportJob, params).getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        }
+
+        // Then: 3 readings, each station exists once, and every row of the second run is a duplicate
+        assertThat(jdbcTemplate.queryForList("SELECT name FROM temperature_reading_named ORDER BY name", String.class))
+                .containsExactly("Location-A", "Location-B", "Location-C");
+        Integer stations = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM station WHERE name LIKE 'Location-_'", Integer.class);
+        assertThat(stations).isEqualTo(3);
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(5);
+    }
+
+    @Test
+    void testPartitionedTableDropsExpiredPartitions() throws Exception {
+        // Given: rows of December 2023, partitioned monthly with two months of retention as of March 2024
+        jdbcTemplate.update("INSERT INTO temperature_data (name, datetime, temp) VALUES ('Location-X', ?, 1.0)",
+                LocalDateTime.of(2023, 12, 20, 8, 0));
+        TemperaturePartitionManager partitionManager =
+                new TemperaturePartitionManager(jdbcTemplate, true, "monthly", 1, "P2M");
+        try {
+            // When: partitions are maintained and test-data.csv of January 2024 is imported
+            partitionManager.maintain(LocalDateTime.of(2024, 3, 10, 12, 0));
+            JobParameters params = new JobParametersBuilder()
+                    .addString("inputFile", "classpath:test-data.csv")
+                    .addLong("timestamp", System.currentTimeMillis())
+                    .toJobParameters();
+            assertThat(jobLauncher.run(temperatureImportJob, params).getStatus()).isEqualTo(BatchStatus.COMPLETED);
+
+            // Then: December was dropped with its partition, January landed in its own partition
+            assertThat(jdbcTemplate.queryForList("""
+                    SELECT PARTITION_NAME FROM information_schema.PARTITIONS
+                    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'temperature_data'
+                    ORDER BY PARTITION_ORDINAL_POSITION""", String.class))
+                    .containsExactly("p202401", "p202402", "p202403", "p202404", "p_max");
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM temperature_data WHERE name = 'Location-X'", Integer.class)).isZero();
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM temperature_data PARTITION (p202401)", Integer.class)).isEqualTo(5);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE temperature_data REMOVE PARTITIONING");
+        }
+    }
+
+    @Test
+    void testShardedWriterSpreadsStationsOverShardDatabases() throws Exception {
+        // Given: two shard databases in the MySQL container
+        DriverManagerDataSource root = new DriverManagerDataSource(mysqlContainer.getJdbcUrl(), "root",
+                mysqlContainer.getPassword());
+        List<DriverManagerDataSource> shards = List.of(shardDataSource(root, "etl_shard_0"),
+                shardDataSource(root, "etl_shard_1"));
+        ImportCounters importCounters = new ImportCounters();
+        try (ShardRouter shardRouter = ShardRouter.of(shards)) {
+            shardRouter.initializeSchema(new ClassPathResource("schema.sql"));
+            ShardedTemperatureWriter writer = new ShardedTemperatureWriter(shardRouter, false, duplicateSkipListener,
+                    importCounters, true);
+            List<TemperatureData> rows = List.of(
+                    new TemperatureData("Location-A", LocalDateTime.of(2024, 1, 15, 10, 0), 22.5),
+                    new TemperatureData("Location-B", LocalDateTime.of(2024, 1, 15, 10, 0), 18.3),
+                    new TemperatureData("Location-C", LocalDateTime.of(2024, 1, 15, 10, 0), 15.8),
+                    new TemperatureData("Location-D", LocalDateTime.of(2024, 1, 15, 10, 0), 12.1));
+
+            // When: the rows are written twice
+            writer.write(new Chunk<>(rows));
+            writer.write(new Chunk<>(rows));
+
+            // Then: every station is stored once, on its own shard, with its rollups
+            for (TemperatureData row : rows) {
+                for (int shard = 0; shard < shards.size(); shard++) {
+                    JdbcTemplate shardJdbc = new JdbcTemplate(shards.get(shard));
+                    int expected = shardRouter.shardOf(row.name()) == shard ? 1 : 0;
+                    assertThat(shardJdbc.queryForObject(
+                            "SELECT COUNT(*) FROM temperature_data WHERE name = ?", Integer.class, row.name()))
+                            .isEqualTo(expected);
+                    assertThat(shardJdbc.queryForObject(
+                            "SELECT COUNT(*) FROM temperature_rollup_daily WHERE name = ?", Integer.class, row.name()))
+                            .isEqualTo(expected);
+                }
+            }
+            assertThat(importCounters.getShardCounts().values())
+                    .allSatisfy(counts -> assertThat(counts.duplicates()).isEqualTo(counts.inserted()));
+            assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void testDistributedImportReclaimsTheSegmentOfADeadWorker() throws Exception {
+        // Given: a distributed run waiting for its segment, which a worker claims and then abandons
+        ExecutorService coordinator = Executors.newSingleThreadExecutor();
+        try {
+            JobParameters params = new JobParametersBuilder()
+                    .addString("inputFile", "classpath:test-data.csv")
+                    .addString("distributed", "true")
+                    .addLong("timestamp", System.currentTimeMillis())
+                    .toJobParameters();
+            Future<JobExecution> run = coordinator.submit(() -> jobLauncher.run(temperatureImportJob, params));
+            SegmentQueue.Segment abandoned = null;
+            for (int i = 0; i < 100 && abandoned == null; i++) {
+                abandoned = segmentQueue.claim("dead-worker", Duration.ofMillis(1));
+                Thread.sleep(50);
+            }
+            assertThat(abandoned).isNotNull();
+
+            // When: another worker polls the queue after the lease expired
+            SegmentWorker worker = new SegmentWorker(jobLauncher, jobRepository, segmentImportJob, segmentQueue,
+                    importCounters, "worker-2", Duration.ofMinutes(1));
+            assertThat(worker.importNext()).isTrue();
+            JobExecution execution = run.get(30, TimeUnit.SECONDS);
+
+            // Then: the second attempt imported the segment and the coordinator reports its counts
+            assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+            assertThat(execution.getStepExecutions()).extracting(stepExecution -> stepExecution.getStepName())
+                    .containsExactly("segmentCoordinatorStep");
+            assertThat(execution.getStepExecutions().iterator().next().getWriteCount()).isEqualTo(5);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM temperature_data", Integer.class))
+                    .isEqualTo(5);
+            assertThat(jdbcTemplate.queryForMap("SELECT status, worker, attempts FROM import_segment"))
+                    .containsEntry("status", SegmentQueue.COMPLETED)
+                    .containsEntry("worker", "worker-2")
+                    .containsEntry("attempts", 2);
+            assertThat(worker.importNext()).isFalse();
+        } finally {
+            coordinator.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDistributedImportMergesTheRowsStagedByItsWorkersInBulkMode() throws Exception {
+        // Given: a distributed run in the bulk write mode waiting for its segments
+        ExecutorService coordinator = Executors.newSingleThreadExecutor();
+        try {
+            JobParameters params = new JobParametersBuilder()
+                    .addString("inputFile", "classpath:test-data.csv")
+                    .addString("distributed", "true")
+                    .addString("writeMode", "bulk")
+                    .addLong("timestamp", System.currentTimeMillis())
+                    .toJobParameters();
+            Future<JobExecution> run = coordinator.submit(() -> jobLauncher.run(temperatureImportJob, params));
+
+            // When: a worker imports every segment
+            SegmentWorker worker = new SegmentWorker(jobLauncher, jobRepository, segmentImportJob, segmentQueue,
+                    importCounters, "worker-1", Duration.ofMinutes(1));
+            boolean imported = false;
+            for (int i = 0; i < 100 && !imported; i++) {
+                imported = worker.importNext();
+                Thread.sleep(50);
+            }
+            assertThat(imported).isTrue();
+            while (worker.importNext()) {
+                // claim the remaining segments
+            }
+            JobExecution execution = run.get(30, TimeUnit.SECONDS);
+
+            // Then: the coordinator merged the rows its workers staged
+            assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+            assertThat(execution.getStepExecutions()).extracting(stepExecution -> stepExecution.getStepName())
+                    .containsExactly("segmentCoordinatorStep", "bulkMergeStep");
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM temperature_data", Integer.class))
+                    .isEqualTo(5);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM temperature_data_staging", Integer.class))
+                    .isZero();
+        } finally {
+            coordinator.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExportWritesFilesTheImportReadsBack(@TempDir Path outputDir) throws Exception {
+        // Given: test-data.csv imported
+        JobParameters importParams = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-data.csv")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+        assertThat(jobLauncher.run(temperatureImportJob, importParams).getStatus()).isEqualTo(BatchStatus.COMPLETED);
+
+        // When: one station is exported
+        JobParameters exportParams = new JobParametersBuilder()
+                .addString("outputDir", outputDir.toString())
+                .addString("station", "Location-A")
+                .addString("from", "2024-01-15 00:00:00")
+                .addLong("timestamp", System.currentTimeMillis() + 1)
+                .toJobParameters();
+        JobExecution export = jobLauncher.run(temperatureExportJob, exportParams);
+
+        // Then: its rows are written in the input format
+        assertThat(export.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(Files.readAllLines(outputDir.resolve("temperature_data-000.csv"))).containsExactly(
+                "name,datetime,temp",
+                "Location-A,2024-01-15 10:00:00,22.5",
+                "Location-A,2024-01-15 11:00:00,23.1");
+
+        // When: the export directory is imported into an empty table
+        jdbcTemplate.execute("DELETE FROM temperature_data");
+        JobParameters reimportParams = new JobParametersBuilder()
+                .addString("inputFiles", outputDir.toString())
+                .addLong("timestamp", System.currentTimeMillis() + 2)
+                .toJobParameters();
+        assertThat(jobLauncher.run(temperatureImportJob, reimportParams).getStatus())
+                .isEqualTo(BatchStatus.COMPLETED);
+
+        // Then: the exported rows are back
+        assertThat(jdbcTemplate.queryForList("SELECT name, temp FROM temperature_data ORDER BY datetime"))
+                .extracting(row -> row.get("name") + ":" + row.get("temp"))
+                .containsExactly("Location-A:22.5", "Location-A:23.1");
+    }
+
+    @Test
+    void testSortedImportInsertsInKeyOrderWithoutDuplicates() throws Exception {
+        // Given
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-duplicates.csv")
+                .addString("sorted", "true")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+
+        // When
+        JobExecution execution = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: the rows are inserted in (name, datetime) order, keeping the first of every key
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(jdbcTemplate.queryForList("SELECT name, temp FROM temperature_data ORDER BY id"))
+                .extracting(row -> row.get("name") + "=" + row.get("temp"))
+                .containsExactly("Location-A=22.5", "Location-B=18.3", "Location-C=15.8");
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(2);
+        assertThat(execution.getStepExecutions()).extracting(StepExecution::getStepName)
+                .containsExactlyInAnyOrder("sortStep", "importStep");
+        assertThat(execution.getStepExecutions().stream().mapToLong(StepExecution::getReadCount).sum())
+                .isEqualTo(5);
+        assertThat(execution.getStepExecutions()).allSatisfy(stepExecution ->
+                assertThat(stepExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED));
+
+        // And: the sorted file is deleted
+        String sortedFile = execution.getExecutionContext().getString(ExternalSortTasklet.SORTED_FILE_KEY);
+        assertThat(Path.of(URI.create(sortedFile))).doesNotExist();
+    }
+
+    @Test
+    void testSortedImportDeletesTheSortedFileOfAFailedRun() throws Exception {
+        // Given: a sorted run whose import step cannot create its writer
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-duplicates.csv")
+                .addString("sorted", "true")
+                .addString("writeMode", "unknown")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+
+        // When
+        JobExecution execution = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: the sort completed, and its file is deleted with the failed run
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(execution.getStepExecutions()).extracting(StepExecution::getStepName).contains("sortStep");
+        String sortedFile = execution.getExecutionContext().getString(ExternalSortTasklet.SORTED_FILE_KEY);
+        assertThat(Path.of(URI.create(sortedFile))).doesNotExist();
+    }
+
+    @Test
+    void testRestartedSortedImportSortsTheInputAgain() throws Exception {
+        // Given: a sorted run that failed after the sort, since temperature_data was missing
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-duplicates.csv")
+                .addString("sorted", "true")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+        JobExecution failed;
+        jdbcTemplate.execute("RENAME TABLE temperature_data TO temperature_data_hidden");
+        try {
+            failed = jobLauncher.run(temperatureImportJob, params);
+        } finally {
+            jdbcTemplate.execute("RENAME TABLE temperature_data_hidden TO temperature_data");
+        }
+        assertThat(failed.getStatus()).isEqualTo(BatchStatus.FAILED);
+        String failedSortedFile = failed.getExecutionContext().getString(ExternalSortTasklet.SORTED_FILE_KEY);
+        assertThat(Path.of(URI.create(failedSortedFile))).doesNotExist();
+
+        // When: the job instance is restarted
+        JobExecution restarted = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: the restart sorted the input file again and imported the sorted rows
+        assertThat(restarted.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(restarted.getJobInstance().getId()).isEqualTo(failed.getJobInstance().getId());
+        assertThat(restarted.getStepExecutions()).extracting(StepExecution::getStepName)
+                .containsExactlyInAnyOrder("sortStep", "importStep");
+        assertThat(jdbcTemplate.queryForList("SELECT name, temp FROM temperature_data ORDER BY id"))
+                .extracting(row -> row.get("name") + "=" + row.get("temp"))
+                .containsExactly("Location-A=22.5", "Location-B=18.3", "Location-C=15.8");
+        String sortedFile = restarted.getExecutionContext().getString(ExternalSortTasklet.SORTED_FILE_KEY);
+        assertThat(sortedFile).isNotEqualTo(failedSortedFile);
+        assertThat(Path.of(URI.create(sortedFile))).doesNotExist();
+    }
+
+    @Test
+    void testNonRestartableRunWritesStepMetadataOnlyAtStepBoundaries() throws Exception {
+        // Given
+        long timestamp = System.currentTimeMillis();
+        JobExecution restartable = jobLauncher.run(temperatureImportJob, new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-data.csv")
+                .addLong("timestamp", timestamp)
+                .toJobParameters());
+        jdbcTemplate.execute("DELETE FROM temperature_data");
+
+        // When
+        JobExecution execution = jobLauncher.run(temperatureImportJob, new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-data.csv")
+                .addString("restartable", "false")
+                .addLong("timestamp", timestamp)
+                .toJobParameters());
+
+        // Then: the run completes with fewer updates of its step execution
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM temperature_data", Integer.class))
+                .isEqualTo(5);
+        String versionSql = "SELECT MAX(VERSION) FROM BATCH_STEP_EXECUTION WHERE JOB_EXECUTION_ID = ?";
+        assertThat(jdbcTemplate.queryForObject(versionSql, Integer.class, execution.getId()))
+                .isLessThan(jdbcTemplate.queryForObject(versionSql, Integer.class, restartable.getId()));
+
+        // And: the summary of the run is stored
+        assertThat(jdbcTemplate.queryForMap("""
+                SELECT status, restartable, read_count, write_count, skip_count
+                FROM import_run_summary WHERE job_execution_id = ?""", execution.getId()))
+                .containsEntry("status", "COMPLETED")
+                .containsEntry("restartable", false)
+                .containsEntry("read_count", 5L)
+                .containsEntry("write_count", 5L)
+                .containsEntry("skip_count", 0L);
+    }
+
+    @Test
+    void testCommandLineRunExitsWithTheJobStatus() {
+        // Given
+        ImportCommandLineRunner runner = new ImportCommandLineRunner(jobLauncher,
+                Map.of("temperatureImportJob", temperatureImportJob), schemaInitializer, "temperatureImportJob");
+        String run = "timestamp=" + System.currentTimeMillis();
+
+        // When: a file is imported from the command line
+        runner.run(new DefaultApplicationArguments("--inputFile=classpath:test-data.csv", run));
+
+        // Then: the existing schema is left alone and the run exits with 0
+        assertThat(runner.getExitCode()).isEqualTo(ImportCommandLineRunner.EXIT_COMPLETED);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM temperature_data", Integer.class))
+                .isEqualTo(5);
+        assertThat(schemaInitializer.initialize()).isFalse();
+
+        // When: the same run is repeated
+        runner.run(new DefaultApplicationArguments("--inputFile=classpath:test-data.csv", run));
+
+        // Then
+        assertThat(runner.getExitCode()).isEqualTo(ImportCommandLineRunner.EXIT_ALREADY_COMPLETE);
+    }
+
+    @Test
+    void testDuplicateFilterDropsDuplicatesBeforeWriter() throws Exception {
+        // Given: test-data.csv already imported
+        JobParameters firstParams = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-data.csv")
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+        assertThat(jobLauncher.run(temperatureImportJob, firstParams).getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        duplicateSkipListener.reset();
+
+        // When: the same file is imported again with the in-memory duplicate filter
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", "classpath:test-data.csv")
+                .addString("dedup", "true")
+                .addLong("timestamp", System.currentTimeMillis() + 1)
+                .toJobParameters();
+        JobExecution execution = jobLauncher.run(temperatureImportJob, params);
+
+        // Then: every row is filtered before reaching the writer, so nothing is rolled back
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(execution.getStepExecutions()).allSatisfy(stepExecution -> {
+            assertThat(stepExecution.getRollbackCount()).isZero();
+            assertThat(stepExecution.getWriteCount()).isZero();
+        });
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(5);
+    }
+
     @Test
     void testIdempotentImport() throws Exception {
         // Given: first import of test-data.csv
@@ -149,4 +988,12 @@ class TemperatureImportIntegrationTest {
         assertThat(result.get("temp")).isEqualTo(22.5);
         assertThat(result.get("datetime")).isNotNull();
     }
+
+    private static DriverManagerDataSource shardDataSource(DriverManagerDataSource root, String database) {
+        JdbcTemplate rootJdbc = new JdbcTemplate(root);
+        rootJdbc.execute("DROP DATABASE IF EXISTS " + database);
+        rootJdbc.execute("CREATE DATABASE " + database);
+        return new DriverManagerDataSource(root.getUrl().replace("/etl_test", "/" + database), "root",
+                root.getPassword());
+    }
 }
@@ -18,6 +18,9 @@ public class TestcontainersConfiguration {
         return new MySQLContainer(DockerImageName.parse("mysql:8.0"))
                 .withDatabaseName("etl_test")
                 .withUsername("test")
-                .withPassword("test");
+                .withPassword("test")
+                .withUrlParam("allowLoadLocalInfile", "true")
+                .withUrlParam("useAffectedRows", "true")
+                .withCommand("--local-infile=1");
     }
 }
@@ -0,0 +1,117 @@
+package org.example.etl.cli;
+
+import org.example.etl.storage.SchemaInitializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ImportCommandLineRunner.
+ */
+class ImportCommandLineRunnerTest {
+
+    private JobLauncher jobLauncher;
+    private Job importJob;
+    private SchemaInitializer schemaInitializer;
+    private ImportCommandLineRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        jobLauncher = mock(JobLauncher.class);
+        importJob = mock(Job.class);
+        schemaInitializer = mock(SchemaInitializer.class);
+        runner = new ImportCommandLineRunner(jobLauncher, Map.of("temperatureImportJob", importJob),
+                schemaInitializer, "temperatureImportJob");
+    }
+
+    @Test
+    void testConvertsArgumentsToJobParameters() {
+        // When
+        JobParameters params = ImportCommandLineRunner.jobParameters(new DefaultApplicationArguments(
+                "--inputFile=file:/data/hourly.csv", "--etl.writer.mode=update", "writeMode=ignore", "--debug"));
+
+        // Then: properties and flags are not job parameters
+        assertThat(params.getString("inputFile")).isEqualTo("file:/data/hourly.csv");
+        assertThat(params.getString("writeMode")).isEqualTo("ignore");
+        assertThat(params.getString("etl.writer.mode")).isNull();
+        assertThat(params.getString("debug")).isNull();
+    }
+
+    @Test
+    void testRejectsArgumentsWithoutValue() {
+        assertThatThrownBy(() -> ImportCommandLineRunner.jobParameters(new DefaultApplicationArguments("hourly.csv")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("hourly.csv");
+    }
+
+    @Test
+    void testExitsWithZeroWhenTheJobCompleted() throws Exception {
+        // Given
+        JobExecution execution = mock(JobExecution.class);
+        when(execution.getStatus()).thenReturn(BatchStatus.COMPLETED);
+        when(jobLauncher.run(any(), any())).thenReturn(execution);
+
+        // When
+        runner.run(new DefaultApplicationArguments("--inputFile=file:/data/hourly.csv"));
+
+        // Then
+        verify(schemaInitializer).initialize();
+        assertThat(runner.getExitCode()).isEqualTo(ImportCommandLineRunner.EXIT_COMPLETED);
+    }
+
+    @Test
+    void testExitsWithOneWhenTheJobFailed() throws Exception {
+        // Given
+        JobExecution execution = mock(JobExecution.class);
+        when(execution.getStatus()).thenReturn(BatchStatus.FAILED);
+        when(jobLauncher.run(any(), any())).thenReturn(execution);
+
+        // When
+        runner.run(new DefaultApplicationArguments("--inputFile=file:/data/hourly.csv"));
+
+        // Then
+        assertThat(runner.getExitCode()).isEqualTo(ImportCommandLineRunner.EXIT_FAILED);
+    }
+
+    @Test
+    void testReportsAnAlreadyCompletedInstance() throws Exception {
+        // Given
+        when(jobLauncher.run(any(), any())).thenThrow(new JobInstanceAlreadyCompleteException("completed"));
+
+        // When
+        runner.run(new DefaultApplicationArguments("--inputFile=file:/data/hourly.csv"));
+
+        // Then
+        assertThat(runner.getExitCode()).isEqualTo(ImportCommandLineRunner.EXIT_ALREADY_COMPLETE);
+    }
+
+    @Test
+    void testRejectsAnUnknownJob() {
+        // Given
+        ImportCommandLineRunner otherRunner = new ImportCommandLineRunner(jobLauncher,
+                Map.of("temperatureImportJob", importJob), schemaInitializer, "unknownJob");
+
+        // When
+        otherRunner.run(new DefaultApplicationArguments());
+
+        // Then
+        assertThat(otherRunner.getExitCode()).isEqualTo(ImportCommandLineRunner.EXIT_USAGE);
+        verifyNoInteractions(jobLauncher, schemaInitializer);
+    }
+}
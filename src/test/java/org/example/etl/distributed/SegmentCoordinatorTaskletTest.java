@@ -0,0 +1,123 @@
+package org.example.etl.distributed;
+
+import org.example.etl.partition.FileRangePartitioner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.repeat.RepeatStatus;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SegmentCoordinatorTasklet.
+ */
+class SegmentCoordinatorTaskletTest {
+
+    private SegmentQueue segmentQueue;
+    private FileRangePartitioner partitioner;
+    private StepExecution stepExecution;
+    private ChunkContext chunkContext;
+    private SegmentCoordinatorTasklet tasklet;
+
+    @BeforeEach
+    void setUp() {
+        segmentQueue = mock(SegmentQueue.class);
+        partitioner = mock(FileRangePartitioner.class);
+        stepExecution = mock(StepExecution.class, RETURNS_DEEP_STUBS);
+        when(stepExecution.getJobExecution().getJobInstance().getId()).thenReturn(7L);
+        chunkContext = mock(ChunkContext.class, RETURNS_DEEP_STUBS);
+        when(chunkContext.getStepContext().getStepExecution()).thenReturn(stepExecution);
+        tasklet = new SegmentCoordinatorTasklet(segmentQueue, partitioner, "file:/data/large.csv", 2,
+                Duration.ofMillis(1));
+    }
+
+    @Test
+    void testFirstExecutionEnqueuesTheRangesOfTheFile() throws Exception {
+        // Given
+        Map<String, ExecutionContext> ranges = new LinkedHashMap<>();
+        ranges.put("partition0", range(0, 100));
+        ranges.put("partition1", range(100, 250));
+        when(partitioner.partition(2)).thenReturn(ranges);
+        when(segmentQueue.enqueue(anyLong(), anyString(), anyList())).thenReturn(true);
+
+        // When
+        RepeatStatus status = tasklet.execute(null, chunkContext);
+
+        // Then
+        assertThat(status).isEqualTo(RepeatStatus.CONTINUABLE);
+        verify(segmentQueue).enqueue(eq(7L), eq("file:/data/large.csv"), argThat((List<long[]> segments) ->
+                segments.size() == 2 && segments.get(0)[0] == 0 && segments.get(0)[1] == 100
+                        && segments.get(1)[0] == 100 && segments.get(1)[1] == 250));
+        verify(segmentQueue, never()).progress(anyLong());
+    }
+
+    @Test
+    void testWaitsWhileSegmentsAreLeft() throws Exception {
+        // Given
+        when(partitioner.partition(2)).thenReturn(Map.of("partition0", range(0, 100)));
+        when(segmentQueue.progress(7L)).thenReturn(new SegmentQueue.Progress(0, 1, 1, 0, 10, 10, 0));
+        tasklet.execute(null, chunkContext);
+
+        // When
+        RepeatStatus status = tasklet.execute(null, chunkContext);
+
+        // Then
+        assertThat(status).isEqualTo(RepeatStatus.CONTINUABLE);
+        verify(stepExecution, never()).setReadCount(anyLong());
+    }
+
+    @Test
+    void testReportsTheCountsOfAllSegmentsWhenDone() throws Exception {
+        // Given
+        when(partitioner.partition(2)).thenReturn(Map.of("partition0", range(0, 100)));
+        when(segmentQueue.progress(7L)).thenReturn(new SegmentQueue.Progress(0, 0, 2, 0, 20, 18, 2));
+        tasklet.execute(null, chunkContext);
+
+        // When
+        RepeatStatus status = tasklet.execute(null, chunkContext);
+
+        // Then
+        assertThat(status).isEqualTo(RepeatStatus.FINISHED);
+        verify(stepExecution).setReadCount(20);
+        verify(stepExecution).setWriteCount(18);
+        verify(stepExecution).setWriteSkipCount(2);
+    }
+
+    @Test
+    void testFailsIfASegmentFailed() throws Exception {
+        // Given
+        when(partitioner.partition(2)).thenReturn(Map.of("partition0", range(0, 100)));
+        when(segmentQueue.progress(7L)).thenReturn(new SegmentQueue.Progress(0, 0, 1, 1, 10, 10, 0));
+        tasklet.execute(null, chunkContext);
+
+        // When/Then
+        assertThatThrownBy(() -> tasklet.execute(null, chunkContext))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("1 segments of job instance 7 failed");
+    }
+
+    private static ExecutionContext range(long start, long end) {
+        ExecutionContext context = new ExecutionContext();
+        context.putLong(FileRangePartitioner.START_KEY, start);
+        context.putLong(FileRangePartitioner.END_KEY, end);
+        return context;
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.etl.distributed;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SegmentLeaseListener.
+ */
+class SegmentLeaseListenerTest {
+
+    private static final Duration LEASE = Duration.ofSeconds(30);
+
+    private long now;
+    private SegmentQueue segmentQueue;
+    private SegmentQueue.Segment segment;
+    private SegmentLeaseListener listener;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        segmentQueue = mock(SegmentQueue.class);
+        segment = new SegmentQueue.Segment(7, 1, "file:/data/large.csv", 100, 200, 1);
+        listener = new SegmentLeaseListener(segmentQueue, segment, "worker-1", LEASE, () -> now);
+    }
+
+    @Test
+    void testDoesNotRenewEarlyInTheLease() {
+        // Given
+        now = Duration.ofSeconds(9).toNanos();
+
+        // When
+        listener.beforeChunk(null);
+
+        // Then
+        verify(segmentQueue, never()).renew(segment, "worker-1", LEASE);
+    }
+
+    @Test
+    void testRenewsAfterAThirdOfTheLease() {
+        // Given
+        when(segmentQueue.renew(segment, "worker-1", LEASE)).thenReturn(true);
+        now = Duration.ofSeconds(11).toNanos();
+
+        // When
+        listener.beforeChunk(null);
+        now = Duration.ofSeconds(15).toNanos();
+        listener.beforeChunk(null);
+
+        // Then: the second chunk follows the renewal too closely
+        verify(segmentQueue).renew(segment, "worker-1", LEASE);
+    }
+
+    @Test
+    void testStopsTheImportWhenTheLeaseWasLost() {
+        // Given
+        when(segmentQueue.renew(segment, "worker-1", LEASE)).thenReturn(false);
+        now = Duration.ofSeconds(40).toNanos();
+
+        // When/Then
+        assertThatThrownBy(() -> listener.beforeChunk(null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("lost the lease of segment 1");
+    }
+}
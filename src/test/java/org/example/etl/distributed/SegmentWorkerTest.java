@@ -0,0 +1,146 @@
+package org.example.etl.distributed;
+
+import org.example.etl.listener.ImportCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.JobInstance;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.job.parameters.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepExecution;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SegmentWorker.
+ */
+class SegmentWorkerTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    private JobLauncher jobLauncher;
+    private JobRepository jobRepository;
+    private Job segmentImportJob;
+    private SegmentQueue segmentQueue;
+    private SegmentQueue.Segment segment;
+    private SegmentWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        jobLauncher = mock(JobLauncher.class);
+        jobRepository = mock(JobRepository.class);
+        segmentImportJob = mock(Job.class);
+        segmentQueue = mock(SegmentQueue.class);
+        segment = new SegmentQueue.Segment(7, 1, "file:/data/large.csv", 100, 200, 2);
+        worker = new SegmentWorker(jobLauncher, jobRepository, segmentImportJob, segmentQueue, new ImportCounters(),
+                "worker-1", LEASE);
+    }
+
+    @Test
+    void testImportsAClaimedSegmentAndReportsItsCounts() throws Exception {
+        // Given
+        when(segmentQueue.claim("worker-1", LEASE)).thenReturn(segment);
+        JobExecution execution = execution(BatchStatus.COMPLETED);
+        StepExecution stepExecution = mock(StepExecution.class);
+        when(stepExecution.getReadCount()).thenReturn(10L);
+        when(stepExecution.getWriteCount()).thenReturn(8L);
+        when(stepExecution.getSkipCount()).thenReturn(2L);
+        when(execution.getStepExecutions()).thenReturn(List.of(stepExecution));
+        when(jobLauncher.run(eq(segmentImportJob), any())).thenReturn(execution);
+        when(segmentQueue.complete(segment, "worker-1", 10, 8, 2)).thenReturn(true);
+
+        // When
+        boolean imported = worker.importNext();
+
+        // Then
+        assertThat(imported).isTrue();
+        ArgumentCaptor<JobParameters> params = ArgumentCaptor.forClass(JobParameters.class);
+        verify(jobLauncher).run(eq(segmentImportJob), params.capture());
+        assertThat(params.getValue().getString("inputFile")).isEqualTo("file:/data/large.csv");
+        assertThat(params.getValue().getLong(SegmentLeaseListener.JOB_INSTANCE_KEY)).isEqualTo(7L);
+        assertThat(params.getValue().getLong(SegmentLeaseListener.START_KEY)).isEqualTo(100L);
+        assertThat(params.getValue().getLong(SegmentLeaseListener.END_KEY)).isEqualTo(200L);
+        assertThat(params.getValue().getLong("attempt")).isEqualTo(2L);
+        assertThat(params.getValue().getString(SegmentLeaseListener.WORKER_KEY)).isEqualTo("worker-1");
+        verify(segmentQueue).complete(segment, "worker-1", 10, 8, 2);
+    }
+
+    @Test
+    void testReleasesASegmentWhoseImportFailed() throws Exception {
+        // Given
+        when(segmentQueue.claim("worker-1", LEASE)).thenReturn(segment);
+        JobExecution execution = execution(BatchStatus.FAILED);
+        when(execution.getAllFailureExceptions()).thenReturn(List.of(new IllegalStateException("disk full")));
+        when(jobLauncher.run(eq(segmentImportJob), any())).thenReturn(execution);
+
+        // When
+        boolean imported = worker.importNext();
+
+        // Then
+        assertThat(imported).isTrue();
+        verify(segmentQueue).release(segment, "worker-1", "java.lang.IllegalStateException: disk full");
+        verify(segmentQueue, never()).complete(any(), anyString(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void testImportsASegmentWithTheJobParametersOfTheCoordinator() throws Exception {
+        // Given
+        when(segmentQueue.claim("worker-1", LEASE)).thenReturn(segment);
+        JobInstance coordinatorInstance = mock(JobInstance.class);
+        JobExecution coordinator = mock(JobExecution.class);
+        when(jobRepository.getJobInstance(7L)).thenReturn(coordinatorInstance);
+        when(jobRepository.getLastJobExecution(coordinatorInstance)).thenReturn(coordinator);
+        when(coordinator.getJobParameters()).thenReturn(new JobParametersBuilder()
+                .addString("inputFile", "file:/data/large.csv")
+                .addString("distributed", "true")
+                .addString("writeMode", "bulk")
+                .addString("dedup", "false")
+                .toJobParameters());
+        JobExecution execution = execution(BatchStatus.COMPLETED);
+        when(jobLauncher.run(eq(segmentImportJob), any())).thenReturn(execution);
+
+        // When
+        worker.importNext();
+
+        // Then
+        ArgumentCaptor<JobParameters> params = ArgumentCaptor.forClass(JobParameters.class);
+        verify(jobLauncher).run(eq(segmentImportJob), params.capture());
+        assertThat(params.getValue().getString("writeMode")).isEqualTo("bulk");
+        assertThat(params.getValue().getString("dedup")).isEqualTo("false");
+        assertThat(params.getValue().getLong(SegmentLeaseListener.START_KEY)).isEqualTo(100L);
+        assertThat(params.getValue().getString(SegmentLeaseListener.WORKER_KEY)).isEqualTo("worker-1");
+    }
+
+    @Test
+    void testDoesNothingWithoutClaimableSegments() throws Exception {
+        // When
+        boolean imported = worker.importNext();
+
+        // Then
+        assertThat(imported).isFalse();
+        verifyNoInteractions(jobLauncher);
+    }
+
+    private static JobExecution execution(BatchStatus status) {
+        JobExecution execution = mock(JobExecution.class);
+        when(execution.getStatus()).thenReturn(status);
+        return execution;
+    }
+}
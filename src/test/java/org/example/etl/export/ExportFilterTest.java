@@ -0,0 +1,44 @@
+package org.example.etl.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ExportFilter.
+ */
+class ExportFilterTest {
+
+    @Test
+    void testBlankParametersSelectAllRows() {
+        // When
+        ExportFilter filter = ExportFilter.of("", null, " ");
+
+        // Then
+        assertThat(filter.conditions()).isEmpty();
+        assertThat(filter.arguments()).isEmpty();
+    }
+
+    @Test
+    void testSelectsStationAndTimeRange() {
+        // When
+        ExportFilter filter = ExportFilter.of("Location-A", "2024-01-01 00:00:00", "2024-02-01 00:00:00");
+
+        // Then
+        assertThat(filter.conditions()).isEqualTo(" AND name = ? AND datetime >= ? AND datetime < ?");
+        assertThat(filter.arguments()).containsExactly("Location-A", LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 2, 1, 0, 0));
+    }
+
+    @Test
+    void testSelectsOpenEndedTimeRange() {
+        // When
+        ExportFilter filter = ExportFilter.of(null, "2024-01-01 00:00:00", null);
+
+        // Then
+        assertThat(filter.conditions()).isEqualTo(" AND datetime >= ?");
+        assertThat(filter.arguments()).containsExactly(LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+}
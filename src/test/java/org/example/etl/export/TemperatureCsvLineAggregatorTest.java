@@ -0,0 +1,72 @@
+package org.example.etl.export;
+
+import org.example.etl.model.TemperatureData;
+import org.example.etl.reader.TemperatureRecordParser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TemperatureCsvLineAggregator.
+ */
+class TemperatureCsvLineAggregatorTest {
+
+    private final TemperatureCsvLineAggregator aggregator = new TemperatureCsvLineAggregator();
+
+    @Test
+    void testFormatsRecordsInTheInputFormat() {
+        // When
+        String line = aggregator.aggregate(
+                new TemperatureData("Location-A", LocalDateTime.of(2024, 1, 15, 10, 0), 22.5));
+
+        // Then
+        assertThat(line).isEqualTo("Location-A,2024-01-15 10:00:00,22.5");
+    }
+
+    @Test
+    void testQuotesNamesWithSeparators() {
+        // When
+        String line = aggregator.aggregate(
+                new TemperatureData("Location \"North\", Hill", LocalDateTime.of(2024, 1, 15, 10, 0), -3.0));
+
+        // Then
+        assertThat(line).isEqualTo("\"Location \"\"North\"\", Hill\",2024-01-15 10:00:00,-3.0");
+    }
+
+    @Test
+    void testFormatsTemperaturesAsPlainDecimals() {
+        // When
+        String small = aggregator.aggregate(
+                new TemperatureData("Location-A", LocalDateTime.of(2024, 1, 15, 10, 0), 1.0E-4));
+        String large = aggregator.aggregate(
+                new TemperatureData("Location-A", LocalDateTime.of(2024, 1, 15, 10, 0), -1.25E7));
+
+        // Then
+        assertThat(small).isEqualTo("Location-A,2024-01-15 10:00:00,0.0001");
+        assertThat(large).isEqualTo("Location-A,2024-01-15 10:00:00,-12500000");
+    }
+
+    @Test
+    void testImportParsesExportedLinesBack() {
+        // Given
+        TemperatureRecordParser parser = new TemperatureRecordParser();
+        TemperatureData[] records = {
+                new TemperatureData("Location-A", LocalDateTime.of(2024, 1, 15, 10, 0, 30), 22.53),
+                new TemperatureData("Location, North", LocalDateTime.of(2024, 2, 29, 23, 59, 59), -0.1),
+                new TemperatureData("Location-B", LocalDateTime.of(2024, 12, 31, 0, 0), 1.0E-4)
+        };
+
+        for (TemperatureData record : records) {
+            // When
+            byte[] line = aggregator.aggregate(record).getBytes(StandardCharsets.UTF_8);
+            TemperatureData parsed = parser.parse(ByteBuffer.wrap(line), 0, line.length);
+
+            // Then
+            assertThat(parsed).isEqualTo(record);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.etl.incremental;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for FileOffsetStore.
+ */
+class FileOffsetStoreTest {
+
+    private static final String CONTENT = "name,datetime,temp\nLocation-A,2024-01-15 10:00:00,22.5\n";
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private FileOffsetStore offsetStore;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        offsetStore = new FileOffsetStore(jdbcTemplate);
+        file = tempDir.resolve("input.csv");
+        Files.writeString(file, CONTENT, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testUnknownFileStartsAtZero() {
+        // Given
+        storedOffset(null, 0);
+
+        // Then
+        assertThat(offsetStore.resumeOffset(file)).isZero();
+    }
+
+    @Test
+    void testCompleteLinesEndExcludesAnUnterminatedLine() throws IOException {
+        // Given: a writer has appended half of a line
+        Files.writeString(file, "Location-B,2024-01-15 10:00:00,1", StandardOpenOption.APPEND);
+
+        // Then
+        assertThat(FileOffsetStore.completeLinesEnd(file)).isEqualTo(CONTENT.length());
+    }
+
+    @Test
+    void testCompleteLinesEndOfATerminatedFileIsItsSize() throws IOException {
+        assertThat(FileOffsetStore.completeLinesEnd(file)).isEqualTo(CONTENT.length());
+        Files.writeString(file, "no newline yet", StandardCharsets.UTF_8);
+        assertThat(FileOffsetStore.completeLinesEnd(file)).isZero();
+    }
+
+    @Test
+    void testResumesAtStoredOffsetOfAppendedFile() throws IOException {
+        // Given: the whole file was imported, then a line was appended
+        long offset = CONTENT.length();
+        storedOffset(offset, checksum(offset));
+        Files.writeString(file, "Location-B,2024-01-15 10:00:00,18.3\n", StandardOpenOption.APPEND);
+
+        // Then
+        assertThat(offsetStore.resumeOffset(file)).isEqualTo(offset);
+    }
+
+    @Test
+    void testRewrittenFileStartsAtZero() throws IOException {
+        // Given: the imported bytes were replaced
+        long offset = CONTENT.length();
+        storedOffset(offset, checksum(offset));
+        Files.writeString(file, CONTENT.replace("22.5", "23.5"), StandardCharsets.UTF_8);
+
+        // Then
+        assertThat(offsetStore.resumeOffset(file)).isZero();
+    }
+
+    @Test
+    void testTruncatedFileStartsAtZero() throws IOException {
+        // Given
+        long offset = CONTENT.length();
+        storedOffset(offset, checksum(offset));
+        Files.writeString(file, "name,datetime,temp\n", StandardCharsets.UTF_8);
+
+        // Then
+        assertThat(offsetStore.resumeOffset(file)).isZero();
+    }
+
+    @Test
+    void testSaveStoresOffsetWithChecksum() throws IOException {
+        // When
+        offsetStore.save(file, CONTENT.length());
+
+        // Then
+        verify(jdbcTemplate).update(FileOffsetStore.UPSERT_SQL, file.toAbsolutePath().normalize().toString(),
+                (long) CONTENT.length(), checksum(CONTENT.length()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void storedOffset(Long offset, long checksum) {
+        List<long[]> rows = offset == null ? List.of() : List.<long[]>of(new long[]{offset, checksum});
+        when(jdbcTemplate.query(eq(FileOffsetStore.SELECT_SQL), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(rows);
+    }
+
+    private long checksum(long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return FileOffsetStore.tailChecksum(channel, offset);
+        }
+    }
+}
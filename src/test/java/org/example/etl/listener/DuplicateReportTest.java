@@ -0,0 +1,91 @@
+package org.example.etl.listener;
+
+import org.example.etl.model.TemperatureData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for DuplicateReport.
+ */
+class DuplicateReportTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 15, 10, 0, 0);
+
+    @Test
+    void testAggregatesDuplicatesByStation() {
+        // Given
+        DuplicateReport report = new DuplicateReport(5, 10, "");
+        report.start(1);
+
+        // When
+        report.add(new TemperatureData("Location-A", T0.plusHours(2), 22.5));
+        report.add(new TemperatureData("Location-B", T0, 18.3));
+        report.add(new TemperatureData("Location-A", T0, 22.0));
+        report.add(new TemperatureData("Location-A", T0.plusHours(1), 21.5));
+
+        // Then: most duplicates first, with the range of their timestamps
+        assertThat(report.stationCount()).isEqualTo(2);
+        assertThat(report.topStations()).containsExactly(
+                new DuplicateReport.StationSummary("Location-A", 3, T0, T0.plusHours(2)),
+                new DuplicateReport.StationSummary("Location-B", 1, T0, T0));
+    }
+
+    @Test
+    void testKeepsLimitedSamplesAndTopStations() {
+        // Given
+        DuplicateReport report = new DuplicateReport(2, 1, "");
+        report.start(1);
+
+        // When
+        report.add(new TemperatureData("Location-A", T0, 22.5));
+        report.add(new TemperatureData("Location-B", T0, 18.3));
+        report.add(new TemperatureData("Location-B", T0.plusHours(1), 18.1));
+
+        // Then
+        assertThat(report.samples()).extracting(TemperatureData::name).containsExactly("Location-A", "Location-B");
+        assertThat(report.topStations()).extracting(DuplicateReport.StationSummary::station)
+                .containsExactly("Location-B");
+    }
+
+    @Test
+    void testStartClearsPreviousJobExecution() {
+        // Given
+        DuplicateReport report = new DuplicateReport(5, 10, "");
+        report.start(1);
+        report.add(new TemperatureData("Location-A", T0, 22.5));
+        report.addUnattributed(3);
+
+        // When
+        report.start(2);
+
+        // Then
+        assertThat(report.stationCount()).isZero();
+        assertThat(report.samples()).isEmpty();
+        assertThat(report.unattributed()).isZero();
+    }
+
+    @Test
+    void testWritesRejectsFile(@TempDir Path rejectsDir) throws Exception {
+        // Given
+        DuplicateReport report = new DuplicateReport(5, 10, rejectsDir.toString());
+        report.start(42);
+
+        // When
+        report.add(new TemperatureData("Location-A", T0, 22.5));
+        report.add(new TemperatureData("Station, North", T0.plusHours(1), -3.0));
+        report.finish();
+
+        // Then
+        assertThat(report.rejectsFile()).isEqualTo(rejectsDir.resolve("duplicates-42.csv"));
+        assertThat(Files.readAllLines(report.rejectsFile())).containsExactly(
+                "name,datetime,temp",
+                "Location-A,2024-01-15 10:00:00,22.5",
+                "\"Station, North\",2024-01-15 11:00:00,-3.0");
+    }
+}
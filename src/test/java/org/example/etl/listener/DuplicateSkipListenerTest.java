@@ -1,5 +1,6 @@
 package org.example.etl.listener;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.etl.model.TemperatureData;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,7 +18,7 @@ class DuplicateSkipListenerTest {
 
     @BeforeEach
     void setUp() {
-        listener = new DuplicateSkipListener();
+        listener = new DuplicateSkipListener(new SimpleMeterRegistry(), new DuplicateReport(5, 10, ""));
     }
 
     @Test
@@ -57,6 +58,18 @@ class DuplicateSkipListenerTest {
         assertThat(listener.getSkipCount()).isEqualTo(3);
     }
 
+    @Test
+    void testDuplicateWithoutWriteFailureIncrementsCount() {
+        // Given
+        TemperatureData data = new TemperatureData("Location-A", LocalDateTime.now(), 22.5);
+
+        // When
+        listener.onDuplicate(data);
+
+        // Then
+        assertThat(listener.getSkipCount()).isEqualTo(1);
+    }
+
     @Test
     void testResetClearsCount() {
         // Given
@@ -91,4 +104,27 @@ class DuplicateSkipListenerTest {
         // Then
         assertThat(listener.getSkipCount()).isZero();
     }
+
+    @Test
+    void testSkipsArePublishedByReason() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DuplicateSkipListener listener = new DuplicateSkipListener(meterRegistry, new DuplicateReport(5, 10, ""));
+        TemperatureData data = new TemperatureData("Location-A", LocalDateTime.now(), 22.5);
+
+        // When
+        listener.onSkipInWrite(data, new RuntimeException("Duplicate"));
+        listener.onDuplicates(4);
+        listener.onSkipInRead(new RuntimeException("Read error"));
+        listener.reset();
+
+        // Then: the published counters are not affected by reset
+        assertThat(meterRegistry.get(DuplicateSkipListener.SKIPPED_METER).tag("reason", "duplicate").counter().count())
+                .isEqualTo(5);
+        assertThat(meterRegistry.get(DuplicateSkipListener.SKIPPED_METER).tag("reason", "read").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(DuplicateSkipListener.SKIPPED_METER).tag("reason", "process").counter().count())
+                .isZero();
+        assertThat(listener.getSkipCount()).isZero();
+    }
 }
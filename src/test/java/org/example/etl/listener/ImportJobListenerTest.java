@@ -1,6 +1,8 @@
 package org.example.etl.listener;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.etl.model.TemperatureData;
+import org.example.etl.repository.ImportRunSummaryStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.batch.core.BatchStatus;
@@ -13,6 +15,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -21,12 +24,14 @@ import static org.mockito.Mockito.when;
 class ImportJobListenerTest {
 
     private DuplicateSkipListener duplicateSkipListener;
+    private ImportRunSummaryStore summaryStore;
     private ImportJobListener importJobListener;
 
     @BeforeEach
     void setUp() {
-        duplicateSkipListener = new DuplicateSkipListener();
-        importJobListener = new ImportJobListener(duplicateSkipListener);
+        duplicateSkipListener = new DuplicateSkipListener(new SimpleMeterRegistry(), new DuplicateReport(5, 10, ""));
+        summaryStore = mock(ImportRunSummaryStore.class);
+        importJobListener = new ImportJobListener(duplicateSkipListener, new ImportCounters(), summaryStore);
     }
 
     @Test
@@ -62,8 +67,11 @@ class ImportJobListenerTest {
         when(jobExecution.getStatus()).thenReturn(BatchStatus.COMPLETED);
         when(jobExecution.getAllFailureExceptions()).thenReturn(List.of());
 
-        // When/Then - no exception should be thrown
+        // When
         importJobListener.afterJob(jobExecution);
+
+        // Then: the summary is stored
+        verify(summaryStore).record(jobExecution, 100, 95, 5, 0);
     }
 
     @Test
@@ -0,0 +1,105 @@
+package org.example.etl.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.etl.listener.ImportCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.batch.infrastructure.item.Chunk;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ImportMetricsListener.
+ */
+class ImportMetricsListenerTest {
+
+    private long now;
+    private SimpleMeterRegistry meterRegistry;
+    private StepExecution stepExecution;
+    private ChunkContext chunkContext;
+    private ImportMetricsListener listener;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        meterRegistry = new SimpleMeterRegistry();
+        stepExecution = mock(StepExecution.class);
+        when(stepExecution.getStepName()).thenReturn("importWorkerStep:partition1");
+        chunkContext = mock(ChunkContext.class, RETURNS_DEEP_STUBS);
+        when(chunkContext.getStepContext().getStepExecution()).thenReturn(stepExecution);
+        listener = new ImportMetricsListener(meterRegistry, new ImportCounters(), () -> now);
+    }
+
+    @Test
+    void testRecordsReadWriteAndCommitTimesOfAChunk() {
+        // Given
+        listener.beforeStep(stepExecution);
+
+        // When: 4 items are read in 10 ms each, written in 30 ms and committed 20 ms later
+        runChunk(4, 10, 30, 20, 0);
+
+        // Then
+        assertThat(meterRegistry.get("etl.import.chunk.read").tag("step", "importWorkerStep").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(40);
+        assertThat(meterRegistry.get("etl.import.chunk.write").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isEqualTo(30);
+        assertThat(meterRegistry.get("etl.import.chunk.commit").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isEqualTo(20);
+        assertThat(meterRegistry.get("etl.import.rows").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    void testGaugesShowRateAndDuplicatesOfTheLastChunk() {
+        // Given
+        listener.beforeStep(stepExecution);
+
+        // When: 4 items take 50 ms in total, 1 of them is a duplicate
+        runChunk(4, 5, 20, 10, 1);
+
+        // Then
+        assertThat(meterRegistry.get("etl.import.rows.per.second").tag("partition", "partition1").gauge().value())
+                .isEqualTo(80);
+        assertThat(meterRegistry.get("etl.import.duplicate.ratio").gauge().value()).isEqualTo(0.25);
+    }
+
+    @Test
+    void testGaugesAreRemovedAfterStep() {
+        // Given
+        listener.beforeStep(stepExecution);
+        runChunk(4, 5, 20, 10, 0);
+
+        // When
+        listener.afterStep(stepExecution);
+
+        // Then: the timers stay, the gauges of the finished step execution are gone
+        assertThat(meterRegistry.find("etl.import.rows.per.second").gauge()).isNull();
+        assertThat(meterRegistry.find("etl.import.duplicate.ratio").gauge()).isNull();
+        assertThat(meterRegistry.find("etl.import.chunk.write").timer()).isNotNull();
+    }
+
+    private void runChunk(int items, long readMillis, long writeMillis, long commitMillis, long duplicates) {
+        long readCount = stepExecution.getReadCount();
+        long writeSkipCount = stepExecution.getWriteSkipCount();
+        listener.beforeChunk(chunkContext);
+        for (int i = 0; i < items; i++) {
+            listener.beforeRead();
+            now += TimeUnit.MILLISECONDS.toNanos(readMillis);
+            listener.afterRead(new Object());
+        }
+        Chunk<Object> chunk = new Chunk<>();
+        listener.beforeWrite(chunk);
+        now += TimeUnit.MILLISECONDS.toNanos(writeMillis);
+        listener.afterWrite(chunk);
+        now += TimeUnit.MILLISECONDS.toNanos(commitMillis);
+        when(stepExecution.getReadCount()).thenReturn(readCount + items);
+        when(stepExecution.getWriteSkipCount()).thenReturn(writeSkipCount + duplicates);
+        listener.afterChunk(chunkContext);
+    }
+}
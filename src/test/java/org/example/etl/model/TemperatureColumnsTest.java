@@ -0,0 +1,67 @@
+package org.example.etl.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for TemperatureColumns.
+ */
+class TemperatureColumnsTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 15, 10, 0, 0);
+
+    @Test
+    void testStoresRowsColumnByColumn() {
+        // Given
+        TemperatureColumns columns = new TemperatureColumns(3);
+
+        // When
+        columns.add("Location-A", TemperatureColumns.epochSecond(T0), 22.5);
+        columns.add(new TemperatureData("Location-B", T0.plusHours(1), -3.0));
+        columns.add("Location-A", TemperatureColumns.epochSecond(T0.plusHours(2)), 21.0);
+
+        // Then
+        assertThat(columns.isFull()).isTrue();
+        assertThat(columns.name(2)).isEqualTo("Location-A");
+        assertThat(columns.temp(1)).isEqualTo(-3.0);
+        assertThat(columns.get(1)).isEqualTo(new TemperatureData("Location-B", T0.plusHours(1), -3.0));
+    }
+
+    @Test
+    void testEncodesLocalDateTimeWithoutTimeZone() {
+        assertThat(TemperatureColumns.epochSecond(LocalDateTime.of(1970, 1, 1, 0, 0, 1))).isEqualTo(1);
+        assertThat(TemperatureColumns.datetime(TemperatureColumns.epochSecond(T0))).isEqualTo(T0);
+    }
+
+    @Test
+    void testDictionaryKeepsStationsAcrossBlocks() {
+        // Given: more stations than the initial dictionary size
+        TemperatureColumns columns = new TemperatureColumns(500);
+        for (int i = 0; i < 500; i++) {
+            columns.add("Location-" + i, i, i);
+        }
+
+        // When
+        columns.clear();
+        columns.add("Location-321", 0, 0);
+
+        // Then
+        assertThat(columns.size()).isEqualTo(1);
+        assertThat(columns.name(0)).isEqualTo("Location-321");
+    }
+
+    @Test
+    void testRejectsRowsBeyondCapacity() {
+        // Given
+        TemperatureColumns columns = new TemperatureColumns(1);
+        columns.add("Location-A", 0, 0);
+
+        // Then
+        assertThatThrownBy(() -> columns.add("Location-B", 0, 0)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> columns.temp(1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
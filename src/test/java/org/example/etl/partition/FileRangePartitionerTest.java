@@ -0,0 +1,91 @@
+package org.example.etl.partition;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for FileRangePartitioner.
+ */
+class FileRangePartitionerTest {
+
+    private static final String HEADER = "name,datetime,temp,humidity,pressure\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRangesAreNewlineAlignedAndContiguous() throws IOException {
+        // Given
+        StringBuilder content = new StringBuilder(HEADER);
+        for (int i = 0; i < 100; i++) {
+            content.append("Location-").append(i % 7).append(",2024-01-15 10:")
+                    .append(String.format("%02d", i % 60)).append(":00,").append(i).append(".5,45.0,1013.25\n");
+        }
+        Path file = write(content.toString());
+        byte[] bytes = Files.readAllBytes(file);
+
+        // When
+        Map<String, ExecutionContext> partitions = new FileRangePartitioner(new FileSystemResource(file), 1)
+                .partition(4);
+
+        // Then
+        assertThat(partitions).hasSize(4);
+        long expectedStart = HEADER.length();
+        for (ExecutionContext context : partitions.values()) {
+            long start = context.getLong(FileRangePartitioner.START_KEY);
+            long end = context.getLong(FileRangePartitioner.END_KEY);
+            assertThat(start).isEqualTo(expectedStart);
+            assertThat(bytes[(int) start - 1]).isEqualTo((byte) '\n');
+            expectedStart = end;
+        }
+        assertThat(expectedStart).isEqualTo(bytes.length);
+    }
+
+    @Test
+    void testSmallFileYieldsSinglePartition() throws IOException {
+        // Given
+        Path file = write(HEADER + "Location-A,2024-01-15 10:00:00,22.5,45.0,1013.25\n");
+
+        // When
+        Map<String, ExecutionContext> partitions = new FileRangePartitioner(new FileSystemResource(file), 1024 * 1024)
+                .partition(8);
+
+        // Then
+        assertThat(partitions).hasSize(1);
+        ExecutionContext context = partitions.get("partition0");
+        assertThat(context.getLong(FileRangePartitioner.START_KEY)).isEqualTo(HEADER.length());
+        assertThat(context.getLong(FileRangePartitioner.END_KEY)).isEqualTo(Files.size(file));
+    }
+
+    @Test
+    void testHeaderOnlyFileYieldsEmptyRange() throws IOException {
+        // Given
+        Path file = write("name,datetime,temp\n");
+
+        // When
+        Map<String, ExecutionContext> partitions = new FileRangePartitioner(new FileSystemResource(file), 1)
+                .partition(4);
+
+        // Then
+        assertThat(partitions).hasSize(1);
+        ExecutionContext context = partitions.get("partition0");
+        assertThat(context.getLong(FileRangePartitioner.START_KEY))
+                .isEqualTo(context.getLong(FileRangePartitioner.END_KEY));
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("input.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
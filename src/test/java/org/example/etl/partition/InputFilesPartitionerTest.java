@@ -0,0 +1,68 @@
+package org.example.etl.partition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for InputFilesPartitioner.
+ */
+class InputFilesPartitionerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(tempDir.resolve("station-b.csv"), "name,datetime,temp\n");
+        Files.writeString(tempDir.resolve("station-a.csv"), "name,datetime,temp\n");
+        Files.write(tempDir.resolve("station-c.csv.gz"), new byte[0]);
+        Files.writeString(tempDir.resolve("notes.txt"), "not an input file\n");
+        Files.createDirectory(tempDir.resolve("archive.csv"));
+    }
+
+    @Test
+    void testCreatesOnePartitionPerMatchingFileInSortedOrder() {
+        // When
+        Map<String, ExecutionContext> partitions =
+                new InputFilesPartitioner(resolver, tempDir + "/station-*.csv").partition(1);
+
+        // Then
+        assertThat(partitions).containsOnlyKeys("file0", "file1");
+        assertThat(partitions.get("file0").getString(InputFilesPartitioner.INPUT_FILE_KEY)).endsWith("/station-a.csv");
+        assertThat(partitions.get("file1").getString(InputFilesPartitioner.INPUT_FILE_KEY)).endsWith("/station-b.csv");
+    }
+
+    @Test
+    void testDirectoryStandsForItsCsvFiles() {
+        // When
+        Map<String, ExecutionContext> partitions = new InputFilesPartitioner(resolver, tempDir.toString()).partition(1);
+
+        // Then: compressed CSV files are included, sub-directories and other files are left out
+        assertThat(partitions).hasSize(3);
+        assertThat(partitions.values())
+                .allSatisfy(context -> assertThat(context.getString(InputFilesPartitioner.INPUT_FILE_KEY))
+                        .startsWith("file:").contains("/station-"));
+    }
+
+    @Test
+    void testNoMatchingFilesCreatesNoPartitions() {
+        // When
+        Map<String, ExecutionContext> partitions =
+                new InputFilesPartitioner(resolver, tempDir + "/*.json").partition(1);
+
+        // Then
+        assertThat(partitions).isEmpty();
+    }
+}
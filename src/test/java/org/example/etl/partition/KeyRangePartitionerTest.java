@@ -0,0 +1,88 @@
+package org.example.etl.partition;
+
+import org.example.etl.export.ExportFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for KeyRangePartitioner.
+ */
+class KeyRangePartitionerTest {
+
+    private static final ExportFilter ALL_ROWS = ExportFilter.of(null, null, null);
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+    }
+
+    @Test
+    void testSplitsTheIdRangeIntoContiguousRanges() {
+        // Given
+        givenIds(KeyRangePartitioner.ID_RANGE_SQL, new long[]{1, 1000});
+
+        // When
+        Map<String, ExecutionContext> partitions = new KeyRangePartitioner(jdbcTemplate, ALL_ROWS, 100).partition(4);
+
+        // Then
+        assertThat(partitions).containsOnlyKeys("partition0", "partition1", "partition2", "partition3");
+        assertRange(partitions.get("partition0"), 0, 1, 250);
+        assertRange(partitions.get("partition1"), 1, 251, 500);
+        assertRange(partitions.get("partition2"), 2, 501, 750);
+        assertRange(partitions.get("partition3"), 3, 751, 1000);
+    }
+
+    @Test
+    void testCreatesFewerPartitionsForFewRows() {
+        // Given
+        givenIds(KeyRangePartitioner.ID_RANGE_SQL, new long[]{101, 250});
+
+        // When
+        Map<String, ExecutionContext> partitions = new KeyRangePartitioner(jdbcTemplate, ALL_ROWS, 100).partition(4);
+
+        // Then
+        assertThat(partitions).containsOnlyKeys("partition0");
+        assertRange(partitions.get("partition0"), 0, 101, 250);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreatesOneEmptyRangeWithoutMatchingRows() {
+        // Given: the filter selects no rows
+        ExportFilter filter = ExportFilter.of("Location-X", null, null);
+        when(jdbcTemplate.queryForObject(eq(KeyRangePartitioner.ID_RANGE_SQL + " AND name = ?"),
+                any(RowMapper.class), eq("Location-X"))).thenReturn(null);
+
+        // When
+        Map<String, ExecutionContext> partitions = new KeyRangePartitioner(jdbcTemplate, filter, 100).partition(4);
+
+        // Then
+        assertThat(partitions).containsOnlyKeys("partition0");
+        assertThat(partitions.get("partition0").getLong(KeyRangePartitioner.FIRST_KEY))
+                .isGreaterThan(partitions.get("partition0").getLong(KeyRangePartitioner.LAST_KEY));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenIds(String sql, long[] ids) {
+        when(jdbcTemplate.queryForObject(eq(sql), any(RowMapper.class))).thenReturn(ids);
+    }
+
+    private static void assertRange(ExecutionContext context, int part, long first, long last) {
+        assertThat(context.getInt(KeyRangePartitioner.PART_KEY)).isEqualTo(part);
+        assertThat(context.getLong(KeyRangePartitioner.FIRST_KEY)).isEqualTo(first);
+        assertThat(context.getLong(KeyRangePartitioner.LAST_KEY)).isEqualTo(last);
+    }
+}
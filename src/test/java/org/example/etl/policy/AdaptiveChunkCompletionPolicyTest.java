@@ -0,0 +1,120 @@
+package org.example.etl.policy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.infrastructure.item.Chunk;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for AdaptiveChunkCompletionPolicy.
+ */
+class AdaptiveChunkCompletionPolicyTest {
+
+    private static final Duration TARGET = Duration.ofMillis(100);
+
+    private long now;
+    private ChunkContext chunkContext;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        chunkContext = mock(ChunkContext.class, RETURNS_DEEP_STUBS);
+    }
+
+    @Test
+    void testGrowsChunkSizeWhenChunksAreFast() {
+        // Given
+        AdaptiveChunkCompletionPolicy policy = policy(100, 10, 10000);
+
+        // When: 100 items take 20 ms, a fifth of the target
+        runChunk(policy, 100, 20);
+
+        // Then: growth is limited to a factor of two per chunk
+        assertThat(policy.getChunkSize()).isEqualTo(200);
+    }
+
+    @Test
+    void testShrinksChunkSizeWhenChunksAreSlow() {
+        // Given
+        AdaptiveChunkCompletionPolicy policy = policy(100, 10, 10000);
+
+        // When: 100 items take 125 ms
+        runChunk(policy, 100, 125);
+
+        // Then
+        assertThat(policy.getChunkSize()).isEqualTo(80);
+    }
+
+    @Test
+    void testKeepsChunkSizeWithinTolerance() {
+        // Given
+        AdaptiveChunkCompletionPolicy policy = policy(100, 10, 10000);
+
+        // When
+        runChunk(policy, 100, 105);
+
+        // Then
+        assertThat(policy.getChunkSize()).isEqualTo(100);
+    }
+
+    @Test
+    void testStaysWithinBounds() {
+        // Given
+        AdaptiveChunkCompletionPolicy policy = policy(100, 50, 150);
+
+        // When
+        runChunk(policy, 100, 1);
+        int afterFast = policy.getChunkSize();
+        runChunk(policy, 150, 10000);
+
+        // Then
+        assertThat(afterFast).isEqualTo(150);
+        assertThat(policy.getChunkSize()).isEqualTo(75);
+        runChunk(policy, 75, 10000);
+        assertThat(policy.getChunkSize()).isEqualTo(50);
+    }
+
+    @Test
+    void testIgnoresRolledBackChunks() {
+        // Given
+        AdaptiveChunkCompletionPolicy policy = policy(100, 10, 10000);
+
+        // When
+        policy.beforeChunk(chunkContext);
+        policy.beforeWrite(items(100));
+        now += 1_000_000_000L;
+        policy.afterChunkError(chunkContext);
+
+        // Then
+        assertThat(policy.getChunkSize()).isEqualTo(100);
+    }
+
+    @Test
+    void testRejectsInvalidBounds() {
+        assertThatThrownBy(() -> policy(100, 200, 100)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private AdaptiveChunkCompletionPolicy policy(int initial, int min, int max) {
+        return new AdaptiveChunkCompletionPolicy(initial, min, max, TARGET, () -> now);
+    }
+
+    private void runChunk(AdaptiveChunkCompletionPolicy policy, int size, long millis) {
+        policy.beforeChunk(chunkContext);
+        policy.beforeWrite(items(size));
+        now += millis * 1_000_000L;
+        policy.afterChunk(chunkContext);
+    }
+
+    private static Chunk<Object> items(int size) {
+        return new Chunk<>(new ArrayList<>(Collections.nCopies(size, new Object())));
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.etl.processor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.etl.listener.DuplicateReport;
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.model.TemperatureData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for DuplicateFilterProcessor.
+ */
+class DuplicateFilterProcessorTest {
+
+    private static final LocalDateTime STORED = LocalDateTime.of(2024, 1, 15, 10, 0, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private DuplicateSkipListener duplicateSkipListener;
+    private DuplicateFilterProcessor processor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        duplicateSkipListener = new DuplicateSkipListener(new SimpleMeterRegistry(), new DuplicateReport(5, 10, ""));
+        processor = new DuplicateFilterProcessor(jdbcTemplate, duplicateSkipListener);
+
+        // Location-A already has a reading at 10:00 in the database
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getObject(1, LocalDateTime.class)).thenReturn(STORED);
+        doAnswer(invocation -> {
+            if ("Location-A".equals(invocation.getArgument(2))) {
+                invocation.<RowCallbackHandler>getArgument(1).processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(eq(DuplicateFilterProcessor.WARM_UP_SQL), any(RowCallbackHandler.class),
+                any(), any(), any());
+    }
+
+    @Test
+    void testDropsRowsAlreadyInDatabase() throws Exception {
+        // When
+        TemperatureData result = processor.process(new TemperatureData("Location-A", STORED, 22.5));
+
+        // Then
+        assertThat(result).isNull();
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testDropsRowsRepeatedWithinFile() throws Exception {
+        // Given
+        TemperatureData first = new TemperatureData("Location-B", STORED, 18.3);
+        TemperatureData repeated = new TemperatureData("Location-B", STORED, 18.4);
+
+        // Then
+        assertThat(processor.process(first)).isSameAs(first);
+        assertThat(processor.process(repeated)).isNull();
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testWarmsEachStationAndDayOnce() throws Exception {
+        // When
+        processor.process(new TemperatureData("Location-A", STORED.plusHours(1), 22.5));
+        processor.process(new TemperatureData("Location-A", STORED.plusHours(2), 22.7));
+        processor.process(new TemperatureData("Location-A", STORED.plusDays(1), 21.0));
+
+        // Then: one query for 2024-01-15 and one for 2024-01-16
+        verify(jdbcTemplate, times(2)).query(eq(DuplicateFilterProcessor.WARM_UP_SQL), any(RowCallbackHandler.class),
+                any(), any(), any());
+        assertThat(duplicateSkipListener.getSkipCount()).isZero();
+    }
+
+    @Test
+    void testNormalizedModeWarmsUpFromReadingTable() {
+        // Given
+        DuplicateFilterProcessor normalized = new DuplicateFilterProcessor(jdbcTemplate, duplicateSkipListener, true);
+
+        // When
+        normalized.process(new TemperatureData("Location-A", STORED, 22.5));
+
+        // Then
+        verify(jdbcTemplate).query(eq(DuplicateFilterProcessor.NORMALIZED_WARM_UP_SQL), any(RowCallbackHandler.class),
+                any(), any(), any());
+    }
+}
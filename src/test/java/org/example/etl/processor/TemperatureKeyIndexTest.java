@@ -0,0 +1,57 @@
+package org.example.etl.processor;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TemperatureKeyIndex.
+ */
+class TemperatureKeyIndexTest {
+
+    private static final LocalDateTime DATETIME = LocalDateTime.of(2024, 1, 15, 10, 0, 0);
+
+    @Test
+    void testAddReportsWhetherKeyIsNew() {
+        // Given
+        TemperatureKeyIndex index = new TemperatureKeyIndex();
+
+        // Then
+        assertThat(index.add("Location-A", DATETIME)).isTrue();
+        assertThat(index.add("Location-A", DATETIME)).isFalse();
+        assertThat(index.add("Location-B", DATETIME)).isTrue();
+        assertThat(index.add("Location-A", DATETIME.plusSeconds(1))).isTrue();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testNoFalseDuplicatesAcrossManyKeys() {
+        // Given
+        TemperatureKeyIndex index = new TemperatureKeyIndex();
+
+        // When / Then: every distinct key is accepted, however many share a station or a time
+        for (int station = 0; station < 20; station++) {
+            for (int hour = 0; hour < 500; hour++) {
+                assertThat(index.add("Location-" + station, DATETIME.plusHours(hour))).isTrue();
+            }
+        }
+        assertThat(index.size()).isEqualTo(10_000);
+        assertThat(index.contains("Location-7", DATETIME.plusHours(42))).isTrue();
+        assertThat(index.contains("Location-7", DATETIME.minusHours(1))).isFalse();
+    }
+
+    @Test
+    void testLongHashSetHandlesZeroKey() {
+        // Given
+        LongHashSet set = new LongHashSet();
+
+        // Then
+        assertThat(set.contains(0L)).isFalse();
+        assertThat(set.add(0L)).isTrue();
+        assertThat(set.add(0L)).isFalse();
+        assertThat(set.contains(0L)).isTrue();
+        assertThat(set.size()).isEqualTo(1);
+    }
+}
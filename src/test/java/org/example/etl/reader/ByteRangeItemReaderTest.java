@@ -0,0 +1,147 @@
+package org.example.etl.reader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ByteRangeItemReader.
+ */
+class ByteRangeItemReaderTest {
+
+    private static final String HEADER = "name,datetime,temp\n";
+    private static final String LINE_1 = "Location-A,2024-01-15 10:00:00,22.5\n";
+    private static final String LINE_2 = "Location-B,2024-01-15 10:00:00,18.3\r\n";
+    private static final String LINE_3 = "Location-C,2024-01-15 10:00:00,15.8";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadsOnlyLinesStartingInRange() throws Exception {
+        // Given
+        Path file = write(HEADER + LINE_1 + LINE_2 + LINE_3);
+        long start = HEADER.length();
+        long end = start + LINE_1.length() + 1; // ends inside LINE_2
+
+        // When
+        List<String> lines = readAll(reader(file, start, end), new ExecutionContext());
+
+        // Then: LINE_2 starts before the end of the range, so it belongs to this range
+        assertThat(lines).containsExactly(LINE_1.strip(), LINE_2.strip());
+    }
+
+    @Test
+    void testReadsLastLineWithoutTrailingNewline() throws Exception {
+        // Given
+        Path file = write(HEADER + LINE_1 + LINE_2 + LINE_3);
+        long start = HEADER.length() + LINE_1.length() + LINE_2.length();
+
+        // When
+        List<String> lines = readAll(reader(file, start, Files.size(file)), new ExecutionContext());
+
+        // Then
+        assertThat(lines).containsExactly(LINE_3);
+    }
+
+    @Test
+    void testRestartSeeksToSavedOffset() throws Exception {
+        // Given: a first execution that read one line and saved its state
+        Path file = write(HEADER + LINE_1 + LINE_2 + LINE_3);
+        ExecutionContext executionContext = new ExecutionContext();
+        ByteRangeItemReader<String> first = reader(file, HEADER.length(), Files.size(file));
+        first.open(executionContext);
+        assertThat(first.read()).isEqualTo(LINE_1.strip());
+        first.update(executionContext);
+        first.close();
+
+        // When: a new reader is opened with the saved execution context
+        List<String> lines = readAll(reader(file, HEADER.length(), Files.size(file)), executionContext);
+
+        // Then: reading resumes after the first line
+        assertThat(lines).containsExactly(LINE_2.strip(), LINE_3);
+    }
+
+    @Test
+    void testWholeFileReaderSkipsHeader() throws Exception {
+        // Given
+        Path file = write(HEADER + LINE_1 + LINE_2 + LINE_3);
+
+        // When
+        List<String> lines = readAll(new ByteRangeItemReader<>("reader", new FileSystemResource(file),
+                (line, lineNumber) -> line), new ExecutionContext());
+
+        // Then
+        assertThat(lines).containsExactly(LINE_1.strip(), LINE_2.strip(), LINE_3);
+    }
+
+    @Test
+    void testRestartFailsWhenFileChanged() throws Exception {
+        // Given: a first execution that read one line and saved its state, then the file was replaced
+        Path file = write(HEADER + LINE_1 + LINE_2 + LINE_3);
+        ExecutionContext executionContext = new ExecutionContext();
+        ByteRangeItemReader<String> first = reader(file, HEADER.length(), Files.size(file));
+        first.open(executionContext);
+        first.read();
+        first.update(executionContext);
+        first.close();
+        write(HEADER + LINE_2 + LINE_1 + LINE_3);
+
+        // Then
+        ByteRangeItemReader<String> second = reader(file, HEADER.length(), Files.size(file));
+        assertThatThrownBy(() -> second.open(executionContext))
+                .isInstanceOf(ItemStreamException.class)
+                .hasMessageContaining("has changed");
+    }
+
+    @Test
+    void testRestartsAfterASmallFileGrew() throws Exception {
+        // Given: a first execution over a file smaller than the fingerprint sample, then a line was appended
+        Path file = write(HEADER + LINE_1 + LINE_2);
+        ExecutionContext executionContext = new ExecutionContext();
+        ByteRangeItemReader<String> first = reader(file, HEADER.length(), Files.size(file));
+        first.open(executionContext);
+        first.read();
+        first.update(executionContext);
+        first.close();
+        write(HEADER + LINE_1 + LINE_2 + LINE_3);
+
+        // When
+        List<String> lines = readAll(reader(file, HEADER.length(), Files.size(file)), executionContext);
+
+        // Then: the restart continues behind the first line
+        assertThat(lines).containsExactly(LINE_2.strip(), LINE_3);
+    }
+
+    private ByteRangeItemReader<String> reader(Path file, long start, long end) {
+        return new ByteRangeItemReader<>("reader", new FileSystemResource(file), start, end, (line, lineNumber) -> line);
+    }
+
+    private List<String> readAll(ByteRangeItemReader<String> reader, ExecutionContext executionContext) throws Exception {
+        List<String> lines = new ArrayList<>();
+        reader.open(executionContext);
+        for (String line = reader.read(); line != null; line = reader.read()) {
+            lines.add(line);
+        }
+        reader.close();
+        return lines;
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("input.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.etl.reader;
+
+import org.example.etl.model.TemperatureColumns;
+import org.example.etl.model.TemperatureData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+import org.springframework.batch.infrastructure.item.file.FlatFileParseException;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for MappedTemperatureItemReader.
+ */
+class MappedTemperatureItemReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSkipsHeaderAndReadsAllRecords() throws Exception {
+        // Given
+        Path file = write(1000);
+
+        // When
+        List<TemperatureData> items = readAll(new MappedTemperatureItemReader("reader", new FileSystemResource(file)),
+                new ExecutionContext());
+
+        // Then
+        assertThat(items).hasSize(1000);
+        assertThat(items.get(0).name()).isEqualTo("Location-0");
+        assertThat(items.get(999).temp()).isEqualTo(999.25);
+    }
+
+    @Test
+    void testReadsLinesCrossingMappingWindows() throws Exception {
+        // Given: a window much smaller than the file, so most windows end inside a line
+        Path file = write(1000);
+        MappedTemperatureItemReader reader = new MappedTemperatureItemReader("reader", new FileSystemResource(file),
+                0, Long.MAX_VALUE, true, 100);
+
+        // When
+        List<TemperatureData> items = readAll(reader, new ExecutionContext());
+
+        // Then
+        assertThat(items).hasSize(1000);
+        assertThat(items.get(500).temp()).isEqualTo(500.25);
+    }
+
+    @Test
+    void testRestartResumesAfterLastCommittedOffset() throws Exception {
+        // Given: a first execution that read 300 records before its state was saved
+        Path file = write(1000);
+        ExecutionContext executionContext = new ExecutionContext();
+        MappedTemperatureItemReader first = new MappedTemperatureItemReader("reader", new FileSystemResource(file));
+        first.open(executionContext);
+        for (int i = 0; i < 300; i++) {
+            first.read();
+        }
+        first.update(executionContext);
+        first.close();
+
+        // When
+        List<TemperatureData> items = readAll(new MappedTemperatureItemReader("reader", new FileSystemResource(file)),
+                executionContext);
+
+        // Then
+        assertThat(items).hasSize(700);
+        assertThat(items.get(0).temp()).isEqualTo(300.25);
+    }
+
+    @Test
+    void testRestartFailsWhenFileTruncated() throws Exception {
+        // Given: a first execution that read 300 records, then the file was rewritten with fewer records
+        Path file = write(1000);
+        ExecutionContext executionContext = new ExecutionContext();
+        MappedTemperatureItemReader first = new MappedTemperatureItemReader("reader", new FileSystemResource(file));
+        first.open(executionContext);
+        for (int i = 0; i < 300; i++) {
+            first.read();
+        }
+        first.update(executionContext);
+        first.close();
+        write(100);
+
+        // Then
+        MappedTemperatureItemReader second = new MappedTemperatureItemReader("reader", new FileSystemResource(file));
+        assertThatThrownBy(() -> second.open(executionContext))
+                .isInstanceOf(ItemStreamException.class)
+                .hasMessageContaining("truncated");
+    }
+
+    @Test
+    void testFillsColumnarBlocksAndRestartsAfterThem() throws Exception {
+        // Given
+        Path file = write(1000);
+        ExecutionContext executionContext = new ExecutionContext();
+        MappedTemperatureItemReader first = new MappedTemperatureItemReader("reader", new FileSystemResource(file));
+        TemperatureColumns columns = new TemperatureColumns(300);
+
+        // When: one block is read and committed
+        first.open(executionContext);
+        int rows = first.read(columns);
+        first.update(executionContext);
+        first.close();
+
+        // Then
+        assertThat(rows).isEqualTo(300);
+        assertThat(columns.name(299)).isEqualTo("Location-4");
+        assertThat(columns.temp(299)).isEqualTo(299.25);
+
+        // And: a restart continues after the block and returns a partial last block
+        MappedTemperatureItemReader second = new MappedTemperatureItemReader("reader", new FileSystemResource(file));
+        second.open(executionContext);
+        int total = 0;
+        for (columns.clear(); second.read(columns) > 0; columns.clear()) {
+            total += columns.size();
+        }
+        second.close();
+        assertThat(total).isEqualTo(700);
+    }
+
+    @Test
+    void testInvalidLineRaisesParseException() throws Exception {
+        // Given
+        Path file = tempDir.resolve("invalid.csv");
+        Files.writeString(file, "name,datetime,temp\nLocation-A,not a date,22.5\n", StandardCharsets.UTF_8);
+        MappedTemperatureItemReader reader = new MappedTemperatureItemReader("reader", new FileSystemResource(file));
+        reader.open(new ExecutionContext());
+
+        // Then
+        assertThatThrownBy(reader::read).isInstanceOf(FlatFileParseException.class);
+        reader.close();
+    }
+
+    private List<TemperatureData> readAll(MappedTemperatureItemReader reader, ExecutionContext executionContext)
+            throws Exception {
+        List<TemperatureData> items = new ArrayList<>();
+        reader.open(executionContext);
+        for (TemperatureData item = reader.read(); item != null; item = reader.read()) {
+            items.add(item);
+        }
+        reader.close();
+        return items;
+    }
+
+    private Path write(int records) throws IOException {
+        StringBuilder content = new StringBuilder("name,datetime,temp,humidity,pressure\r\n");
+        for (int i = 0; i < records; i++) {
+            content.append("Location-").append(i % 5).append(",2024-01-15 10:00:")
+                    .append(String.format("%02d", i % 60)).append(',').append(i).append(".25,45.0,1013.25\r\n");
+        }
+        Path file = tempDir.resolve("input.csv");
+        Files.writeString(file, content.toString(), StandardCharsets.UTF_8);
+        return file;
+    }
+}
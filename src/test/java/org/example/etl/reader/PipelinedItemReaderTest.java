@@ -0,0 +1,136 @@
+package org.example.etl.reader;
+
+import org.example.etl.model.TemperatureData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.file.FlatFileParseException;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PipelinedItemReader.
+ */
+class PipelinedItemReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadsAllRecordsInOrder() throws Exception {
+        // Given: a queue much smaller than the file
+        PipelinedItemReader<TemperatureData> reader = pipelined(write(1000), 8);
+        reader.open(new ExecutionContext());
+
+        // When
+        List<TemperatureData> items = new ArrayList<>();
+        for (TemperatureData item = reader.read(); item != null; item = reader.read()) {
+            items.add(item);
+        }
+        reader.close();
+
+        // Then
+        assertThat(items).hasSize(1000);
+        assertThat(items).extracting(TemperatureData::temp).isSorted();
+        assertThat(reader.read()).isNull();
+    }
+
+    @Test
+    void testRestartResumesAfterLastConsumedItem() throws Exception {
+        // Given: 300 items handed to the step while the producer has read further ahead
+        Path file = write(1000);
+        ExecutionContext executionContext = new ExecutionContext();
+        PipelinedItemReader<TemperatureData> first = pipelined(file, 500);
+        first.open(executionContext);
+        for (int i = 0; i < 300; i++) {
+            first.read();
+        }
+        first.update(executionContext);
+        first.close();
+
+        // When
+        PipelinedItemReader<TemperatureData> second = pipelined(file, 500);
+        second.open(executionContext);
+        TemperatureData next = second.read();
+        second.close();
+
+        // Then
+        assertThat(next.temp()).isEqualTo(300.25);
+    }
+
+    @Test
+    void testParseErrorsAreHandedOverInOrder() throws Exception {
+        // Given
+        Path file = tempDir.resolve("invalid.csv");
+        Files.writeString(file, "name,datetime,temp\n"
+                + "Location-A,2024-01-15 10:00:00,1.0\n"
+                + "Location-A,not a date,2.0\n"
+                + "Location-A,2024-01-15 10:00:02,3.0\n", StandardCharsets.UTF_8);
+        PipelinedItemReader<TemperatureData> reader = pipelined(file, 2);
+        reader.open(new ExecutionContext());
+
+        // Then: the invalid line fails where it is, and reading continues after it
+        assertThat(reader.read().temp()).isEqualTo(1.0);
+        assertThatThrownBy(reader::read).isInstanceOf(FlatFileParseException.class);
+        assertThat(reader.read().temp()).isEqualTo(3.0);
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testErrorsOfTheDelegateAreHandedOverAndEndTheItems() throws Exception {
+        // Given: a delegate that fails with an error after the first item
+        TemperatureData first = new TemperatureData("Location-A", LocalDateTime.of(2024, 1, 15, 10, 0), 1.0);
+        OffsetItemReader<TemperatureData> delegate = mock(OffsetItemReader.class);
+        when(delegate.read()).thenReturn(first).thenThrow(new OutOfMemoryError("simulated"));
+        PipelinedItemReader<TemperatureData> reader =
+                new PipelinedItemReader<>(delegate, 8, Thread.ofVirtual().factory());
+        reader.open(new ExecutionContext());
+
+        // Then: the error reaches the step instead of leaving it waiting for an item that never comes
+        assertThat(reader.read()).isEqualTo(first);
+        assertThatThrownBy(reader::read).isInstanceOf(OutOfMemoryError.class).hasMessage("simulated");
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    void testCloseStopsBlockedProducer() throws Exception {
+        // Given: a producer blocked on a full queue
+        PipelinedItemReader<TemperatureData> reader = pipelined(write(1000), 1);
+        reader.open(new ExecutionContext());
+        reader.read();
+
+        // When / Then: close returns instead of waiting for the rest of the file to be consumed
+        reader.close();
+    }
+
+    private PipelinedItemReader<TemperatureData> pipelined(Path file, int capacity) {
+        return new PipelinedItemReader<>(new MappedTemperatureItemReader("reader", new FileSystemResource(file)),
+                capacity, Thread.ofVirtual().factory());
+    }
+
+    private Path write(int records) throws IOException {
+        StringBuilder content = new StringBuilder("name,datetime,temp\n");
+        for (int i = 0; i < records; i++) {
+            content.append("Location-").append(i % 5).append(",2024-01-15 10:00:")
+                    .append(String.format("%02d", i % 60)).append(',').append(i).append(".25\n");
+        }
+        Path file = tempDir.resolve("input.csv");
+        Files.writeString(file, content.toString(), StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,187 @@
+package org.example.etl.reader;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import org.example.etl.model.TemperatureData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for StreamingTemperatureItemReader.
+ */
+class StreamingTemperatureItemReaderTest {
+
+    private static final int RECORDS = 5000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadsGzipFile() throws Exception {
+        // Given
+        Path file = tempDir.resolve("input.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(content());
+        }
+
+        // When
+        List<TemperatureData> items = readAll(reader(file, 1), new ExecutionContext());
+
+        // Then
+        assertThat(items).hasSize(RECORDS);
+        assertThat(items.get(RECORDS - 1).temp()).isEqualTo(RECORDS - 1 + 0.25);
+    }
+
+    @Test
+    void testReadsMultiMemberGzipFile() throws Exception {
+        // Given: two gzip members written one after the other
+        byte[] content = content();
+        int half = content.length / 2;
+        Path file = tempDir.resolve("input.csv.gz");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(gzip(Arrays.copyOfRange(content, 0, half)));
+            out.write(gzip(Arrays.copyOfRange(content, half, content.length)));
+        }
+
+        // When
+        List<TemperatureData> items = readAll(reader(file, 1), new ExecutionContext());
+
+        // Then
+        assertThat(items).hasSize(RECORDS);
+    }
+
+    @Test
+    void testDecompressesBgzfBlocksInParallel() throws Exception {
+        // Given: a BGZF file whose blocks end inside lines
+        Path file = tempDir.resolve("input.csv.bgz");
+        Files.write(file, bgzf(content(), 1000));
+
+        // When
+        List<TemperatureData> items = readAll(reader(file, 4), new ExecutionContext());
+
+        // Then
+        assertThat(items).hasSize(RECORDS);
+        assertThat(items).extracting(TemperatureData::temp).isSorted();
+    }
+
+    @Test
+    void testReadsZstdFile() throws Exception {
+        // Given
+        Path file = tempDir.resolve("input.csv.zst");
+        try (OutputStream out = new ZstdOutputStream(Files.newOutputStream(file))) {
+            out.write(content());
+        }
+
+        // When
+        List<TemperatureData> items = readAll(reader(file, 1), new ExecutionContext());
+
+        // Then
+        assertThat(items).hasSize(RECORDS);
+    }
+
+    @Test
+    void testRestartResumesAfterLastCommittedOffset() throws Exception {
+        // Given: a first execution that read 1200 records before its state was saved
+        Path file = tempDir.resolve("input.csv.bgz");
+        Files.write(file, bgzf(content(), 4096));
+        ExecutionContext executionContext = new ExecutionContext();
+        StreamingTemperatureItemReader first = reader(file, 4);
+        first.open(executionContext);
+        for (int i = 0; i < 1200; i++) {
+            first.read();
+        }
+        first.update(executionContext);
+        first.close();
+
+        // When
+        List<TemperatureData> items = readAll(reader(file, 4), executionContext);
+
+        // Then
+        assertThat(items).hasSize(RECORDS - 1200);
+        assertThat(items.get(0).temp()).isEqualTo(1200.25);
+    }
+
+    private StreamingTemperatureItemReader reader(Path file, int threads) {
+        return new StreamingTemperatureItemReader("reader", new FileSystemResource(file), threads);
+    }
+
+    private List<TemperatureData> readAll(StreamingTemperatureItemReader reader, ExecutionContext executionContext)
+            throws Exception {
+        List<TemperatureData> items = new ArrayList<>();
+        reader.open(executionContext);
+        for (TemperatureData item = reader.read(); item != null; item = reader.read()) {
+            items.add(item);
+        }
+        reader.close();
+        return items;
+    }
+
+    private static byte[] content() {
+        StringBuilder content = new StringBuilder("name,datetime,temp,humidity,pressure\n");
+        for (int i = 0; i < RECORDS; i++) {
+            content.append("Location-").append(i % 5).append(",2024-01-15 10:00:")
+                    .append(String.format("%02d", i % 60)).append(',').append(i).append(".25,45.0,1013.25\n");
+        }
+        return content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes data as BGZF blocks of at most {@code blockSize} uncompressed bytes, followed by the empty EOF block.
+     */
+    private static byte[] bgzf(byte[] data, int blockSize) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int from = 0; from < data.length; from += blockSize) {
+            writeBlock(out, Arrays.copyOfRange(data, from, Math.min(data.length, from + blockSize)));
+        }
+        writeBlock(out, new byte[0]);
+        return out.toByteArray();
+    }
+
+    private static void writeBlock(ByteArrayOutputStream out, byte[] data) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] compressed = new byte[data.length + 1024];
+        int length = deflater.deflate(compressed);
+        deflater.end();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        int total = 18 + length + 8;
+        out.writeBytes(new byte[]{0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0,
+                'B', 'C', 2, 0, (byte) (total - 1), (byte) ((total - 1) >> 8)});
+        out.write(compressed, 0, length);
+        writeInt(out, crc.getValue());
+        writeInt(out, data.length);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, long value) {
+        for (int i = 0; i < 4; i++) {
+            out.write((int) (value >> (8 * i)) & 0xff);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.etl.reader;
+
+import org.example.etl.model.TemperatureColumns;
+import org.example.etl.model.TemperatureData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for TemperatureRecordParser.
+ */
+class TemperatureRecordParserTest {
+
+    private TemperatureRecordParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new TemperatureRecordParser();
+    }
+
+    @Test
+    void testParsesFirstThreeColumns() {
+        // When
+        TemperatureData data = parse("Location-A,2024-01-15 10:00:00,22.5,45.0,1013.25");
+
+        // Then
+        assertThat(data).isEqualTo(new TemperatureData("Location-A", LocalDateTime.of(2024, 1, 15, 10, 0, 0), 22.5));
+    }
+
+    @Test
+    void testTrimsWhitespaceAroundFields() {
+        // When
+        TemperatureData data = parse(" Location-B , 2024-01-15 11:30:15 ,-18.30");
+
+        // Then
+        assertThat(data).isEqualTo(new TemperatureData("Location-B", LocalDateTime.of(2024, 1, 15, 11, 30, 15), -18.3));
+    }
+
+    @Test
+    void testDecimalParsingMatchesJdk() {
+        for (String temp : new String[]{"0.1", "22.5", "-0.0", "1013.25", "123456789.123456", "1e3", "7"}) {
+            assertThat(parse("A,2024-01-15 10:00:00," + temp).temp()).isEqualTo(Double.parseDouble(temp));
+        }
+    }
+
+    @Test
+    void testReusesCachedStationName() {
+        // When
+        TemperatureData first = parse("Location-A,2024-01-15 10:00:00,22.5");
+        TemperatureData second = parse("Location-A,2024-01-15 11:00:00,23.1");
+
+        // Then
+        assertThat(second.name()).isSameAs(first.name());
+    }
+
+    @Test
+    void testFallsBackToTokenizerForQuotedFields() {
+        // When
+        TemperatureData data = parse("\"Location, North\",2024-01-15 10:00:00,22.5");
+
+        // Then
+        assertThat(data.name()).isEqualTo("Location, North");
+        assertThat(data.temp()).isEqualTo(22.5);
+    }
+
+    @Test
+    void testRejectsInvalidDatetime() {
+        assertThatThrownBy(() -> parse("Location-A,2024-13-15 10:00:00,22.5"))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void testRejectsMissingColumns() {
+        assertThatThrownBy(() -> parse("Location-A,2024-01-15 10:00:00"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testParsesIntoColumnsLikeRecords() {
+        // Given
+        TemperatureColumns columns = new TemperatureColumns(4);
+        String[] lines = {
+                "Location-A,2024-02-29 23:59:59,22.5",
+                " Location-B , 1969-12-31 00:00:01 ,-18.30",
+                "\"Location, North\",2024-01-15 10:00:00,1e1",
+                "Location-A,2000-03-01 00:00:00,0"
+        };
+
+        // When
+        for (String line : lines) {
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            parser.parseInto(ByteBuffer.wrap(bytes), 0, bytes.length, columns);
+        }
+
+        // Then
+        assertThat(columns.size()).isEqualTo(4);
+        for (int i = 0; i < lines.length; i++) {
+            assertThat(columns.get(i)).isEqualTo(parse(lines[i]));
+        }
+    }
+
+    @Test
+    void testParseIntoRejectsInvalidDate() {
+        byte[] bytes = "Location-A,2023-02-29 10:00:00,22.5".getBytes(StandardCharsets.UTF_8);
+        TemperatureColumns columns = new TemperatureColumns(1);
+
+        assertThatThrownBy(() -> parser.parseInto(ByteBuffer.wrap(bytes), 0, bytes.length, columns))
+                .isInstanceOf(RuntimeException.class);
+        assertThat(columns.isEmpty()).isTrue();
+    }
+
+    private TemperatureData parse(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return parser.parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.etl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.job.parameters.JobParametersBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepExecution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for StepBoundaryJobRepositoryPostProcessor.
+ */
+class StepBoundaryJobRepositoryPostProcessorTest {
+
+    private JobRepository target;
+    private StepExecution stepExecution;
+    private JobExecution jobExecution;
+
+    @BeforeEach
+    void setUp() {
+        target = mock(JobRepository.class);
+        stepExecution = mock(StepExecution.class);
+        jobExecution = mock(JobExecution.class);
+        when(stepExecution.getJobExecution()).thenReturn(jobExecution);
+    }
+
+    @Test
+    void testLeavesOtherBeansUnchanged() {
+        // Given
+        Object bean = new Object();
+
+        // When
+        Object result = new StepBoundaryJobRepositoryPostProcessor(true).postProcessAfterInitialization(bean, "bean");
+
+        // Then
+        assertThat(result).isSameAs(bean);
+    }
+
+    @Test
+    void testSkipsUpdatesOfRunningStepsOfNonRestartableRuns() {
+        // Given
+        givenRun(BatchStatus.STARTED, parameters("false"));
+
+        // When
+        JobRepository repository = wrap(true);
+        repository.update(stepExecution);
+        repository.updateExecutionContext(stepExecution);
+
+        // Then
+        verify(target, never()).update(stepExecution);
+        verify(target, never()).updateExecutionContext(stepExecution);
+    }
+
+    @Test
+    void testWritesTheFinalUpdateOfNonRestartableRuns() {
+        // Given
+        givenRun(BatchStatus.COMPLETED, parameters("false"));
+
+        // When
+        JobRepository repository = wrap(true);
+        repository.updateExecutionContext(stepExecution);
+        repository.update(stepExecution);
+
+        // Then
+        verify(target).updateExecutionContext(stepExecution);
+        verify(target).update(stepExecution);
+    }
+
+    @Test
+    void testWritesEveryUpdateOfRestartableRuns() {
+        // Given
+        givenRun(BatchStatus.STARTED, parameters("true"));
+
+        // When
+        wrap(false).update(stepExecution);
+
+        // Then
+        verify(target).update(stepExecution);
+    }
+
+    @Test
+    void testAppliesTheDefaultWithoutJobParameter() {
+        // Given
+        givenRun(BatchStatus.STARTED, new JobParameters());
+
+        // When
+        wrap(false).update(stepExecution);
+
+        // Then
+        verify(target, never()).update(stepExecution);
+    }
+
+    private void givenRun(BatchStatus status, JobParameters parameters) {
+        when(stepExecution.getStatus()).thenReturn(status);
+        when(jobExecution.getJobParameters()).thenReturn(parameters);
+    }
+
+    private JobRepository wrap(boolean restartableByDefault) {
+        return (JobRepository) new StepBoundaryJobRepositoryPostProcessor(restartableByDefault)
+                .postProcessAfterInitialization(target, "jobRepository");
+    }
+
+    private static JobParameters parameters(String restartable) {
+        return new JobParametersBuilder()
+                .addString(StepBoundaryFlushInterceptor.RESTARTABLE_KEY, restartable)
+                .toJobParameters();
+    }
+}
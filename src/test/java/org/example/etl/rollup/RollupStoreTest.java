@@ -0,0 +1,117 @@
+package org.example.etl.rollup;
+
+import org.example.etl.model.TemperatureData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for RollupStore and RollupItemWriter.
+ */
+class RollupStoreTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 15, 10, 0, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private RollupStore rollupStore;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        rollupStore = new RollupStore(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpsertsOneRowPerStationAndBucket() {
+        // When
+        rollupStore.add(List.of(
+                new TemperatureData("Location-A", T0, 22.5),
+                new TemperatureData("Location-A", T0.plusMinutes(30), 20.5),
+                new TemperatureData("Location-B", T0, 18.3)));
+
+        // Then
+        ArgumentCaptor<List<Object[]>> hourly = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(RollupStore.MERGE_HOURLY_SQL), hourly.capture());
+        assertThat(hourly.getValue()).containsExactly(
+                new Object[]{"Location-A", Timestamp.valueOf(T0), 20.5, 22.5, 43.0, 2L},
+                new Object[]{"Location-B", Timestamp.valueOf(T0), 18.3, 18.3, 18.3, 1L});
+        ArgumentCaptor<List<Object[]>> daily = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(RollupStore.MERGE_DAILY_SQL), daily.capture());
+        assertThat(daily.getValue()).extracting(row -> row[1])
+                .containsOnly(Date.valueOf(T0.toLocalDate()));
+    }
+
+    @Test
+    void testSkipsEmptyChunks() {
+        // When
+        rollupStore.add(List.of());
+
+        // Then
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void testRecomputesBucketsOfStagedRows() {
+        // When
+        rollupStore.recomputeFromStaging(7);
+
+        // Then
+        verify(jdbcTemplate).update(RollupStore.RECOMPUTE_HOURLY_FROM_STAGING_SQL, 7L);
+        verify(jdbcTemplate).update(RollupStore.RECOMPUTE_DAILY_FROM_STAGING_SQL, 7L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecomputesBucketsOfUpdatedRows() {
+        // Given
+        TemperatureRollup updated = new TemperatureRollup();
+        updated.add(new TemperatureData("Location-A", T0.plusMinutes(10), 22.6));
+
+        // When
+        rollupStore.recompute(updated);
+
+        // Then
+        ArgumentCaptor<List<Object[]>> hourly = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(RollupStore.RECOMPUTE_HOURLY_SQL), hourly.capture());
+        Timestamp hour = Timestamp.valueOf(T0.withMinute(0));
+        assertThat(hourly.getValue()).containsExactly(new Object[]{hour, "Location-A", hour, hour});
+        ArgumentCaptor<List<Object[]>> daily = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(RollupStore.RECOMPUTE_DAILY_SQL), daily.capture());
+        Date day = Date.valueOf(T0.toLocalDate());
+        assertThat(daily.getValue()).containsExactly(new Object[]{day, "Location-A", day, day});
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWriterAddsNothingWhenDelegateFails() throws Exception {
+        // Given: a chunk with a duplicate fails in the delegate
+        ItemWriter<TemperatureData> delegate = mock(ItemWriter.class);
+        doThrow(new IllegalStateException("duplicate")).when(delegate).write(any());
+        RollupItemWriter writer = new RollupItemWriter(delegate, rollupStore);
+
+        // When / Then
+        assertThatThrownBy(() -> writer.write(Chunk.of(new TemperatureData("Location-A", T0, 22.5))))
+                .isInstanceOf(IllegalStateException.class);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
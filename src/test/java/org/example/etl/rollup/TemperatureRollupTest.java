@@ -0,0 +1,64 @@
+package org.example.etl.rollup;
+
+import org.example.etl.model.TemperatureData;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TemperatureRollup.
+ */
+class TemperatureRollupTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 15, 10, 0, 0);
+
+    @Test
+    void testAggregatesPerStationAndHour() {
+        // Given
+        TemperatureRollup rollup = new TemperatureRollup();
+
+        // When
+        rollup.add(new TemperatureData("Location-A", T0.plusMinutes(10), 22.5));
+        rollup.add(new TemperatureData("Location-A", T0.plusMinutes(50), 20.5));
+        rollup.add(new TemperatureData("Location-A", T0.plusHours(1), 19.0));
+        rollup.add(new TemperatureData("Location-B", T0, 18.3));
+
+        // Then: ordered by station and hour
+        assertThat(rollup.hourly()).extracting(entry -> entry.getKey())
+                .containsExactly(new TemperatureRollup.Key<>("Location-A", T0),
+                        new TemperatureRollup.Key<>("Location-A", T0.plusHours(1)),
+                        new TemperatureRollup.Key<>("Location-B", T0));
+        TemperatureRollup.Aggregate first = rollup.hourly().get(0).getValue();
+        assertThat(first.min()).isEqualTo(20.5);
+        assertThat(first.max()).isEqualTo(22.5);
+        assertThat(first.sum()).isEqualTo(43.0);
+        assertThat(first.count()).isEqualTo(2);
+    }
+
+    @Test
+    void testAggregatesPerStationAndDay() {
+        // Given
+        TemperatureRollup rollup = new TemperatureRollup();
+
+        // When
+        rollup.add(new TemperatureData("Location-A", T0, 22.5));
+        rollup.add(new TemperatureData("Location-A", T0.plusHours(13), -1.5));
+        rollup.add(new TemperatureData("Location-A", T0.plusHours(14), 3.0));
+
+        // Then: 23:00 and the next day's 00:00 fall into different days
+        assertThat(rollup.daily()).hasSize(2);
+        assertThat(rollup.daily().get(0).getKey()).isEqualTo(
+                new TemperatureRollup.Key<>("Location-A", LocalDate.of(2024, 1, 15)));
+        assertThat(rollup.daily().get(0).getValue().count()).isEqualTo(2);
+        assertThat(rollup.daily().get(0).getValue().min()).isEqualTo(-1.5);
+        assertThat(rollup.daily().get(1).getValue().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testIsEmptyWithoutRows() {
+        assertThat(new TemperatureRollup().isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.etl.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for ShardRouter.
+ */
+class ShardRouterTest {
+
+    @Test
+    void testRoutesEveryStationToOneShard() throws Exception {
+        // Given
+        try (ShardRouter router = ShardRouter.of(List.of(mock(DataSource.class), mock(DataSource.class)))) {
+            // When
+            int shard = router.shardOf("Location-A");
+
+            // Then
+            assertThat(router.isEnabled()).isTrue();
+            assertThat(router.shards()).extracting(ShardRouter.Shard::name).containsExactly("shard-0", "shard-1");
+            assertThat(shard).isBetween(0, 1);
+            assertThat(router.shardOf("Location-A")).isEqualTo(shard);
+        }
+    }
+
+    @Test
+    void testSpreadsSimilarNamesEvenly() throws Exception {
+        // Given
+        try (ShardRouter router = ShardRouter.of(Collections.nCopies(4, mock(DataSource.class)))) {
+            int[] stations = new int[4];
+
+            // When
+            for (int i = 0; i < 4000; i++) {
+                stations[router.shardOf("Location-" + i)]++;
+            }
+
+            // Then
+            assertThat(stations).allSatisfy(count -> assertThat(count).isBetween(800, 1200));
+        }
+    }
+
+    @Test
+    void testIsDisabledWithoutShards() throws Exception {
+        // Given
+        try (ShardRouter router = ShardRouter.of(List.of())) {
+            // Then
+            assertThat(router.isEnabled()).isFalse();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.etl.sort;
+
+import org.example.etl.model.TemperatureData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.infrastructure.item.support.ListItemReader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ExternalTemperatureSorter.
+ */
+class ExternalTemperatureSorterTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 15, 10, 0);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSortsByNameAndDatetimeInMemory() throws Exception {
+        // Given
+        List<TemperatureData> input = List.of(
+                new TemperatureData("Location-B", TIME, 18.3),
+                new TemperatureData("Location-A", TIME.plusHours(1), 22.7),
+                new TemperatureData("Location-A", TIME, 22.5));
+        Path output = tempDir.resolve("sorted.csv");
+
+        // When
+        ExternalTemperatureSorter.Result result = new ExternalTemperatureSorter(tempDir, Long.MAX_VALUE, false)
+                .sort(new ListItemReader<>(input), output, item -> { });
+
+        // Then
+        assertThat(Files.readAllLines(output)).containsExactly(
+                "name,datetime,temp",
+                "Location-A,2024-01-15 10:00:00,22.5",
+                "Location-A,2024-01-15 11:00:00,22.7",
+                "Location-B,2024-01-15 10:00:00,18.3");
+        assertThat(result).isEqualTo(new ExternalTemperatureSorter.Result(3, 3, 0, 0));
+    }
+
+    @Test
+    void testMergesSpilledRunsAndDeletesThem() throws Exception {
+        // Given: every record is spilled to a run of its own, merged two at a time
+        List<TemperatureData> input = new ArrayList<>();
+        for (int i = 9; i >= 0; i--) {
+            input.add(new TemperatureData("Location-" + (i % 3), TIME.plusHours(i), i));
+        }
+        Path output = tempDir.resolve("sorted.csv");
+
+        // When
+        ExternalTemperatureSorter.Result result = new ExternalTemperatureSorter(tempDir, 1, 2, false)
+                .sort(new ListItemReader<>(input), output, item -> { });
+
+        // Then
+        List<String> lines = Files.readAllLines(output);
+        assertThat(lines).hasSize(11);
+        assertThat(lines.subList(1, 5)).containsExactly(
+                "Location-0,2024-01-15 10:00:00,0.0",
+                "Location-0,2024-01-15 13:00:00,3.0",
+                "Location-0,2024-01-15 16:00:00,6.0",
+                "Location-0,2024-01-15 19:00:00,9.0");
+        assertThat(result.runs()).isEqualTo(10);
+        try (var files = Files.list(tempDir)) {
+            assertThat(files).containsExactly(output);
+        }
+    }
+
+    @Test
+    void testKeepsTheFirstRecordOfADuplicateKey() throws Exception {
+        // Given
+        List<TemperatureData> duplicates = new ArrayList<>();
+        Path output = tempDir.resolve("sorted.csv");
+
+        // When
+        ExternalTemperatureSorter.Result result = new ExternalTemperatureSorter(tempDir, 1, 2, false)
+                .sort(new ListItemReader<>(duplicateInput()), output, duplicates::add);
+
+        // Then
+        assertThat(Files.readAllLines(output)).containsExactly(
+                "name,datetime,temp",
+                "Location-A,2024-01-15 10:00:00,22.5",
+                "Location-B,2024-01-15 10:00:00,18.3",
+                "Location-C,2024-01-15 10:00:00,15.8");
+        assertThat(duplicates).extracting(TemperatureData::temp).containsExactly(22.6, 22.7, 18.4);
+        assertThat(result).isEqualTo(new ExternalTemperatureSorter.Result(6, 3, 3, 6));
+    }
+
+    @Test
+    void testKeepsTheLastRecordOfADuplicateKeyForUpdates() throws Exception {
+        // Given
+        Path output = tempDir.resolve("sorted.csv");
+
+        // When
+        new ExternalTemperatureSorter(tempDir, 1, 2, true)
+                .sort(new ListItemReader<>(duplicateInput()), output, item -> { });
+
+        // Then
+        assertThat(Files.readAllLines(output)).containsExactly(
+                "name,datetime,temp",
+                "Location-A,2024-01-15 10:00:00,22.7",
+                "Location-B,2024-01-15 10:00:00,18.4",
+                "Location-C,2024-01-15 10:00:00,15.8");
+    }
+
+    @Test
+    void testWritesOnlyTheHeaderForAnEmptyInput() throws Exception {
+        // Given
+        Path output = tempDir.resolve("sorted.csv");
+
+        // When
+        ExternalTemperatureSorter.Result result = new ExternalTemperatureSorter(tempDir, 1024, false)
+                .sort(new ListItemReader<>(List.of()), output, item -> { });
+
+        // Then
+        assertThat(Files.readAllLines(output)).containsExactly("name,datetime,temp");
+        assertThat(result).isEqualTo(new ExternalTemperatureSorter.Result(0, 0, 0, 0));
+    }
+
+    private static List<TemperatureData> duplicateInput() {
+        return List.of(
+                new TemperatureData("Location-A", TIME, 22.5),
+                new TemperatureData("Location-B", TIME, 18.3),
+                new TemperatureData("Location-A", TIME, 22.6),
+                new TemperatureData("Location-B", TIME, 18.4),
+                new TemperatureData("Location-C", TIME, 15.8),
+                new TemperatureData("Location-A", TIME, 22.7));
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.etl.station;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for StationCache.
+ */
+class StationCacheTest {
+
+    // ids the database assigns to the stations once they are inserted
+    private static final Map<String, Integer> IDS = Map.of("Location-A", 1, "Location-B", 2, "Location-C", 3);
+
+    private JdbcTemplate jdbcTemplate;
+    private Set<String> stations;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        stations = new HashSet<>();
+        doAnswer(invocation -> {
+            stations.addAll(invocation.getArgument(1, Collection.class));
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(eq(StationCache.INSERT_SQL), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            Object[] arguments = invocation.getArguments();
+            for (int i = 2; i < arguments.length; i++) {
+                Object name = arguments[i];
+                if (stations.contains(name)) {
+                    ResultSet resultSet = mock(ResultSet.class);
+                    when(resultSet.getString("name")).thenReturn((String) name);
+                    when(resultSet.getInt("id")).thenReturn(IDS.get(name));
+                    handler.processRow(resultSet);
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreatesMissingStationsInOneBatch() {
+        // Given
+        StationCache cache = new StationCache(jdbcTemplate, 100);
+
+        // When
+        cache.resolveAll(List.of("Location-A", "Location-B", "Location-A"));
+
+        // Then: one insert batch of the distinct names
+        verify(jdbcTemplate).batchUpdate(eq(StationCache.INSERT_SQL), eq(List.of("Location-A", "Location-B")),
+                eq(2), any(ParameterizedPreparedStatementSetter.class));
+        assertThat(cache.id("Location-A")).isEqualTo(1);
+        assertThat(cache.id("Location-B")).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInsertsOnlyTheStationsThatDoNotExist() {
+        // Given: a station created by an earlier run
+        stations.add("Location-A");
+        StationCache cache = new StationCache(jdbcTemplate, 100);
+
+        // When
+        Map<String, Integer> ids = cache.resolveAll(List.of("Location-A", "Location-B"));
+
+        // Then: the existing station is selected, and only the other one is inserted
+        assertThat(ids).containsExactlyInAnyOrderEntriesOf(Map.of("Location-A", 1, "Location-B", 2));
+        verify(jdbcTemplate).batchUpdate(eq(StationCache.INSERT_SQL), eq(List.of("Location-B")), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExistingStationsNeedNoInsert() {
+        // Given
+        stations.addAll(List.of("Location-A", "Location-B"));
+        StationCache cache = new StationCache(jdbcTemplate, 100);
+
+        // When
+        Map<String, Integer> ids = cache.resolveAll(List.of("Location-A", "Location-B"));
+
+        // Then
+        assertThat(ids).containsExactlyInAnyOrderEntriesOf(Map.of("Location-A", 1, "Location-B", 2));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(List.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testKnownStationsNeedNoQuery() {
+        // Given
+        StationCache cache = new StationCache(jdbcTemplate, 100);
+        cache.resolveAll(List.of("Location-A"));
+
+        // When
+        cache.resolveAll(List.of("Location-A"));
+        int id = cache.id("Location-A");
+
+        // Then
+        assertThat(id).isEqualTo(1);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), any(List.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void testCachesStationsOnlyAfterTheChunkCommitted() {
+        // Given: a chunk transaction with synchronization
+        StationCache cache = new StationCache(jdbcTemplate, 100);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            Map<String, Integer> ids = cache.resolveAll(List.of("Location-A", "Location-B"));
+
+            // Then: the chunk gets the ids, the cache only after the commit
+            assertThat(ids).containsExactlyInAnyOrderEntriesOf(Map.of("Location-A", 1, "Location-B", 2));
+            assertThat(cache.size()).isZero();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(cache.size()).isEqualTo(2);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testClearsWhenFull() {
+        // Given
+        StationCache cache = new StationCache(jdbcTemplate, 2);
+        cache.resolveAll(List.of("Location-A", "Location-B"));
+
+        // When
+        cache.resolveAll(List.of("Location-C"));
+
+        // Then
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.id("Location-C")).isEqualTo(3);
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Integer.class), any(Object[].class));
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.etl.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for PartitionGranularity.
+ */
+class PartitionGranularityTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+
+    @Test
+    void testMonthlyPeriods() {
+        // When
+        LocalDateTime start = PartitionGranularity.MONTHLY.periodStart(T0);
+
+        // Then
+        assertThat(start).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertThat(PartitionGranularity.MONTHLY.next(start)).isEqualTo(LocalDateTime.of(2024, 2, 1, 0, 0));
+        assertThat(PartitionGranularity.MONTHLY.previous(start)).isEqualTo(LocalDateTime.of(2023, 12, 1, 0, 0));
+        assertThat(PartitionGranularity.MONTHLY.partitionName(start)).isEqualTo("p202401");
+        assertThat(PartitionGranularity.MONTHLY.key(LocalDateTime.of(2023, 12, 31, 23, 59)) + 1)
+                .isEqualTo(PartitionGranularity.MONTHLY.key(T0));
+    }
+
+    @Test
+    void testDailyPeriods() {
+        // When
+        LocalDateTime start = PartitionGranularity.DAILY.periodStart(T0);
+
+        // Then
+        assertThat(start).isEqualTo(LocalDateTime.of(2024, 1, 15, 0, 0));
+        assertThat(PartitionGranularity.DAILY.next(start)).isEqualTo(LocalDateTime.of(2024, 1, 16, 0, 0));
+        assertThat(PartitionGranularity.DAILY.partitionName(start)).isEqualTo("p20240115");
+        assertThat(PartitionGranularity.DAILY.key(T0)).isEqualTo(PartitionGranularity.DAILY.key(start));
+    }
+
+    @Test
+    void testParsesOnlyNamesOfItsGranularity() {
+        // Then
+        assertThat(PartitionGranularity.MONTHLY.periodStart("p202401")).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertThat(PartitionGranularity.DAILY.periodStart("p20240115"))
+                .isEqualTo(LocalDateTime.of(2024, 1, 15, 0, 0));
+        assertThat(PartitionGranularity.MONTHLY.periodStart("p20240115")).isNull();
+        assertThat(PartitionGranularity.DAILY.periodStart("p202401")).isNull();
+        assertThat(PartitionGranularity.MONTHLY.periodStart("p_max")).isNull();
+        assertThat(PartitionGranularity.MONTHLY.periodStart("p202413")).isNull();
+    }
+
+    @Test
+    void testOfPropertyValue() {
+        // Then
+        assertThat(PartitionGranularity.of("daily")).isEqualTo(PartitionGranularity.DAILY);
+        assertThat(PartitionGranularity.of(" Monthly ")).isEqualTo(PartitionGranularity.MONTHLY);
+        assertThatThrownBy(() -> PartitionGranularity.of("weekly")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.etl.storage;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SchemaInitializer.
+ */
+class SchemaInitializerTest {
+
+    private static final ByteArrayResource BATCH_SCHEMA = new ByteArrayResource("""
+            CREATE TABLE BATCH_JOB_INSTANCE (
+                JOB_INSTANCE_ID BIGINT NOT NULL PRIMARY KEY
+            ) ENGINE=InnoDB;
+            CREATE TABLE BATCH_JOB_SEQ (ID BIGINT NOT NULL) ENGINE=InnoDB;
+            """.getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void testReadsTheTablesAndViewsOfTheApplicationSchema() {
+        // When
+        List<String> tables = SchemaInitializer.tableNames(new ClassPathResource("schema.sql"));
+
+        // Then
+        assertThat(tables).contains("temperature_data", "import_file_offset", "station", "temperature_reading",
+                "temperature_reading_named");
+    }
+
+    @Test
+    void testReadsUpperCaseTableNamesInLowerCase() {
+        // When
+        List<String> tables = SchemaInitializer.tableNames(BATCH_SCHEMA);
+
+        // Then
+        assertThat(tables).containsExactly("batch_job_instance", "batch_job_seq");
+    }
+
+    @Test
+    void testSkipsTheScriptsWhenAllTablesExist() {
+        // Given
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        List<String> existing = new ArrayList<>(List.of("batch_job_instance", "batch_job_seq"));
+        existing.addAll(SchemaInitializer.tableNames(new ClassPathResource("schema.sql")));
+        when(jdbcTemplate.queryForList(SchemaInitializer.TABLES_SQL, String.class)).thenReturn(existing);
+
+        // When
+        boolean created = new SchemaInitializer(jdbcTemplate, BATCH_SCHEMA, new ClassPathResource("schema.sql"))
+                .initialize();
+
+        // Then
+        assertThat(created).isFalse();
+        verify(jdbcTemplate, never()).getDataSource();
+    }
+}
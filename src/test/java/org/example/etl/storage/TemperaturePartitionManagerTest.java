@@ -0,0 +1,139 @@
+package org.example.etl.storage;
+
+import org.example.etl.storage.TemperaturePartitionManager.PartitionInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for TemperaturePartitionManager.
+ */
+class TemperaturePartitionManagerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 10, 12, 0, 0);
+    private static final PartitionInfo MAX = new PartitionInfo("p_max", "MAXVALUE");
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+    }
+
+    @Test
+    void testDoesNothingWhenDisabled() {
+        // Given
+        TemperaturePartitionManager manager = new TemperaturePartitionManager(jdbcTemplate, false, "monthly", 3, "");
+
+        // When
+        manager.maintain(NOW);
+
+        // Then
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testPartitionsUnpartitionedTableFromOldestRow() {
+        // Given: rows since January, one month ahead
+        TemperaturePartitionManager manager = new TemperaturePartitionManager(jdbcTemplate, true, "monthly", 1, "");
+        givenPartitions(new PartitionInfo(null, null));
+        when(jdbcTemplate.queryForObject(TemperaturePartitionManager.MIN_DATETIME_SQL, Timestamp.class))
+                .thenReturn(Timestamp.valueOf(LocalDateTime.of(2024, 1, 20, 8, 0)));
+
+        // When
+        manager.maintain(NOW);
+
+        // Then
+        verify(jdbcTemplate).execute(TemperaturePartitionManager.PRIMARY_KEY_SQL);
+        verify(jdbcTemplate).execute(TemperaturePartitionManager.PARTITION_BY_SQL.formatted(
+                "PARTITION p_old VALUES LESS THAN (UNIX_TIMESTAMP('2024-01-01 00:00:00')), "
+                        + "PARTITION p202401 VALUES LESS THAN (UNIX_TIMESTAMP('2024-02-01 00:00:00')), "
+                        + "PARTITION p202402 VALUES LESS THAN (UNIX_TIMESTAMP('2024-03-01 00:00:00')), "
+                        + "PARTITION p202403 VALUES LESS THAN (UNIX_TIMESTAMP('2024-04-01 00:00:00')), "
+                        + "PARTITION p202404 VALUES LESS THAN (UNIX_TIMESTAMP('2024-05-01 00:00:00')), "
+                        + "PARTITION p_max VALUES LESS THAN MAXVALUE"));
+    }
+
+    @Test
+    void testSplitsUpcomingPartitionsOffMaxPartition() {
+        // Given
+        TemperaturePartitionManager manager = new TemperaturePartitionManager(jdbcTemplate, true, "daily", 2, "");
+        givenPartitions(new PartitionInfo("p20240310", "1710115200"), MAX);
+
+        // When
+        manager.maintain(NOW);
+
+        // Then
+        verify(jdbcTemplate).execute(TemperaturePartitionManager.REORGANIZE_SQL.formatted(
+                "PARTITION p20240311 VALUES LESS THAN (UNIX_TIMESTAMP('2024-03-12 00:00:00')), "
+                        + "PARTITION p20240312 VALUES LESS THAN (UNIX_TIMESTAMP('2024-03-13 00:00:00')), "
+                        + "PARTITION p_max VALUES LESS THAN MAXVALUE"));
+    }
+
+    @Test
+    void testLeavesUpToDatePartitionsAlone() {
+        // Given
+        TemperaturePartitionManager manager = new TemperaturePartitionManager(jdbcTemplate, true, "monthly", 1, "");
+        givenPartitions(new PartitionInfo("p202403", "1711929600"), new PartitionInfo("p202404", "1714521600"), MAX);
+
+        // When
+        manager.maintain(NOW);
+
+        // Then
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void testDropsPartitionsBeforeRetention() {
+        // Given: one month of retention keeps February and later
+        TemperaturePartitionManager manager = new TemperaturePartitionManager(jdbcTemplate, true, "monthly", 0, "P1M");
+        givenPartitions(
+                new PartitionInfo("p_old", "1701388800"),
+                new PartitionInfo("p202312", "1704067200"),
+                new PartitionInfo("p202401", "1706745600"),
+                new PartitionInfo("p202402", "1709251200"),
+                new PartitionInfo("p202403", "1711929600"),
+                MAX);
+        when(jdbcTemplate.queryForObject(TemperaturePartitionManager.UNIX_TIMESTAMP_SQL, Long.class,
+                Timestamp.valueOf(LocalDateTime.of(2024, 2, 1, 0, 0)))).thenReturn(1706745600L);
+
+        // When
+        manager.maintain(NOW);
+
+        // Then
+        verify(jdbcTemplate).execute(TemperaturePartitionManager.DROP_SQL.formatted("p_old, p202312, p202401"));
+    }
+
+    @Test
+    void testRejectsPartitionsOfAnotherGranularity() {
+        // Given
+        TemperaturePartitionManager manager = new TemperaturePartitionManager(jdbcTemplate, true, "daily", 1, "");
+        givenPartitions(new PartitionInfo("p202403", "1711929600"), MAX);
+
+        // Then
+        assertThatThrownBy(() -> manager.maintain(NOW))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("p202403");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenPartitions(PartitionInfo... partitions) {
+        when(jdbcTemplate.query(eq(TemperaturePartitionManager.PARTITIONS_SQL), any(RowMapper.class)))
+                .thenReturn(List.of(partitions));
+    }
+}
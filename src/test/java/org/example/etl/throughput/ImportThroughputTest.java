@@ -0,0 +1,198 @@
+package org.example.etl.throughput;
+
+import org.example.etl.TestcontainersConfiguration;
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.job.parameters.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * End-to-end throughput harness for the temperature import job on generated production-size files.
+ * <p>
+ * For every write mode, the harness imports one window of generated data to warm up and to provide the keys of the
+ * cross-run duplicates, then measures the import of the following window: rows per second, peak heap and GC time.
+ * The results are written to {@code target/throughput-results.properties}, and the test fails if the throughput
+ * falls more than the configured tolerance below {@code throughput-baseline.properties}. Write modes without a
+ * baseline, like {@code insert}, are reported as skipped rather than passed.
+ * <p>
+ * Tagged {@code throughput} and excluded from the default build; run with {@code ./mvnw -Pthroughput test}. The
+ * data set and the write modes are configured with the {@code throughput.*} system properties. The {@code insert}
+ * mode is not measured by default: every chunk with a duplicate is rolled back and rewritten item by item, and the
+ * duplicates of a large file exceed the skip limit.
+ */
+@Tag("throughput")
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+class ImportThroughputTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportThroughputTest.class);
+
+    private static final Path RESULTS_FILE = Path.of("target", "throughput-results.properties");
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    private Job temperatureImportJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DuplicateSkipListener duplicateSkipListener;
+
+    @Autowired
+    private ImportCounters importCounters;
+
+    @TempDir
+    private Path inputDir;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE temperature_data");
+        jdbcTemplate.execute("TRUNCATE TABLE temperature_data_staging");
+        duplicateSkipListener.reset();
+        importCounters.reset();
+    }
+
+    @ParameterizedTest
+    @MethodSource("writeModes")
+    void testImportThroughput(String writeMode) throws Exception {
+        // Given: a warm-up window that is imported first and the measured window that follows it
+        TemperatureDataGenerator.Spec warmUp = spec();
+        TemperatureDataGenerator.Spec measured = warmUp.next();
+        Path warmUpFile = inputDir.resolve("warm-up.csv");
+        Path measuredFile = inputDir.resolve("measured.csv");
+        TemperatureDataGenerator.write(warmUp, warmUpFile);
+        TemperatureDataGenerator.Summary summary = TemperatureDataGenerator.write(measured, measuredFile);
+        assertThat(run(warmUpFile, writeMode).getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        long rowsBefore = countRows();
+
+        // When: the measured window is imported
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long gcTimeBefore = gcTime();
+        JobExecution execution = run(measuredFile, writeMode);
+        long gcMillis = gcTime() - gcTimeBefore;
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+        // Then: the job completes and imports every new key of the window
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        long inserted = countRows() - rowsBefore;
+        assertThat(inserted).isBetween(summary.newKeys(), summary.newKeys() + summary.crossRunDuplicates());
+
+        // And: the throughput does not regress below the baseline
+        long readCount = execution.getStepExecutions().stream().mapToLong(StepExecution::getReadCount).sum();
+        Duration elapsed = Duration.between(execution.getStartTime(), execution.getEndTime());
+        double rowsPerSecond = readCount * 1000.0 / Math.max(1, elapsed.toMillis());
+        logger.info("Write mode {}: {} rows in {} ms = {} rows/s, peak heap {} MB, GC {} ms", writeMode,
+                readCount, elapsed.toMillis(), Math.round(rowsPerSecond), peakHeap >> 20, gcMillis);
+        recordResult(writeMode, rowsPerSecond, peakHeap, gcMillis);
+
+        Properties baseline = load(new ClassPathResource("throughput-baseline.properties").getInputStream());
+        String minimum = baseline.getProperty(writeMode + ".rows-per-second");
+        assumeTrue(minimum != null, () -> "No measured baseline for write mode " + writeMode);
+        double tolerance = Double.parseDouble(baseline.getProperty("tolerance", "0"));
+        assertThat(rowsPerSecond)
+                .as("rows/s of write mode %s against baseline %s", writeMode, minimum)
+                .isGreaterThanOrEqualTo(Double.parseDouble(minimum) * (1 - tolerance));
+    }
+
+    static Stream<String> writeModes() {
+        return Arrays.stream(System.getProperty("throughput.write-modes", "ignore,update,bulk").split(","))
+                .map(String::strip);
+    }
+
+    private static TemperatureDataGenerator.Spec spec() {
+        return new TemperatureDataGenerator.Spec(
+                Integer.getInteger("throughput.stations", 500),
+                LocalDateTime.of(2024, 1, 1, 0, 0),
+                Duration.ofDays(Integer.getInteger("throughput.days", 30)),
+                Duration.parse(System.getProperty("throughput.interval", "PT1H")),
+                Integer.getInteger("throughput.extra-columns", 2),
+                Double.parseDouble(System.getProperty("throughput.duplicate-ratio", "0.01")),
+                Double.parseDouble(System.getProperty("throughput.cross-run-duplicate-ratio", "0.05")),
+                42);
+    }
+
+    private JobExecution run(Path file, String writeMode) throws Exception {
+        JobParameters params = new JobParametersBuilder()
+                .addString("inputFile", file.toUri().toString())
+                .addString("writeMode", writeMode)
+                .addLong("timestamp", System.nanoTime())
+                .toJobParameters();
+        return jobLauncher.run(temperatureImportJob, params);
+    }
+
+    private long countRows() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM temperature_data", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(time -> time > 0)
+                .sum();
+    }
+
+    private static void recordResult(String writeMode, double rowsPerSecond, long peakHeap, long gcMillis)
+            throws IOException {
+        Properties results = Files.exists(RESULTS_FILE) ? load(Files.newInputStream(RESULTS_FILE)) : new Properties();
+        results.setProperty(writeMode + ".rows-per-second", String.valueOf(Math.round(rowsPerSecond)));
+        results.setProperty(writeMode + ".peak-heap-bytes", String.valueOf(peakHeap));
+        results.setProperty(writeMode + ".gc-millis", String.valueOf(gcMillis));
+        Files.createDirectories(RESULTS_FILE.getParent());
+        try (OutputStream out = Files.newOutputStream(RESULTS_FILE)) {
+            results.store(out, "Import throughput measured by ImportThroughputTest");
+        }
+    }
+
+    private static Properties load(InputStream in) throws IOException {
+        try (in) {
+            Properties properties = new Properties();
+            properties.load(in);
+            return properties;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.etl.throughput;
+
+import org.example.etl.reader.TemperatureFieldSetMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Writes synthetic temperature CSV files of production-like size.
+ * <p>
+ * A file holds one reading per station and interval of its time window, in time order. Every reading is either a new
+ * key, a repeat of one of the last {@value #RECENT_KEYS} rows of the same file (an intra-file duplicate, as written
+ * by a station that retransmits) or the key of the same station and position in the preceding window (a cross-run
+ * duplicate once that window has been imported). Extra columns after {@code temp} exercise the column filtering
+ * of the readers.
+ */
+public final class TemperatureDataGenerator {
+
+    private static final int RECENT_KEYS = 1024;
+
+    private TemperatureDataGenerator() {
+    }
+
+    /**
+     * Describes the content of a generated file.
+     *
+     * @param stations               number of stations
+     * @param start                  start of the time window
+     * @param span                   length of the time window
+     * @param interval               time between two readings of a station
+     * @param extraColumns           number of unused columns after {@code temp}
+     * @param duplicateRatio         share of rows repeating a recent row of the same file
+     * @param crossRunDuplicateRatio share of rows repeating a key of the preceding window
+     * @param seed                   seed of the random values
+     */
+    public record Spec(int stations, LocalDateTime start, Duration span, Duration interval, int extraColumns,
+                       double duplicateRatio, double crossRunDuplicateRatio, long seed) {
+
+        /**
+         * Returns the spec of the following window, whose cross-run duplicates repeat keys of this one.
+         */
+        public Spec next() {
+            return new Spec(stations, start.plus(span), span, interval, extraColumns, duplicateRatio,
+                    crossRunDuplicateRatio, seed + 1);
+        }
+
+        long readingsPerStation() {
+            return span.dividedBy(interval);
+        }
+    }
+
+    /**
+     * Counts of a generated file.
+     *
+     * @param rows               number of data rows
+     * @param newKeys            rows with a key of this window seen for the first time
+     * @param duplicates         rows repeating a row of the same file
+     * @param crossRunDuplicates rows with a key of the preceding window
+     */
+    public record Summary(long rows, long newKeys, long duplicates, long crossRunDuplicates) {
+    }
+
+    /**
+     * Writes a file according to the spec.
+     *
+     * @param spec the content of the file
+     * @param file the file to write
+     * @return the counts of the written rows
+     * @throws IOException if the file cannot be written
+     */
+    public static Summary write(Spec spec, Path file) throws IOException {
+        Random random = new Random(spec.seed());
+        long readings = spec.readingsPerStation();
+        long[] recentTimes = new long[RECENT_KEYS];
+        int[] recentStations = new int[RECENT_KEYS];
+        long rows = 0;
+        long newKeys = 0;
+        long duplicates = 0;
+        long crossRunDuplicates = 0;
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("name,datetime,temp");
+            for (int c = 1; c <= spec.extraColumns(); c++) {
+                writer.write(",extra" + c);
+            }
+            writer.write('\n');
+
+            StringBuilder line = new StringBuilder(128);
+            for (long time = 0; time < readings; time++) {
+                for (int station = 0; station < spec.stations(); station++) {
+                    double r = random.nextDouble();
+                    long rowTime = time;
+                    int rowStation = station;
+                    if (r < spec.duplicateRatio() && rows > 0) {
+                        int recent = random.nextInt((int) Math.min(rows, RECENT_KEYS));
+                        rowTime = recentTimes[recent];
+                        rowStation = recentStations[recent];
+                        duplicates++;
+                    } else if (r < spec.duplicateRatio() + spec.crossRunDuplicateRatio()) {
+                        rowTime = time - readings;
+                        crossRunDuplicates++;
+                    } else {
+                        newKeys++;
+                    }
+                    int slot = (int) (rows % RECENT_KEYS);
+                    recentTimes[slot] = rowTime;
+                    recentStations[slot] = rowStation;
+                    rows++;
+
+                    line.setLength(0);
+                    line.append("Station-").append(rowStation).append(',')
+                            .append(spec.start().plus(spec.interval().multipliedBy(rowTime))
+                                    .format(TemperatureFieldSetMapper.DATETIME_FORMAT))
+                            .append(',')
+                            .append(String.format(Locale.ROOT, "%.1f", random.nextGaussian() * 10 + 12));
+                    for (int c = 0; c < spec.extraColumns(); c++) {
+                        line.append(',').append(random.nextInt(1000));
+                    }
+                    line.append('\n');
+                    writer.append(line);
+                }
+            }
+        }
+        return new Summary(rows, newKeys, duplicates, crossRunDuplicates);
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.etl.writer;
+
+import org.example.etl.model.TemperatureData;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCallback;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for BulkLoadTemperatureWriter.
+ */
+class BulkLoadTemperatureWriterTest {
+
+    @Test
+    void testRendersChunkAsTabSeparatedRows() {
+        // Given
+        BulkLoadTemperatureWriter writer = new BulkLoadTemperatureWriter(mock(JdbcTemplate.class), 7);
+        Chunk<TemperatureData> chunk = new Chunk<>(
+                new TemperatureData("Location-A", LocalDateTime.of(2024, 1, 15, 10, 0, 0), 22.5),
+                new TemperatureData("Location-B", LocalDateTime.of(2024, 1, 15, 10, 30, 5), -18.3));
+
+        // When
+        String rows = new String(writer.toTsv(chunk), StandardCharsets.UTF_8);
+
+        // Then
+        assertThat(rows).isEqualTo("Location-A\t2024-01-15 10:00:00\t22.5\n"
+                + "Location-B\t2024-01-15 10:30:05\t-18.3\n");
+    }
+
+    @Test
+    void testEscapesSeparatorsInStationNames() {
+        // Given
+        BulkLoadTemperatureWriter writer = new BulkLoadTemperatureWriter(mock(JdbcTemplate.class), 7);
+        Chunk<TemperatureData> chunk = new Chunk<>(
+                new TemperatureData("North\tEast\\1\n", LocalDateTime.of(2024, 1, 15, 10, 0, 0), 1.0));
+
+        // When
+        String rows = new String(writer.toTsv(chunk), StandardCharsets.UTF_8);
+
+        // Then
+        assertThat(rows).isEqualTo("North\\tEast\\\\1\\n\t2024-01-15 10:00:00\t1.0\n");
+    }
+
+    @Test
+    void testWriteLoadsChunkInOneStatement() throws Exception {
+        // Given
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        BulkLoadTemperatureWriter writer = new BulkLoadTemperatureWriter(jdbcTemplate, 7);
+
+        // When
+        writer.write(new Chunk<>(new TemperatureData("Location-A", LocalDateTime.of(2024, 1, 15, 10, 0, 0), 22.5)));
+
+        // Then
+        verify(jdbcTemplate).execute(any(StatementCallback.class));
+    }
+}
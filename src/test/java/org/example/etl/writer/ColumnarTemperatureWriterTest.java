@@ -0,0 +1,112 @@
+package org.example.etl.writer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.etl.listener.DuplicateReport;
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
+import org.example.etl.model.TemperatureColumns;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.rollup.RollupStore;
+import org.example.etl.rollup.TemperatureRollup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ColumnarTemperatureWriter.
+ */
+class ColumnarTemperatureWriterTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 15, 10, 0, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private DuplicateSkipListener duplicateSkipListener;
+    private TemperatureColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        duplicateSkipListener = new DuplicateSkipListener(new SimpleMeterRegistry(), new DuplicateReport(5, 10, ""));
+        columns = new TemperatureColumns(10);
+        for (int i = 0; i < 3; i++) {
+            columns.add(new TemperatureData("Location-" + i, T0.plusHours(i), 20.0 + i));
+        }
+    }
+
+    @Test
+    void testBindsPrimitiveColumns() throws Exception {
+        // Given
+        when(jdbcTemplate.batchUpdate(eq(ColumnarTemperatureWriter.INSERT_IGNORE_SQL),
+                any(BatchPreparedStatementSetter.class))).thenReturn(new int[]{1, 1, 1});
+        ColumnarTemperatureWriter writer = new ColumnarTemperatureWriter(jdbcTemplate, false, duplicateSkipListener,
+                new ImportCounters(), null);
+
+        // When
+        writer.write(columns);
+
+        // Then
+        ArgumentCaptor<BatchPreparedStatementSetter> setter = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(eq(ColumnarTemperatureWriter.INSERT_IGNORE_SQL), setter.capture());
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, 1);
+        assertThat(setter.getValue().getBatchSize()).isEqualTo(3);
+        verify(ps).setString(1, "Location-1");
+        verify(ps).setLong(2, TemperatureColumns.epochSecond(T0.plusHours(1)));
+        verify(ps).setDouble(3, 21.0);
+    }
+
+    @Test
+    void testReportsDuplicatesAndAddsOnlyInsertedRowsToRollups() {
+        // Given
+        when(jdbcTemplate.batchUpdate(eq(ColumnarTemperatureWriter.UPSERT_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[]{1, 2, 0});
+        RollupStore rollupStore = mock(RollupStore.class);
+        ColumnarTemperatureWriter writer = new ColumnarTemperatureWriter(jdbcTemplate, true, duplicateSkipListener,
+                new ImportCounters(), rollupStore);
+
+        // When
+        long duplicates = writer.write(columns);
+
+        // Then
+        assertThat(duplicates).isEqualTo(2);
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(2);
+        assertThat(duplicateSkipListener.getReport().samples())
+                .containsExactly(columns.get(1), columns.get(2));
+        ArgumentCaptor<TemperatureRollup> rollup = ArgumentCaptor.forClass(TemperatureRollup.class);
+        verify(rollupStore).merge(rollup.capture());
+        assertThat(rollup.getValue().hourly()).extracting(entry -> entry.getKey().name())
+                .containsExactly("Location-0");
+        // the buckets of the updated duplicate are recomputed, those of the unchanged one are left alone
+        ArgumentCaptor<TemperatureRollup> updated = ArgumentCaptor.forClass(TemperatureRollup.class);
+        verify(rollupStore).recompute(updated.capture());
+        assertThat(updated.getValue().hourly()).extracting(entry -> entry.getKey().name())
+                .containsExactly("Location-1");
+    }
+
+    @Test
+    void testSkipsEmptyBlocks() {
+        // Given
+        ColumnarTemperatureWriter writer = new ColumnarTemperatureWriter(jdbcTemplate, false, duplicateSkipListener,
+                new ImportCounters(), null);
+
+        // When
+        long duplicates = writer.write(new TemperatureColumns(10));
+
+        // Then
+        assertThat(duplicates).isZero();
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
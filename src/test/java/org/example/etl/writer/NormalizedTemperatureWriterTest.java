@@ -0,0 +1,86 @@
+package org.example.etl.writer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.etl.listener.DuplicateReport;
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.station.StationCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for NormalizedTemperatureWriter.
+ */
+class NormalizedTemperatureWriterTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 15, 10, 0, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private StationCache stationCache;
+    private DuplicateSkipListener duplicateSkipListener;
+    private NormalizedTemperatureWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        stationCache = mock(StationCache.class);
+        when(stationCache.resolveAll(any())).thenReturn(Map.of("Location-A", 7, "Location-B", 8));
+        duplicateSkipListener = new DuplicateSkipListener(new SimpleMeterRegistry(), new DuplicateReport(5, 10, ""));
+        writer = new NormalizedTemperatureWriter(jdbcTemplate, stationCache, duplicateSkipListener,
+                new ImportCounters(), null);
+    }
+
+    @Test
+    void testBindsStationIdsResolvedOncePerChunk() throws Exception {
+        // Given
+        when(jdbcTemplate.batchUpdate(eq(NormalizedTemperatureWriter.INSERT_IGNORE_SQL),
+                any(BatchPreparedStatementSetter.class))).thenReturn(new int[]{1, 1, 1});
+
+        // When
+        writer.write(Chunk.of(new TemperatureData("Location-A", T0, 22.5),
+                new TemperatureData("Location-B", T0, 18.3),
+                new TemperatureData("Location-A", T0.plusHours(1), 22.0)));
+
+        // Then
+        verify(stationCache).resolveAll(List.of("Location-A", "Location-B", "Location-A"));
+        ArgumentCaptor<BatchPreparedStatementSetter> setter = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(eq(NormalizedTemperatureWriter.INSERT_IGNORE_SQL), setter.capture());
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, 1);
+        verify(ps).setInt(1, 8);
+        verify(ps).setObject(2, T0);
+        verify(ps).setDouble(3, 18.3);
+        assertThat(duplicateSkipListener.getSkipCount()).isZero();
+    }
+
+    @Test
+    void testCountsIgnoredRowsAsDuplicates() throws Exception {
+        // Given
+        when(jdbcTemplate.batchUpdate(eq(NormalizedTemperatureWriter.INSERT_IGNORE_SQL),
+                any(BatchPreparedStatementSetter.class))).thenReturn(new int[]{1, 0});
+
+        // When
+        writer.write(Chunk.of(new TemperatureData("Location-A", T0, 22.5),
+                new TemperatureData("Location-A", T0, 22.6)));
+
+        // Then
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(1);
+    }
+}
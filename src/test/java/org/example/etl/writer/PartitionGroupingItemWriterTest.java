@@ -0,0 +1,53 @@
+package org.example.etl.writer;
+
+import org.example.etl.model.TemperatureData;
+import org.example.etl.storage.PartitionGranularity;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ItemWriter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PartitionGroupingItemWriter.
+ */
+class PartitionGroupingItemWriterTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 15, 10, 0, 0);
+
+    private final List<List<TemperatureData>> writes = new ArrayList<>();
+    private final ItemWriter<TemperatureData> delegate = chunk -> writes.add(new ArrayList<>(chunk.getItems()));
+
+    @Test
+    void testWritesEachPartitionSeparatelyOldestFirst() throws Exception {
+        // Given
+        PartitionGroupingItemWriter writer = new PartitionGroupingItemWriter(delegate, PartitionGranularity.MONTHLY);
+        TemperatureData february = new TemperatureData("Location-A", T0.plusMonths(1), 21.0);
+        TemperatureData januaryA = new TemperatureData("Location-A", T0, 22.5);
+        TemperatureData januaryB = new TemperatureData("Location-B", T0.plusDays(3), 18.3);
+
+        // When
+        writer.write(Chunk.of(february, januaryA, januaryB));
+
+        // Then
+        assertThat(writes).containsExactly(List.of(januaryA, januaryB), List.of(february));
+    }
+
+    @Test
+    void testPassesChunkOfOnePartitionOn() throws Exception {
+        // Given
+        PartitionGroupingItemWriter writer = new PartitionGroupingItemWriter(delegate, PartitionGranularity.DAILY);
+        TemperatureData morning = new TemperatureData("Location-A", T0, 22.5);
+        TemperatureData evening = new TemperatureData("Location-A", T0.plusHours(10), 19.0);
+
+        // When
+        writer.write(Chunk.of(morning, evening));
+
+        // Then
+        assertThat(writes).containsExactly(List.of(morning, evening));
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.etl.writer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.etl.listener.DuplicateReport;
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.sharding.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ShardedTemperatureWriter.
+ */
+class ShardedTemperatureWriterTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 15, 10, 0, 0);
+
+    private JdbcTemplate shard0;
+    private JdbcTemplate shard1;
+    private ShardRouter shardRouter;
+    private DuplicateSkipListener duplicateSkipListener;
+    private ImportCounters importCounters;
+
+    @BeforeEach
+    void setUp() {
+        shard0 = mock(JdbcTemplate.class);
+        shard1 = mock(JdbcTemplate.class);
+        shardRouter = new ShardRouter(List.of(shard("shard-0", shard0), shard("shard-1", shard1)));
+        duplicateSkipListener = new DuplicateSkipListener(new SimpleMeterRegistry(), new DuplicateReport(5, 10, ""));
+        importCounters = new ImportCounters();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        shardRouter.close();
+    }
+
+    @Test
+    void testWritesEachStationToItsShardAndCountsPerShard() throws Exception {
+        // Given: two rows of a station on shard 0, one row of a station on shard 1, which is a duplicate
+        String station0 = station(0);
+        String station1 = station(1);
+        when(shard0.batchUpdate(eq(UpsertTemperatureWriter.INSERT_IGNORE_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[]{1, 1});
+        when(shard1.batchUpdate(eq(UpsertTemperatureWriter.INSERT_IGNORE_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[]{0});
+        ShardedTemperatureWriter writer = new ShardedTemperatureWriter(shardRouter, false, duplicateSkipListener,
+                importCounters, false);
+
+        // When
+        writer.write(Chunk.of(
+                new TemperatureData(station0, T0, 22.5),
+                new TemperatureData(station1, T0, 18.3),
+                new TemperatureData(station0, T0.plusHours(1), 23.1)));
+
+        // Then
+        assertThat(importCounters.getShardCounts()).containsExactly(
+                Map.entry("shard-0", new ImportCounters.ShardCounts(2, 0)),
+                Map.entry("shard-1", new ImportCounters.ShardCounts(0, 1)));
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(1);
+        assertThat(duplicateSkipListener.getReport().samples()).extracting(TemperatureData::name)
+                .containsExactly(station1);
+    }
+
+    @Test
+    void testSkipsShardsWithoutRows() throws Exception {
+        // Given
+        when(shard0.batchUpdate(eq(UpsertTemperatureWriter.UPSERT_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[]{1});
+        ShardedTemperatureWriter writer = new ShardedTemperatureWriter(shardRouter, true, duplicateSkipListener,
+                importCounters, true);
+
+        // When
+        writer.write(Chunk.of(new TemperatureData(station(0), T0, 22.5)));
+
+        // Then: the inserted row is added to the hourly and daily rollups of its shard
+        verify(shard1, never()).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        verify(shard0, times(2)).batchUpdate(anyString(), anyList());
+        verify(shard1, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void testRecordsNothingWhenAShardFailsAndDoesNotCountItsOwnRowsOnRetry() throws Exception {
+        // Given: shard 1 fails on the first write and recovers for the retry
+        when(shard0.batchUpdate(eq(UpsertTemperatureWriter.INSERT_IGNORE_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[]{1});
+        when(shard1.batchUpdate(eq(UpsertTemperatureWriter.INSERT_IGNORE_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("shard-1 is down"))
+                .thenReturn(new int[]{1});
+        ShardedTemperatureWriter writer = new ShardedTemperatureWriter(shardRouter, false, duplicateSkipListener,
+                importCounters, false);
+        Chunk<TemperatureData> chunk = Chunk.of(
+                new TemperatureData(station(0), T0, 22.5),
+                new TemperatureData(station(1), T0, 18.3));
+
+        // When / Then: the failed write records no counts
+        assertThatThrownBy(() -> writer.write(chunk)).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(importCounters.getShardCounts()).isEmpty();
+        assertThat(duplicateSkipListener.getSkipCount()).isZero();
+
+        // When: the chunk is retried
+        writer.write(chunk);
+
+        // Then: the row shard 0 committed is not sent again and counts as inserted, not as a duplicate
+        verify(shard0, times(1)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        assertThat(importCounters.getShardCounts()).containsExactly(
+                Map.entry("shard-0", new ImportCounters.ShardCounts(1, 0)),
+                Map.entry("shard-1", new ImportCounters.ShardCounts(1, 0)));
+        assertThat(duplicateSkipListener.getSkipCount()).isZero();
+    }
+
+    private String station(int shard) {
+        for (int i = 0; ; i++) {
+            String name = "Location-" + i;
+            if (shardRouter.shardOf(name) == shard) {
+                return name;
+            }
+        }
+    }
+
+    private static ShardRouter.Shard shard(String name, JdbcTemplate jdbcTemplate) {
+        return new ShardRouter.Shard(name, mock(DataSource.class), jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.etl.writer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.etl.listener.DuplicateReport;
+import org.example.etl.listener.DuplicateSkipListener;
+import org.example.etl.listener.ImportCounters;
+import org.example.etl.model.TemperatureData;
+import org.example.etl.rollup.RollupStore;
+import org.example.etl.rollup.TemperatureRollup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for UpsertTemperatureWriter.
+ */
+class UpsertTemperatureWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DuplicateSkipListener duplicateSkipListener;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        duplicateSkipListener = new DuplicateSkipListener(new SimpleMeterRegistry(), new DuplicateReport(5, 10, ""));
+    }
+
+    @Test
+    void testInsertIgnoreCountsZeroUpdateCountsAsDuplicates() throws Exception {
+        // Given
+        when(jdbcTemplate.batchUpdate(eq(UpsertTemperatureWriter.INSERT_IGNORE_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[]{1, 0, 1, 0});
+        UpsertTemperatureWriter writer = new UpsertTemperatureWriter(jdbcTemplate, false, duplicateSkipListener,
+                new ImportCounters());
+
+        // When
+        writer.write(chunk(4));
+
+        // Then
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testUpsertCountsUpdatedRowsAsDuplicates() throws Exception {
+        // Given
+        when(jdbcTemplate.batchUpdate(eq(UpsertTemperatureWriter.UPSERT_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[]{1, 2, 0});
+        UpsertTemperatureWriter writer = new UpsertTemperatureWriter(jdbcTemplate, true, duplicateSkipListener,
+                new ImportCounters());
+
+        // When
+        writer.write(chunk(3));
+
+        // Then
+        assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(2);
+        verify(jdbcTemplate).batchUpdate(eq(UpsertTemperatureWriter.UPSERT_SQL), any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    void testFailsIfTheDriverReturnsNoUpdateCounts() {
+        // Given
+        when(jdbcTemplate.batchUpdate(eq(UpsertTemperatureWriter.INSERT_IGNORE_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+        UpsertTemperatureWriter writer = new UpsertTemperatureWriter(jdbcTemplate, false, duplicateSkipListener,
+                new ImportCounters());
+
+        // When / Then
+        assertThatThrownBy(() -> writer.write(chunk(2)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("rewriteBatchedStatements");
+        assertThat(duplicateSkipListener.getSkipCount()).isZero();
+    }
+
+    @Test
+    void testRecordsDuplicatesOnlyOnceTheChunkHasCommitted() throws Exception {
+        // Given
+        when(jdbcTemplate.batchUpdate(eq(UpsertTemperatureWriter.INSERT_IGNORE_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[]{1, 0, 0});
+        UpsertTemperatureWriter writer = new UpsertTemperatureWriter(jdbcTemplate, false, duplicateSkipListener,
+                new ImportCounters());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            writer.write(chunk(3));
+
+            // Then: nothing is recorded for a chunk that may still roll back
+            assertThat(duplicateSkipListener.getSkipCount()).isZero();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(duplicateSkipListener.getSkipCount()).isEqualTo(2);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testAddsOnlyInsertedRowsToRollups() throws Exception {
+        // Given
+        when(jdbcTemplate.batchUpdate(eq(UpsertTemperatureWriter.UPSERT_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[]{1, 2, 0, 1});
+        RollupStore rollupStore = mock(RollupStore.class);
+        UpsertTemperatureWriter writer = new UpsertTemperatureWriter(jdbcTemplate, true, duplicateSkipListener,
+                new ImportCounters(), rollupStore);
+
+        // When
+        writer.write(chunk(4));
+
+        // Then: updated and unchanged duplicates are left out, and the buckets of the updated one are recomputed
+        ArgumentCaptor<TemperatureRollup> rollup = ArgumentCaptor.forClass(TemperatureRollup.class);
+        verify(rollupStore).merge(rollup.capture());
+        assertThat(rollup.getValue().hourly()).extracting(entry -> entry.getKey().name())
+                .containsExactly("Location-0", "Location-3");
+        ArgumentCaptor<TemperatureRollup> updated = ArgumentCaptor.forClass(TemperatureRollup.class);
+        verify(rollupStore).recompute(updated.capture());
+        assertThat(updated.getValue().hourly()).extracting(entry -> entry.getKey().name())
+                .containsExactly("Location-1");
+    }
+
+    private Chunk<TemperatureData> chunk(int size) {
+        Chunk<TemperatureData> chunk = new Chunk<>();
+        for (int i = 0; i < size; i++) {
+            chunk.add(new TemperatureData("Location-" + i, LocalDateTime.of(2024, 1, 15, 10, 0, 0), 20.0 + i));
+        }
+        return chunk;
+    }
+}